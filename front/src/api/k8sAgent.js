@@ -16,14 +16,16 @@ export async function getK8sAgentStatus(nsId, clusterId) {
   return res.data?.data || [];
 }
 
+// Cluster-wide install/uninstall answer 202 with { topic, nodes } right away; each node's
+// result arrives on the STOMP topic as the background rollout reaches it.
 export async function installK8sAgent(nsId, clusterId) {
   const res = await client.post(`/api/o11y/monitoring/k8s/${nsId}/${clusterId}/agent`);
-  return res.data?.data || [];
+  return res.data?.data;
 }
 
 export async function uninstallK8sAgent(nsId, clusterId) {
   const res = await client.delete(`/api/o11y/monitoring/k8s/${nsId}/${clusterId}/agent`);
-  return res.data?.data || [];
+  return res.data?.data;
 }
 
 // Per-node operations (like VM nodes).
@@ -0,0 +1,38 @@
+package com.mcmp.o11ymanager.manager.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Configuration for the in-memory cache of live agent service states ({@code systemctl
+ * is-active}).
+ *
+ * <p>The node list and the {@code /nodes} STOMP topic are polled continuously by the UI; serving
+ * them from this cache keeps remote command execution down to the background refresh.
+ */
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "agent-status.cache")
+public class AgentStatusCacheProperties {
+
+    /** When disabled every read probes the node, as before. */
+    private boolean enabled = true;
+
+    /**
+     * Cadence of the background refresh of every cached state. Read by {@code @Scheduled} as
+     * {@code agent-status.cache.refresh-interval-ms}.
+     */
+    private long refreshIntervalMs = 30_000L;
+
+    /** A read older than this is still answered from cache but triggers a refresh of the node. */
+    private long staleAfterSeconds = 60L;
+
+    /** States nobody has read for this long are dropped instead of refreshed. */
+    private long idleExpireSeconds = 600L;
+
+    /** Threads running background refreshes, off the shared scheduler thread. */
+    private int refreshThreads = 2;
+}
@@ -40,12 +40,15 @@ public class CspCacheProperties {
         private boolean enabled = true;
 
         /**
-         * Worker thread count for parallel warming. Each warm tick submits (VMs + K8s nodes) ×
-         * metric × range tasks that call cb-spider; bigger pool → faster overall warm, bounded
-         * cb-spider concurrency.
+         * Maximum concurrent cb-spider calls of one warm job. Each warm tick submits (VMs + K8s
+         * nodes) × metric × range tasks; the shared warm runner lowers the effective concurrency
+         * below this when cb-spider slows down.
          */
         private int threadPoolSize = 30;
 
+        /** Maximum number of cb-spider calls per warm tick; shorter ranges are served first. */
+        private int queryBudget = 1000;
+
         /**
          * Maximum number of recently-created VMs (per namespace) to warm on each tick. Older VMs
          * are left to load on-demand.
@@ -0,0 +1,43 @@
+package com.mcmp.o11ymanager.manager.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Configuration for the shared, long-lived InfluxDB client registry.
+ *
+ * <p>One HTTP client is kept per configured InfluxDB server and reused by every query, so metric
+ * requests no longer pay a fresh OkHttp client, TCP handshake and dispatcher setup per call.
+ */
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "influxdb.client")
+public class InfluxClientProperties {
+
+    /** Maximum number of idle keep-alive connections held in the shared pool (all servers). */
+    private int maxIdleConnections = 32;
+
+    /** How long an idle pooled connection is kept before being closed. */
+    private long keepAliveSeconds = 300L;
+
+    /** TCP connect timeout per request. */
+    private long connectTimeoutMs = 5_000L;
+
+    /** Read timeout per request. Long-range queries against the raw DB can be slow. */
+    private long readTimeoutMs = 60_000L;
+
+    /** Interval at which the registry re-reads the {@code influx} table to drop stale clients. */
+    private long refreshIntervalMs = 60_000L;
+
+    /** Worker threads for queries fanned out to every server (tags, fields, VM discovery). */
+    private int scatterThreads = 16;
+
+    /**
+     * Deadline for a fan-out across all servers. Servers that haven't answered by then are left
+     * out of the result.
+     */
+    private long scatterTimeoutMs = 3_000L;
+}
@@ -0,0 +1,35 @@
+package com.mcmp.o11ymanager.manager.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Configuration for cluster-wide K8s node agent rollouts (install/uninstall on every node).
+ *
+ * <p>Node Jobs run in parallel, at most {@code max-in-flight} per rollout. With {@code wave-size}
+ * set, nodes are processed in waves and a wave starts only after the previous one has finished. A
+ * rollout whose failure ratio reaches {@code abort-error-ratio} stops starting new nodes.
+ */
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "k8s.rollout")
+public class K8sRolloutProperties {
+
+    /** Node Jobs running at once within one rollout. */
+    private int maxInFlight = 10;
+
+    /** Nodes per wave; 0 runs the whole cluster as one wave. */
+    private int waveSize = 0;
+
+    /** Threads shared by all rollouts; further node Jobs queue. */
+    private int maxThreads = 32;
+
+    /** Failed / finished nodes ratio that aborts the rollout; 0 never aborts. */
+    private double abortErrorRatio = 0.5;
+
+    /** Finished nodes required before the error ratio is evaluated. */
+    private int abortMinCompleted = 3;
+}
@@ -30,19 +30,126 @@ public class MonitoringCacheProperties {
     /** Entry TTL after write. Defaults to 7 days per the spec. */
     private long expireAfterWriteSeconds = 7L * 24L * 3600L;
 
-    /** Estimated bytes per cached time-series data point (used by the weigher). */
+    /**
+     * Estimated bytes per cached data point whose values can't be stored as primitives (strings,
+     * mixed types). Numeric and timestamp columns are weighed by their actual array size.
+     */
     private int estimatedBytesPerPoint = 200;
 
+    /**
+     * When a bucket rolls over, extend the previous bucket's entry with a {@code time >= newest}
+     * query instead of re-reading the whole range.
+     */
+    private boolean incrementalEnabled = true;
+
+    /**
+     * Maximum number of sub-queries accepted by one batch metric request. Larger batches are
+     * rejected with 400 rather than sent as one oversized multi-statement InfluxQL query. The
+     * default leaves room for every chart of the NS/MCI overview.
+     */
+    private int maxBatchQueries = 50;
+
+    /** Active-VM discovery shared by the cache warmers. */
+    private Discovery discovery = new Discovery();
+
+    /** Request-frequency tracking that decides which VMs the warmers pre-load first. */
+    private Access access = new Access();
+
+    /** Request shapes learned from the UI and replayed by the warmers. */
+    private Learning learning = new Learning();
+
     /** Periodic cache-warming configuration. */
     private Warm warm = new Warm();
 
+    /** InfluxDB metadata (retention policy / series presence) cache configuration. */
+    private Metadata metadata = new Metadata();
+
+    @Getter
+    @Setter
+    public static class Metadata {
+        /** Whether metadata lookups are cached. */
+        private boolean enabled = true;
+
+        /** Maximum number of cached metadata facts. */
+        private long maxSize = 50_000L;
+
+        /** TTL for the default retention policy of a (url, database). */
+        private long retentionPolicyTtlSeconds = 600L;
+
+        /** TTL for a positive "series exists for this tag tuple" fact. */
+        private long seriesPresentTtlSeconds = 600L;
+
+        /**
+         * TTL for a negative "no series yet" fact. Kept short so a freshly installed agent's data
+         * shows up within a minute.
+         */
+        private long seriesAbsentTtlSeconds = 60L;
+
+        /** TTL for a server's {@code SHOW TAG KEYS} / {@code SHOW FIELD KEYS} result. */
+        private long schemaTtlSeconds = 60L;
+    }
+
+    @Getter
+    @Setter
+    public static class Discovery {
+        /** A VM counts as active when it wrote {@code cpu} series within this window. */
+        private String window = "7d";
+
+        /** Short window queried between full refreshes to pick up newly reporting VMs. */
+        private String incrementalWindow = "10m";
+
+        /** Minimum age of the known VM set before it is refreshed incrementally. */
+        private long refreshIntervalSeconds = 60L;
+
+        /**
+         * Interval of the full-window refresh, which also drops VMs that stopped reporting. One
+         * hour keeps it off the per-minute warm path.
+         */
+        private long fullRefreshIntervalSeconds = 3600L;
+    }
+
+    @Getter
+    @Setter
+    public static class Access {
+        /** Whether cache lookups are counted. When off, warmers fall back to createdTime order. */
+        private boolean enabled = true;
+
+        /** Counters per count-min sketch row (rounded up to a power of two). */
+        private int sketchWidth = 8192;
+
+        /**
+         * All counters are halved once per interval, so demand seen an hour ago weighs half as much
+         * as demand seen now.
+         */
+        private long decayIntervalSeconds = 3600L;
+    }
+
+    @Getter
+    @Setter
+    public static class Learning {
+        /** Whether request shapes are recorded and replayed instead of the measurement matrix. */
+        private boolean enabled = true;
+
+        /** Maximum number of distinct request shapes kept; the least requested is dropped. */
+        private int maxSignatures = 200;
+
+        /** Learned shapes replayed per VM and job, most requested first. */
+        private int signaturesPerVm = 10;
+
+        /** Shapes not requested for this many days are forgotten. */
+        private int retentionDays = 7;
+    }
+
     @Getter
     @Setter
     public static class Warm {
         /** Whether any periodic warming is enabled. */
         private boolean enabled = true;
 
-        /** Maximum number of recently-created VMs to warm per run. */
+        /**
+         * Maximum number of recently-created VMs without observed demand to warm per run. VMs
+         * users actually requested are warmed first, up to the job's query budget.
+         */
         private int topN = 10;
 
         /** Realtime warming — short-range queries (raw DB) refreshed every minute. */
@@ -84,12 +191,15 @@ public class MonitoringCacheProperties {
         /** Spring cron expression. */
         private String cron;
 
-        /** Number of worker threads for parallel warming. */
+        /** Maximum warm queries of this job in flight; the warm runner may allow fewer. */
         private int threadPoolSize;
 
         /** (range, group_time) combinations to pre-load on each tick. */
         private List<RangeSpec> ranges;
 
+        /** Maximum number of warm queries issued per tick, spent on the most requested first. */
+        private int queryBudget = 500;
+
         public Job() {}
 
         public Job(String cron, int threadPoolSize, List<RangeSpec> ranges) {
@@ -106,6 +216,9 @@ public class MonitoringCacheProperties {
         private String cron = "0 * * * * *";
         private int threadPoolSize = 10;
 
+        /** Maximum number of warm queries issued per tick, spent on the most requested first. */
+        private int queryBudget = 100;
+
         /** One entry per chart the overview renders. Defaults mirror the frontend NS/MCI view. */
         private List<OverviewQuery> queries =
                 List.of(
@@ -0,0 +1,27 @@
+package com.mcmp.o11ymanager.manager.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Configuration for the per-node fan-out behind the node list endpoints (one {@code getVM} per
+ * node).
+ *
+ * <p>All fan-outs share one concurrency limit; each call also has a deadline after which nodes
+ * that haven't answered are reported with an {@code UNKNOWN} status instead of holding up the
+ * response.
+ */
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "node.fan-out")
+public class NodeFanOutProperties {
+
+    /** Node lookups running at once across the whole server. */
+    private int maxConcurrency = 32;
+
+    /** Time budget of one fan-out, including the wait for a free slot. */
+    private long deadlineMs = 10_000L;
+}
@@ -0,0 +1,37 @@
+package com.mcmp.o11ymanager.manager.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Configuration for the server-push node status topics ({@code /topic/nodes/{nsId}/{infraId}}).
+ *
+ * <p>Node lists are recomputed once per MCI that has subscribers, on a poll or when the agent
+ * status cache reports a change, and only the nodes that changed are pushed.
+ */
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "node-status.push")
+public class NodeStatusPushProperties {
+
+    /** When disabled nothing is pushed; subscribers still receive the snapshot. */
+    private boolean enabled = true;
+
+    /**
+     * Cadence at which every watched MCI is recomputed even without a change signal. Read by
+     * {@code @Scheduled} as {@code node-status.push.poll-interval-ms}.
+     */
+    private long pollIntervalMs = 10_000L;
+
+    /**
+     * Window in which change signals for one MCI are merged into a single recompute and push.
+     * Read by {@code @Scheduled} as {@code node-status.push.coalesce-ms}.
+     */
+    private long coalesceMs = 500L;
+
+    /** Minimum age of the full node list returned to {@code /app/nodes} before recomputing. */
+    private long allNodesMinAgeMs = 10_000L;
+}
@@ -0,0 +1,34 @@
+package com.mcmp.o11ymanager.manager.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Configuration for batched remote commands, i.e. one script run on many hosts at once.
+ *
+ * <p>All batches share one parallelism cap; each host additionally has its own timeout, so a hung
+ * host is reported as timed out instead of holding up the rest of the batch.
+ */
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "ssh.batch")
+public class SshBatchProperties {
+
+    /** Hosts running a batched command at once across the whole server. */
+    private int maxConcurrency = 64;
+
+    /**
+     * Time one host may take from the moment a batch thread picks it up: connect, authentication,
+     * the wait for a free channel and the script itself.
+     */
+    private long hostTimeoutMs = 60_000L;
+
+    /**
+     * Upper bound of a whole batch. Hosts still queued or running when it passes are reported as
+     * timed out.
+     */
+    private long batchTimeoutMs = 600_000L;
+}
@@ -0,0 +1,44 @@
+package com.mcmp.o11ymanager.manager.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Configuration for the pool of authenticated SSH sessions, one per {@code ip:port:user}.
+ *
+ * <p>Sessions are kept alive with SSH heartbeats, reconnected in the background when they drop,
+ * and closed after {@code idle-timeout-ms} without use. Each session multiplexes at most {@code
+ * channels-per-session} exec/SFTP channels; callers beyond that wait for a free channel.
+ */
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "ssh.pool")
+public class SshPoolProperties {
+
+    /** Concurrent channels on one session, i.e. per host. Keep under sshd's MaxSessions (10). */
+    private int channelsPerSession = 8;
+
+    /** How long a caller waits for a free channel before failing. */
+    private long channelWaitMs = 10_000L;
+
+    /** Sessions unused for this long are closed instead of kept alive. */
+    private long idleTimeoutMs = 120_000L;
+
+    /** Interval of SSH keep-alive requests on every open session. */
+    private long heartbeatIntervalMs = 15_000L;
+
+    /** Unanswered keep-alives after which the session is considered dead and closed. */
+    private int heartbeatNoReplyMax = 3;
+
+    /**
+     * Cadence of the sweep that closes idle sessions and reconnects dropped ones. Read by the
+     * {@code @Scheduled} sweep as {@code ssh.pool.maintenance-interval-ms}.
+     */
+    private long maintenanceIntervalMs = 30_000L;
+
+    /** Attempts of one remote command; dropped sessions are reconnected between attempts. */
+    private int commandAttempts = 2;
+}
@@ -0,0 +1,61 @@
+package com.mcmp.o11ymanager.manager.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Configuration for the Tumblebug gateway that every {@code TumblebugPort} caller goes through.
+ *
+ * <p>cb-tumblebug answers 429 after a few back-to-back reads, so calls are paced by one token
+ * bucket for the whole application, and node/infra/SSH-key reads are briefly cached.
+ */
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "tumblebug.gateway")
+public class TumblebugGatewayProperties {
+
+    /** Application-wide request rate limit. */
+    private RateLimit rateLimit = new RateLimit();
+
+    /** Short-lived cache of node, infra and SSH-key reads. */
+    private Cache cache = new Cache();
+
+    @Getter
+    @Setter
+    public static class RateLimit {
+        private boolean enabled = true;
+
+        /** Sustained Tumblebug calls per second. */
+        private double permitsPerSecond = 2.0;
+
+        /** Calls that may go out back to back after an idle period. */
+        private int burst = 3;
+
+        /**
+         * Longest a caller waits for a token. A call that would wait longer is not sent and fails
+         * with {@code TumblebugRateLimitException} (503), so a backlog never bursts into
+         * cb-tumblebug.
+         */
+        private long maxWaitMs = 10_000L;
+    }
+
+    @Getter
+    @Setter
+    public static class Cache {
+        private boolean enabled = true;
+
+        /** TTL of cached reads. Keep short: node status and IPs change on suspend/resume. */
+        private long ttlSeconds = 15L;
+
+        private long maxSize = 10_000L;
+
+        /**
+         * On a node cache miss, load the whole infra with one {@code getInfra} call and cache all
+         * of its nodes, so listing the nodes of one MCI costs one call instead of one per node.
+         */
+        private boolean prefetchInfraOnNodeMiss = true;
+    }
+}
@@ -0,0 +1,71 @@
+package com.mcmp.o11ymanager.manager.config;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Configuration for the warm-job runner shared by the monitoring and CSP cache warmers.
+ *
+ * <p>Every warm query runs on one pool, behind a concurrency limit per downstream system that
+ * grows while responses stay under {@code target-latency-ms} and halves when they don't (AIMD).
+ */
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "cache.warm-runner")
+public class WarmRunnerProperties {
+
+    /** Worker threads shared by all warm jobs; should cover the sum of the downstream maxima. */
+    private int threads = 48;
+
+    /**
+     * A run stops dispatching once its job's period (the gap between two ticks of its cron) minus
+     * this margin has passed, and counts the rest as skipped. A one-minute job gets 50 seconds, the
+     * hourly long-range job 59 minutes 50 seconds.
+     */
+    private long deadlineMarginSeconds = 10L;
+
+    /** Run deadline for jobs whose cron can't be parsed. */
+    private long maxRunSeconds = 50L;
+
+    /**
+     * Run deadline per job name (e.g. {@code monitoring-longrange}, {@code csp-realtime}),
+     * overriding the one derived from the job's cron.
+     */
+    private Map<String, Long> jobMaxRunSeconds = new LinkedHashMap<>();
+
+    /** Limit for warm queries against InfluxDB. */
+    private Limit influx = new Limit(4, 1, 16, 2_000L);
+
+    /** Limit for warm calls to cb-spider (and through it, the CSP monitoring APIs). */
+    private Limit spider = new Limit(4, 1, 32, 5_000L);
+
+    @Getter
+    @Setter
+    public static class Limit {
+        /** Concurrency at startup. */
+        private int initial;
+
+        /** Concurrency never drops below this, so warming keeps making progress. */
+        private int min;
+
+        /** Concurrency never grows beyond this. */
+        private int max;
+
+        /** Responses slower than this (or failures) halve the limit. */
+        private long targetLatencyMs;
+
+        public Limit() {}
+
+        public Limit(int initial, int min, int max, long targetLatencyMs) {
+            this.initial = initial;
+            this.min = min;
+            this.max = max;
+            this.targetLatencyMs = targetLatencyMs;
+        }
+    }
+}
@@ -2,19 +2,32 @@ package com.mcmp.o11ymanager.manager.controller;
 
 import com.mcmp.o11ymanager.manager.dto.influx.FieldDTO;
 import com.mcmp.o11ymanager.manager.dto.influx.InfluxDTO;
-import com.mcmp.o11ymanager.manager.dto.influx.MetricDTO;
 import com.mcmp.o11ymanager.manager.dto.influx.MetricRequestDTO;
 import com.mcmp.o11ymanager.manager.dto.influx.TagDTO;
 import com.mcmp.o11ymanager.manager.facade.InfluxDbFacadeService;
 import com.mcmp.o11ymanager.manager.global.vm.ResBody;
+import com.mcmp.o11ymanager.manager.mapper.influx.MetricJsonWriter;
+import com.mcmp.o11ymanager.manager.service.InfluxClientRegistry;
+import com.mcmp.o11ymanager.manager.service.InfluxScatterGather;
+import com.mcmp.o11ymanager.manager.service.cache.ActiveVmDiscovery;
+import com.mcmp.o11ymanager.manager.service.cache.InfluxMetadataCache;
+import com.mcmp.o11ymanager.manager.service.cache.InfluxRoutingTable;
 import com.mcmp.o11ymanager.manager.service.cache.MonitoringCacheService;
 import com.mcmp.o11ymanager.manager.service.cache.MonitoringCacheWarmScheduler;
+import com.mcmp.o11ymanager.manager.service.cache.RequestSignatureLearner;
+import com.mcmp.o11ymanager.manager.service.cache.WarmJobRunner;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -22,6 +35,7 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 @RestController
 @RequiredArgsConstructor
@@ -31,6 +45,14 @@ public class InfluxDBController {
 
     private final InfluxDbFacadeService influxDbFacadeService;
     private final MonitoringCacheService monitoringCacheService;
+    private final InfluxClientRegistry influxClientRegistry;
+    private final InfluxScatterGather influxScatterGather;
+    private final InfluxMetadataCache influxMetadataCache;
+    private final InfluxRoutingTable influxRoutingTable;
+    private final ActiveVmDiscovery activeVmDiscovery;
+    private final RequestSignatureLearner requestSignatureLearner;
+    private final WarmJobRunner warmJobRunner;
+    private final MetricJsonWriter metricJsonWriter;
     private final org.springframework.beans.factory.ObjectProvider<MonitoringCacheWarmScheduler>
             monitoringCacheWarmScheduler;
 
@@ -66,13 +88,21 @@ public class InfluxDBController {
             summary = "GetMetricsByNsIdAndInfraId",
             operationId = "GetMetricsByNsIdAndInfraId",
             description = "Retrieve InfluxDB metrics")
-    public ResBody<List<MetricDTO>> MetricByNsIdAndInfraId(
+    @ApiResponse(
+            responseCode = "200",
+            description = "OK",
+            content =
+                    @Content(
+                            mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            schema = @Schema(implementation = MetricJsonWriter.MetricsBody.class)))
+    public ResponseEntity<StreamingResponseBody> MetricByNsIdAndInfraId(
             @Parameter(description = "nsId (e.g., ns-1)", example = "ns-1") @PathVariable
                     String nsId,
             @Parameter(description = "infraId (e.g., infra-1)", example = "infra-1") @PathVariable
                     String infraId,
             @RequestBody MetricRequestDTO req) {
-        return new ResBody<>(influxDbFacadeService.postMetricsByNsMci(nsId, infraId, req));
+        requestSignatureLearner.observe(req);
+        return metricJsonWriter.ok(influxDbFacadeService.postMetricsByNsMci(nsId, infraId, req));
     }
 
     @PostMapping("/metric/{nsId}/{infraId}/{nodeId}")
@@ -80,7 +110,14 @@ public class InfluxDBController {
             summary = "GetMetricsByVMId",
             operationId = "GetMetricsByVMId",
             description = "Retrieve InfluxDB metrics")
-    public ResBody<List<MetricDTO>> MetricByVMId(
+    @ApiResponse(
+            responseCode = "200",
+            description = "OK",
+            content =
+                    @Content(
+                            mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            schema = @Schema(implementation = MetricJsonWriter.MetricsBody.class)))
+    public ResponseEntity<StreamingResponseBody> MetricByVMId(
             @Parameter(description = "nsId (e.g., ns-1)", example = "ns-1") @PathVariable
                     String nsId,
             @Parameter(description = "infraId (e.g., infra-1)", example = "infra-1") @PathVariable
@@ -88,7 +125,71 @@ public class InfluxDBController {
             @Parameter(description = "nodeId (e.g., node-1)", example = "node-1") @PathVariable
                     String nodeId,
             @RequestBody MetricRequestDTO req) {
-        return new ResBody<>(influxDbFacadeService.postMetricsByVM(nsId, infraId, nodeId, req));
+        requestSignatureLearner.observe(req);
+        return metricJsonWriter.ok(
+                influxDbFacadeService.postMetricsByVM(nsId, infraId, nodeId, req));
+    }
+
+    @PostMapping("/metrics/{nsId}/{infraId}")
+    @Operation(
+            summary = "GetMetricsBatchByNsIdAndInfraId",
+            operationId = "GetMetricsBatchByNsIdAndInfraId",
+            description =
+                    "Retrieve several InfluxDB metric queries for one MCI in a single call."
+                            + " data holds one series array per request, in request order")
+    @ApiResponse(
+            responseCode = "200",
+            description = "OK",
+            content =
+                    @Content(
+                            mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            schema =
+                                    @Schema(
+                                            implementation =
+                                                    MetricJsonWriter.MetricsBatchBody.class)))
+    public ResponseEntity<StreamingResponseBody> MetricsBatchByNsIdAndInfraId(
+            @Parameter(description = "nsId (e.g., ns-1)", example = "ns-1") @PathVariable
+                    String nsId,
+            @Parameter(description = "infraId (e.g., infra-1)", example = "infra-1") @PathVariable
+                    String infraId,
+            @RequestBody List<MetricRequestDTO> reqs) {
+        if (reqs != null) {
+            reqs.forEach(requestSignatureLearner::observe);
+        }
+        return metricJsonWriter.okBatch(
+                influxDbFacadeService.postMetricsBatchByNsMci(nsId, infraId, reqs));
+    }
+
+    @PostMapping("/metrics/{nsId}/{infraId}/{nodeId}")
+    @Operation(
+            summary = "GetMetricsBatchByVMId",
+            operationId = "GetMetricsBatchByVMId",
+            description =
+                    "Retrieve several InfluxDB metric queries for one VM in a single call."
+                            + " data holds one series array per request, in request order")
+    @ApiResponse(
+            responseCode = "200",
+            description = "OK",
+            content =
+                    @Content(
+                            mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            schema =
+                                    @Schema(
+                                            implementation =
+                                                    MetricJsonWriter.MetricsBatchBody.class)))
+    public ResponseEntity<StreamingResponseBody> MetricsBatchByVMId(
+            @Parameter(description = "nsId (e.g., ns-1)", example = "ns-1") @PathVariable
+                    String nsId,
+            @Parameter(description = "infraId (e.g., infra-1)", example = "infra-1") @PathVariable
+                    String infraId,
+            @Parameter(description = "nodeId (e.g., node-1)", example = "node-1") @PathVariable
+                    String nodeId,
+            @RequestBody List<MetricRequestDTO> reqs) {
+        if (reqs != null) {
+            reqs.forEach(requestSignatureLearner::observe);
+        }
+        return metricJsonWriter.okBatch(
+                influxDbFacadeService.postMetricsBatchByVM(nsId, infraId, nodeId, reqs));
     }
 
     @GetMapping("/cache/stats")
@@ -97,7 +198,21 @@ public class InfluxDBController {
             operationId = "GetMonitoringCacheStats",
             description = "Retrieve in-memory monitoring metric cache statistics")
     public ResBody<Map<String, Object>> cacheStats() {
-        return new ResBody<>(monitoringCacheService.stats());
+        Map<String, Object> stats = new LinkedHashMap<>(monitoringCacheService.stats());
+        stats.put("learning", requestSignatureLearner.stats());
+        stats.put("warm", warmJobRunner.stats());
+        return new ResBody<>(stats);
+    }
+
+    @GetMapping("/client/stats")
+    @Operation(
+            summary = "GetInfluxClientStats",
+            operationId = "GetInfluxClientStats",
+            description = "Retrieve pooled InfluxDB client connection and in-flight statistics")
+    public ResBody<Map<String, Object>> clientStats() {
+        Map<String, Object> stats = new LinkedHashMap<>(influxClientRegistry.stats());
+        stats.put("scatter", influxScatterGather.stats());
+        return new ResBody<>(stats);
     }
 
     @DeleteMapping("/cache")
@@ -110,6 +225,33 @@ public class InfluxDBController {
         return new ResBody<>("ok");
     }
 
+    @GetMapping("/metadata/cache/stats")
+    @Operation(
+            summary = "GetInfluxMetadataCacheStats",
+            operationId = "GetInfluxMetadataCacheStats",
+            description =
+                    "Retrieve retention-policy / series-presence cache, routing table and VM"
+                            + " discovery statistics")
+    public ResBody<Map<String, Object>> metadataCacheStats() {
+        return new ResBody<>(
+                Map.of(
+                        "metadata", influxMetadataCache.stats(),
+                        "routing", influxRoutingTable.stats(),
+                        "discovery", activeVmDiscovery.stats()));
+    }
+
+    @DeleteMapping("/metadata/cache")
+    @Operation(
+            summary = "InvalidateInfluxMetadataCache",
+            operationId = "InvalidateInfluxMetadataCache",
+            description =
+                    "Invalidate cached retention policies and series-presence facts (e.g. after"
+                            + " changing retention policies or the downsampling pipeline)")
+    public ResBody<String> invalidateMetadataCache() {
+        influxMetadataCache.invalidateAll();
+        return new ResBody<>("ok");
+    }
+
     @PostMapping("/cache/warm")
     @Operation(
             summary = "WarmMonitoringCache",
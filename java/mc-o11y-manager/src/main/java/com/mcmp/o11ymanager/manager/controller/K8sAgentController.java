@@ -7,17 +7,25 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import java.util.List;
 import java.util.Map;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
 
 /**
  * Host-level Telegraf agent management for Kubernetes cluster nodes. Installs Telegraf as a systemd
  * service on each node host via the cluster kubeconfig (no SSH / node IP required).
+ *
+ * <p>Cluster-wide operations answer 202 as soon as the node list is known and roll out to the nodes
+ * in the background, in parallel ({@code maxInFlight}, {@code waveSize} override the {@code
+ * k8s.rollout} defaults); each node's result is pushed to {@code
+ * /topic/k8s/{nsId}/{clusterId}/rollout} as it finishes.
  */
 @RestController
 @RequestMapping("/api/o11y/monitoring/k8s")
@@ -29,16 +37,24 @@ public class K8sAgentController {
 
     @Operation(summary = "Install host Telegraf agent on every node of the cluster")
     @PostMapping("/{nsId}/{clusterId}/agent")
-    public ResBody<List<K8sAgentService.NodeResult>> install(
-            @PathVariable String nsId, @PathVariable String clusterId) {
-        return new ResBody<>(k8sAgentService.install(nsId, clusterId));
+    @ResponseStatus(HttpStatus.ACCEPTED)
+    public ResBody<K8sAgentService.RolloutAccepted> install(
+            @PathVariable String nsId,
+            @PathVariable String clusterId,
+            @RequestParam(required = false) Integer maxInFlight,
+            @RequestParam(required = false) Integer waveSize) {
+        return new ResBody<>(k8sAgentService.install(nsId, clusterId, null, maxInFlight, waveSize));
     }
 
     @Operation(summary = "Uninstall host Telegraf agent from every node of the cluster")
     @DeleteMapping("/{nsId}/{clusterId}/agent")
-    public ResBody<List<K8sAgentService.NodeResult>> uninstall(
-            @PathVariable String nsId, @PathVariable String clusterId) {
-        return new ResBody<>(k8sAgentService.uninstall(nsId, clusterId));
+    @ResponseStatus(HttpStatus.ACCEPTED)
+    public ResBody<K8sAgentService.RolloutAccepted> uninstall(
+            @PathVariable String nsId,
+            @PathVariable String clusterId,
+            @RequestParam(required = false) Integer maxInFlight,
+            @RequestParam(required = false) Integer waveSize) {
+        return new ResBody<>(k8sAgentService.uninstall(nsId, clusterId, maxInFlight, waveSize));
     }
 
     @Operation(summary = "Per-node agent status (running = reported to InfluxDB recently)")
@@ -67,6 +83,31 @@ public class K8sAgentController {
         return new ResBody<>(k8sAgentService.uninstallNode(nsId, clusterId, nodeName));
     }
 
+    @Operation(
+            summary =
+                    "Deploy host Telegraf as a DaemonSet (one apply; covers nodes added later too)")
+    @PostMapping("/{nsId}/{clusterId}/agent/daemonset")
+    public ResBody<K8sAgentService.DaemonSetStatus> installDaemonSet(
+            @PathVariable String nsId,
+            @PathVariable String clusterId,
+            @RequestBody(required = false) Map<String, Object> body) {
+        return new ResBody<>(k8sAgentService.installDaemonSet(nsId, clusterId, metrics(body)));
+    }
+
+    @Operation(summary = "Remove the host Telegraf DaemonSet from the cluster")
+    @DeleteMapping("/{nsId}/{clusterId}/agent/daemonset")
+    public ResBody<K8sAgentService.DaemonSetStatus> uninstallDaemonSet(
+            @PathVariable String nsId, @PathVariable String clusterId) {
+        return new ResBody<>(k8sAgentService.uninstallDaemonSet(nsId, clusterId));
+    }
+
+    @Operation(summary = "Rollout status of the host Telegraf DaemonSet and its pod per node")
+    @GetMapping("/{nsId}/{clusterId}/agent/daemonset")
+    public ResBody<K8sAgentService.DaemonSetStatus> daemonSetStatus(
+            @PathVariable String nsId, @PathVariable String clusterId) {
+        return new ResBody<>(k8sAgentService.daemonSetStatus(nsId, clusterId));
+    }
+
     @Operation(summary = "Available metric inputs and the ones currently active on the node")
     @GetMapping("/{nsId}/{clusterId}/node/{nodeName}/agent/metrics")
     public ResBody<Map<String, Object>> nodeMetrics(
@@ -90,16 +131,24 @@ public class K8sAgentController {
 
     @Operation(summary = "Install fluent-bit log agent on every node of the cluster")
     @PostMapping("/{nsId}/{clusterId}/log-agent")
-    public ResBody<List<K8sAgentService.NodeResult>> installLog(
-            @PathVariable String nsId, @PathVariable String clusterId) {
-        return new ResBody<>(k8sAgentService.installLog(nsId, clusterId));
+    @ResponseStatus(HttpStatus.ACCEPTED)
+    public ResBody<K8sAgentService.RolloutAccepted> installLog(
+            @PathVariable String nsId,
+            @PathVariable String clusterId,
+            @RequestParam(required = false) Integer maxInFlight,
+            @RequestParam(required = false) Integer waveSize) {
+        return new ResBody<>(k8sAgentService.installLog(nsId, clusterId, maxInFlight, waveSize));
     }
 
     @Operation(summary = "Uninstall fluent-bit log agent from every node of the cluster")
     @DeleteMapping("/{nsId}/{clusterId}/log-agent")
-    public ResBody<List<K8sAgentService.NodeResult>> uninstallLog(
-            @PathVariable String nsId, @PathVariable String clusterId) {
-        return new ResBody<>(k8sAgentService.uninstallLog(nsId, clusterId));
+    @ResponseStatus(HttpStatus.ACCEPTED)
+    public ResBody<K8sAgentService.RolloutAccepted> uninstallLog(
+            @PathVariable String nsId,
+            @PathVariable String clusterId,
+            @RequestParam(required = false) Integer maxInFlight,
+            @RequestParam(required = false) Integer waveSize) {
+        return new ResBody<>(k8sAgentService.uninstallLog(nsId, clusterId, maxInFlight, waveSize));
     }
 
     @Operation(summary = "Install fluent-bit log agent on a single node")
@@ -1,12 +1,15 @@
 package com.mcmp.o11ymanager.manager.controller;
 
+import com.mcmp.o11ymanager.manager.dto.vm.NodeStatusDiffDTO;
 import com.mcmp.o11ymanager.manager.dto.vm.VMDTO;
 import com.mcmp.o11ymanager.manager.facade.VMFacadeService;
+import com.mcmp.o11ymanager.manager.service.NodeStatusPublisher;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.messaging.handler.annotation.DestinationVariable;
 import org.springframework.messaging.handler.annotation.MessageMapping;
 import org.springframework.messaging.handler.annotation.SendTo;
+import org.springframework.messaging.simp.annotation.SubscribeMapping;
 import org.springframework.stereotype.Controller;
 
 @Slf4j
@@ -15,6 +18,7 @@ import org.springframework.stereotype.Controller;
 public class VMWebSocketController {
 
     private final VMFacadeService vmFacadeService;
+    private final NodeStatusPublisher nodeStatusPublisher;
 
     @MessageMapping("/node/{nsId}/{infraId}/{nodeId}")
     @SendTo("/topic/node/{nsId}/{infraId}/{nodeId}")
@@ -25,9 +29,20 @@ public class VMWebSocketController {
         return vmFacadeService.getVM(nsId, infraId, nodeId);
     }
 
+    /**
+     * Full node list of one MCI, sent only to the subscribing client. Changes are pushed afterwards
+     * to {@code /topic/nodes/{nsId}/{infraId}}.
+     */
+    @SubscribeMapping("/nodes/{nsId}/{infraId}")
+    public NodeStatusDiffDTO subscribeNodes(
+            @DestinationVariable String nsId, @DestinationVariable String infraId) {
+        return nodeStatusPublisher.snapshot(nsId, infraId);
+    }
+
     @MessageMapping("/nodes")
     @SendTo("/topic/nodes")
     public Object subscribeAllVMs() {
-        return vmFacadeService.getVMs();
+        // Shared across clients: a burst of requests recomputes the fleet-wide list once.
+        return nodeStatusPublisher.allNodes();
     }
 }
@@ -0,0 +1,36 @@
+package com.mcmp.o11ymanager.manager.dto.vm;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.swagger.v3.oas.annotations.media.Schema;
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class NodeStatusDiffDTO {
+
+    @Schema(description = "Namespace ID", example = "ns-1")
+    @JsonProperty("ns_id")
+    private String nsId;
+
+    @Schema(description = "Infra ID", example = "infra-1")
+    @JsonProperty("infra_id")
+    private String infraId;
+
+    @Schema(description = "True when nodes holds every node of the infra, not only changes")
+    private boolean snapshot;
+
+    @Schema(description = "Nodes that were added or whose status changed")
+    private List<VMDTO> nodes;
+
+    @Schema(description = "IDs of nodes that are no longer part of the infra")
+    @JsonProperty("removed_node_ids")
+    private List<String> removedNodeIds;
+}
@@ -0,0 +1,44 @@
+package com.mcmp.o11ymanager.manager.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Table;
+import java.time.Instant;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Persisted (ns_id, infra_id) → InfluxDB server assignment. Resolving the server otherwise means
+ * pinging every configured InfluxDB and probing each for the tag combination, so the result is
+ * stored here and survives restarts.
+ *
+ * <p>{@code confirmed} is {@code true} when the server was chosen because it already holds series
+ * for the tuple, and {@code false} when it was picked by the lowest-cardinality fallback (no data
+ * anywhere yet) — only the latter are re-probed by the background refresh.
+ */
+@Entity
+@Table(name = "influx_route")
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@IdClass(InfluxRouteId.class)
+public class InfluxRouteEntity {
+
+    @Id private String nsId;
+
+    @Id private String infraId;
+
+    @Column(name = "influx_id", nullable = false)
+    private Long influxId;
+
+    private boolean confirmed;
+
+    private Instant resolvedAt;
+}
@@ -0,0 +1,20 @@
+package com.mcmp.o11ymanager.manager.entity;
+
+import java.io.Serializable;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/** Composite primary key for {@link InfluxRouteEntity}: (nsId, infraId). */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode
+public class InfluxRouteId implements Serializable {
+
+    private String nsId;
+    private String infraId;
+}
@@ -0,0 +1,44 @@
+package com.mcmp.o11ymanager.manager.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import java.time.Instant;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * A metric request shape the UI has sent, kept so the cache warmer can replay it after a restart
+ * instead of re-learning it from live traffic.
+ *
+ * <p>The signature itself can be longer than an indexable key, so rows are keyed by its SHA-256.
+ * {@code requestJson} is the request without the ns/infra/node conditions, which the warmer adds
+ * per VM.
+ */
+@Entity
+@Table(name = "monitoring_learned_signature")
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class LearnedSignatureEntity {
+
+    @Id
+    @Column(name = "signature_hash", length = 64)
+    private String signatureHash;
+
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String signature;
+
+    @Column(name = "request_json", nullable = false, columnDefinition = "TEXT")
+    private String requestJson;
+
+    private long hitCount;
+
+    private Instant lastSeenAt;
+}
@@ -6,4 +6,6 @@ public enum AgentStatus {
     SUCCESS,
     FAILED,
     NOT_INSTALLED,
+    /** The status could not be determined in time (e.g. the node did not answer). */
+    UNKNOWN,
 }
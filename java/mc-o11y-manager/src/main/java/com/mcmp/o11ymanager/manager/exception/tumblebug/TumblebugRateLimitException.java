@@ -0,0 +1,8 @@
+package com.mcmp.o11ymanager.manager.exception.tumblebug;
+
+/** Thrown when a Tumblebug call could not get a rate-limit token within the allowed wait. */
+public class TumblebugRateLimitException extends RuntimeException {
+    public TumblebugRateLimitException(String message) {
+        super(message);
+    }
+}
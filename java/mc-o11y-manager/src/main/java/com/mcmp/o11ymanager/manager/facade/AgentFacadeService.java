@@ -14,10 +14,14 @@ import com.mcmp.o11ymanager.manager.enums.ResponseStatus;
 import com.mcmp.o11ymanager.manager.global.annotation.Base64Decode;
 import com.mcmp.o11ymanager.manager.model.host.VMAgentTaskStatus;
 import com.mcmp.o11ymanager.manager.port.TumblebugPort;
-import com.mcmp.o11ymanager.manager.service.interfaces.TumblebugService;
+import com.mcmp.o11ymanager.manager.service.cache.AgentStatusCache;
 import com.mcmp.o11ymanager.manager.service.interfaces.VMService;
 import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
 import lombok.RequiredArgsConstructor;
@@ -40,8 +44,8 @@ public class AgentFacadeService {
     private final FluentBitFacadeService fluentBitFacadeService;
     private final TelegrafFacadeService telegrafFacadeService;
     private final BeylaFacadeService beylaFacadeService;
-    private final TumblebugService tumblebugService;
     private final VMService vmService;
+    private final AgentStatusCache agentStatusCache;
 
     private AccessInfoDTO getAccessInfo(String nsId, String infraId, String nodeId) {
 
@@ -65,7 +69,11 @@ public class AgentFacadeService {
 
     public AgentServiceStatus getAgentServiceStatus(
             String nsId, String infraId, String nodeId, Agent agent) {
-        boolean isActive = tumblebugService.isServiceActive(nsId, infraId, nodeId, agent);
+        boolean isActive =
+                Boolean.TRUE.equals(
+                        agentStatusCache
+                                .activeStates(nsId, infraId, nodeId, List.of(agent))
+                                .get(agent));
         return isActive ? AgentServiceStatus.ACTIVE : AgentServiceStatus.INACTIVE;
     }
 
@@ -192,19 +200,113 @@ public class AgentFacadeService {
     }
 
     public AgentStatus getAgentStatus(String nsId, String infraId, String nodeId, Agent agent) {
-        VMAgentTaskStatus taskStatus;
+        AgentStatus status = statusFromTask(taskStatusOf(nsId, infraId, nodeId, agent));
+        if (status != null) {
+            return status;
+        }
+
+        AgentServiceStatus serviceStatus = getAgentServiceStatus(nsId, infraId, nodeId, agent);
+
+        if (serviceStatus == AgentServiceStatus.ACTIVE) {
+            return AgentStatus.SUCCESS;
+        } else {
+            return AgentStatus.SERVICE_INACTIVE;
+        }
+    }
+
+    /**
+     * Same as {@link #getAgentStatus} for several agents of one node, but every agent that needs a
+     * live service check not in the {@link AgentStatusCache} is probed with one remote command.
+     */
+    public Map<Agent, AgentStatus> getAgentStatuses(
+            String nsId, String infraId, String nodeId, List<Agent> agents) {
+        Map<Agent, AgentStatus> statuses = new EnumMap<>(Agent.class);
+        List<Agent> toProbe = new ArrayList<>();
+        for (Agent agent : agents) {
+            AgentStatus status = statusFromTask(taskStatusOf(nsId, infraId, nodeId, agent));
+            if (status != null) {
+                statuses.put(agent, status);
+            } else {
+                toProbe.add(agent);
+            }
+        }
+        if (toProbe.isEmpty()) {
+            return statuses;
+        }
+
+        Map<Agent, Boolean> active =
+                agentStatusCache.activeStates(nsId, infraId, nodeId, toProbe);
+        for (Agent agent : toProbe) {
+            statuses.put(
+                    agent,
+                    Boolean.TRUE.equals(active.get(agent))
+                            ? AgentStatus.SUCCESS
+                            : AgentStatus.SERVICE_INACTIVE);
+        }
+        return statuses;
+    }
+
+    /**
+     * {@link #getAgentStatuses} for several nodes of one infra: live service states not in the
+     * {@link AgentStatusCache} are checked with one infra-scoped Tumblebug command. Nodes whose
+     * state could not be determined are left out of the returned map.
+     */
+    public Map<String, Map<Agent, AgentStatus>> getAgentStatusesOnInfra(
+            String nsId, String infraId, List<String> nodeIds, List<Agent> agents) {
+        Map<String, Map<Agent, AgentStatus>> statuses = new HashMap<>();
+        Map<String, List<Agent>> toProbe = new LinkedHashMap<>();
+        for (String nodeId : nodeIds) {
+            Map<Agent, AgentStatus> nodeStatuses = new EnumMap<>(Agent.class);
+            for (Agent agent : agents) {
+                AgentStatus status = statusFromTask(taskStatusOf(nsId, infraId, nodeId, agent));
+                if (status != null) {
+                    nodeStatuses.put(agent, status);
+                } else {
+                    toProbe.computeIfAbsent(nodeId, k -> new ArrayList<>()).add(agent);
+                }
+            }
+            statuses.put(nodeId, nodeStatuses);
+        }
+        if (toProbe.isEmpty()) {
+            return statuses;
+        }
 
+        Map<String, Map<Agent, Boolean>> active =
+                agentStatusCache.activeStatesOnInfra(nsId, infraId, toProbe);
+        for (Map.Entry<String, List<Agent>> e : toProbe.entrySet()) {
+            Map<Agent, Boolean> nodeActive = active.get(e.getKey());
+            if (nodeActive == null) {
+                statuses.remove(e.getKey());
+                continue;
+            }
+            for (Agent agent : e.getValue()) {
+                statuses.get(e.getKey())
+                        .put(
+                                agent,
+                                Boolean.TRUE.equals(nodeActive.get(agent))
+                                        ? AgentStatus.SUCCESS
+                                        : AgentStatus.SERVICE_INACTIVE);
+            }
+        }
+        return statuses;
+    }
+
+    private VMAgentTaskStatus taskStatusOf(
+            String nsId, String infraId, String nodeId, Agent agent) {
         if (agent == Agent.TELEGRAF) {
-            taskStatus = vmService.getMonitoringAgentTaskStatus(nsId, infraId, nodeId);
+            return vmService.getMonitoringAgentTaskStatus(nsId, infraId, nodeId);
         } else if (agent == Agent.FLUENT_BIT) {
-            taskStatus = vmService.getLogAgentTaskStatus(nsId, infraId, nodeId);
+            return vmService.getLogAgentTaskStatus(nsId, infraId, nodeId);
         } else if (agent == Agent.BEYLA || agent == Agent.OTEL_JAVA_AGENT) {
             // 두 agent 모두 동일한 vmTraceAgentTaskStatus 컬럼을 공유한다 (Linux Beyla / Windows OTel Java).
-            taskStatus = vmService.getTraceAgentTaskStatus(nsId, infraId, nodeId);
+            return vmService.getTraceAgentTaskStatus(nsId, infraId, nodeId);
         } else {
             throw new IllegalArgumentException("Unknown agent type: " + agent);
         }
+    }
 
+    /** Status decided by the task state alone, or {@code null} when the service must be probed. */
+    private static AgentStatus statusFromTask(VMAgentTaskStatus taskStatus) {
         if (taskStatus == VMAgentTaskStatus.INSTALLING) {
             return AgentStatus.INSTALLING;
         }
@@ -218,14 +320,7 @@ public class AgentFacadeService {
         if (taskStatus == VMAgentTaskStatus.NOT_INSTALLED) {
             return AgentStatus.NOT_INSTALLED;
         }
-
-        AgentServiceStatus serviceStatus = getAgentServiceStatus(nsId, infraId, nodeId, agent);
-
-        if (serviceStatus == AgentServiceStatus.ACTIVE) {
-            return AgentStatus.SUCCESS;
-        } else {
-            return AgentStatus.SERVICE_INACTIVE;
-        }
+        return null;
     }
 
     @Transactional
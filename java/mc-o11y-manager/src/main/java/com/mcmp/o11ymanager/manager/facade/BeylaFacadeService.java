@@ -8,6 +8,7 @@ import com.mcmp.o11ymanager.manager.enums.SemaphoreInstallMethod;
 import com.mcmp.o11ymanager.manager.global.aspect.request.RequestInfo;
 import com.mcmp.o11ymanager.manager.model.host.VMAgentTaskStatus;
 import com.mcmp.o11ymanager.manager.model.semaphore.Task;
+import com.mcmp.o11ymanager.manager.service.cache.AgentStatusCache;
 import com.mcmp.o11ymanager.manager.service.domain.BeylaSystemRequirementValidator;
 import com.mcmp.o11ymanager.manager.service.domain.SemaphoreDomainService;
 import com.mcmp.o11ymanager.manager.service.interfaces.TumblebugService;
@@ -33,6 +34,7 @@ public class BeylaFacadeService {
     private final SemaphoreDomainService semaphoreDomainService;
     private final SchedulerFacadeService schedulerFacadeService;
     private final TumblebugService tumblebugService;
+    private final AgentStatusCache agentStatusCache;
     private final BeylaSystemRequirementValidator beylaSystemRequirementValidator;
     private final BeylaConfigFacadeService beylaConfigFacadeService;
 
@@ -202,6 +204,7 @@ public class BeylaFacadeService {
                     nsId, infraId, nodeId, VMAgentTaskStatus.RESTARTING);
 
             tumblebugService.restart(nsId, infraId, nodeId, Agent.BEYLA);
+            agentStatusCache.invalidate(nsId, infraId, nodeId, Agent.BEYLA);
 
             vmService.updateTraceAgentTaskStatus(nsId, infraId, nodeId, VMAgentTaskStatus.IDLE);
 
@@ -41,6 +41,16 @@ public class InfluxDbFacadeService {
         return influxDbService.getMetricsByVM(nsId, infraId, nodeId, req);
     }
 
+    public List<List<MetricDTO>> postMetricsBatchByNsMci(
+            String nsId, String infraId, List<MetricRequestDTO> reqs) {
+        return influxDbService.getMetricsBatch(nsId, infraId, null, reqs);
+    }
+
+    public List<List<MetricDTO>> postMetricsBatchByVM(
+            String nsId, String infraId, String nodeId, List<MetricRequestDTO> reqs) {
+        return influxDbService.getMetricsBatch(nsId, infraId, nodeId, reqs);
+    }
+
     public List<InfluxDTO> getInfluxDbs() {
         return influxDbService.rawServers();
     }
@@ -15,7 +15,7 @@ import java.util.ArrayList;
 import java.util.Base64;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.Lock;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
@@ -50,7 +50,7 @@ public class ItemFacadeService {
     public void addTelegrafPlugin(
             String nsId, String infraId, String nodeId, MonitoringItemRequestDTO dto) {
 
-        ReentrantLock hostLock = vmService.getHostLock(nsId, infraId, nodeId);
+        Lock hostLock = vmService.getHostLock(nsId, infraId, nodeId);
 
         try {
             hostLock.lock();
@@ -131,7 +131,7 @@ public class ItemFacadeService {
     public void updateTelegrafPlugin(
             String nsId, String infraId, String nodeId, MonitoringItemUpdateDTO dto) {
 
-        ReentrantLock hostLock = vmService.getHostLock(nsId, infraId, nodeId);
+        Lock hostLock = vmService.getHostLock(nsId, infraId, nodeId);
 
         try {
             hostLock.lock();
@@ -209,7 +209,7 @@ public class ItemFacadeService {
 
     public void deleteTelegrafPlugin(String nsId, String infraId, String nodeId, Long itemSeq) {
 
-        ReentrantLock hostLock = vmService.getHostLock(nsId, infraId, nodeId);
+        Lock hostLock = vmService.getHostLock(nsId, infraId, nodeId);
 
         try {
             hostLock.lock();
@@ -285,7 +285,7 @@ public class ItemFacadeService {
 
     public List<MonitoringItemDTO> getTelegrafItems(String nsId, String infraId, String nodeId) {
 
-        ReentrantLock hostLock = vmService.getHostLock(nsId, infraId, nodeId);
+        Lock hostLock = vmService.getHostReadLock(nsId, infraId, nodeId);
 
         try {
             hostLock.lock();
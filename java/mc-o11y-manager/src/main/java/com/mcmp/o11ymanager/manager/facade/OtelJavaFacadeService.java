@@ -8,6 +8,7 @@ import com.mcmp.o11ymanager.manager.enums.SemaphoreInstallMethod;
 import com.mcmp.o11ymanager.manager.global.aspect.request.RequestInfo;
 import com.mcmp.o11ymanager.manager.model.host.VMAgentTaskStatus;
 import com.mcmp.o11ymanager.manager.model.semaphore.Task;
+import com.mcmp.o11ymanager.manager.service.cache.AgentStatusCache;
 import com.mcmp.o11ymanager.manager.service.domain.SemaphoreDomainService;
 import com.mcmp.o11ymanager.manager.service.interfaces.TumblebugService;
 import com.mcmp.o11ymanager.manager.service.interfaces.VMService;
@@ -45,6 +46,7 @@ public class OtelJavaFacadeService {
     private final SemaphoreDomainService semaphoreDomainService;
     private final SchedulerFacadeService schedulerFacadeService;
     private final TumblebugService tumblebugService;
+    private final AgentStatusCache agentStatusCache;
     private final OtelJavaConfigFacadeService otelJavaConfigFacadeService;
 
     public void install(
@@ -185,6 +187,7 @@ public class OtelJavaFacadeService {
                     nsId, infraId, nodeId, VMAgentTaskStatus.RESTARTING);
 
             tumblebugService.restart(nsId, infraId, nodeId, Agent.OTEL_JAVA_AGENT);
+            agentStatusCache.invalidate(nsId, infraId, nodeId, Agent.OTEL_JAVA_AGENT);
 
             vmService.updateTraceAgentTaskStatus(nsId, infraId, nodeId, VMAgentTaskStatus.IDLE);
 
@@ -6,6 +6,7 @@ import com.mcmp.o11ymanager.manager.model.host.VMAgentTaskStatus;
 import com.mcmp.o11ymanager.manager.model.semaphore.Project;
 import com.mcmp.o11ymanager.manager.model.semaphore.Task;
 import com.mcmp.o11ymanager.manager.port.SemaphorePort;
+import com.mcmp.o11ymanager.manager.service.cache.AgentStatusCache;
 import com.mcmp.o11ymanager.manager.service.interfaces.VMService;
 import jakarta.annotation.PostConstruct;
 import jakarta.transaction.Transactional;
@@ -48,6 +49,7 @@ public class SchedulerFacadeService {
 
     private final SemaphorePort semaphorePort;
     private final VMService vmService;
+    private final AgentStatusCache agentStatusCache;
 
     @Value("${feign.semaphore.project-name}")
     private String projectName;
@@ -68,6 +70,9 @@ public class SchedulerFacadeService {
             SemaphoreInstallMethod method,
             Agent agent) {
 
+        // 설치/제거가 시작되면 캐시된 서비스 상태는 더 이상 유효하지 않다.
+        agentStatusCache.invalidate(nsId, infraId, nodeId, agent);
+
         AtomicLong startTime = new AtomicLong(System.currentTimeMillis()); // 타임아웃 측정 기준점
         AtomicReference<ScheduledFuture<?>> futureRef = new AtomicReference<>();
         // 람다 내부에서 자기 자신(ScheduledFuture)을 cancel()하기 위한 self-reference 트릭.
@@ -134,6 +139,7 @@ public class SchedulerFacadeService {
                                     }
 
                                     log.warn("Timeout occurred for agent {}", agent);
+                                    agentStatusCache.invalidate(nsId, infraId, nodeId, agent);
                                     ScheduledFuture<?> scheduledFuture = futureRef.get();
                                     if (scheduledFuture != null) {
 
@@ -164,6 +170,7 @@ public class SchedulerFacadeService {
                                                 nsId, infraId, nodeId, doneStatus);
                                     }
 
+                                    agentStatusCache.invalidate(nsId, infraId, nodeId, agent);
                                     ScheduledFuture<?> scheduledFuture = futureRef.get();
                                     if (scheduledFuture != null) {
                                         scheduledFuture.cancel(false);
@@ -189,6 +196,7 @@ public class SchedulerFacadeService {
                                                 nsId, infraId, nodeId, VMAgentTaskStatus.FAILED);
                                     }
 
+                                    agentStatusCache.invalidate(nsId, infraId, nodeId, agent);
                                     ScheduledFuture<?> scheduledFuture = futureRef.get();
                                     if (scheduledFuture != null) {
                                         scheduledFuture.cancel(false);
@@ -8,6 +8,7 @@ import com.mcmp.o11ymanager.manager.enums.SemaphoreInstallMethod;
 import com.mcmp.o11ymanager.manager.global.aspect.request.RequestInfo;
 import com.mcmp.o11ymanager.manager.model.host.VMAgentTaskStatus;
 import com.mcmp.o11ymanager.manager.model.semaphore.Task;
+import com.mcmp.o11ymanager.manager.service.cache.AgentStatusCache;
 import com.mcmp.o11ymanager.manager.service.domain.SemaphoreDomainService;
 import com.mcmp.o11ymanager.manager.service.interfaces.TumblebugService;
 import com.mcmp.o11ymanager.manager.service.interfaces.VMService;
@@ -33,6 +34,7 @@ public class TelegrafFacadeService {
     private final SchedulerFacadeService schedulerFacadeService;
     private final TelegrafConfigFacadeService telegrafConfigFacadeService;
     private final TumblebugService tumblebugService;
+    private final AgentStatusCache agentStatusCache;
 
     public void install(
             String nsId,
@@ -183,6 +185,7 @@ public class TelegrafFacadeService {
                     nsId, infraId, nodeId, VMAgentTaskStatus.RESTARTING);
 
             tumblebugService.restart(nsId, infraId, nodeId, Agent.TELEGRAF);
+            agentStatusCache.invalidate(nsId, infraId, nodeId, Agent.TELEGRAF);
 
             vmService.updateMonitoringAgentTaskStatus(
                     nsId, infraId, nodeId, VMAgentTaskStatus.IDLE);
@@ -8,16 +8,15 @@ import com.mcmp.o11ymanager.manager.enums.Agent;
 import com.mcmp.o11ymanager.manager.enums.AgentStatus;
 import com.mcmp.o11ymanager.manager.model.host.VMAgentTaskStatus;
 import com.mcmp.o11ymanager.manager.model.host.VMStatus;
+import com.mcmp.o11ymanager.manager.service.NodeFanOutExecutor;
 import com.mcmp.o11ymanager.manager.service.interfaces.InfluxDbService;
 import com.mcmp.o11ymanager.manager.service.interfaces.TumblebugService;
 import com.mcmp.o11ymanager.manager.service.interfaces.VMService;
-import jakarta.annotation.PostConstruct;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-import java.util.concurrent.Future;
-import java.util.concurrent.locks.ReentrantLock;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -27,25 +26,21 @@ import org.springframework.stereotype.Service;
 @RequiredArgsConstructor
 public class VMFacadeService {
 
-    private ExecutorService executor;
-
-    @PostConstruct
-    public void init() {
-        this.executor = Executors.newFixedThreadPool(10);
-    }
-
     private final VMService vmService;
     private final AgentFacadeService agentFacadeService;
     private final TumblebugService tumblebugService;
     private final InfluxDbService influxDbService;
+    private final NodeFanOutExecutor nodeFanOutExecutor;
 
     public VMDTO postVM(String nsId, String infraId, String nodeId, VMRequestDTO dto) {
 
-        ReentrantLock hostLock = vmService.getHostLock(nsId, infraId, nodeId);
+        Lock hostLock = vmService.getHostLock(nsId, infraId, nodeId);
 
         try {
             hostLock.lock();
 
+            // The node may be new to the infra cached by the Tumblebug gateway.
+            tumblebugService.invalidateInfra(nsId, infraId);
             VMStatus status =
                     tumblebugService.isConnectedVM(nsId, infraId, nodeId)
                             ? VMStatus.RUNNING
@@ -95,7 +90,7 @@ public class VMFacadeService {
     // (both then show NOT_INSTALLED -> Install button).
 
     public List<ResultDTO> installMonitoringAgent(String nsId, String infraId, String nodeId) {
-        ReentrantLock hostLock = vmService.getHostLock(nsId, infraId, nodeId);
+        Lock hostLock = vmService.getHostLock(nsId, infraId, nodeId);
         try {
             hostLock.lock();
             ensureRegistered(nsId, infraId, nodeId, Agent.TELEGRAF);
@@ -110,7 +105,7 @@ public class VMFacadeService {
     }
 
     public List<ResultDTO> installLogAgent(String nsId, String infraId, String nodeId) {
-        ReentrantLock hostLock = vmService.getHostLock(nsId, infraId, nodeId);
+        Lock hostLock = vmService.getHostLock(nsId, infraId, nodeId);
         try {
             hostLock.lock();
             ensureRegistered(nsId, infraId, nodeId, Agent.FLUENT_BIT);
@@ -183,7 +178,8 @@ public class VMFacadeService {
         log.info(
                 ">>> getVM() called with nsId: {}, infraId: {}, nodeId: {}", nsId, infraId, nodeId);
 
-        ReentrantLock hostLock = vmService.getHostLock(nsId, infraId, nodeId);
+        // Shared: concurrent status reads of one host no longer queue behind each other.
+        Lock hostLock = vmService.getHostReadLock(nsId, infraId, nodeId);
 
         try {
             hostLock.lock();
@@ -230,14 +226,13 @@ public class VMFacadeService {
             //                agentFacadeService.getAgentServiceStatus(nsId, infraId, nodeId,
             // Agent.FLUENT_BIT);
 
-            AgentStatus monitoringAgentStatus =
-                    agentFacadeService.getAgentStatus(nsId, infraId, nodeId, Agent.TELEGRAF);
-
-            AgentStatus logAgentStatus =
-                    agentFacadeService.getAgentStatus(nsId, infraId, nodeId, Agent.FLUENT_BIT);
-
-            AgentStatus traceAgentStatus =
-                    agentFacadeService.getAgentStatus(nsId, infraId, nodeId, Agent.BEYLA);
+            // One remote `systemctl is-active` for all three agents instead of one per agent.
+            Map<Agent, AgentStatus> agentStatuses =
+                    agentFacadeService.getAgentStatuses(
+                            nsId,
+                            infraId,
+                            nodeId,
+                            List.of(Agent.TELEGRAF, Agent.FLUENT_BIT, Agent.BEYLA));
 
             return VMDTO.builder()
                     .nodeId(node.getId())
@@ -245,9 +240,9 @@ public class VMFacadeService {
                     .description(node.getDescription())
                     .nsId(nsId)
                     .infraId(infraId)
-                    .monitoringAgentStatus(monitoringAgentStatus)
-                    .logAgentStatus(logAgentStatus)
-                    .traceAgentStatus(traceAgentStatus)
+                    .monitoringAgentStatus(agentStatuses.get(Agent.TELEGRAF))
+                    .logAgentStatus(agentStatuses.get(Agent.FLUENT_BIT))
+                    .traceAgentStatus(agentStatuses.get(Agent.BEYLA))
                     .build();
         } catch (Exception e) {
             log.error(">>> getVM() failed", e);
@@ -257,51 +252,151 @@ public class VMFacadeService {
         }
     }
 
+    /**
+     * One {@link #getVM} per node, in parallel and within the fan-out deadline. Nodes that don't
+     * answer in time are returned with UNKNOWN agent statuses; nodes whose lookup fails are left
+     * out.
+     */
     private List<VMDTO> fetchVM(List<VMDTO> rawList) {
+        return nodeFanOutExecutor.map(
+                rawList,
+                baseDto -> {
+                    try {
+                        return getVM(baseDto.getNsId(), baseDto.getInfraId(), baseDto.getNodeId());
+                    } catch (Exception e) {
+                        log.error(
+                                ">>> getVM() failed for: nsId={}, infraId={}, nodeId={}",
+                                baseDto.getNsId(),
+                                baseDto.getInfraId(),
+                                baseDto.getNodeId(),
+                                e);
+                        return null;
+                    }
+                },
+                VMFacadeService::unknownStatusVM);
+    }
+
+    private static VMDTO unknownStatusVM(VMDTO baseDto) {
+        log.warn(
+                ">>> agent status unavailable for: nsId={}, infraId={}, nodeId={}",
+                baseDto.getNsId(),
+                baseDto.getInfraId(),
+                baseDto.getNodeId());
+        return VMDTO.builder()
+                .nodeId(baseDto.getNodeId())
+                .name(baseDto.getName())
+                .nsId(baseDto.getNsId())
+                .infraId(baseDto.getInfraId())
+                .monitoringAgentStatus(AgentStatus.UNKNOWN)
+                .logAgentStatus(AgentStatus.UNKNOWN)
+                .traceAgentStatus(AgentStatus.UNKNOWN)
+                .build();
+    }
+
+    public List<VMDTO> getVMsNsMci(String nsId, String infraId) {
 
-        List<Future<VMDTO>> futures = new ArrayList<>();
-
-        for (VMDTO baseDto : rawList) {
-            futures.add(
-                    executor.submit(
-                            () -> {
-                                try {
-                                    return getVM(
-                                            baseDto.getNsId(),
-                                            baseDto.getInfraId(),
-                                            baseDto.getNodeId());
-                                } catch (Exception e) {
-                                    log.error(
-                                            ">>> getVM() failed for: nsId={}, infraId={}, nodeId={}",
-                                            baseDto.getNsId(),
-                                            baseDto.getInfraId(),
-                                            baseDto.getNodeId(),
-                                            e);
-                                    return null;
-                                }
-                            }));
+        List<VMDTO> rawList = vmService.getByNsMci(nsId, infraId);
+        if (rawList.size() <= 1) {
+            return fetchVM(rawList);
         }
 
-        List<VMDTO> result = new ArrayList<>();
-        for (Future<VMDTO> future : futures) {
-            try {
-                VMDTO dto = future.get();
-                if (dto != null) {
-                    result.add(dto);
+        // One fan-out deadline bounds the whole call: lock waits, the status probe and the node
+        // lookups all spend from it, and whatever misses it is reported UNKNOWN.
+        long deadline = nodeFanOutExecutor.deadline();
+
+        // Shared host locks, as getVM takes them, so no status is read mid-install. A node whose
+        // lock isn't free before the deadline is reported UNKNOWN instead of waited for.
+        List<Lock> held = new ArrayList<>();
+        List<String> lockedNodeIds = new ArrayList<>();
+        try {
+            for (VMDTO savedVM : rawList) {
+                Lock hostLock = vmService.getHostReadLock(nsId, infraId, savedVM.getNodeId());
+                if (tryLockUntil(hostLock, deadline)) {
+                    held.add(hostLock);
+                    lockedNodeIds.add(savedVM.getNodeId());
                 }
-            } catch (Exception e) {
-                log.error(">>> future.get() failed", e);
             }
-        }
 
-        return result;
+            // All nodes share one infra: check every node's agents with a single infra-scoped
+            // command instead of one getVM (and remote command) per node.
+            Map<String, Map<Agent, AgentStatus>> statuses =
+                    lockedNodeIds.isEmpty()
+                            ? Map.of()
+                            : agentStatusesOnInfra(nsId, infraId, lockedNodeIds, deadline);
+
+            // Node lookups go through the fan-out like fetchVM: parallel, and a lookup that misses
+            // what is left of the deadline is reported UNKNOWN.
+            return nodeFanOutExecutor.map(
+                    rawList,
+                    savedVM -> withStatuses(savedVM, statuses.get(savedVM.getNodeId())),
+                    VMFacadeService::unknownStatusVM,
+                    deadline);
+        } finally {
+            held.forEach(Lock::unlock);
+        }
     }
 
-    public List<VMDTO> getVMsNsMci(String nsId, String infraId) {
+    /**
+     * Agent statuses of {@code nodeIds} with one infra-scoped command. The command runs on the
+     * fan-out so it is abandoned (and interrupted) at {@code deadline} instead of waited for; its
+     * nodes are then left out, as on a failed probe.
+     */
+    private Map<String, Map<Agent, AgentStatus>> agentStatusesOnInfra(
+            String nsId, String infraId, List<String> nodeIds, long deadline) {
+        List<Map<String, Map<Agent, AgentStatus>>> probed =
+                nodeFanOutExecutor.map(
+                        List.of(nodeIds),
+                        ids ->
+                                agentFacadeService.getAgentStatusesOnInfra(
+                                        nsId,
+                                        infraId,
+                                        ids,
+                                        List.of(Agent.TELEGRAF, Agent.FLUENT_BIT, Agent.BEYLA)),
+                        ids -> Map.of(),
+                        deadline);
+        return probed.isEmpty() ? Map.of() : probed.get(0);
+    }
 
-        List<VMDTO> rawList = vmService.getByNsMci(nsId, infraId);
+    /**
+     * Combines a saved node with its probed agent statuses. Nodes without statuses (lock busy,
+     * probe failed or timed out) and nodes whose Tumblebug lookup fails are reported UNKNOWN.
+     */
+    private VMDTO withStatuses(VMDTO savedVM, Map<Agent, AgentStatus> agentStatuses) {
+        if (agentStatuses == null) {
+            return unknownStatusVM(savedVM);
+        }
+        try {
+            TumblebugInfra.Node node =
+                    tumblebugService.getNode(
+                            savedVM.getNsId(), savedVM.getInfraId(), savedVM.getNodeId());
+            return VMDTO.builder()
+                    .nodeId(node.getId())
+                    .name(savedVM.getName())
+                    .description(node.getDescription())
+                    .nsId(savedVM.getNsId())
+                    .infraId(savedVM.getInfraId())
+                    .monitoringAgentStatus(agentStatuses.get(Agent.TELEGRAF))
+                    .logAgentStatus(agentStatuses.get(Agent.FLUENT_BIT))
+                    .traceAgentStatus(agentStatuses.get(Agent.BEYLA))
+                    .build();
+        } catch (Exception e) {
+            log.error(
+                    ">>> getNode() failed for: nsId={}, infraId={}, nodeId={}",
+                    savedVM.getNsId(),
+                    savedVM.getInfraId(),
+                    savedVM.getNodeId(),
+                    e);
+            return unknownStatusVM(savedVM);
+        }
+    }
 
-        return fetchVM(rawList);
+    private static boolean tryLockUntil(Lock lock, long deadline) {
+        try {
+            return lock.tryLock(Math.max(0L, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
     }
 
     public List<VMDTO> getVMs() {
@@ -313,7 +408,7 @@ public class VMFacadeService {
 
     public VMDTO putVM(String nsId, String infraId, String nodeId, VMRequestDTO dto) {
 
-        ReentrantLock hostLock = vmService.getHostLock(nsId, infraId, nodeId);
+        Lock hostLock = vmService.getHostLock(nsId, infraId, nodeId);
 
         try {
             hostLock.lock();
@@ -326,13 +421,14 @@ public class VMFacadeService {
 
     public void deleteVM(String nsId, String infraId, String nodeId) {
 
-        ReentrantLock hostLock = vmService.getHostLock(nsId, infraId, nodeId);
+        Lock hostLock = vmService.getHostLock(nsId, infraId, nodeId);
 
         try {
             hostLock.lock();
 
             vmService.delete(nsId, infraId, nodeId);
             agentFacadeService.uninstall(nsId, infraId, nodeId);
+            tumblebugService.invalidateInfra(nsId, infraId);
         } finally {
             hostLock.unlock();
         }
@@ -6,6 +6,7 @@ import com.mcmp.o11ymanager.manager.exception.agent.AgentStatusException;
 import com.mcmp.o11ymanager.manager.exception.config.ConfigInitException;
 import com.mcmp.o11ymanager.manager.exception.host.BadRequestException;
 import com.mcmp.o11ymanager.manager.exception.host.HostAgentTaskProcessingException;
+import com.mcmp.o11ymanager.manager.exception.tumblebug.TumblebugRateLimitException;
 import jakarta.persistence.EntityNotFoundException;
 import jakarta.validation.ConstraintViolationException;
 import java.util.List;
@@ -60,6 +61,13 @@ public class ManagerExceptionHandler {
         return ErrorResponse.of(requestId, ResponseCode.NOT_FOUND, e.getMessage());
     }
 
+    @ExceptionHandler(TumblebugRateLimitException.class)
+    protected ResponseEntity<ErrorResponse> handleServiceUnavailable(Exception e) {
+        String requestId = UUID.randomUUID().toString();
+        log.warn("RequestID={}, Manager ServiceUnavailable: {}", requestId, e.getMessage());
+        return ErrorResponse.of(requestId, ResponseCode.SERVICE_UNAVAILABLE, e.getMessage());
+    }
+
     @ExceptionHandler(HttpRequestMethodNotSupportedException.class)
     protected ResponseEntity<ErrorResponse> handleMethodNotAllowed(
             HttpRequestMethodNotSupportedException e) {
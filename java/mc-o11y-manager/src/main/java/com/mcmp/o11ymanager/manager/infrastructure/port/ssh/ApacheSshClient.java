@@ -1,16 +1,42 @@
 package com.mcmp.o11ymanager.manager.infrastructure.port.ssh;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.mcmp.o11ymanager.manager.config.SshPoolProperties;
 import com.mcmp.o11ymanager.manager.model.agentHealth.AgentCommandResult;
 import com.mcmp.o11ymanager.manager.model.agentHealth.SshConnection;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.GeneralSecurityException;
 import java.security.KeyPair;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.EnumSet;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import lombok.extern.slf4j.Slf4j;
 import org.apache.sshd.client.SshClient;
 import org.apache.sshd.client.channel.ClientChannel;
 import org.apache.sshd.client.channel.ClientChannelEvent;
@@ -18,15 +44,69 @@ import org.apache.sshd.client.session.ClientSession;
 import org.apache.sshd.common.config.keys.FilePasswordProvider;
 import org.apache.sshd.common.keyprovider.FileKeyPairProvider;
 import org.apache.sshd.common.util.security.SecurityUtils;
+import org.apache.sshd.core.CoreModuleProperties;
+import org.apache.sshd.sftp.client.SftpClient;
+import org.apache.sshd.sftp.client.SftpClientFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+@Slf4j
 @Component
 public class ApacheSshClient {
 
     @Value("${ssh.connection-timeout}")
     private int sshConnectionTimeout;
 
+    /** SFTP channels opened per download on one session; stays under sshd's MaxSessions (10). */
+    @Value("${ssh.sftp.channels-per-download:4}")
+    private int sftpChannelsPerDownload;
+
+    /** Threads running SFTP transfers, shared by all downloads. */
+    @Value("${ssh.sftp.threads:8}")
+    private int sftpThreads;
+
+    private ThreadPoolExecutor sftpExecutor;
+
+    private final SshPoolProperties poolProperties;
+    private final Timer channelWaits;
+
+    // Parsed private keys by SHA-256 of the key text, so reconnects skip PEM parsing.
+    private final Cache<String, List<KeyPair>> keyPairs =
+            Caffeine.newBuilder().maximumSize(1_000).expireAfterAccess(Duration.ofHours(1)).build();
+
+    private record RemoteFile(String remotePath, Path localPath) {}
+
+    public ApacheSshClient(SshPoolProperties poolProperties, MeterRegistry registry) {
+        this.poolProperties = poolProperties;
+        this.channelWaits = Timer.builder("o11y.ssh.channel.wait").register(registry);
+    }
+
+    @PostConstruct
+    void init() {
+        int threads = Math.max(1, sftpThreads);
+        AtomicInteger counter = new AtomicInteger();
+        sftpExecutor =
+                new ThreadPoolExecutor(
+                        threads,
+                        threads,
+                        60L,
+                        TimeUnit.SECONDS,
+                        new LinkedBlockingQueue<>(),
+                        r -> {
+                            Thread t = new Thread(r, "sftp-download-" + counter.incrementAndGet());
+                            t.setDaemon(true);
+                            return t;
+                        });
+        sftpExecutor.allowCoreThreadTimeOut(true);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        if (sftpExecutor != null) {
+            sftpExecutor.shutdownNow();
+        }
+    }
+
     // Singleton SshClient - prevents thread leak
     private volatile SshClient sharedClient;
     private final Object clientLock = new Object();
@@ -35,8 +115,14 @@ public class ApacheSshClient {
         if (sharedClient == null || !sharedClient.isStarted()) {
             synchronized (clientLock) {
                 if (sharedClient == null || !sharedClient.isStarted()) {
-                    sharedClient = SshClient.setUpDefaultClient();
-                    sharedClient.start();
+                    SshClient client = SshClient.setUpDefaultClient();
+                    // keep pooled sessions alive and detect dead peers without running a command
+                    CoreModuleProperties.HEARTBEAT_INTERVAL.set(
+                            client, Duration.ofMillis(poolProperties.getHeartbeatIntervalMs()));
+                    CoreModuleProperties.HEARTBEAT_NO_REPLY_MAX.set(
+                            client, poolProperties.getHeartbeatNoReplyMax());
+                    client.start();
+                    sharedClient = client;
                 }
             }
         }
@@ -62,7 +148,8 @@ public class ApacheSshClient {
         }
 
         String sessionId = UUID.randomUUID().toString();
-        return new SshConnection(client, session, sessionId, port, ip);
+        return new SshConnection(
+                client, session, sessionId, port, ip, poolProperties.getChannelsPerSession());
     }
 
     public SshConnection openSessionWithPrivateKeyString(
@@ -75,16 +162,7 @@ public class ApacheSshClient {
                         .getSession();
 
         try {
-            // Parse private key from string content
-            Iterable<KeyPair> keyPairs =
-                    SecurityUtils.loadKeyPairIdentities(
-                            null,
-                            null,
-                            new ByteArrayInputStream(
-                                    privateKeyContent.getBytes(StandardCharsets.UTF_8)),
-                            null);
-
-            for (KeyPair keyPair : keyPairs) {
+            for (KeyPair keyPair : keyPairsOf(privateKeyContent)) {
                 session.addPublicKeyIdentity(keyPair);
             }
 
@@ -95,13 +173,24 @@ public class ApacheSshClient {
         }
 
         String sessionId = UUID.randomUUID().toString();
-        return new SshConnection(client, session, sessionId, port, ip);
+        return new SshConnection(
+                client, session, sessionId, port, ip, poolProperties.getChannelsPerSession());
     }
 
     public AgentCommandResult executeCommand(SshConnection connection, String command)
             throws Exception {
+        return executeCommand(connection, command, sshConnectionTimeout);
+    }
+
+    /**
+     * Runs {@code command} and waits up to {@code timeoutMs} for it to exit. A command still
+     * running after that has its channel closed and is reported with {@code timedOut} set.
+     */
+    public AgentCommandResult executeCommand(
+            SshConnection connection, String command, long timeoutMs) throws Exception {
         ClientSession session = connection.getSession();
 
+        acquireChannel(connection);
         try (ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
                 ByteArrayOutputStream errorStream = new ByteArrayOutputStream();
                 ClientChannel channel =
@@ -111,9 +200,10 @@ public class ApacheSshClient {
             channel.setErr(errorStream);
 
             channel.open().verify(sshConnectionTimeout, TimeUnit.MILLISECONDS);
-            channel.waitFor(
-                    EnumSet.of(ClientChannelEvent.CLOSED, ClientChannelEvent.EXIT_STATUS),
-                    TimeUnit.MILLISECONDS.toMillis(sshConnectionTimeout));
+            Set<ClientChannelEvent> events =
+                    channel.waitFor(
+                            EnumSet.of(ClientChannelEvent.CLOSED, ClientChannelEvent.EXIT_STATUS),
+                            timeoutMs);
 
             String output = outputStream.toString().trim();
             String error = errorStream.toString().trim();
@@ -126,7 +216,158 @@ public class ApacheSshClient {
                     .output(output)
                     .error(error)
                     .exitCode(exitStatus)
+                    .timedOut(events.contains(ClientChannelEvent.TIMEOUT))
                     .build();
+        } finally {
+            connection.releaseChannel();
+        }
+    }
+
+    /** Takes a channel slot of {@code connection}, waiting at most {@code channel-wait-ms}. */
+    private void acquireChannel(SshConnection connection) throws IOException {
+        long start = System.nanoTime();
+        boolean acquired;
+        try {
+            acquired = connection.acquireChannel(poolProperties.getChannelWaitMs());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for an SSH channel", e);
+        }
+        channelWaits.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        if (!acquired) {
+            throw new IOException(
+                    "No free SSH channel on "
+                            + connection.getIp()
+                            + " within "
+                            + poolProperties.getChannelWaitMs()
+                            + " ms");
+        }
+    }
+
+    /** Parsed key pairs of {@code privateKeyContent}, cached by the SHA-256 of the key text. */
+    List<KeyPair> keyPairsOf(String privateKeyContent) throws IOException {
+        byte[] keyBytes = privateKeyContent.getBytes(StandardCharsets.UTF_8);
+        String fingerprint;
+        try {
+            fingerprint =
+                    HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(keyBytes));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        List<KeyPair> cached = keyPairs.getIfPresent(fingerprint);
+        if (cached != null) {
+            return cached;
+        }
+        List<KeyPair> parsed = new ArrayList<>();
+        try {
+            SecurityUtils.loadKeyPairIdentities(
+                            null, null, new ByteArrayInputStream(keyBytes), null)
+                    .forEach(parsed::add);
+        } catch (GeneralSecurityException e) {
+            throw new IOException("Failed to load private key: " + e.getMessage(), e);
+        }
+        List<KeyPair> result = List.copyOf(parsed);
+        keyPairs.put(fingerprint, result);
+        return result;
+    }
+
+    /**
+     * Copies the remote directory tree {@code remotePath} into {@code localPath} over the
+     * connection's existing session. The tree is listed on one SFTP channel, then its files are
+     * transferred in parallel over up to {@code ssh.sftp.channels-per-download} channels of the
+     * same session. Files that fail to transfer are logged and skipped.
+     */
+    public void download(SshConnection connection, String remotePath, Path localPath)
+            throws IOException {
+        ClientSession session = connection.getSession();
+        List<RemoteFile> files = new ArrayList<>();
+        acquireChannel(connection);
+        try (SftpClient sftp = SftpClientFactory.instance().createSftpClient(session)) {
+            collectFiles(sftp, sftp.canonicalPath(remotePath), localPath, files);
+        } finally {
+            connection.releaseChannel();
+        }
+        if (files.isEmpty()) {
+            return;
+        }
+
+        Queue<RemoteFile> pending = new ConcurrentLinkedQueue<>(files);
+        int channels = Math.max(1, Math.min(sftpChannelsPerDownload, files.size()));
+        List<Future<?>> workers = new ArrayList<>(channels);
+        for (int i = 0; i < channels; i++) {
+            workers.add(
+                    sftpExecutor.submit(
+                            () -> {
+                                acquireChannel(connection);
+                                try (SftpClient sftp =
+                                        SftpClientFactory.instance().createSftpClient(session)) {
+                                    RemoteFile file;
+                                    while ((file = pending.poll()) != null) {
+                                        copy(sftp, file);
+                                    }
+                                } finally {
+                                    connection.releaseChannel();
+                                }
+                                return null;
+                            }));
+        }
+
+        IOException failure = null;
+        for (Future<?> worker : workers) {
+            try {
+                worker.get();
+            } catch (ExecutionException e) {
+                // a channel failed to open; the other channels keep draining the queue
+                failure = new IOException("SFTP channel failed: " + e.getCause().getMessage(), e);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                workers.forEach(w -> w.cancel(true));
+                throw new IOException("SFTP download interrupted: " + remotePath, e);
+            }
+        }
+        if (failure != null && !pending.isEmpty()) {
+            throw failure;
+        }
+    }
+
+    private void collectFiles(
+            SftpClient sftp, String remoteDir, Path localDir, List<RemoteFile> files)
+            throws IOException {
+        Files.createDirectories(localDir);
+
+        Iterable<SftpClient.DirEntry> entries;
+        try {
+            entries = sftp.readDir(remoteDir);
+        } catch (IOException e) {
+            log.error("Error: Failed to read remote directory {} : {}", remoteDir, e.getMessage());
+            return;
+        }
+
+        for (SftpClient.DirEntry entry : entries) {
+            String name = entry.getFilename();
+            if (name.equals(".") || name.equals("..")) {
+                continue;
+            }
+            String remoteChild = remoteDir + "/" + name;
+            Path localChild = localDir.resolve(name);
+            SftpClient.Attributes attrs = entry.getAttributes();
+
+            if (attrs.isDirectory()) {
+                collectFiles(sftp, remoteChild, localChild, files);
+            } else if (attrs.isRegularFile()) {
+                files.add(new RemoteFile(remoteChild, localChild));
+            } else {
+                log.info("Skipping non-regular file: {}", remoteChild);
+            }
+        }
+    }
+
+    private void copy(SftpClient sftp, RemoteFile file) {
+        log.debug("Downloading file: {} -> {}", file.remotePath(), file.localPath());
+        try (InputStream in = sftp.read(file.remotePath())) {
+            Files.copy(in, file.localPath(), StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            log.error("Error: Failed to download file {} : {}", file.remotePath(), e.getMessage());
         }
     }
 }
@@ -31,4 +31,16 @@ public class SshAdapter implements SshPort {
             throws Exception {
         return apacheSshClient.executeCommand(connection, command);
     }
+
+    @Override
+    public AgentCommandResult executeCommand(
+            SshConnection connection, String command, long timeoutMs) throws Exception {
+        return apacheSshClient.executeCommand(connection, command, timeoutMs);
+    }
+
+    @Override
+    public void download(SshConnection connection, String remotePath, Path localPath)
+            throws IOException {
+        apacheSshClient.download(connection, remotePath, localPath);
+    }
 }
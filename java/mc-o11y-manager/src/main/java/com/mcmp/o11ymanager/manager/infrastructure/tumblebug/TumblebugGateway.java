@@ -0,0 +1,247 @@
+package com.mcmp.o11ymanager.manager.infrastructure.tumblebug;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.mcmp.o11ymanager.manager.config.TumblebugGatewayProperties;
+import com.mcmp.o11ymanager.manager.dto.tumblebug.TumblebugCmd;
+import com.mcmp.o11ymanager.manager.dto.tumblebug.TumblebugInfra;
+import com.mcmp.o11ymanager.manager.dto.tumblebug.TumblebugNS;
+import com.mcmp.o11ymanager.manager.dto.tumblebug.TumblebugSshKey;
+import com.mcmp.o11ymanager.manager.port.TumblebugPort;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Component;
+
+/**
+ * The {@link TumblebugPort} the application uses; decorates {@link TumblebugClientAdapter} so that
+ * the many independent {@code getNode} callers (VM list, agent access info, command execution, VM
+ * created-time resolution, CSP warming) don't each hit cb-tumblebug.
+ *
+ * <ul>
+ *   <li>Every call takes a token from the shared {@link TumblebugRateLimiter}.
+ *   <li>Identical reads already in flight are joined instead of sent again.
+ *   <li>{@code getNode}, {@code getInfra} and {@code getSshKey} results are cached for {@code
+ *       tumblebug.gateway.cache.ttl-seconds}; a node miss loads the whole infra once and caches
+ *       all of its nodes.
+ * </ul>
+ *
+ * <p>Cached DTOs are shared between callers and must be treated as read-only. Each infra has a
+ * generation that {@link #invalidate} bumps; a load that started before an invalidation does not
+ * write its (possibly stale) infra and node reads back into the cache.
+ */
+@Slf4j
+@Primary
+@Component
+public class TumblebugGateway implements TumblebugPort {
+
+    private record NodeKey(String nsId, String infraId, String nodeId) {}
+
+    private record InfraKey(String nsId, String infraId) {}
+
+    private record SshKeyKey(String nsId, String sshKeyId) {}
+
+    private enum NsListKey {
+        INSTANCE
+    }
+
+    private final TumblebugClientAdapter delegate;
+    private final TumblebugRateLimiter rateLimiter;
+    private final TumblebugGatewayProperties.Cache cfg;
+    private final Cache<Object, Object> cache;
+    private final ConcurrentHashMap<Object, CompletableFuture<Object>> inFlight =
+            new ConcurrentHashMap<>();
+    private final Counter coalesced;
+    private final ConcurrentHashMap<InfraKey, AtomicLong> generations = new ConcurrentHashMap<>();
+
+    public TumblebugGateway(
+            TumblebugClientAdapter delegate,
+            TumblebugRateLimiter rateLimiter,
+            TumblebugGatewayProperties properties,
+            MeterRegistry registry) {
+        this.delegate = delegate;
+        this.rateLimiter = rateLimiter;
+        this.cfg = properties.getCache();
+        this.cache =
+                Caffeine.newBuilder()
+                        .maximumSize(cfg.getMaxSize())
+                        .expireAfterWrite(cfg.getTtlSeconds(), TimeUnit.SECONDS)
+                        .recordStats()
+                        .build();
+        CaffeineCacheMetrics.monitor(registry, cache, "tumblebug-gateway");
+        this.coalesced = Counter.builder("o11y.tumblebug.gateway.coalesced").register(registry);
+    }
+
+    @Override
+    public TumblebugInfra.Node getNode(String nsId, String infraId, String nodeId) {
+        NodeKey key = new NodeKey(nsId, infraId, nodeId);
+        if (cfg.isEnabled() && cfg.isPrefetchInfraOnNodeMiss() && cache.getIfPresent(key) == null) {
+            try {
+                getInfra(nsId, infraId);
+            } catch (RuntimeException e) {
+                log.debug(
+                        "[TB-GATEWAY] infra prefetch failed ns={}, infra={}: {}",
+                        nsId,
+                        infraId,
+                        e.toString());
+            }
+        }
+        // Not part of the infra (or prefetch failed): ask for the node itself.
+        return cached(
+                key, new InfraKey(nsId, infraId), () -> delegate.getNode(nsId, infraId, nodeId));
+    }
+
+    @Override
+    public TumblebugSshKey getSshKey(String nsId, String sshKeyId) {
+        return cached(
+                new SshKeyKey(nsId, sshKeyId), null, () -> delegate.getSshKey(nsId, sshKeyId));
+    }
+
+    @Override
+    public TumblebugNS getNSList() {
+        return singleFlight(NsListKey.INSTANCE, limited(delegate::getNSList));
+    }
+
+    @Override
+    public TumblebugInfra getInfra(String nsId, String infraId) {
+        InfraKey infraKey = new InfraKey(nsId, infraId);
+        return cached(
+                infraKey,
+                infraKey,
+                () -> {
+                    long generation = generation(infraKey);
+                    TumblebugInfra infra = delegate.getInfra(nsId, infraId);
+                    if (cfg.isEnabled() && infra != null && infra.getNode() != null) {
+                        for (TumblebugInfra.Node node : infra.getNode()) {
+                            if (node != null && node.getId() != null) {
+                                store(
+                                        infraKey,
+                                        generation,
+                                        new NodeKey(nsId, infraId, node.getId()),
+                                        node);
+                            }
+                        }
+                    }
+                    return infra;
+                });
+    }
+
+    @Override
+    public Object sendCommand(String nsId, String infraId, String nodeId, TumblebugCmd command) {
+        rateLimiter.acquire();
+        return delegate.sendCommand(nsId, infraId, nodeId, command);
+    }
+
+    /**
+     * Drops the cached infra and node reads of one infra, e.g. after a node was added to it. Loads
+     * of the infra still in flight are detached: later callers start a fresh load, and the old one
+     * does not cache its result.
+     */
+    @Override
+    public void invalidate(String nsId, String infraId) {
+        InfraKey infraKey = new InfraKey(nsId, infraId);
+        generations.computeIfAbsent(infraKey, k -> new AtomicLong()).incrementAndGet();
+        cache.asMap().keySet().removeIf(k -> belongsTo(k, infraKey));
+        inFlight.keySet().removeIf(k -> belongsTo(k, infraKey));
+    }
+
+    private static boolean belongsTo(Object key, InfraKey infra) {
+        return infra.equals(key)
+                || key instanceof NodeKey n
+                        && n.nsId().equals(infra.nsId())
+                        && n.infraId().equals(infra.infraId());
+    }
+
+    private long generation(InfraKey infra) {
+        AtomicLong generation = generations.get(infra);
+        return generation == null ? 0L : generation.get();
+    }
+
+    /**
+     * Caches {@code value} unless {@code scope} (the infra it was read from, null for reads outside
+     * any infra) was invalidated since {@code generation} was taken.
+     */
+    private void store(InfraKey scope, long generation, Object key, Object value) {
+        if (scope == null) {
+            cache.put(key, value);
+            return;
+        }
+        if (generation(scope) != generation) {
+            return;
+        }
+        cache.put(key, value);
+        // an invalidation between the check and the put may have missed this entry
+        if (generation(scope) != generation) {
+            cache.asMap().remove(key, value);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T cached(Object key, InfraKey scope, Supplier<T> call) {
+        if (!cfg.isEnabled()) {
+            return singleFlight(key, limited(call));
+        }
+        Object hit = cache.getIfPresent(key);
+        if (hit != null) {
+            return (T) hit;
+        }
+        return singleFlight(
+                key,
+                () -> {
+                    // A caller that finished just before we registered may have filled the cache.
+                    Object again = cache.getIfPresent(key);
+                    if (again != null) {
+                        return (T) again;
+                    }
+                    long generation = scope == null ? 0L : generation(scope);
+                    T value = limited(call).get();
+                    if (value != null) {
+                        store(scope, generation, key, value);
+                    }
+                    return value;
+                });
+    }
+
+    private <T> Supplier<T> limited(Supplier<T> call) {
+        return () -> {
+            rateLimiter.acquire();
+            return call.get();
+        };
+    }
+
+    /** Runs {@code call} unless the same call is already in flight, in which case joins it. */
+    @SuppressWarnings("unchecked")
+    private <T> T singleFlight(Object key, Supplier<T> call) {
+        CompletableFuture<Object> mine = new CompletableFuture<>();
+        CompletableFuture<Object> running = inFlight.putIfAbsent(key, mine);
+        if (running != null) {
+            coalesced.increment();
+            try {
+                return (T) running.join();
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof RuntimeException re) {
+                    throw re;
+                }
+                throw e;
+            }
+        }
+        try {
+            T value = call.get();
+            mine.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, mine);
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.mcmp.o11ymanager.manager.infrastructure.tumblebug;
+
+import com.mcmp.o11ymanager.manager.config.TumblebugGatewayProperties;
+import com.mcmp.o11ymanager.manager.exception.tumblebug.TumblebugRateLimitException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+/**
+ * Token bucket shared by every caller of cb-tumblebug. Callers reserve a token and sleep until it
+ * is due, so concurrent callers are spaced out evenly instead of racing into a 429.
+ */
+@Slf4j
+@Component
+public class TumblebugRateLimiter {
+
+    private final TumblebugGatewayProperties.RateLimit cfg;
+    private final double nanosPerPermit;
+    private final double burst;
+
+    private double tokens;
+    private long lastRefillNanos;
+
+    private final Timer waits;
+    private final Counter overflows;
+
+    public TumblebugRateLimiter(TumblebugGatewayProperties properties, MeterRegistry registry) {
+        this.cfg = properties.getRateLimit();
+        this.nanosPerPermit =
+                TimeUnit.SECONDS.toNanos(1) / Math.max(0.01, cfg.getPermitsPerSecond());
+        this.burst = Math.max(1, cfg.getBurst());
+        this.tokens = burst;
+        this.lastRefillNanos = System.nanoTime();
+        this.waits = Timer.builder("o11y.tumblebug.ratelimit.wait").register(registry);
+        this.overflows = Counter.builder("o11y.tumblebug.ratelimit.overflow").register(registry);
+    }
+
+    /**
+     * Blocks until a Tumblebug call may go out.
+     *
+     * @throws TumblebugRateLimitException if the backlog is longer than {@code max-wait-ms} (the
+     *     call must not be sent) or the wait is interrupted
+     */
+    public void acquire() {
+        if (!cfg.isEnabled()) {
+            return;
+        }
+        long waitNanos = reserve();
+        if (waitNanos < 0) {
+            overflows.increment();
+            log.warn(
+                    "[TB-GATEWAY] rate limit backlog exceeds {}ms, rejecting call",
+                    cfg.getMaxWaitMs());
+            throw new TumblebugRateLimitException(
+                    "Tumblebug rate limit backlog exceeds " + cfg.getMaxWaitMs() + "ms");
+        }
+        waits.record(waitNanos, TimeUnit.NANOSECONDS);
+        if (waitNanos == 0) {
+            return;
+        }
+        try {
+            TimeUnit.NANOSECONDS.sleep(waitNanos);
+        } catch (InterruptedException e) {
+            // The reserved token stays spent; the next caller just waits a bit longer.
+            Thread.currentThread().interrupt();
+            throw new TumblebugRateLimitException("interrupted while waiting for rate limit");
+        }
+    }
+
+    /** Takes a token and returns how long to wait for it, or -1 if that exceeds the max wait. */
+    private synchronized long reserve() {
+        long now = System.nanoTime();
+        tokens = Math.min(burst, tokens + (now - lastRefillNanos) / nanosPerPermit);
+        lastRefillNanos = now;
+        if (tokens >= 1) {
+            tokens -= 1;
+            return 0L;
+        }
+        long waitNanos = (long) Math.ceil((1 - tokens) * nanosPerPermit);
+        if (waitNanos > TimeUnit.MILLISECONDS.toNanos(cfg.getMaxWaitMs())) {
+            return -1L;
+        }
+        // Go into debt: the next caller sees the reservation and queues up behind this one.
+        tokens -= 1;
+        return waitNanos;
+    }
+}
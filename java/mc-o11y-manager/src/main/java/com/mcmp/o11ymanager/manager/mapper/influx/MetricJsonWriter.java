@@ -0,0 +1,165 @@
+package com.mcmp.o11ymanager.manager.mapper.influx;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mcmp.o11ymanager.manager.dto.influx.MetricDTO;
+import com.mcmp.o11ymanager.manager.global.vm.ResBody;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.Map;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+/**
+ * Writes metric responses straight to the servlet output stream in the same {@code ResBody} shape
+ * the other endpoints return ({@code rs_code, rs_msg, data, error_message}).
+ *
+ * <p>Rows are pulled one at a time from each series and the generator is flushed after every
+ * series, so a cached result (whose rows are a lazy view over primitive columns) is never expanded
+ * into a full {@code List<List<Object>>} and the response goes out chunked while it is written.
+ */
+@Component
+@RequiredArgsConstructor
+public class MetricJsonWriter {
+
+    private final ObjectMapper objectMapper;
+
+    /** 200 OK whose body streams {@code series} wrapped in a success {@code ResBody}. */
+    public ResponseEntity<StreamingResponseBody> ok(List<MetricDTO> series) {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(out -> write(out, series));
+    }
+
+    /** Same as {@link #ok(List)} for batch results: {@code data} holds one array per query. */
+    public ResponseEntity<StreamingResponseBody> okBatch(List<List<MetricDTO>> results) {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(out -> writeBatch(out, results));
+    }
+
+    public void write(OutputStream out, List<MetricDTO> series) throws IOException {
+        try (JsonGenerator gen =
+                objectMapper.getFactory().createGenerator(out, JsonEncoding.UTF8)) {
+            writeHead(gen);
+            writeSeriesArray(gen, series);
+            writeTail(gen);
+        }
+    }
+
+    public void writeBatch(OutputStream out, List<List<MetricDTO>> results) throws IOException {
+        try (JsonGenerator gen =
+                objectMapper.getFactory().createGenerator(out, JsonEncoding.UTF8)) {
+            writeHead(gen);
+            gen.writeStartArray();
+            if (results != null) {
+                for (List<MetricDTO> series : results) {
+                    writeSeriesArray(gen, series);
+                }
+            }
+            gen.writeEndArray();
+            writeTail(gen);
+        }
+    }
+
+    private static void writeHead(JsonGenerator gen) throws IOException {
+        gen.writeStartObject();
+        gen.writeStringField("rs_code", "0000");
+        gen.writeStringField("rs_msg", "success");
+        gen.writeFieldName("data");
+    }
+
+    private static void writeTail(JsonGenerator gen) throws IOException {
+        gen.writeStringField("error_message", "");
+        gen.writeEndObject();
+    }
+
+    private static void writeSeriesArray(JsonGenerator gen, List<MetricDTO> series)
+            throws IOException {
+        if (series == null) {
+            gen.writeNull();
+            return;
+        }
+        gen.writeStartArray();
+        for (MetricDTO m : series) {
+            writeSeries(gen, m);
+            gen.flush();
+        }
+        gen.writeEndArray();
+    }
+
+    private static void writeSeries(JsonGenerator gen, MetricDTO m) throws IOException {
+        if (m == null) {
+            gen.writeNull();
+            return;
+        }
+        gen.writeStartObject();
+        gen.writeStringField("name", m.name());
+
+        gen.writeFieldName("columns");
+        if (m.columns() == null) {
+            gen.writeNull();
+        } else {
+            gen.writeStartArray();
+            for (String c : m.columns()) {
+                gen.writeString(c);
+            }
+            gen.writeEndArray();
+        }
+
+        gen.writeFieldName("tags");
+        if (m.tags() == null) {
+            gen.writeNull();
+        } else {
+            gen.writeStartObject();
+            for (Map.Entry<String, String> t : m.tags().entrySet()) {
+                gen.writeStringField(t.getKey(), t.getValue());
+            }
+            gen.writeEndObject();
+        }
+
+        gen.writeFieldName("values");
+        if (m.values() == null) {
+            gen.writeNull();
+        } else {
+            gen.writeStartArray();
+            for (List<Object> row : m.values()) {
+                writeRow(gen, row);
+            }
+            gen.writeEndArray();
+        }
+        gen.writeEndObject();
+    }
+
+    private static void writeRow(JsonGenerator gen, List<Object> row) throws IOException {
+        if (row == null) {
+            gen.writeNull();
+            return;
+        }
+        gen.writeStartArray();
+        for (Object v : row) {
+            if (v == null) {
+                gen.writeNull();
+            } else if (v instanceof Double d) {
+                gen.writeNumber(d);
+            } else if (v instanceof String s) {
+                gen.writeString(s);
+            } else {
+                // longs/booleans from non-default InfluxDB response formats
+                gen.writeObject(v);
+            }
+        }
+        gen.writeEndArray();
+    }
+
+    /** OpenAPI schema of the body written by {@link #ok}; never instantiated. */
+    public static class MetricsBody extends ResBody<List<MetricDTO>> {}
+
+    /** OpenAPI schema of the body written by {@link #okBatch}; never instantiated. */
+    public static class MetricsBatchBody extends ResBody<List<List<MetricDTO>>> {}
+}
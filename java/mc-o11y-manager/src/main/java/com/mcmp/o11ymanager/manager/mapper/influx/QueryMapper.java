@@ -15,16 +15,23 @@ public class QueryMapper {
         }
 
         for (var r : qr.getResults()) {
-            if (r == null || r.getSeries() == null) {
-                continue;
-            }
-            for (var s : r.getSeries()) {
-                String name = s.getName();
-                Map<String, String> tags = s.getTags();
-                List<String> columns = s.getColumns();
-                List<List<Object>> values = s.getValues();
-                out.add(new MetricDTO(name, columns, tags, values));
-            }
+            out.addAll(resultToMetricDTOs(r));
+        }
+        return out;
+    }
+
+    /** Series of a single statement's result (multi-statement queries return one per statement). */
+    public static List<MetricDTO> resultToMetricDTOs(QueryResult.Result r) {
+        var out = new ArrayList<MetricDTO>();
+        if (r == null || r.getSeries() == null) {
+            return out;
+        }
+        for (var s : r.getSeries()) {
+            String name = s.getName();
+            Map<String, String> tags = s.getTags();
+            List<String> columns = s.getColumns();
+            List<List<Object>> values = s.getValues();
+            out.add(new MetricDTO(name, columns, tags, values));
         }
         return out;
     }
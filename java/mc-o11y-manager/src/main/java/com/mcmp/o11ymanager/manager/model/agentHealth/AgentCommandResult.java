@@ -11,4 +11,7 @@ public class AgentCommandResult {
     private final String output;
     private final String error;
     private final int exitCode;
+
+    // The command was still running when its timeout expired; output is partial.
+    private final boolean timedOut;
 }
@@ -0,0 +1,18 @@
+package com.mcmp.o11ymanager.manager.model.agentHealth;
+
+import java.util.List;
+import lombok.Builder;
+import lombok.Getter;
+
+/** Aggregated outcome of a batched command; {@code results} are in the order of the targets. */
+@Getter
+@Builder
+public class BatchCommandReport {
+    private final int total;
+    private final int succeeded;
+    private final int failed;
+    private final int timedOut;
+    private final int skipped;
+    private final long durationMs;
+    private final List<HostCommandResult> results;
+}
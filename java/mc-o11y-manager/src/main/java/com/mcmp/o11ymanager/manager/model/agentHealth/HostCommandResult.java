@@ -0,0 +1,25 @@
+package com.mcmp.o11ymanager.manager.model.agentHealth;
+
+import lombok.Builder;
+import lombok.Getter;
+
+/** Outcome of a batched command on one host. */
+@Getter
+@Builder
+public class HostCommandResult {
+
+    public enum Status {
+        SUCCESS,
+        FAILED,
+        TIMEOUT,
+        SKIPPED
+    }
+
+    private final String ip;
+    private final int port;
+    private final Status status;
+    private final int exitCode;
+    private final String output;
+    private final String error;
+    private final long durationMs;
+}
@@ -1,6 +1,9 @@
 package com.mcmp.o11ymanager.manager.model.agentHealth;
 
 import java.io.IOException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.Setter;
 import org.apache.sshd.client.SshClient;
@@ -16,14 +19,24 @@ public class SshConnection implements AutoCloseable {
     private final String ip;
     private long lastUsedTime;
 
+    // Bounds concurrent exec/SFTP channels on this session, i.e. per host.
+    @Getter(AccessLevel.NONE)
+    private final Semaphore channels;
+
     public SshConnection(
-            SshClient client, ClientSession session, String sessionId, int port, String ip) {
+            SshClient client,
+            ClientSession session,
+            String sessionId,
+            int port,
+            String ip,
+            int maxChannels) {
         this.client = client;
         this.session = session;
         this.sessionId = sessionId;
         this.port = port;
         this.ip = ip;
         this.lastUsedTime = System.currentTimeMillis();
+        this.channels = new Semaphore(Math.max(1, maxChannels), true);
     }
 
     public boolean isActive() {
@@ -34,6 +47,18 @@ public class SshConnection implements AutoCloseable {
         this.lastUsedTime = System.currentTimeMillis();
     }
 
+    /**
+     * Takes one of this session's channel slots, waiting up to {@code timeoutMs}. Every successful
+     * call must be paired with {@link #releaseChannel()}.
+     */
+    public boolean acquireChannel(long timeoutMs) throws InterruptedException {
+        return channels.tryAcquire(timeoutMs, TimeUnit.MILLISECONDS);
+    }
+
+    public void releaseChannel() {
+        channels.release();
+    }
+
     @Override
     public void close() throws IOException {
         if (session != null) {
@@ -0,0 +1,16 @@
+package com.mcmp.o11ymanager.manager.model.agentHealth;
+
+import lombok.Builder;
+import lombok.Getter;
+import lombok.ToString;
+
+/** Host addressed by a batched command, with the credentials to reach it. */
+@Getter
+@Builder
+@ToString(exclude = "privateKeyContent")
+public class SshTarget {
+    private final String ip;
+    private final int port;
+    private final String user;
+    private final String privateKeyContent;
+}
@@ -2,6 +2,7 @@ package com.mcmp.o11ymanager.manager.model.influx;
 
 import com.mcmp.o11ymanager.manager.dto.influx.MetricRequestDTO;
 import com.mcmp.o11ymanager.manager.dto.influx.MetricRequestDTO.FieldInfo;
+import java.time.Instant;
 import java.util.List;
 import java.util.StringJoiner;
 import org.springframework.util.StringUtils;
@@ -11,6 +12,15 @@ public class InfluxQl {
     // -----------------------------------generate
     // query--------------------------------------------------//
     public static String buildQuery(MetricRequestDTO r, String retentionPolicy) {
+        return buildQuery(r, retentionPolicy, null);
+    }
+
+    /**
+     * Same as {@link #buildQuery(MetricRequestDTO, String)} but, when {@code since} is set, only
+     * selects points at or after {@code since} instead of the whole {@code range}. Used by the
+     * monitoring cache to fetch just the newest slice of a series it already holds.
+     */
+    public static String buildQuery(MetricRequestDTO r, String retentionPolicy, Instant since) {
         if (!StringUtils.hasText(r.getMeasurement())) {
             throw new IllegalArgumentException("Measurement is required.");
         }
@@ -21,12 +31,14 @@ public class InfluxQl {
 
         String select = "select time as timestamp" + projection(r.getFields());
         String from = " from " + qualifiedMeasurement(retentionPolicy, r.getMeasurement());
-        String where = " where time > now() - " + r.getRange() + conditions(r.getConditions());
+        String timeFilter =
+                since == null ? "time > now() - " + r.getRange() : "time >= '" + since + "'";
+        String where = " where " + timeFilter + conditions(r.getConditions());
         // GROUP BY time() is only valid when every projected field is aggregated; InfluxDB rejects
         // it otherwise ("GROUP BY requires at least one aggregate function"), which silently turns
         // into empty graphs. When the projection is raw (no function, or "*"), drop the time bucket
         // and return the raw points instead of producing an invalid query.
-        String groupTime = hasAggregate(r.getFields()) ? r.getGroupTime() : null;
+        String groupTime = effectiveGroupTime(r);
         String group = groupBy(groupTime, r.getGroupBy());
         String order = " order by time desc";
         String limit = (r.getLimit() != null && r.getLimit() > 0) ? " limit " + r.getLimit() : "";
@@ -34,6 +46,47 @@ public class InfluxQl {
         return (select + from + where + group + order + limit).trim();
     }
 
+    /**
+     * The {@code GROUP BY time(...)} interval actually applied to {@code r}, or {@code null} when
+     * the projection is raw and points are returned ungrouped.
+     */
+    public static String effectiveGroupTime(MetricRequestDTO r) {
+        return hasAggregate(r.getFields()) ? r.getGroupTime() : null;
+    }
+
+    /**
+     * Parses an InfluxQL-style relative duration like {@code "1h"}, {@code "30m"}, {@code "2d"}
+     * into seconds. Returns 0 for null or unparseable inputs.
+     */
+    public static long parseDurationSeconds(String duration) {
+        if (duration == null || duration.isBlank()) {
+            return 0L;
+        }
+        String s = duration.trim().toLowerCase();
+        int i = 0;
+        while (i < s.length() && Character.isDigit(s.charAt(i))) {
+            i++;
+        }
+        if (i == 0 || i == s.length()) {
+            return 0L;
+        }
+        long n;
+        try {
+            n = Long.parseLong(s.substring(0, i));
+        } catch (NumberFormatException e) {
+            return 0L;
+        }
+        String unit = s.substring(i);
+        return switch (unit) {
+            case "s" -> n;
+            case "m" -> n * 60L;
+            case "h" -> n * 3600L;
+            case "d" -> n * 86400L;
+            case "w" -> n * 7L * 86400L;
+            default -> 0L;
+        };
+    }
+
     // ------------------------------------select
     // query--------------------------------------------------//
     /** True when at least one projected field uses an aggregate function (mean, last, ...). */
@@ -13,4 +13,17 @@ public interface SshPort {
             String user, String ip, int port, String privateKeyContent) throws IOException;
 
     AgentCommandResult executeCommand(SshConnection connection, String command) throws Exception;
+
+    /**
+     * Like {@link #executeCommand(SshConnection, String)}, but waits up to {@code timeoutMs} for
+     * the command to exit; a command still running then is stopped and reported as timed out.
+     */
+    AgentCommandResult executeCommand(SshConnection connection, String command, long timeoutMs)
+            throws Exception;
+
+    /**
+     * Copies the remote directory tree {@code remotePath} into {@code localPath} over SFTP on the
+     * connection's existing session.
+     */
+    void download(SshConnection connection, String remotePath, Path localPath) throws IOException;
 }
@@ -16,4 +16,7 @@ public interface TumblebugPort {
     TumblebugInfra getInfra(String nsId, String infraId);
 
     Object sendCommand(String nsId, String infraId, String nodeId, TumblebugCmd command);
+
+    /** Drops cached reads of one infra after its nodes changed. No-op for uncached ports. */
+    default void invalidate(String nsId, String infraId) {}
 }
@@ -0,0 +1,13 @@
+package com.mcmp.o11ymanager.manager.repository;
+
+import com.mcmp.o11ymanager.manager.entity.InfluxRouteEntity;
+import com.mcmp.o11ymanager.manager.entity.InfluxRouteId;
+import java.util.List;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface InfluxRouteJpaRepository extends JpaRepository<InfluxRouteEntity, InfluxRouteId> {
+
+    List<InfluxRouteEntity> findByConfirmedFalseOrderByResolvedAtAsc();
+}
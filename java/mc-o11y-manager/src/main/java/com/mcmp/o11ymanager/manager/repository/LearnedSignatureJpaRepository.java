@@ -0,0 +1,9 @@
+package com.mcmp.o11ymanager.manager.repository;
+
+import com.mcmp.o11ymanager.manager.entity.LearnedSignatureEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface LearnedSignatureJpaRepository
+        extends JpaRepository<LearnedSignatureEntity, String> {}
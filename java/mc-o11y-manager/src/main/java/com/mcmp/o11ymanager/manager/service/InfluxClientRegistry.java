@@ -0,0 +1,285 @@
+package com.mcmp.o11ymanager.manager.service;
+
+import com.mcmp.o11ymanager.manager.config.InfluxClientProperties;
+import com.mcmp.o11ymanager.manager.dto.influx.InfluxDTO;
+import com.mcmp.o11ymanager.manager.entity.InfluxEntity;
+import com.mcmp.o11ymanager.manager.repository.InfluxJpaRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import okhttp3.ConnectionPool;
+import okhttp3.Dispatcher;
+import okhttp3.OkHttpClient;
+import org.influxdb.InfluxDB;
+import org.influxdb.InfluxDBFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Holds one long-lived {@link InfluxDB} client per {@link InfluxEntity} id.
+ *
+ * <p>All clients share a single OkHttp {@link ConnectionPool}, so keep-alive connections to each
+ * server are reused across metric requests instead of being torn down by a per-query {@code
+ * InfluxDBFactory.connect(...)}. A client is rebuilt when the row's url/credentials change and
+ * dropped when the row disappears; the periodic {@link #refresh()} sweep catches changes made
+ * outside of the request path.
+ *
+ * <p>Servers without an id (e.g. an ad-hoc connection test for a server that is not saved yet) and
+ * explicit connection tests ({@link #executeTransient}) get a throwaway client that is closed right
+ * after the call. Throwaway clients use their own small pool, because {@link InfluxDB#close()}
+ * evicts every idle connection of the pool its client was built on.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class InfluxClientRegistry {
+
+    private final InfluxJpaRepository influxJpaRepository;
+    private final InfluxClientProperties properties;
+
+    private final Map<Long, PooledClient> clients = new ConcurrentHashMap<>();
+    private final AtomicLong createdCount = new AtomicLong();
+    private final AtomicLong retiredCount = new AtomicLong();
+    private final AtomicLong transientCount = new AtomicLong();
+
+    private ConnectionPool connectionPool;
+    private OkHttpClient baseClient;
+    private OkHttpClient transientBaseClient;
+
+    @PostConstruct
+    void init() {
+        this.connectionPool =
+                new ConnectionPool(
+                        Math.max(1, properties.getMaxIdleConnections()),
+                        Math.max(1L, properties.getKeepAliveSeconds()),
+                        TimeUnit.SECONDS);
+        this.baseClient =
+                new OkHttpClient.Builder()
+                        .connectionPool(connectionPool)
+                        .connectTimeout(properties.getConnectTimeoutMs(), TimeUnit.MILLISECONDS)
+                        .readTimeout(properties.getReadTimeoutMs(), TimeUnit.MILLISECONDS)
+                        .writeTimeout(properties.getReadTimeoutMs(), TimeUnit.MILLISECONDS)
+                        .build();
+        this.transientBaseClient =
+                baseClient.newBuilder()
+                        .connectionPool(new ConnectionPool(1, 1, TimeUnit.SECONDS))
+                        .build();
+        log.info(
+                "[INF-CLIENT] initialized maxIdle={}, keepAliveSec={}, connectMs={}, readMs={}",
+                properties.getMaxIdleConnections(),
+                properties.getKeepAliveSeconds(),
+                properties.getConnectTimeoutMs(),
+                properties.getReadTimeoutMs());
+    }
+
+    @PreDestroy
+    void shutdown() {
+        clients.values().forEach(this::closeQuietly);
+        clients.clear();
+        if (connectionPool != null) {
+            connectionPool.evictAll();
+        }
+    }
+
+    /**
+     * Runs {@code action} against the shared client for {@code server}. Exceptions thrown by the
+     * action propagate to the caller unchanged.
+     */
+    public <T> T execute(InfluxDTO server, Function<InfluxDB, T> action) {
+        if (server.getId() == null) {
+            return executeTransient(server, action);
+        }
+        PooledClient client = acquire(server);
+        client.inFlight().incrementAndGet();
+        client.requests().incrementAndGet();
+        try {
+            return action.apply(client.influx());
+        } catch (RuntimeException e) {
+            client.failures().incrementAndGet();
+            throw e;
+        } finally {
+            client.inFlight().decrementAndGet();
+        }
+    }
+
+    /**
+     * Runs {@code action} against a throwaway client that is never registered, even when {@code
+     * server} has an id. Used by connection tests, whose url/credentials may be unsaved edits that
+     * must not replace the live client of that id.
+     */
+    public <T> T executeTransient(InfluxDTO server, Function<InfluxDB, T> action) {
+        transientCount.incrementAndGet();
+        OkHttpClient.Builder builder =
+                transientBaseClient.newBuilder().dispatcher(new Dispatcher());
+        try (InfluxDB influx =
+                InfluxDBFactory.connect(
+                        server.getUrl(), server.getUsername(), server.getPassword(), builder)) {
+            return action.apply(influx);
+        }
+    }
+
+    /** Drops the cached client for {@code influxId}; the next call rebuilds it. */
+    public void invalidate(Long influxId) {
+        if (influxId == null) {
+            return;
+        }
+        PooledClient removed = clients.remove(influxId);
+        if (removed != null) {
+            closeQuietly(removed);
+        }
+    }
+
+    /**
+     * Re-reads the {@code influx} table and retires clients whose row was deleted or whose
+     * url/credentials changed.
+     */
+    @Scheduled(
+            fixedDelayString = "${influxdb.client.refresh-interval-ms:60000}",
+            initialDelayString = "${influxdb.client.refresh-interval-ms:60000}")
+    public void refresh() {
+        if (clients.isEmpty()) {
+            return;
+        }
+        Map<Long, String> current = new HashMap<>();
+        try {
+            for (InfluxEntity e : influxJpaRepository.findAll()) {
+                current.put(e.getId(), fingerprint(e.getUrl(), e.getUsername(), e.getPassword()));
+            }
+        } catch (Exception e) {
+            log.warn("[INF-CLIENT] refresh failed: {}", e.toString());
+            return;
+        }
+        for (Map.Entry<Long, PooledClient> entry : clients.entrySet()) {
+            String fp = current.get(entry.getKey());
+            if (fp == null || !fp.equals(entry.getValue().fingerprint())) {
+                if (clients.remove(entry.getKey(), entry.getValue())) {
+                    log.info(
+                            "[INF-CLIENT] retiring id={}, url={} ({})",
+                            entry.getKey(),
+                            entry.getValue().url(),
+                            fp == null ? "row removed" : "row changed");
+                    closeQuietly(entry.getValue());
+                }
+            }
+        }
+    }
+
+    /** Returns pool and per-server in-flight counters for the {@code /client/stats} endpoint. */
+    public Map<String, Object> stats() {
+        List<Map<String, Object>> servers = new ArrayList<>(clients.size());
+        clients.entrySet().stream()
+                .sorted(Map.Entry.comparingByKey())
+                .forEach(
+                        e -> {
+                            PooledClient c = e.getValue();
+                            Map<String, Object> m = new LinkedHashMap<>();
+                            m.put("id", e.getKey());
+                            m.put("url", c.url());
+                            m.put("inFlight", c.inFlight().get());
+                            m.put("requests", c.requests().get());
+                            m.put("failures", c.failures().get());
+                            m.put("createdAt", c.createdAt().toString());
+                            servers.add(m);
+                        });
+        int inFlight = clients.values().stream().mapToInt(c -> c.inFlight().get()).sum();
+        return Map.ofEntries(
+                Map.entry("clients", clients.size()),
+                Map.entry("inFlight", inFlight),
+                Map.entry(
+                        "poolConnections",
+                        connectionPool == null ? 0 : connectionPool.connectionCount()),
+                Map.entry(
+                        "poolIdleConnections",
+                        connectionPool == null ? 0 : connectionPool.idleConnectionCount()),
+                Map.entry("createdCount", createdCount.get()),
+                Map.entry("retiredCount", retiredCount.get()),
+                Map.entry("transientCount", transientCount.get()),
+                Map.entry("servers", servers));
+    }
+
+    private PooledClient acquire(InfluxDTO server) {
+        String fp = fingerprint(server.getUrl(), server.getUsername(), server.getPassword());
+        PooledClient existing = clients.get(server.getId());
+        if (existing != null && existing.fingerprint().equals(fp)) {
+            return existing;
+        }
+        return clients.compute(
+                server.getId(),
+                (id, prev) -> {
+                    if (prev != null && prev.fingerprint().equals(fp)) {
+                        return prev;
+                    }
+                    if (prev != null) {
+                        log.info("[INF-CLIENT] credentials changed id={}, rebuilding", id);
+                        closeQuietly(prev);
+                    }
+                    createdCount.incrementAndGet();
+                    log.info("[INF-CLIENT] created client id={}, url={}", id, server.getUrl());
+                    Dispatcher dispatcher = new Dispatcher();
+                    return new PooledClient(
+                            server.getUrl(),
+                            fp,
+                            connect(server, dispatcher),
+                            dispatcher,
+                            Instant.now(),
+                            new AtomicInteger(),
+                            new AtomicLong(),
+                            new AtomicLong());
+                });
+    }
+
+    /**
+     * Builds a client on top of the shared connection pool. Each client gets its own {@link
+     * Dispatcher} so retiring one server's client never affects another server's calls.
+     */
+    private InfluxDB connect(InfluxDTO server, Dispatcher dispatcher) {
+        OkHttpClient.Builder builder = baseClient.newBuilder().dispatcher(dispatcher);
+        return InfluxDBFactory.connect(
+                server.getUrl(), server.getUsername(), server.getPassword(), builder);
+    }
+
+    /**
+     * Retires a pooled client by stopping only its own dispatcher. {@link InfluxDB#close()} is not
+     * used here: it also evicts the shared connection pool, dropping the keep-alive connections of
+     * every other server. The retired client's idle connections age out with the pool's keep-alive.
+     */
+    private void closeQuietly(PooledClient client) {
+        retiredCount.incrementAndGet();
+        try {
+            client.dispatcher().executorService().shutdown();
+        } catch (Exception e) {
+            log.debug("[INF-CLIENT] close failed url={}, err={}", client.url(), e.toString());
+        }
+    }
+
+    private static String fingerprint(String url, String username, String password) {
+        return Objects.toString(url, "")
+                + "|"
+                + Objects.toString(username, "")
+                + "|"
+                + Objects.hashCode(password);
+    }
+
+    private record PooledClient(
+            String url,
+            String fingerprint,
+            InfluxDB influx,
+            Dispatcher dispatcher,
+            Instant createdAt,
+            AtomicInteger inFlight,
+            AtomicLong requests,
+            AtomicLong failures) {}
+}
@@ -1,5 +1,7 @@
 package com.mcmp.o11ymanager.manager.service;
 
+import com.mcmp.o11ymanager.manager.config.InfluxClientProperties;
+import com.mcmp.o11ymanager.manager.config.MonitoringCacheProperties;
 import com.mcmp.o11ymanager.manager.dto.influx.FieldDTO;
 import com.mcmp.o11ymanager.manager.dto.influx.InfluxDTO;
 import com.mcmp.o11ymanager.manager.dto.influx.MetricDTO;
@@ -13,26 +15,33 @@ import com.mcmp.o11ymanager.manager.mapper.influx.InfluxMapper;
 import com.mcmp.o11ymanager.manager.mapper.influx.QueryMapper;
 import com.mcmp.o11ymanager.manager.model.influx.InfluxQl;
 import com.mcmp.o11ymanager.manager.repository.InfluxJpaRepository;
+import com.mcmp.o11ymanager.manager.service.cache.InfluxMetadataCache;
+import com.mcmp.o11ymanager.manager.service.cache.InfluxRoutingTable;
 import com.mcmp.o11ymanager.manager.service.cache.MonitoringCacheService;
 import com.mcmp.o11ymanager.manager.service.interfaces.InfluxDbService;
 import jakarta.annotation.PostConstruct;
+import java.time.Instant;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.influxdb.InfluxDBFactory;
+import org.influxdb.InfluxDB;
 import org.influxdb.dto.Pong;
 import org.influxdb.dto.Query;
 import org.influxdb.dto.QueryResult;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Sort;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
 
 @Service
 @Slf4j
@@ -43,6 +52,15 @@ public class InfluxDbServiceImpl implements InfluxDbService {
     private final InfluxDbInfo influxDbInfo;
     private final InfluxMapper influxMapper;
     private final MonitoringCacheService monitoringCacheService;
+    private final InfluxClientRegistry influxClientRegistry;
+    private final InfluxRoutingTable influxRoutingTable;
+    private final InfluxMetadataCache influxMetadataCache;
+    private final InfluxScatterGather influxScatterGather;
+    private final InfluxClientProperties influxClientProperties;
+    private final MonitoringCacheProperties monitoringCacheProperties;
+
+    @Value("${influxdb.routing.max-rescans-per-tick:20}")
+    private int routingMaxRescansPerTick;
 
     private static final String NS_ID = "ns_id";
     private static final String INFRA_ID = "infra_id";
@@ -82,11 +100,15 @@ public class InfluxDbServiceImpl implements InfluxDbService {
         // insight predictions DB — created by the bundled init-database.sh on first boot too.
         databases.add("insight");
         for (InfluxEntity e : entities) {
-            try (var influx =
-                    InfluxDBFactory.connect(e.getUrl(), e.getUsername(), e.getPassword())) {
-                for (String db : databases) {
-                    influx.query(new Query("CREATE DATABASE \"" + db + "\""));
-                }
+            try {
+                influxClientRegistry.execute(
+                        toDTO(e),
+                        influx -> {
+                            for (String db : databases) {
+                                influx.query(new Query("CREATE DATABASE \"" + db + "\""));
+                            }
+                            return null;
+                        });
                 log.info("[INF-BOOTSTRAP] ensured databases {} on {}", databases, e.getUrl());
             } catch (Exception ex) {
                 log.warn(
@@ -132,6 +154,7 @@ public class InfluxDbServiceImpl implements InfluxDbService {
 
     private InfluxDTO toDTO(InfluxEntity e) {
         return InfluxDTO.builder()
+                .id(e.getId())
                 .url(e.getUrl())
                 .database(e.getDatabase())
                 .username(e.getUsername())
@@ -152,36 +175,51 @@ public class InfluxDbServiceImpl implements InfluxDbService {
         return toDTO(e);
     }
 
+    /**
+     * Connection test for a server as submitted by the caller. Runs on a throwaway client, so
+     * edited credentials of a saved server never replace its registered client.
+     */
     @Override
     public boolean isConnectedDb(InfluxDTO influxDTO) {
-        try (var influx =
-                InfluxDBFactory.connect(
-                        influxDTO.getUrl(), influxDTO.getUsername(), influxDTO.getPassword())) {
+        return connectionTest(influxDTO, true);
+    }
 
-            Pong pong = influx.ping();
-            if (pong == null || "unknown".equalsIgnoreCase(pong.getVersion())) {
-                return false;
-            }
+    /** Reachability check of a saved row, reusing its registered client. */
+    private boolean isReachable(InfluxDTO saved) {
+        return connectionTest(saved, false);
+    }
 
-            try {
-                QueryResult qr = influx.query(new Query("SHOW DATABASES"));
-                if (qr == null || qr.getError() != null) {
-                    log.warn(
-                            "[INFLUX CONNECTION TEST] auth or query failed url={}, err={}",
-                            influxDTO.getUrl(),
-                            qr != null ? qr.getError() : "null query result");
-                    return false;
-                }
-            } catch (Exception ex) {
-                log.warn(
-                        "[INFLUX CONNECTION TEST] authorization failed url={}, err={}",
-                        influxDTO.getUrl(),
-                        ex.toString());
-                return false;
-            }
+    private boolean connectionTest(InfluxDTO influxDTO, boolean throwaway) {
+        Function<InfluxDB, Boolean> test =
+                influx -> {
+                    Pong pong = influx.ping();
+                    if (pong == null || "unknown".equalsIgnoreCase(pong.getVersion())) {
+                        return false;
+                    }
 
-            return true;
+                    try {
+                        QueryResult qr = influx.query(new Query("SHOW DATABASES"));
+                        if (qr == null || qr.getError() != null) {
+                            log.warn(
+                                    "[INFLUX CONNECTION TEST] auth or query failed url={}, err={}",
+                                    influxDTO.getUrl(),
+                                    qr != null ? qr.getError() : "null query result");
+                            return false;
+                        }
+                    } catch (Exception ex) {
+                        log.warn(
+                                "[INFLUX CONNECTION TEST] authorization failed url={}, err={}",
+                                influxDTO.getUrl(),
+                                ex.toString());
+                        return false;
+                    }
 
+                    return true;
+                };
+        try {
+            return throwaway
+                    ? influxClientRegistry.executeTransient(influxDTO, test)
+                    : influxClientRegistry.execute(influxDTO, test);
         } catch (Exception e) {
             log.info(
                     "[INFLUX CONNECTION TEST] failed url={}, err={}",
@@ -201,10 +239,8 @@ public class InfluxDbServiceImpl implements InfluxDbService {
 
     // ------------------------------------queryExecutor--------------------------------------------------//
     private Optional<QueryResult> exec(InfluxDTO influxDTO, String query) {
-        try (var influx =
-                InfluxDBFactory.connect(
-                        influxDTO.getUrl(), influxDTO.getUsername(), influxDTO.getPassword())) {
-            var qr = influx.query(new Query(query, influxDTO.getDatabase()));
+        try {
+            var qr = query(influxDTO, query);
             var err = QueryMapper.firstError(qr);
             if (err != null) {
                 log.info(
@@ -231,94 +267,180 @@ public class InfluxDbServiceImpl implements InfluxDbService {
 
     @Override
     public List<MetricDTO> getMetricsByNsMci(String nsId, String infraId, MetricRequestDTO req) {
+        addKeyConditions(req, nsId, infraId, null);
 
-        if (req.getConditions() != null) {
-            for (MetricRequestDTO.ConditionInfo c : req.getConditions()) {
-                if (c.getKey() == null) {
-                    continue;
-                }
-                String key = c.getKey().trim().toLowerCase();
-                if (key.equals("ns_id") || key.equals("infra_id")) {
-                    throw new IllegalArgumentException(
-                            "[Invalid condition] 'ns_id' or 'infra_id' cannot be set manually in request body.");
-                }
-            }
-        }
+        return monitoringCacheService.getOrLoad(
+                nsId,
+                infraId,
+                null,
+                req,
+                () -> loadMetricsByNsMci(nsId, infraId, req, null),
+                since -> loadMetricsByNsMci(nsId, infraId, req, since));
+    }
 
-        List<MetricRequestDTO.ConditionInfo> conditions =
-                Optional.ofNullable(req.getConditions()).orElse(new ArrayList<>());
+    /** Loads the whole range, or only points at or after {@code since} when it is set. */
+    private List<MetricDTO> loadMetricsByNsMci(
+            String nsId, String infraId, MetricRequestDTO req, Instant since) {
+        InfluxEntity entity = resolvedEntity(nsId, infraId);
+        InfluxDTO s = serverFor(entity, pickDatabase(entity, req, nsId, infraId, null));
 
-        MetricRequestDTO.ConditionInfo nsCond = new MetricRequestDTO.ConditionInfo();
-        nsCond.setKey("ns_id");
-        nsCond.setValue(nsId);
-        conditions.add(nsCond);
+        String rp = fetchDefaultRp(s);
+        String q = InfluxQl.buildQuery(req, rp, since);
 
-        MetricRequestDTO.ConditionInfo mciCond = new MetricRequestDTO.ConditionInfo();
-        mciCond.setKey("infra_id");
-        mciCond.setValue(infraId);
-        conditions.add(mciCond);
+        if (!existsNsMciInInflux(s, nsId, infraId)) {
+            throw nsMciNotFound(nsId, infraId);
+        }
 
-        req.setConditions(conditions);
+        List<MetricDTO> metrics = exec(s, q).map(QueryMapper::toMetricDTOs).orElse(List.of());
+        return withKeyTags(metrics, nsId, infraId, null);
+    }
+
+    @Override
+    public List<MetricDTO> getMetricsByVM(
+            String nsId, String infraId, String nodeId, MetricRequestDTO req) {
+        addKeyConditions(req, nsId, infraId, nodeId);
 
         return monitoringCacheService.getOrLoad(
-                nsId, infraId, null, req, () -> loadMetricsByNsMci(nsId, infraId, req));
+                nsId,
+                infraId,
+                nodeId,
+                req,
+                () -> loadMetricsByVM(nsId, infraId, nodeId, req, null),
+                since -> loadMetricsByVM(nsId, infraId, nodeId, req, since));
     }
 
-    private List<MetricDTO> loadMetricsByNsMci(String nsId, String infraId, MetricRequestDTO req) {
-        Long influxId = resolveInfluxDb(nsId, infraId);
-        InfluxEntity entity =
-                influxJpaRepository
-                        .findById(influxId)
-                        .orElseThrow(
-                                () ->
-                                        new IllegalStateException(
-                                                "resolved influx not found: " + influxId));
+    @Override
+    public List<MetricDTO> refreshMetricsByVM(
+            String nsId, String infraId, String nodeId, MetricRequestDTO req) {
+        addKeyConditions(req, nsId, infraId, nodeId);
+
+        return monitoringCacheService.refresh(
+                nsId,
+                infraId,
+                nodeId,
+                req,
+                () -> loadMetricsByVM(nsId, infraId, nodeId, req, null),
+                since -> loadMetricsByVM(nsId, infraId, nodeId, req, since));
+    }
 
-        InfluxDTO s =
-                InfluxDTO.builder()
-                        .url(entity.getUrl())
-                        .database(pickDatabase(entity, req, nsId, infraId, null))
-                        .username(entity.getUsername())
-                        .password(entity.getPassword())
-                        .build();
+    /** Loads the whole range, or only points at or after {@code since} when it is set. */
+    private List<MetricDTO> loadMetricsByVM(
+            String nsId, String infraId, String nodeId, MetricRequestDTO req, Instant since) {
+        InfluxEntity entity = resolvedEntity(nsId, infraId);
+        InfluxDTO s = serverFor(entity, pickDatabase(entity, req, nsId, infraId, nodeId));
 
         String rp = fetchDefaultRp(s);
-        String q = InfluxQl.buildQuery(req, rp);
+        String q = InfluxQl.buildQuery(req, rp, since);
 
-        if (!existsNsMciInInflux(s, nsId, infraId)) {
-            throw new IllegalArgumentException(
-                    String.format(
-                            "Invalid nsId='%s' or infraId='%s': not found in InfluxDB",
-                            nsId, infraId));
+        if (!existsVmInInflux(s, nsId, infraId, nodeId)) {
+            // No series for this node yet — the agent isn't installed or hasn't reported. Return
+            // empty (not a 400) so the UI renders a graceful "no data" state instead of an error.
+            log.debug(
+                    "No InfluxDB series for ns='{}', infra='{}', node='{}'; returning empty metrics",
+                    nsId,
+                    infraId,
+                    nodeId);
+            return List.of();
         }
 
         List<MetricDTO> metrics = exec(s, q).map(QueryMapper::toMetricDTOs).orElse(List.of());
-
-        return metrics.stream()
-                .map(
-                        m -> {
-                            Map<String, String> tags = new LinkedHashMap<>();
-                            if (m.tags() != null) {
-                                tags.putAll(m.tags());
-                            }
-                            tags.put("ns_id", nsId);
-                            tags.put("infra_id", infraId);
-                            return new MetricDTO(m.name(), m.columns(), tags, m.values());
-                        })
-                .collect(Collectors.toList());
+        return withKeyTags(metrics, nsId, infraId, nodeId);
     }
 
+    /**
+     * Runs several metric queries for one MCI (or one VM when {@code nodeId} is set) in a single
+     * round-trip per database. Cached sub-requests are answered from {@link
+     * MonitoringCacheService}, and sub-requests already being loaded by another caller wait for
+     * that load; the rest share one route resolution, RP lookup and existence check, and are sent
+     * as one {@code ;}-separated InfluxQL query. Results come back in request order.
+     */
     @Override
-    public List<MetricDTO> getMetricsByVM(
-            String nsId, String infraId, String nodeId, MetricRequestDTO req) {
+    public List<List<MetricDTO>> getMetricsBatch(
+            String nsId, String infraId, String nodeId, List<MetricRequestDTO> reqs) {
+        if (reqs == null || reqs.isEmpty()) {
+            return List.of();
+        }
+        int maxBatchQueries = monitoringCacheProperties.getMaxBatchQueries();
+        if (reqs.size() > maxBatchQueries) {
+            throw new IllegalArgumentException(
+                    "Too many queries in one batch: " + reqs.size() + " > " + maxBatchQueries);
+        }
+
+        for (MetricRequestDTO req : reqs) {
+            addKeyConditions(req, nsId, infraId, nodeId);
+        }
+        return monitoringCacheService.getOrLoadAll(
+                nsId,
+                infraId,
+                nodeId,
+                reqs,
+                misses -> loadMetricsBatch(nsId, infraId, nodeId, misses),
+                (req, since) ->
+                        nodeId == null
+                                ? loadMetricsByNsMci(nsId, infraId, req, since)
+                                : loadMetricsByVM(nsId, infraId, nodeId, req, since));
+    }
+
+    /** Loads {@code reqs} with one multi-statement query per database, in request order. */
+    private List<List<MetricDTO>> loadMetricsBatch(
+            String nsId, String infraId, String nodeId, List<MetricRequestDTO> reqs) {
+        List<List<MetricDTO>> out = new ArrayList<>(Collections.nCopies(reqs.size(), null));
+        InfluxEntity entity = resolvedEntity(nsId, infraId);
+        // Short and long ranges may live in different databases (raw vs downsampling).
+        Map<String, List<Integer>> byDatabase = new LinkedHashMap<>();
+        for (int i = 0; i < reqs.size(); i++) {
+            String db = pickDatabase(entity, reqs.get(i), nsId, infraId, nodeId);
+            byDatabase.computeIfAbsent(db, k -> new ArrayList<>()).add(i);
+        }
+
+        for (Map.Entry<String, List<Integer>> e : byDatabase.entrySet()) {
+            InfluxDTO s = serverFor(entity, e.getKey());
+            List<Integer> indexes = e.getValue();
+
+            String rp = fetchDefaultRp(s);
+            List<String> statements = new ArrayList<>(indexes.size());
+            for (int i : indexes) {
+                statements.add(InfluxQl.buildQuery(reqs.get(i), rp));
+            }
+
+            boolean exists =
+                    nodeId == null
+                            ? existsNsMciInInflux(s, nsId, infraId)
+                            : existsVmInInflux(s, nsId, infraId, nodeId);
+            if (!exists && nodeId == null) {
+                throw nsMciNotFound(nsId, infraId);
+            }
+            List<List<MetricDTO>> loaded =
+                    exists
+                            ? execBatch(s, statements)
+                            : Collections.nCopies(indexes.size(), List.<MetricDTO>of());
+
+            for (int k = 0; k < indexes.size(); k++) {
+                out.set(indexes.get(k), withKeyTags(loaded.get(k), nsId, infraId, nodeId));
+            }
+        }
+        return out;
+    }
 
+    /**
+     * Rejects caller-supplied key conditions and appends ns_id / infra_id (and node_id when set)
+     * from the path.
+     */
+    private static void addKeyConditions(
+            MetricRequestDTO req, String nsId, String infraId, String nodeId) {
         if (req.getConditions() != null) {
             for (MetricRequestDTO.ConditionInfo c : req.getConditions()) {
                 if (c.getKey() == null) {
                     continue;
                 }
                 String key = c.getKey().trim().toLowerCase();
-                if (key.equals("ns_id") || key.equals("infra_id") || key.equals("node_id")) {
+                if (nodeId == null && (key.equals("ns_id") || key.equals("infra_id"))) {
+                    throw new IllegalArgumentException(
+                            "[Invalid condition] 'ns_id' or 'infra_id' cannot be set manually in request body.");
+                }
+                boolean keyCondition =
+                        key.equals("ns_id") || key.equals("infra_id") || key.equals("node_id");
+                if (nodeId != null && keyCondition) {
                     throw new IllegalArgumentException(
                             "[Invalid condition] 'ns_id', 'infra_id', or 'node_id' cannot be set manually in request body.");
                 }
@@ -338,52 +460,19 @@ public class InfluxDbServiceImpl implements InfluxDbService {
         mciCond.setValue(infraId);
         conditions.add(mciCond);
 
-        MetricRequestDTO.ConditionInfo vmCond = new MetricRequestDTO.ConditionInfo();
-        vmCond.setKey("node_id");
-        vmCond.setValue(nodeId);
-        conditions.add(vmCond);
+        if (nodeId != null) {
+            MetricRequestDTO.ConditionInfo vmCond = new MetricRequestDTO.ConditionInfo();
+            vmCond.setKey("node_id");
+            vmCond.setValue(nodeId);
+            conditions.add(vmCond);
+        }
 
         req.setConditions(conditions);
-
-        return monitoringCacheService.getOrLoad(
-                nsId, infraId, nodeId, req, () -> loadMetricsByVM(nsId, infraId, nodeId, req));
     }
 
-    private List<MetricDTO> loadMetricsByVM(
-            String nsId, String infraId, String nodeId, MetricRequestDTO req) {
-        Long influxId = resolveInfluxDb(nsId, infraId);
-        InfluxEntity entity =
-                influxJpaRepository
-                        .findById(influxId)
-                        .orElseThrow(
-                                () ->
-                                        new IllegalStateException(
-                                                "resolved influx not found: " + influxId));
-
-        InfluxDTO s =
-                InfluxDTO.builder()
-                        .url(entity.getUrl())
-                        .database(pickDatabase(entity, req, nsId, infraId, nodeId))
-                        .username(entity.getUsername())
-                        .password(entity.getPassword())
-                        .build();
-
-        String rp = fetchDefaultRp(s);
-        String q = InfluxQl.buildQuery(req, rp);
-
-        if (!existsVmInInflux(s, nsId, infraId, nodeId)) {
-            // No series for this node yet — the agent isn't installed or hasn't reported. Return
-            // empty (not a 400) so the UI renders a graceful "no data" state instead of an error.
-            log.debug(
-                    "No InfluxDB series for ns='{}', infra='{}', node='{}'; returning empty metrics",
-                    nsId,
-                    infraId,
-                    nodeId);
-            return List.of();
-        }
-
-        List<MetricDTO> metrics = exec(s, q).map(QueryMapper::toMetricDTOs).orElse(List.of());
-
+    /** Copies each series with the key tags added (InfluxDB omits tags the query filtered on). */
+    private static List<MetricDTO> withKeyTags(
+            List<MetricDTO> metrics, String nsId, String infraId, String nodeId) {
         return metrics.stream()
                 .map(
                         m -> {
@@ -393,12 +482,89 @@ public class InfluxDbServiceImpl implements InfluxDbService {
                             }
                             tags.put("ns_id", nsId);
                             tags.put("infra_id", infraId);
-                            tags.put("node_id", nodeId);
+                            if (nodeId != null) {
+                                tags.put("node_id", nodeId);
+                            }
                             return new MetricDTO(m.name(), m.columns(), tags, m.values());
                         })
                 .collect(Collectors.toList());
     }
 
+    private static IllegalArgumentException nsMciNotFound(String nsId, String infraId) {
+        return new IllegalArgumentException(
+                String.format(
+                        "Invalid nsId='%s' or infraId='%s': not found in InfluxDB",
+                        nsId, infraId));
+    }
+
+    private InfluxEntity resolvedEntity(String nsId, String infraId) {
+        Long influxId = resolveInfluxDb(nsId, infraId);
+        return influxJpaRepository
+                .findById(influxId)
+                .orElseThrow(
+                        () -> new IllegalStateException("resolved influx not found: " + influxId));
+    }
+
+    private static InfluxDTO serverFor(InfluxEntity entity, String database) {
+        return InfluxDTO.builder()
+                .id(entity.getId())
+                .url(entity.getUrl())
+                .database(database)
+                .username(entity.getUsername())
+                .password(entity.getPassword())
+                .build();
+    }
+
+    /**
+     * Sends {@code statements} as one multi-statement query and returns one series list per
+     * statement. A failed statement (or a failed request) yields an empty list, like {@link #exec}.
+     */
+    private List<List<MetricDTO>> execBatch(InfluxDTO influxDTO, List<String> statements) {
+        List<List<MetricDTO>> out =
+                new ArrayList<>(Collections.nCopies(statements.size(), List.of()));
+        String q = String.join("; ", statements);
+        QueryResult qr;
+        try {
+            qr = query(influxDTO, q);
+        } catch (Exception e) {
+            log.warn(
+                    "[exec] batch query failed url={}, db={}, statements={}, err={}",
+                    influxDTO.getUrl(),
+                    influxDTO.getDatabase(),
+                    statements.size(),
+                    e.toString());
+            return out;
+        }
+        if (qr == null || qr.getError() != null || qr.getResults() == null) {
+            log.info(
+                    "[exec] influx error url={}, db={}, q={}, err={}",
+                    influxDTO.getUrl(),
+                    influxDTO.getDatabase(),
+                    q,
+                    qr == null ? "null QueryResult" : qr.getError());
+            return out;
+        }
+        // InfluxDB returns one result per statement, in statement order.
+        List<QueryResult.Result> results = qr.getResults();
+        for (int idx = 0; idx < results.size() && idx < out.size(); idx++) {
+            QueryResult.Result r = results.get(idx);
+            if (r == null) {
+                continue;
+            }
+            if (r.getError() != null) {
+                log.info(
+                        "[exec] influx error url={}, db={}, q={}, err={}",
+                        influxDTO.getUrl(),
+                        influxDTO.getDatabase(),
+                        statements.get(idx),
+                        r.getError());
+                continue;
+            }
+            out.set(idx, QueryMapper.resultToMetricDTOs(r));
+        }
+        return out;
+    }
+
     // ------------------------------------getTag--------------------------------------------------//
 
     @Override
@@ -412,21 +578,26 @@ public class InfluxDbServiceImpl implements InfluxDbService {
 
         Map<String, Set<String>> acc = new LinkedHashMap<>();
 
-        for (var s : servers) {
-            exec(s, "SHOW TAG KEYS")
-                    .ifPresent(
-                            qr -> {
-                                var list = QueryMapper.toTagDTOs(qr);
-                                for (var dto : list) {
-                                    var set =
-                                            acc.computeIfAbsent(
-                                                    dto.getMeasurement(),
-                                                    k -> new LinkedHashSet<>());
-                                    if (dto.getTags() != null) {
-                                        set.addAll(dto.getTags());
-                                    }
-                                }
-                            });
+        List<List<TagDTO>> perServer =
+                influxScatterGather.gather(
+                        "SHOW TAG KEYS",
+                        servers,
+                        s ->
+                                influxMetadataCache.schema(
+                                        "tagKeys",
+                                        s.getUrl(),
+                                        s.getDatabase(),
+                                        () ->
+                                                exec(s, "SHOW TAG KEYS")
+                                                        .map(QueryMapper::toTagDTOs)
+                                                        .orElse(null)));
+        for (var list : perServer) {
+            for (var dto : list) {
+                var set = acc.computeIfAbsent(dto.getMeasurement(), k -> new LinkedHashSet<>());
+                if (dto.getTags() != null) {
+                    set.addAll(dto.getTags());
+                }
+            }
         }
 
         List<TagDTO> out = new ArrayList<>(acc.size());
@@ -453,23 +624,28 @@ public class InfluxDbServiceImpl implements InfluxDbService {
 
         Map<String, Map<String, String>> acc = new LinkedHashMap<>();
 
-        for (var s : servers) {
-            exec(s, "SHOW FIELD KEYS")
-                    .ifPresent(
-                            qr -> {
-                                var list = QueryMapper.toFieldDTOs(qr);
-                                for (var dto : list) {
-                                    var map =
-                                            acc.computeIfAbsent(
-                                                    dto.getMeasurement(),
-                                                    k -> new LinkedHashMap<>());
-                                    if (dto.getFields() != null) {
-                                        for (var f : dto.getFields()) {
-                                            map.putIfAbsent(f.getKey(), f.getType());
-                                        }
-                                    }
-                                }
-                            });
+        List<List<FieldDTO>> perServer =
+                influxScatterGather.gather(
+                        "SHOW FIELD KEYS",
+                        servers,
+                        s ->
+                                influxMetadataCache.schema(
+                                        "fieldKeys",
+                                        s.getUrl(),
+                                        s.getDatabase(),
+                                        () ->
+                                                exec(s, "SHOW FIELD KEYS")
+                                                        .map(QueryMapper::toFieldDTOs)
+                                                        .orElse(null)));
+        for (var list : perServer) {
+            for (var dto : list) {
+                var map = acc.computeIfAbsent(dto.getMeasurement(), k -> new LinkedHashMap<>());
+                if (dto.getFields() != null) {
+                    for (var f : dto.getFields()) {
+                        map.putIfAbsent(f.getKey(), f.getType());
+                    }
+                }
+            }
         }
 
         List<FieldDTO> out = new ArrayList<>(acc.size());
@@ -494,6 +670,15 @@ public class InfluxDbServiceImpl implements InfluxDbService {
 
     @Override
     public Long resolveInfluxDb(String nsId, String infraId) {
+        return influxRoutingTable.resolve(nsId, infraId, () -> scanInfluxDb(nsId, infraId));
+    }
+
+    /**
+     * Full resolution across all configured servers: the server already holding the tag
+     * combination wins, otherwise the one with the lowest infra_id cardinality, otherwise the
+     * first reachable one. Only runs on a routing-table miss.
+     */
+    private InfluxRoutingTable.Route scanInfluxDb(String nsId, String infraId) {
         var entities = rawEntities();
         if (entities.isEmpty()) {
             throw new IllegalStateException("influxdb.servers must contain at least 1 server");
@@ -502,22 +687,9 @@ public class InfluxDbServiceImpl implements InfluxDbService {
         log.info("[INF-RESOLVE] start ns={}, mci={}, servers={}", nsId, infraId, entities.size());
 
         // DB where (ns_id, infra_id) combination already exists
-        for (var e : entities) {
-            var s = toDTO(e);
-            if (!isConnectedDb(s)) {
-                log.info(
-                        "[INF-RESOLVE] id={}, url={} PING FAIL -> skip ns&mci",
-                        e.getId(),
-                        s.getUrl());
-                continue;
-            }
-            if (existsTagCombination(s, nsId, infraId)) {
-                log.info(
-                        "[INF-RESOLVE] found vm combination at id={}, url={}",
-                        e.getId(),
-                        s.getUrl());
-                return e.getId();
-            }
+        Optional<Long> existing = findServerWithSeries(entities, nsId, infraId);
+        if (existing.isPresent()) {
+            return new InfluxRoutingTable.Route(existing.get(), true);
         }
 
         // Choose the least DB compared to Cardinality
@@ -527,16 +699,16 @@ public class InfluxDbServiceImpl implements InfluxDbService {
                     "[INF-RESOLVE] selected lowest cardinality at id={}, url={}",
                     best.getId(),
                     best.getUrl());
-            return best.getId();
+            return new InfluxRoutingTable.Route(best.getId(), false);
         }
 
         // Fallback to the first connectable DB
         for (var e : entities) {
             var s = toDTO(e);
-            if (isConnectedDb(s)) {
+            if (isReachable(s)) {
                 log.info(
                         "[INF-RESOLVE] fallback to reachable id={}, url={}", e.getId(), s.getUrl());
-                return e.getId();
+                return new InfluxRoutingTable.Route(e.getId(), false);
             } else {
                 log.info(
                         "[INF-RESOLVE] id={}, url={} PING FAIL -> skip fallback",
@@ -549,16 +721,93 @@ public class InfluxDbServiceImpl implements InfluxDbService {
                 "no reachable influxdb candidates (ns=" + nsId + ", mci=" + infraId + ")");
     }
 
+    private Optional<Long> findServerWithSeries(
+            List<InfluxEntity> entities, String nsId, String infraId) {
+        for (var e : entities) {
+            var s = toDTO(e);
+            if (!isReachable(s)) {
+                log.info(
+                        "[INF-RESOLVE] id={}, url={} PING FAIL -> skip ns&mci",
+                        e.getId(),
+                        s.getUrl());
+                continue;
+            }
+            if (existsTagCombination(s, nsId, infraId)) {
+                log.info(
+                        "[INF-RESOLVE] found vm combination at id={}, url={}",
+                        e.getId(),
+                        s.getUrl());
+                return Optional.of(e.getId());
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Background maintenance of the routing table: drops routes pointing at servers that were
+     * removed, and re-probes fallback-assigned routes so they move to the server that actually
+     * received the data once agents start reporting.
+     */
+    @Scheduled(
+            fixedDelayString = "${influxdb.routing.refresh-interval-ms:300000}",
+            initialDelayString = "${influxdb.routing.refresh-interval-ms:300000}")
+    public void refreshInfluxRoutes() {
+        List<InfluxEntity> entities;
+        try {
+            entities = rawEntities();
+        } catch (Exception e) {
+            log.warn("[INF-ROUTE] refresh skipped: {}", e.toString());
+            return;
+        }
+        Set<Long> known = entities.stream().map(InfluxEntity::getId).collect(Collectors.toSet());
+        int dropped = 0;
+        for (var route : influxRoutingTable.persistedRoutes()) {
+            if (!known.contains(route.getInfluxId())) {
+                influxRoutingTable.invalidate(route.getNsId(), route.getInfraId());
+                dropped++;
+            }
+        }
+
+        int probed = 0;
+        int moved = 0;
+        for (var route : influxRoutingTable.unconfirmedRoutes()) {
+            if (probed >= routingMaxRescansPerTick) {
+                break;
+            }
+            if (!known.contains(route.getInfluxId())) {
+                continue;
+            }
+            probed++;
+            Optional<Long> found =
+                    findServerWithSeries(entities, route.getNsId(), route.getInfraId());
+            if (found.isPresent()) {
+                influxRoutingTable.update(
+                        route.getNsId(),
+                        route.getInfraId(),
+                        new InfluxRoutingTable.Route(found.get(), true));
+                if (!found.get().equals(route.getInfluxId())) {
+                    moved++;
+                }
+            }
+        }
+        if (dropped > 0 || probed > 0) {
+            log.info("[INF-ROUTE] refresh dropped={}, probed={}, moved={}", dropped, probed, moved);
+        }
+    }
+
     // ------------------------------------Retention
     // Policy--------------------------------------------------//
 
     @Override
     public String fetchDefaultRp(InfluxDTO influxDTO) {
+        return influxMetadataCache.defaultRetentionPolicy(
+                influxDTO.getUrl(), influxDTO.getDatabase(), () -> queryDefaultRp(influxDTO));
+    }
+
+    private String queryDefaultRp(InfluxDTO influxDTO) {
         String q = "SHOW RETENTION POLICIES ON \"" + influxDTO.getDatabase() + "\"";
-        try (var influx =
-                InfluxDBFactory.connect(
-                        influxDTO.getUrl(), influxDTO.getUsername(), influxDTO.getPassword())) {
-            var qr = influx.query(new Query(q, influxDTO.getDatabase()));
+        try {
+            var qr = query(influxDTO, q);
             if (qr == null || hasError(qr)) {
                 return null;
             }
@@ -611,7 +860,7 @@ public class InfluxDbServiceImpl implements InfluxDbService {
 
         for (var e : entities) {
             var s = toDTO(e);
-            if (!isConnectedDb(s)) {
+            if (!isReachable(s)) {
                 log.info("[CARDINALITY] id={}, url={} PING FAIL -> skip", e.getId(), s.getUrl());
                 continue;
             }
@@ -631,6 +880,16 @@ public class InfluxDbServiceImpl implements InfluxDbService {
 
     private boolean existsVmInInflux(
             InfluxDTO influxDTO, String nsId, String infraId, String nodeId) {
+        return influxMetadataCache.seriesExists(
+                influxDTO.getUrl(),
+                influxDTO.getDatabase(),
+                nsId,
+                infraId,
+                nodeId,
+                () -> queryVmExists(influxDTO, nsId, infraId, nodeId));
+    }
+
+    private boolean queryVmExists(InfluxDTO influxDTO, String nsId, String infraId, String nodeId) {
         String q =
                 String.format(
                         "SHOW TAG VALUES ON \"%s\" WITH KEY=\"node_id\" "
@@ -640,6 +899,16 @@ public class InfluxDbServiceImpl implements InfluxDbService {
     }
 
     private boolean existsNsMciInInflux(InfluxDTO influxDTO, String nsId, String infraId) {
+        return influxMetadataCache.seriesExists(
+                influxDTO.getUrl(),
+                influxDTO.getDatabase(),
+                nsId,
+                infraId,
+                null,
+                () -> queryNsMciExists(influxDTO, nsId, infraId));
+    }
+
+    private boolean queryNsMciExists(InfluxDTO influxDTO, String nsId, String infraId) {
         String q =
                 String.format(
                         "SHOW TAG VALUES ON \"%s\" WITH KEY=\"infra_id\" "
@@ -682,53 +951,125 @@ public class InfluxDbServiceImpl implements InfluxDbService {
 
     // ------------------------------------discoverActiveVms--------------------------------------------------//
 
+    /** Uses {@code monitoring.cache.discovery.window}, the same window the cache warmers use. */
     @Override
     public List<VmRef> discoverActiveVms() {
+        return discoverActiveVms(monitoringCacheProperties.getDiscovery().getWindow());
+    }
+
+    /**
+     * Lists VMs with {@code cpu} series written within {@code window} via {@code SHOW SERIES}.
+     * That only reads the series index of the shards overlapping the window; a {@code SELECT
+     * count(*) ... GROUP BY} over the same window would read every raw point.
+     */
+    @Override
+    public List<VmRef> discoverActiveVms(String window) {
+        if (!StringUtils.hasText(window) || !window.matches("\\d+[smhdw]")) {
+            throw new IllegalArgumentException("The window must be in the format 10m/1h/7d.");
+        }
+        String q = "SHOW SERIES FROM \"cpu\" WHERE time > now() - " + window;
+        // Background callers only; give each server the full read timeout rather than the
+        // interactive scatter deadline.
+        List<Set<VmRef>> perServer =
+                influxScatterGather.gather(
+                        "DISCOVER-VMS",
+                        rawServers(),
+                        influxClientProperties.getReadTimeoutMs(),
+                        s -> exec(s, q).map(InfluxDbServiceImpl::toVmRefs).orElse(null));
         Set<VmRef> seen = new LinkedHashSet<>();
-        String q =
-                "SELECT count(*) FROM \"cpu\" WHERE time > now() - 7d "
-                        + "GROUP BY \"ns_id\", \"infra_id\", \"node_id\"";
-        for (var entity : rawEntities()) {
-            var s = toDTO(entity);
-            if (!isConnectedDb(s)) {
+        perServer.forEach(seen::addAll);
+        log.debug("[DISCOVER-VMS] window={}, discovered {} active VM tuples", window, seen.size());
+        return new ArrayList<>(seen);
+    }
+
+    /** Extracts (ns_id, infra_id, node_id) from {@code SHOW SERIES} keys. */
+    private static Set<VmRef> toVmRefs(QueryResult qr) {
+        Set<VmRef> out = new LinkedHashSet<>();
+        if (qr.getResults() == null) {
+            return out;
+        }
+        for (var r : qr.getResults()) {
+            if (r == null || r.getSeries() == null) {
                 continue;
             }
-            try {
-                var qrOpt = exec(s, q);
-                if (qrOpt.isEmpty()) {
-                    continue;
-                }
-                var results = qrOpt.get().getResults();
-                if (results == null) {
+            for (var series : r.getSeries()) {
+                int iKey = series.getColumns() == null ? -1 : series.getColumns().indexOf("key");
+                if (iKey < 0 || series.getValues() == null) {
                     continue;
                 }
-                for (var r : results) {
-                    if (r == null || r.getSeries() == null) {
+                for (var row : series.getValues()) {
+                    Object key = iKey < row.size() ? row.get(iKey) : null;
+                    if (key == null) {
                         continue;
                     }
-                    for (var series : r.getSeries()) {
-                        Map<String, String> tags = series.getTags();
-                        if (tags == null) {
-                            continue;
-                        }
-                        String ns = tags.get(NS_ID);
-                        String mci = tags.get(INFRA_ID);
-                        String vm = tags.get("node_id");
-                        if (ns == null || mci == null || vm == null) {
-                            continue;
-                        }
-                        seen.add(new VmRef(ns, mci, vm));
+                    Map<String, String> tags = parseSeriesKey(String.valueOf(key));
+                    String ns = tags.get(NS_ID);
+                    String mci = tags.get(INFRA_ID);
+                    String vm = tags.get("node_id");
+                    if (ns == null || mci == null || vm == null) {
+                        continue;
                     }
+                    out.add(new VmRef(ns, mci, vm));
                 }
-            } catch (Exception e) {
-                log.warn(
-                        "[DISCOVER-VMS] failed url={}, err={}",
-                        s.getUrl(),
-                        Objects.toString(e.getMessage(), e.toString()));
             }
         }
-        log.info("[DISCOVER-VMS] discovered {} active VM tuples", seen.size());
-        return new ArrayList<>(seen);
+        return out;
+    }
+
+    /**
+     * Parses a line-protocol series key ({@code cpu,cpu=cpu-total,ns_id=ns\ 1,...}) into its tag
+     * map. Backslash escapes ({@code \,} {@code \=} {@code \ }) are honoured.
+     */
+    static Map<String, String> parseSeriesKey(String key) {
+        Map<String, String> tags = new LinkedHashMap<>();
+        List<String> parts = new ArrayList<>();
+        StringBuilder cur = new StringBuilder();
+        for (int i = 0; i < key.length(); i++) {
+            char c = key.charAt(i);
+            if (c == '\\' && i + 1 < key.length()) {
+                cur.append(c).append(key.charAt(++i));
+            } else if (c == ',') {
+                parts.add(cur.toString());
+                cur.setLength(0);
+            } else {
+                cur.append(c);
+            }
+        }
+        parts.add(cur.toString());
+        // parts[0] is the measurement
+        for (int p = 1; p < parts.size(); p++) {
+            String part = parts.get(p);
+            int eq = -1;
+            for (int i = 0; i < part.length(); i++) {
+                char c = part.charAt(i);
+                if (c == '\\') {
+                    i++;
+                } else if (c == '=') {
+                    eq = i;
+                    break;
+                }
+            }
+            if (eq <= 0) {
+                continue;
+            }
+            tags.put(unescapeKey(part.substring(0, eq)), unescapeKey(part.substring(eq + 1)));
+        }
+        return tags;
+    }
+
+    private static String unescapeKey(String s) {
+        if (s.indexOf('\\') < 0) {
+            return s;
+        }
+        StringBuilder sb = new StringBuilder(s.length());
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c == '\\' && i + 1 < s.length()) {
+                c = s.charAt(++i);
+            }
+            sb.append(c);
+        }
+        return sb.toString();
     }
 
     // ------------------------------------db
@@ -745,7 +1086,7 @@ public class InfluxDbServiceImpl implements InfluxDbService {
     private String pickDatabase(
             InfluxEntity entity, MetricRequestDTO req, String nsId, String infraId, String nodeId) {
         String raw = entity.getDatabase();
-        long rangeSec = parseRangeSeconds(req == null ? null : req.getRange());
+        long rangeSec = InfluxQl.parseDurationSeconds(req == null ? null : req.getRange());
         if (rangeSec < DOWNSAMPLING_THRESHOLD_SECONDS) {
             return raw;
         }
@@ -758,6 +1099,7 @@ public class InfluxDbServiceImpl implements InfluxDbService {
         // metric/prediction queries don't silently return empty results.
         InfluxDTO probe =
                 InfluxDTO.builder()
+                        .id(entity.getId())
                         .url(entity.getUrl())
                         .database(dsDb)
                         .username(entity.getUsername())
@@ -770,47 +1112,17 @@ public class InfluxDbServiceImpl implements InfluxDbService {
         return dsHasData ? dsDb : raw;
     }
 
-    /**
-     * Parses an InfluxQL-style relative range like {@code "1h"}, {@code "30m"}, {@code "2d"} into
-     * seconds. Returns 0 for null or unparseable inputs.
-     */
-    private static long parseRangeSeconds(String range) {
-        if (range == null || range.isBlank()) {
-            return 0L;
-        }
-        String s = range.trim().toLowerCase();
-        int i = 0;
-        while (i < s.length() && Character.isDigit(s.charAt(i))) {
-            i++;
-        }
-        if (i == 0 || i == s.length()) {
-            return 0L;
-        }
-        long n;
-        try {
-            n = Long.parseLong(s.substring(0, i));
-        } catch (NumberFormatException e) {
-            return 0L;
-        }
-        String unit = s.substring(i);
-        return switch (unit) {
-            case "s" -> n;
-            case "m" -> n * 60L;
-            case "h" -> n * 3600L;
-            case "d" -> n * 86400L;
-            case "w" -> n * 7L * 86400L;
-            default -> 0L;
-        };
-    }
-
     // ------------------------------------helper--------------------------------------------------//
 
-    private int resCount(InfluxDTO influxDTO, String query) {
-        try (var influx =
-                InfluxDBFactory.connect(
-                        influxDTO.getUrl(), influxDTO.getUsername(), influxDTO.getPassword())) {
+    /** Runs {@code q} against {@code influxDTO}'s database on the shared pooled client. */
+    private QueryResult query(InfluxDTO influxDTO, String q) {
+        return influxClientRegistry.execute(
+                influxDTO, influx -> influx.query(new Query(q, influxDTO.getDatabase())));
+    }
 
-            QueryResult qr = influx.query(new Query(query, influxDTO.getDatabase()));
+    private int resCount(InfluxDTO influxDTO, String query) {
+        try {
+            QueryResult qr = query(influxDTO, query);
             if (qr == null || hasError(qr)) {
                 return 0;
             }
@@ -854,10 +1166,8 @@ public class InfluxDbServiceImpl implements InfluxDbService {
     }
 
     private boolean hasResult(InfluxDTO influxDTO, String query) {
-        try (var influx =
-                InfluxDBFactory.connect(
-                        influxDTO.getUrl(), influxDTO.getUsername(), influxDTO.getPassword())) {
-            var qr = influx.query(new Query(query, influxDTO.getDatabase()));
+        try {
+            var qr = query(influxDTO, query);
             if (qr == null || hasError(qr)) {
                 return false;
             }
@@ -0,0 +1,128 @@
+package com.mcmp.o11ymanager.manager.service;
+
+import com.mcmp.o11ymanager.manager.config.InfluxClientProperties;
+import com.mcmp.o11ymanager.manager.dto.influx.InfluxDTO;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+/**
+ * Runs one task per InfluxDB server in parallel and collects whatever finished in time.
+ *
+ * <p>All servers share a single deadline ({@code influxdb.client.scatter-timeout-ms}); a server
+ * that fails or is still running at the deadline is logged and left out of the result instead of
+ * stalling or failing the whole call.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class InfluxScatterGather {
+
+    private final InfluxClientProperties properties;
+
+    private ThreadPoolExecutor executor;
+    private final AtomicLong callCount = new AtomicLong();
+    private final AtomicLong timeoutCount = new AtomicLong();
+    private final AtomicLong failureCount = new AtomicLong();
+
+    @PostConstruct
+    void init() {
+        int threads = Math.max(1, properties.getScatterThreads());
+        AtomicInteger counter = new AtomicInteger();
+        ThreadFactory factory =
+                r -> {
+                    Thread t = new Thread(r, "influx-scatter-" + counter.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                };
+        this.executor =
+                new ThreadPoolExecutor(
+                        threads,
+                        threads,
+                        60L,
+                        TimeUnit.SECONDS,
+                        new LinkedBlockingQueue<>(),
+                        factory);
+        executor.allowCoreThreadTimeOut(true);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Applies {@code task} to every server concurrently and returns the non-null results of the
+     * servers that answered before the deadline, in {@code servers} order.
+     */
+    public <T> List<T> gather(String op, List<InfluxDTO> servers, Function<InfluxDTO, T> task) {
+        return gather(op, servers, properties.getScatterTimeoutMs(), task);
+    }
+
+    /** Same as {@link #gather(String, List, Function)} with an explicit deadline. */
+    public <T> List<T> gather(
+            String op, List<InfluxDTO> servers, long timeoutMs, Function<InfluxDTO, T> task) {
+        if (servers.isEmpty()) {
+            return List.of();
+        }
+        callCount.incrementAndGet();
+        List<Future<T>> futures = new ArrayList<>(servers.size());
+        for (InfluxDTO s : servers) {
+            futures.add(executor.submit(() -> task.apply(s)));
+        }
+
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMs);
+        List<T> out = new ArrayList<>(servers.size());
+        for (int i = 0; i < futures.size(); i++) {
+            Future<T> f = futures.get(i);
+            String url = servers.get(i).getUrl();
+            try {
+                long remaining = Math.max(0L, deadline - System.nanoTime());
+                T value = f.get(remaining, TimeUnit.NANOSECONDS);
+                if (value != null) {
+                    out.add(value);
+                }
+            } catch (TimeoutException e) {
+                f.cancel(true);
+                timeoutCount.incrementAndGet();
+                log.warn("[INF-SCATTER] {} timed out url={}, timeoutMs={}", op, url, timeoutMs);
+            } catch (ExecutionException e) {
+                failureCount.incrementAndGet();
+                log.warn(
+                        "[INF-SCATTER] {} failed url={}, err={}", op, url, e.getCause().toString());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                futures.forEach(pending -> pending.cancel(true));
+                break;
+            }
+        }
+        return out;
+    }
+
+    public Map<String, Object> stats() {
+        return Map.of(
+                "threads", executor.getPoolSize(),
+                "active", executor.getActiveCount(),
+                "queued", executor.getQueue().size(),
+                "callCount", callCount.get(),
+                "timeoutCount", timeoutCount.get(),
+                "failureCount", failureCount.get());
+    }
+}
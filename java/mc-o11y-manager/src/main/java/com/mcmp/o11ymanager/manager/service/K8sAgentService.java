@@ -7,12 +7,17 @@ import com.mcmp.o11ymanager.manager.dto.influx.InfluxDTO;
 import com.mcmp.o11ymanager.manager.dto.tumblebug.TumblebugK8sCluster;
 import com.mcmp.o11ymanager.manager.dto.tumblebug.TumblebugK8sToken;
 import com.mcmp.o11ymanager.manager.entity.K8sAgentTaskEntity;
+import com.mcmp.o11ymanager.manager.exception.tumblebug.TumblebugRateLimitException;
 import com.mcmp.o11ymanager.manager.facade.InfluxDbFacadeService;
 import com.mcmp.o11ymanager.manager.infrastructure.spider.SpiderClient;
 import com.mcmp.o11ymanager.manager.infrastructure.tumblebug.TumblebugClient;
+import com.mcmp.o11ymanager.manager.infrastructure.tumblebug.TumblebugRateLimiter;
 import com.mcmp.o11ymanager.manager.model.host.VMAgentTaskStatus;
 import com.mcmp.o11ymanager.manager.repository.K8sAgentTaskJpaRepository;
 import io.fabric8.kubernetes.api.model.Node;
+import io.fabric8.kubernetes.api.model.Pod;
+import io.fabric8.kubernetes.api.model.Secret;
+import io.fabric8.kubernetes.api.model.apps.DaemonSet;
 import io.fabric8.kubernetes.api.model.batch.v1.Job;
 import io.fabric8.kubernetes.api.model.batch.v1.JobBuilder;
 import io.fabric8.kubernetes.client.Config;
@@ -32,11 +37,12 @@ import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.Lock;
+import java.util.function.Function;
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.stereotype.Service;
 
 /**
@@ -52,13 +58,18 @@ import org.springframework.stereotype.Service;
 public class K8sAgentService {
 
     private final TumblebugClient tumblebugClient;
+    private final TumblebugRateLimiter tumblebugRateLimiter;
     private final InfluxDbFacadeService influxDbFacadeService;
     private final SpiderClient spiderClient;
     private final K8sAgentTaskJpaRepository agentTaskRepo;
+    private final LockRegistry lockRegistry;
+    private final K8sRolloutEngine rolloutEngine;
+    private final SimpMessagingTemplate messagingTemplate;
 
     private static final String JOB_NS = "default";
     private static final String TELEGRAF_VERSION = "1.29.5";
     private static final String NSENTER_IMAGE = "alpine:3.20";
+    private static final String TELEGRAF_IMAGE = "telegraf:" + TELEGRAF_VERSION;
 
     /** Node considered "running" if it reported within this window. */
     private static final long FRESH_SECONDS = 180;
@@ -98,11 +109,8 @@ public class K8sAgentService {
 
     // Per-node lock: serialize install/uninstall on a single k8s node so concurrent requests (e.g.
     // two browser tabs) don't launch two Jobs that, sharing a name, delete each other mid-run.
-    private final ConcurrentHashMap<String, ReentrantLock> nodeLocks = new ConcurrentHashMap<>();
-
-    private ReentrantLock lockFor(String nsId, String clusterId, String node) {
-        return nodeLocks.computeIfAbsent(
-                nsId + "/" + clusterId + "/" + node, k -> new ReentrantLock());
+    private Lock lockFor(String nsId, String clusterId, String node) {
+        return lockRegistry.writeLock("k8s-node", nsId + "/" + clusterId + "/" + node);
     }
 
     private K8sAgentTaskEntity taskRow(String nsId, String clusterId, String node) {
@@ -146,6 +154,14 @@ public class K8sAgentService {
         private String message;
     }
 
+    /** Answer to a cluster-wide rollout request, which runs in the background. */
+    @Getter
+    @lombok.AllArgsConstructor
+    public static class RolloutAccepted {
+        private String topic; // STOMP destination receiving one NodeResult per node
+        private List<String> nodes; // nodes the rollout covers, in rollout order
+    }
+
     /** Whether a node host is powered on. Serialized as "RUNNING"/"STOPPED". */
     public enum PowerState {
         RUNNING,
@@ -168,6 +184,27 @@ public class K8sAgentService {
         private String taskStatus; // durable agent task state (INSTALLING/UNINSTALLING/...) or null
     }
 
+    /** Rollout state of the DaemonSet deployment mode (see {@link #installDaemonSet}). */
+    @Getter
+    @lombok.AllArgsConstructor
+    public static class DaemonSetStatus {
+        private boolean deployed;
+        private boolean rolledOut; // every scheduled pod runs the current template and is available
+        private int desired; // nodes the DaemonSet should run on
+        private int ready;
+        private int updated;
+        private int available;
+        private List<DaemonSetNode> nodes;
+    }
+
+    @Getter
+    @lombok.AllArgsConstructor
+    public static class DaemonSetNode {
+        private String node; // k8s node name the agent pod is scheduled on
+        private boolean ready;
+        private String phase; // pod phase (Pending/Running/...)
+    }
+
     /** One node discovered for a cluster, with whether its host is currently up. */
     private static class NodeRef {
         final String name;
@@ -182,6 +219,7 @@ public class K8sAgentService {
     }
 
     private KubernetesClient client(String nsId, String clusterId) {
+        tumblebugRateLimiter.acquire();
         TumblebugK8sCluster cluster = tumblebugClient.getK8sCluster(nsId, clusterId);
         if (cluster == null
                 || cluster.getAccessInfo() == null
@@ -226,6 +264,7 @@ public class K8sAgentService {
 
     /** Resolves a short-lived bearer token for an exec-plugin cluster via cb-tumblebug. */
     private String resolveClusterToken(String nsId, String clusterId) {
+        tumblebugRateLimiter.acquire();
         TumblebugK8sToken t = tumblebugClient.getK8sClusterToken(nsId, clusterId);
         String token = t == null ? null : t.getToken();
         if (token == null || token.isBlank()) {
@@ -249,40 +288,94 @@ public class K8sAgentService {
         return m.find() ? m.group(1) : null;
     }
 
-    public List<NodeResult> install(String nsId, String clusterId) {
-        return install(nsId, clusterId, DEFAULT_METRICS);
+    /**
+     * Starts installing on every node of the cluster and returns once the node list is known; node
+     * Jobs run in parallel in the background (see {@link K8sRolloutEngine}) and each node's result
+     * is pushed to {@link #rolloutTopic} as it finishes. {@code maxInFlight}/{@code waveSize}
+     * override the configured defaults when non-null, and null {@code metrics} selects the default
+     * inputs.
+     */
+    public RolloutAccepted install(
+            String nsId,
+            String clusterId,
+            List<String> metrics,
+            Integer maxInFlight,
+            Integer waveSize) {
+        InfluxDTO influx = influxDbFacadeService.resolveForVM(nsId, clusterId);
+        KubernetesClient k8s = client(nsId, clusterId);
+        try {
+            assertNoDaemonSet(k8s);
+        } catch (RuntimeException e) {
+            k8s.close();
+            throw e;
+        }
+        return rollout(
+                "install " + nsId + "/" + clusterId,
+                nsId,
+                clusterId,
+                k8s,
+                maxInFlight,
+                waveSize,
+                node -> installOne(k8s, nsId, clusterId, node, influx, metrics));
+    }
+
+    /** STOMP destination receiving each node's result of a cluster-wide rollout. */
+    public static String rolloutTopic(String nsId, String clusterId) {
+        return "/topic/k8s/" + nsId + "/" + clusterId + "/rollout";
     }
 
-    public List<NodeResult> install(String nsId, String clusterId, List<String> metrics) {
-        InfluxDTO influx = influxDbFacadeService.resolveForVM(nsId, clusterId);
-        List<NodeResult> results = new ArrayList<>();
-        try (KubernetesClient k8s = client(nsId, clusterId)) {
-            for (Node node : k8s.nodes().list().getItems()) {
-                results.add(
-                        installOne(
-                                k8s,
-                                nsId,
-                                clusterId,
-                                node.getMetadata().getName(),
-                                influx,
-                                metrics));
-            }
+    private static List<String> nodeNames(KubernetesClient k8s) {
+        List<String> names = new ArrayList<>();
+        for (Node node : k8s.nodes().list().getItems()) {
+            names.add(node.getMetadata().getName());
+        }
+        return names;
+    }
+
+    /** Starts {@code action} on every node of the cluster; {@code k8s} is closed when it ends. */
+    private RolloutAccepted rollout(
+            String label,
+            String nsId,
+            String clusterId,
+            KubernetesClient k8s,
+            Integer maxInFlight,
+            Integer waveSize,
+            Function<String, NodeResult> action) {
+        String topic = rolloutTopic(nsId, clusterId);
+        try {
+            List<String> nodes = nodeNames(k8s);
+            rolloutEngine
+                    .start(
+                            label,
+                            nodes,
+                            maxInFlight,
+                            waveSize,
+                            action,
+                            result -> messagingTemplate.convertAndSend(topic, result))
+                    .whenComplete(
+                            (results, error) -> {
+                                k8s.close();
+                                if (error != null) {
+                                    log.error("[K8S-ROLLOUT] {} failed", label, error);
+                                }
+                            });
+            return new RolloutAccepted(topic, nodes);
+        } catch (RuntimeException e) {
+            k8s.close();
+            throw e;
         }
-        return results;
     }
 
     public NodeResult installNode(
             String nsId, String clusterId, String nodeName, List<String> metrics) {
-        ReentrantLock lock = lockFor(nsId, clusterId, nodeName);
+        Lock lock = lockFor(nsId, clusterId, nodeName);
         lock.lock();
-        try {
+        try (KubernetesClient k8s = client(nsId, clusterId)) {
             assertNotBusy(taskRow(nsId, clusterId, nodeName).getMonitoringTaskStatus());
+            assertNoDaemonSet(k8s);
             setMonitoringTask(nsId, clusterId, nodeName, VMAgentTaskStatus.INSTALLING);
             InfluxDTO influx = influxDbFacadeService.resolveForVM(nsId, clusterId);
-            NodeResult r;
-            try (KubernetesClient k8s = client(nsId, clusterId)) {
-                r = installOne(k8s, nsId, clusterId, nodeName, influx, metrics);
-            }
+            NodeResult r = installOne(k8s, nsId, clusterId, nodeName, influx, metrics);
             setMonitoringTask(
                     nsId,
                     clusterId,
@@ -297,18 +390,21 @@ public class K8sAgentService {
         }
     }
 
-    public List<NodeResult> uninstall(String nsId, String clusterId) {
-        List<NodeResult> results = new ArrayList<>();
-        try (KubernetesClient k8s = client(nsId, clusterId)) {
-            for (Node node : k8s.nodes().list().getItems()) {
-                results.add(uninstallOne(k8s, node.getMetadata().getName()));
-            }
-        }
-        return results;
+    public RolloutAccepted uninstall(
+            String nsId, String clusterId, Integer maxInFlight, Integer waveSize) {
+        KubernetesClient k8s = client(nsId, clusterId);
+        return rollout(
+                "uninstall " + nsId + "/" + clusterId,
+                nsId,
+                clusterId,
+                k8s,
+                maxInFlight,
+                waveSize,
+                node -> uninstallOne(k8s, node));
     }
 
     public NodeResult uninstallNode(String nsId, String clusterId, String nodeName) {
-        ReentrantLock lock = lockFor(nsId, clusterId, nodeName);
+        Lock lock = lockFor(nsId, clusterId, nodeName);
         lock.lock();
         try {
             assertNotBusy(taskRow(nsId, clusterId, nodeName).getMonitoringTaskStatus());
@@ -387,23 +483,193 @@ public class K8sAgentService {
         return active;
     }
 
-    // --- Log agent (fluent-bit via podman) -------------------------------
+    // --- DaemonSet mode ---------------------------------------------------
 
-    public List<NodeResult> installLog(String nsId, String clusterId) {
-        String lokiHost = lokiHost(nsId, clusterId);
-        List<NodeResult> results = new ArrayList<>();
+    /**
+     * Deploys the host Telegraf agent as a DaemonSet instead of one Job per node: one apply of a
+     * ConfigMap (same config as the Job mode, see {@link #telegrafConf}), a Secret and the
+     * DaemonSet, after which the scheduler places an agent on every current and future node.
+     * Returns the rollout status right after the apply; poll {@link #daemonSetStatus} to follow it.
+     *
+     * <p>The two modes are exclusive, since each would run its own Telegraf on the same host: the
+     * first deploy is refused while per-node Job agents are present, and the Job install paths are
+     * refused while the DaemonSet exists.
+     */
+    public DaemonSetStatus installDaemonSet(String nsId, String clusterId, List<String> metrics) {
+        InfluxDTO influx = influxDbFacadeService.resolveForVM(nsId, clusterId);
+        String conf =
+                telegrafConf(
+                        nsId,
+                        clusterId,
+                        K8sTelegrafDaemonSet.NODE_NAME_REF,
+                        influx.getUrl(),
+                        influx.getDatabase(),
+                        K8sTelegrafDaemonSet.USERNAME_REF,
+                        K8sTelegrafDaemonSet.PASSWORD_REF,
+                        metrics);
+        try (KubernetesClient k8s = client(nsId, clusterId)) {
+            if (daemonSet(k8s) == null) {
+                assertNoJobAgents(nsId, clusterId, influx);
+            }
+            Secret credentials =
+                    k8s.resource(
+                                    K8sTelegrafDaemonSet.secret(
+                                            JOB_NS, influx.getUsername(), influx.getPassword()))
+                            .serverSideApply();
+            k8s.resource(K8sTelegrafDaemonSet.configMap(JOB_NS, conf)).serverSideApply();
+            k8s.resource(
+                            K8sTelegrafDaemonSet.daemonSet(
+                                    JOB_NS, TELEGRAF_IMAGE, conf, credentials))
+                    .serverSideApply();
+            statusCache.invalidate(nsId + "/" + clusterId);
+            return daemonSetStatus(k8s);
+        }
+    }
+
+    /**
+     * Removes the DaemonSet (and with it the agent pods on every node), its config and Secret. The
+     * deletion is asynchronous, so this reports the DaemonSet as not deployed rather than reading
+     * its status back; {@link #daemonSetStatus} shows the agent pods until they are gone.
+     */
+    public DaemonSetStatus uninstallDaemonSet(String nsId, String clusterId) {
+        try (KubernetesClient k8s = client(nsId, clusterId)) {
+            k8s.apps()
+                    .daemonSets()
+                    .inNamespace(JOB_NS)
+                    .withName(K8sTelegrafDaemonSet.NAME)
+                    .withPropagationPolicy(
+                            io.fabric8.kubernetes.api.model.DeletionPropagation.BACKGROUND)
+                    .delete();
+            k8s.configMaps()
+                    .inNamespace(JOB_NS)
+                    .withName(K8sTelegrafDaemonSet.CONFIG_NAME)
+                    .delete();
+            k8s.secrets().inNamespace(JOB_NS).withName(K8sTelegrafDaemonSet.SECRET_NAME).delete();
+            statusCache.invalidate(nsId + "/" + clusterId);
+            return new DaemonSetStatus(false, false, 0, 0, 0, 0, List.of());
+        }
+    }
+
+    private static DaemonSet daemonSet(KubernetesClient k8s) {
+        return k8s.apps()
+                .daemonSets()
+                .inNamespace(JOB_NS)
+                .withName(K8sTelegrafDaemonSet.NAME)
+                .get();
+    }
+
+    /** Rejects a per-node Job install while the DaemonSet runs the agent on every node. */
+    private static void assertNoDaemonSet(KubernetesClient k8s) {
+        if (daemonSet(k8s) != null) {
+            throw new IllegalStateException(
+                    "The agent is deployed as a DaemonSet on this cluster; uninstall the DaemonSet"
+                            + " before installing per-node agents.");
+        }
+    }
+
+    /**
+     * Rejects the first DaemonSet deploy while per-node Job agents are present: a Job task still
+     * running, or a node that reported within {@link #FRESH_SECONDS} (no DaemonSet exists, so its
+     * agent came from a Job).
+     */
+    private void assertNoJobAgents(String nsId, String clusterId, InfluxDTO influx) {
+        Set<String> nodes = new LinkedHashSet<>();
+        for (K8sAgentTaskEntity e : agentTaskRepo.findByNsIdAndClusterId(nsId, clusterId)) {
+            if (e.getMonitoringTaskStatus() != null && e.getMonitoringTaskStatus().isBusy()) {
+                nodes.add(e.getNodeName());
+            }
+        }
+        queryLastSeen(influx, clusterId)
+                .forEach(
+                        (node, ts) -> {
+                            if (isFresh(ts)) {
+                                nodes.add(node);
+                            }
+                        });
+        if (!nodes.isEmpty()) {
+            throw new IllegalStateException(
+                    "Per-node agents are installed on "
+                            + nodes
+                            + "; uninstall them before deploying the agent as a DaemonSet.");
+        }
+    }
+
+    /** DaemonSet rollout status plus the agent pod of each node, read from the k8s API. */
+    public DaemonSetStatus daemonSetStatus(String nsId, String clusterId) {
         try (KubernetesClient k8s = client(nsId, clusterId)) {
-            for (Node node : k8s.nodes().list().getItems()) {
-                results.add(
-                        installLogOne(
-                                k8s, nsId, clusterId, node.getMetadata().getName(), lokiHost));
+            return daemonSetStatus(k8s);
+        }
+    }
+
+    private DaemonSetStatus daemonSetStatus(KubernetesClient k8s) {
+        DaemonSet ds = daemonSet(k8s);
+        // a DaemonSet being deleted (background propagation) is no longer deployed
+        boolean deployed = ds != null && ds.getMetadata().getDeletionTimestamp() == null;
+        if (!deployed || ds.getStatus() == null) {
+            return new DaemonSetStatus(deployed, false, 0, 0, 0, 0, List.of());
+        }
+        var st = ds.getStatus();
+        int desired = numOrZero(st.getDesiredNumberScheduled());
+        int updated = numOrZero(st.getUpdatedNumberScheduled());
+        int available = numOrZero(st.getNumberAvailable());
+        Long generation = ds.getMetadata().getGeneration();
+        boolean observed =
+                generation == null
+                        || (st.getObservedGeneration() != null
+                                && st.getObservedGeneration() >= generation);
+        boolean rolledOut = observed && updated == desired && available == desired;
+
+        List<Pod> pods =
+                k8s.pods()
+                        .inNamespace(JOB_NS)
+                        .withLabels(K8sTelegrafDaemonSet.LABELS)
+                        .list()
+                        .getItems();
+        List<DaemonSetNode> nodes = new ArrayList<>();
+        for (Pod pod : pods) {
+            String node = pod.getSpec() == null ? null : pod.getSpec().getNodeName();
+            if (node == null) {
+                continue;
             }
+            boolean ready =
+                    pod.getStatus() != null
+                            && pod.getStatus().getConditions() != null
+                            && pod.getStatus().getConditions().stream()
+                                    .anyMatch(
+                                            c ->
+                                                    "Ready".equals(c.getType())
+                                                            && "True".equals(c.getStatus()));
+            String phase = pod.getStatus() == null ? null : pod.getStatus().getPhase();
+            nodes.add(new DaemonSetNode(node, ready, phase));
         }
-        return results;
+        return new DaemonSetStatus(
+                true,
+                rolledOut,
+                desired,
+                numOrZero(st.getNumberReady()),
+                updated,
+                available,
+                nodes);
+    }
+
+    // --- Log agent (fluent-bit via podman) -------------------------------
+
+    public RolloutAccepted installLog(
+            String nsId, String clusterId, Integer maxInFlight, Integer waveSize) {
+        String lokiHost = lokiHost(nsId, clusterId);
+        KubernetesClient k8s = client(nsId, clusterId);
+        return rollout(
+                "log install " + nsId + "/" + clusterId,
+                nsId,
+                clusterId,
+                k8s,
+                maxInFlight,
+                waveSize,
+                node -> installLogOne(k8s, nsId, clusterId, node, lokiHost));
     }
 
     public NodeResult installLogNode(String nsId, String clusterId, String nodeName) {
-        ReentrantLock lock = lockFor(nsId, clusterId, nodeName);
+        Lock lock = lockFor(nsId, clusterId, nodeName);
         lock.lock();
         try {
             assertNotBusy(taskRow(nsId, clusterId, nodeName).getLogTaskStatus());
@@ -427,18 +693,21 @@ public class K8sAgentService {
         }
     }
 
-    public List<NodeResult> uninstallLog(String nsId, String clusterId) {
-        List<NodeResult> results = new ArrayList<>();
-        try (KubernetesClient k8s = client(nsId, clusterId)) {
-            for (Node node : k8s.nodes().list().getItems()) {
-                results.add(uninstallLogOne(k8s, node.getMetadata().getName()));
-            }
-        }
-        return results;
+    public RolloutAccepted uninstallLog(
+            String nsId, String clusterId, Integer maxInFlight, Integer waveSize) {
+        KubernetesClient k8s = client(nsId, clusterId);
+        return rollout(
+                "log uninstall " + nsId + "/" + clusterId,
+                nsId,
+                clusterId,
+                k8s,
+                maxInFlight,
+                waveSize,
+                node -> uninstallLogOne(k8s, node));
     }
 
     public NodeResult uninstallLogNode(String nsId, String clusterId, String nodeName) {
-        ReentrantLock lock = lockFor(nsId, clusterId, nodeName);
+        Lock lock = lockFor(nsId, clusterId, nodeName);
         lock.lock();
         try {
             assertNotBusy(taskRow(nsId, clusterId, nodeName).getLogTaskStatus());
@@ -732,6 +1001,7 @@ public class K8sAgentService {
         List<String> ngNames = new ArrayList<>();
         int desired = 0;
         try {
+            tumblebugRateLimiter.acquire();
             TumblebugK8sCluster cluster = tumblebugClient.getK8sCluster(nsId, clusterId);
             String conn = cluster == null ? null : cluster.getConnectionName();
             String cspName = cluster == null ? null : cluster.getCspResourceName();
@@ -755,6 +1025,12 @@ public class K8sAgentService {
                     }
                 }
             }
+        } catch (TumblebugRateLimitException e) {
+            log.warn(
+                    "k8s node discovery skipped cluster={}/{}: {}",
+                    nsId,
+                    clusterId,
+                    e.getMessage());
         } catch (Exception e) {
             log.warn("k8s node discovery via cb-spider failed cluster={}/{}", nsId, clusterId, e);
         }
@@ -973,18 +1249,6 @@ public class K8sAgentService {
                 install -m0755 telegraf-%s/usr/bin/telegraf /usr/local/bin/cmp-telegraf
                 mkdir -p /etc/cmp-telegraf
                 cat > /etc/cmp-telegraf/telegraf.conf <<'CONF'
-                [global_tags]
-                  ns_id = "%s"
-                  infra_id = "%s"
-                  node_id = "%s"
-                [agent]
-                  interval = "30s"
-                  flush_interval = "30s"
-                [[outputs.influxdb]]
-                  urls = ["%s"]
-                  database = "%s"
-                  username = "%s"
-                  password = "%s"
                 %s
                 CONF
                 cat > /etc/systemd/system/cmp-telegraf.service <<'SVC'
@@ -1003,13 +1267,52 @@ public class K8sAgentService {
                 .formatted(
                         TELEGRAF_VERSION,
                         TELEGRAF_VERSION,
+                        telegrafConf(
+                                nsId,
+                                clusterId,
+                                nodeName,
+                                influx.getUrl(),
+                                influx.getDatabase(),
+                                influx.getUsername() == null ? "" : influx.getUsername(),
+                                influx.getPassword() == null ? "" : influx.getPassword(),
+                                metrics));
+    }
+
+    /**
+     * Telegraf config shared by the per-node Job and the DaemonSet; the latter passes Telegraf
+     * {@code ${VAR}} references for the values that differ per pod or come from a Secret.
+     */
+    private String telegrafConf(
+            String nsId,
+            String clusterId,
+            String nodeId,
+            String influxUrl,
+            String database,
+            String username,
+            String password,
+            List<String> metrics) {
+        return """
+                [global_tags]
+                  ns_id = "%s"
+                  infra_id = "%s"
+                  node_id = "%s"
+                [agent]
+                  interval = "30s"
+                  flush_interval = "30s"
+                [[outputs.influxdb]]
+                  urls = ["%s"]
+                  database = "%s"
+                  username = "%s"
+                  password = "%s"
+                %s"""
+                .formatted(
                         nsId,
                         clusterId,
-                        nodeName,
-                        influx.getUrl(),
-                        influx.getDatabase(),
-                        influx.getUsername() == null ? "" : influx.getUsername(),
-                        influx.getPassword() == null ? "" : influx.getPassword(),
+                        nodeId,
+                        influxUrl,
+                        database,
+                        username,
+                        password,
                         metricsToToml(metrics));
     }
 
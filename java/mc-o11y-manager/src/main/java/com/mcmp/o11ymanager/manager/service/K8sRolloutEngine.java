@@ -0,0 +1,280 @@
+package com.mcmp.o11ymanager.manager.service;
+
+import com.mcmp.o11ymanager.manager.config.K8sRolloutProperties;
+import com.mcmp.o11ymanager.manager.service.K8sAgentService.NodeResult;
+import jakarta.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+/**
+ * Runs one blocking action per K8s node (an install/uninstall Job) across a cluster in parallel.
+ *
+ * <p>At most {@code maxInFlight} nodes of a rollout run at once, optionally in waves of {@code
+ * waveSize} nodes. Each result is handed to the caller's listener as soon as its node finishes.
+ * Once enough nodes have failed (see {@link K8sRolloutProperties#getAbortErrorRatio()}), no further
+ * nodes are started; nodes already running finish, and the rest are reported as skipped.
+ *
+ * <p>{@link #start} runs a rollout in the background for callers that must not wait for it (HTTP
+ * requests); its waves are driven from a separate coordinator thread, so they never take a node
+ * worker.
+ */
+@Slf4j
+@Component
+public class K8sRolloutEngine {
+
+    private final K8sRolloutProperties properties;
+    private final ThreadPoolExecutor pool;
+    private final ExecutorService coordinator;
+
+    public K8sRolloutEngine(K8sRolloutProperties properties) {
+        this.properties = properties;
+        int threads = Math.max(1, properties.getMaxThreads());
+        AtomicInteger counter = new AtomicInteger();
+        this.pool =
+                new ThreadPoolExecutor(
+                        threads,
+                        threads,
+                        60L,
+                        TimeUnit.SECONDS,
+                        new LinkedBlockingQueue<>(),
+                        r -> {
+                            Thread t = new Thread(r, "k8s-rollout-" + counter.incrementAndGet());
+                            t.setDaemon(true);
+                            return t;
+                        });
+        this.pool.allowCoreThreadTimeOut(true);
+        AtomicInteger coordinators = new AtomicInteger();
+        this.coordinator =
+                Executors.newCachedThreadPool(
+                        r -> {
+                            Thread t =
+                                    new Thread(
+                                            r,
+                                            "k8s-rollout-coordinator-"
+                                                    + coordinators.incrementAndGet());
+                            t.setDaemon(true);
+                            return t;
+                        });
+    }
+
+    @PreDestroy
+    void shutdown() {
+        coordinator.shutdownNow();
+        pool.shutdownNow();
+    }
+
+    /**
+     * Like {@link #run}, but returns at once; the future completes with the results in node order
+     * when the rollout ends.
+     */
+    public CompletableFuture<List<NodeResult>> start(
+            String label,
+            List<String> nodes,
+            Integer maxInFlight,
+            Integer waveSize,
+            Function<String, NodeResult> action,
+            Consumer<NodeResult> onResult) {
+        return CompletableFuture.supplyAsync(
+                () -> run(label, nodes, maxInFlight, waveSize, action, onResult), coordinator);
+    }
+
+    /**
+     * Applies {@code action} to every node and returns the results in node order. {@code
+     * maxInFlight} and {@code waveSize} override the configured defaults when non-null. {@code
+     * onResult} is called exactly once per node: on a worker thread when the node finishes, or on
+     * the caller's thread for nodes skipped after an abort or an interrupt.
+     */
+    public List<NodeResult> run(
+            String label,
+            List<String> nodes,
+            Integer maxInFlight,
+            Integer waveSize,
+            Function<String, NodeResult> action,
+            Consumer<NodeResult> onResult) {
+        int window = Math.max(1, maxInFlight != null ? maxInFlight : properties.getMaxInFlight());
+        int wave = waveSize != null ? waveSize : properties.getWaveSize();
+        if (wave <= 0) {
+            wave = Math.max(1, nodes.size());
+        }
+
+        long start = System.nanoTime();
+        Rollout rollout = new Rollout(label, nodes, window, action, onResult);
+        for (int waveStart = 0;
+                waveStart < nodes.size() && !rollout.aborted.get();
+                waveStart += wave) {
+            rollout.runWave(waveStart, Math.min(nodes.size(), waveStart + wave));
+        }
+        List<NodeResult> results = rollout.finish();
+        log.info(
+                "[K8S-ROLLOUT] {}: {} nodes in {} ms, {} failed{}",
+                label,
+                nodes.size(),
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start),
+                rollout.failed.get(),
+                rollout.aborted.get() ? " (aborted)" : "");
+        return results;
+    }
+
+    /**
+     * State of one rollout: results by node index, its in-flight window and failure counts. A
+     * node's result slot is written once, by whoever gets there first: its worker, or {@link
+     * #finish} marking it skipped.
+     */
+    private final class Rollout {
+        private final String label;
+        private final List<String> nodes;
+        private final Function<String, NodeResult> action;
+        private final Consumer<NodeResult> onResult;
+        private final AtomicReferenceArray<NodeResult> results;
+        private final Semaphore slots;
+        private final AtomicInteger finished = new AtomicInteger();
+        private final AtomicInteger failed = new AtomicInteger();
+        private final AtomicBoolean aborted = new AtomicBoolean();
+
+        Rollout(
+                String label,
+                List<String> nodes,
+                int window,
+                Function<String, NodeResult> action,
+                Consumer<NodeResult> onResult) {
+            this.label = label;
+            this.nodes = nodes;
+            this.action = action;
+            this.onResult = onResult;
+            this.results = new AtomicReferenceArray<>(nodes.size());
+            this.slots = new Semaphore(window);
+        }
+
+        /**
+         * Starts nodes {@code [from, to)} as slots free up, then waits for all of them. If the
+         * caller is interrupted, the wave's nodes are cancelled instead.
+         */
+        void runWave(int from, int to) {
+            List<Future<?>> running = new ArrayList<>(to - from);
+            for (int i = from; i < to && !aborted.get(); i++) {
+                if (!acquire(slots)) {
+                    aborted.set(true);
+                    break;
+                }
+                if (aborted.get()) {
+                    slots.release();
+                    break;
+                }
+                int index = i;
+                running.add(pool.submit(() -> runNode(index)));
+            }
+            if (!awaitAll(running)) {
+                aborted.set(true);
+                running.forEach(future -> future.cancel(true));
+            }
+        }
+
+        private void runNode(int index) {
+            try {
+                NodeResult result = runOne(action, nodes.get(index));
+                if (!results.compareAndSet(index, null, result)) {
+                    return; // finish() already reported the node after an interrupt
+                }
+                int done = finished.incrementAndGet();
+                int bad = result.isOk() ? failed.get() : failed.incrementAndGet();
+                if (shouldAbort(done, bad) && aborted.compareAndSet(false, true)) {
+                    log.warn(
+                            "[K8S-ROLLOUT] {} aborted: {}/{} finished nodes failed",
+                            label,
+                            bad,
+                            done);
+                }
+                notify(onResult, result);
+            } finally {
+                slots.release();
+            }
+        }
+
+        /**
+         * Results in node order; nodes without a result (never started, or cancelled by an
+         * interrupt) are reported as skipped.
+         */
+        List<NodeResult> finish() {
+            List<NodeResult> ordered = new ArrayList<>(results.length());
+            for (int i = 0; i < results.length(); i++) {
+                NodeResult skipped =
+                        new NodeResult(nodes.get(i), false, "skipped: rollout aborted");
+                if (results.compareAndSet(i, null, skipped)) {
+                    notify(onResult, skipped);
+                }
+                ordered.add(results.get(i));
+            }
+            return ordered;
+        }
+    }
+
+    private boolean shouldAbort(int finished, int failed) {
+        double ratio = properties.getAbortErrorRatio();
+        return ratio > 0
+                && finished >= Math.max(1, properties.getAbortMinCompleted())
+                && (double) failed / finished >= ratio;
+    }
+
+    private static NodeResult runOne(Function<String, NodeResult> action, String node) {
+        try {
+            NodeResult result = action.apply(node);
+            return result != null ? result : new NodeResult(node, false, "no result");
+        } catch (RuntimeException e) {
+            log.error("[K8S-ROLLOUT] node {} failed", node, e);
+            return new NodeResult(node, false, e.getMessage());
+        }
+    }
+
+    private static void notify(Consumer<NodeResult> onResult, NodeResult result) {
+        try {
+            onResult.accept(result);
+        } catch (RuntimeException e) {
+            log.warn(
+                    "[K8S-ROLLOUT] result listener failed for {}: {}",
+                    result.getNode(),
+                    e.getMessage());
+        }
+    }
+
+    private static boolean acquire(Semaphore slots) {
+        try {
+            slots.acquire();
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    /** Waits for the wave to finish; false if the caller was interrupted meanwhile. */
+    private static boolean awaitAll(List<Future<?>> running) {
+        for (Future<?> future : running) {
+            try {
+                future.get();
+            } catch (ExecutionException e) {
+                // runOne already turned failures into results
+                log.warn("[K8S-ROLLOUT] node task failed: {}", e.getCause().getMessage());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,179 @@
+package com.mcmp.o11ymanager.manager.service;
+
+import io.fabric8.kubernetes.api.model.ConfigMap;
+import io.fabric8.kubernetes.api.model.ConfigMapBuilder;
+import io.fabric8.kubernetes.api.model.IntOrString;
+import io.fabric8.kubernetes.api.model.Quantity;
+import io.fabric8.kubernetes.api.model.Secret;
+import io.fabric8.kubernetes.api.model.SecretBuilder;
+import io.fabric8.kubernetes.api.model.apps.DaemonSet;
+import io.fabric8.kubernetes.api.model.apps.DaemonSetBuilder;
+import java.util.Map;
+
+/**
+ * Manifests of the DaemonSet deployment mode of the K8s host Telegraf agent: a ConfigMap with the
+ * Telegraf config, a Secret with the InfluxDB credentials and a DaemonSet running the official
+ * Telegraf image on every node (including nodes added later).
+ *
+ * <p>Pods read host metrics through the host root mounted read-only at {@code /hostfs} (Telegraf's
+ * {@code HOST_*} variables) and tag them with the node they are scheduled on ({@code NODE_NAME}
+ * from the downward API), so no per-node config is needed.
+ */
+final class K8sTelegrafDaemonSet {
+
+    static final String NAME = "cmp-telegraf";
+    static final String CONFIG_NAME = "cmp-telegraf-config";
+    static final String SECRET_NAME = "cmp-telegraf-influx";
+    static final Map<String, String> LABELS = Map.of("app.kubernetes.io/name", NAME);
+
+    /** Telegraf {@code ${VAR}} references resolved inside the pod. */
+    static final String NODE_NAME_REF = "${NODE_NAME}";
+
+    static final String USERNAME_REF = "${INFLUX_USERNAME}";
+    static final String PASSWORD_REF = "${INFLUX_PASSWORD}";
+
+    private static final String HOSTFS = "/hostfs";
+    private static final String CONFIG_HASH_ANNOTATION = "o11y.mcmp/config-hash";
+    private static final String SECRET_VERSION_ANNOTATION = "o11y.mcmp/secret-version";
+
+    private K8sTelegrafDaemonSet() {}
+
+    static ConfigMap configMap(String namespace, String telegrafConf) {
+        return new ConfigMapBuilder()
+                .withNewMetadata()
+                .withName(CONFIG_NAME)
+                .withNamespace(namespace)
+                .addToLabels(LABELS)
+                .endMetadata()
+                .addToData("telegraf.conf", telegrafConf)
+                .build();
+    }
+
+    static Secret secret(String namespace, String username, String password) {
+        return new SecretBuilder()
+                .withNewMetadata()
+                .withName(SECRET_NAME)
+                .withNamespace(namespace)
+                .addToLabels(LABELS)
+                .endMetadata()
+                .addToStringData("INFLUX_USERNAME", username == null ? "" : username)
+                .addToStringData("INFLUX_PASSWORD", password == null ? "" : password)
+                .build();
+    }
+
+    /**
+     * The pod template carries a hash of {@code telegrafConf} and the version of the {@code
+     * credentials} Secret, so re-applying with a different config (e.g. other metrics) or rotated
+     * InfluxDB credentials rolls the pods. The Secret reaches the container through {@code
+     * envFrom}, which is only read at container start.
+     *
+     * @param credentials the Secret as returned by the API server after it was applied, whose
+     *     uid and resourceVersion change only when it is recreated or its content changes
+     */
+    static DaemonSet daemonSet(
+            String namespace, String image, String telegrafConf, Secret credentials) {
+        return new DaemonSetBuilder()
+                .withNewMetadata()
+                .withName(NAME)
+                .withNamespace(namespace)
+                .addToLabels(LABELS)
+                .endMetadata()
+                .withNewSpec()
+                .withNewSelector()
+                .addToMatchLabels(LABELS)
+                .endSelector()
+                .withNewUpdateStrategy()
+                .withType("RollingUpdate")
+                .withNewRollingUpdate()
+                .withMaxUnavailable(new IntOrString("10%"))
+                .endRollingUpdate()
+                .endUpdateStrategy()
+                .withNewTemplate()
+                .withNewMetadata()
+                .addToLabels(LABELS)
+                .addToAnnotations(
+                        CONFIG_HASH_ANNOTATION, Integer.toHexString(telegrafConf.hashCode()))
+                .addToAnnotations(SECRET_VERSION_ANNOTATION, secretVersion(credentials))
+                .endMetadata()
+                .withNewSpec()
+                .withHostNetwork(true)
+                .withHostPID(true)
+                .withDnsPolicy("ClusterFirstWithHostNet")
+                .addNewToleration()
+                .withOperator("Exists")
+                .endToleration()
+                .addNewContainer()
+                .withName("telegraf")
+                .withImage(image)
+                .addNewEnv()
+                .withName("NODE_NAME")
+                .withNewValueFrom()
+                .withNewFieldRef()
+                .withFieldPath("spec.nodeName")
+                .endFieldRef()
+                .endValueFrom()
+                .endEnv()
+                .addNewEnv()
+                .withName("HOST_PROC")
+                .withValue(HOSTFS + "/proc")
+                .endEnv()
+                .addNewEnv()
+                .withName("HOST_SYS")
+                .withValue(HOSTFS + "/sys")
+                .endEnv()
+                .addNewEnv()
+                .withName("HOST_ETC")
+                .withValue(HOSTFS + "/etc")
+                .endEnv()
+                .addNewEnv()
+                .withName("HOST_MOUNT_PREFIX")
+                .withValue(HOSTFS)
+                .endEnv()
+                .addNewEnvFrom()
+                .withNewSecretRef()
+                .withName(SECRET_NAME)
+                .endSecretRef()
+                .endEnvFrom()
+                .addNewVolumeMount()
+                .withName("config")
+                .withMountPath("/etc/telegraf")
+                .withReadOnly(true)
+                .endVolumeMount()
+                .addNewVolumeMount()
+                .withName("hostfs")
+                .withMountPath(HOSTFS)
+                .withReadOnly(true)
+                .endVolumeMount()
+                .withNewResources()
+                .addToRequests("cpu", new Quantity("50m"))
+                .addToRequests("memory", new Quantity("64Mi"))
+                .addToLimits("memory", new Quantity("256Mi"))
+                .endResources()
+                .endContainer()
+                .addNewVolume()
+                .withName("config")
+                .withNewConfigMap()
+                .withName(CONFIG_NAME)
+                .endConfigMap()
+                .endVolume()
+                .addNewVolume()
+                .withName("hostfs")
+                .withNewHostPath()
+                .withPath("/")
+                .endHostPath()
+                .endVolume()
+                .endSpec()
+                .endTemplate()
+                .endSpec()
+                .build();
+    }
+
+    /**
+     * Identity of the applied Secret's current content. Derived from server metadata, not the
+     * data, so the annotation reveals nothing about the credentials.
+     */
+    static String secretVersion(Secret applied) {
+        var meta = applied.getMetadata();
+        return meta.getUid() + "/" + meta.getResourceVersion();
+    }
+}
@@ -0,0 +1,117 @@
+package com.mcmp.o11ymanager.manager.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import org.springframework.stereotype.Component;
+
+/**
+ * Per-key read/write locks (per host, per k8s node) that don't outlive their users.
+ *
+ * <p>Locks are interned with weak values: while any thread holds or waits on the lock of a key,
+ * every caller gets the same instance; once nobody references it, the entry is collected instead
+ * of accumulating for every node ever seen. The returned {@link Lock}s record how long callers
+ * waited to acquire them ({@code o11y.lock.wait}, tagged by scope and mode).
+ */
+@Component
+public class LockRegistry {
+
+    private record Key(String scope, String key) {}
+
+    private final Cache<Key, ReentrantReadWriteLock> locks =
+            Caffeine.newBuilder().weakValues().build();
+
+    private final MeterRegistry registry;
+
+    public LockRegistry(MeterRegistry registry) {
+        this.registry = registry;
+        Gauge.builder("o11y.lock.registry.size", locks, Cache::estimatedSize).register(registry);
+    }
+
+    /** Shared lock: readers of one key don't block each other, only writers. */
+    public Lock readLock(String scope, String key) {
+        ReentrantReadWriteLock rw = intern(scope, key);
+        return new TimedLock(rw, rw.readLock(), waitTimer(scope, "read"));
+    }
+
+    /** Exclusive lock of one key. */
+    public Lock writeLock(String scope, String key) {
+        ReentrantReadWriteLock rw = intern(scope, key);
+        return new TimedLock(rw, rw.writeLock(), waitTimer(scope, "write"));
+    }
+
+    private ReentrantReadWriteLock intern(String scope, String key) {
+        return locks.get(new Key(scope, key), k -> new ReentrantReadWriteLock());
+    }
+
+    private Timer waitTimer(String scope, String mode) {
+        return Timer.builder("o11y.lock.wait")
+                .tag("scope", scope)
+                .tag("mode", mode)
+                .register(registry);
+    }
+
+    /**
+     * Delegating lock that times acquisition. It also keeps the interned {@code owner} strongly
+     * reachable for as long as the caller holds this handle, so the entry can't be collected (and
+     * replaced by a fresh, unlocked instance) while the lock is in use.
+     */
+    private static final class TimedLock implements Lock {
+        @SuppressWarnings("unused")
+        private final ReentrantReadWriteLock owner;
+
+        private final Lock delegate;
+        private final Timer waits;
+
+        TimedLock(ReentrantReadWriteLock owner, Lock delegate, Timer waits) {
+            this.owner = owner;
+            this.delegate = delegate;
+            this.waits = waits;
+        }
+
+        @Override
+        public void lock() {
+            long start = System.nanoTime();
+            delegate.lock();
+            waits.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+
+        @Override
+        public void lockInterruptibly() throws InterruptedException {
+            long start = System.nanoTime();
+            delegate.lockInterruptibly();
+            waits.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+
+        @Override
+        public boolean tryLock() {
+            return delegate.tryLock();
+        }
+
+        @Override
+        public boolean tryLock(long time, TimeUnit unit) throws InterruptedException {
+            long start = System.nanoTime();
+            boolean acquired = delegate.tryLock(time, unit);
+            if (acquired) {
+                waits.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            }
+            return acquired;
+        }
+
+        @Override
+        public void unlock() {
+            delegate.unlock();
+        }
+
+        @Override
+        public Condition newCondition() {
+            return delegate.newCondition();
+        }
+    }
+}
@@ -0,0 +1,176 @@
+package com.mcmp.o11ymanager.manager.service;
+
+import com.mcmp.o11ymanager.manager.config.NodeFanOutProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+/**
+ * Runs one blocking lookup per node in parallel, bounded by a server-wide concurrency limit and a
+ * per-call deadline.
+ *
+ * <p>A call never outlives its deadline: items that don't finish (or don't get a slot) in time
+ * are answered by the caller's fallback, and their lookups are cancelled before {@link #map}
+ * returns, so one hung node cannot stall the response.
+ */
+@Slf4j
+@Component
+public class NodeFanOutExecutor {
+
+    private final NodeFanOutProperties properties;
+    private final Semaphore permits;
+    private final ThreadPoolExecutor pool;
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    private final Timer durations;
+    private final Counter timeouts;
+
+    public NodeFanOutExecutor(NodeFanOutProperties properties, MeterRegistry registry) {
+        this.properties = properties;
+        int max = Math.max(1, properties.getMaxConcurrency());
+        this.permits = new Semaphore(max);
+        AtomicInteger counter = new AtomicInteger();
+        this.pool =
+                new ThreadPoolExecutor(
+                        max,
+                        max,
+                        60L,
+                        TimeUnit.SECONDS,
+                        new LinkedBlockingQueue<>(),
+                        r -> {
+                            Thread t = new Thread(r, "node-fan-out-" + counter.incrementAndGet());
+                            t.setDaemon(true);
+                            return t;
+                        });
+        this.pool.allowCoreThreadTimeOut(true);
+        Gauge.builder("o11y.node.fanout.in.flight", inFlight, AtomicInteger::get)
+                .register(registry);
+        this.durations = Timer.builder("o11y.node.fanout.duration").register(registry);
+        this.timeouts = Counter.builder("o11y.node.fanout.timeouts").register(registry);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        pool.shutdownNow();
+    }
+
+    /**
+     * Applies {@code lookup} to every item in parallel and returns the results in item order.
+     * Items whose lookup misses the deadline are answered by {@code onTimeout}; items whose lookup
+     * throws (or returns null) are left out, as are null fallbacks.
+     */
+    public <T, R> List<R> map(List<T> items, Function<T, R> lookup, Function<T, R> onTimeout) {
+        return map(items, lookup, onTimeout, deadline());
+    }
+
+    /**
+     * {@link #map} bounded by a {@link System#nanoTime} {@code deadline} the caller already holds,
+     * for calls that spend part of their budget before the fan-out.
+     */
+    public <T, R> List<R> map(
+            List<T> items, Function<T, R> lookup, Function<T, R> onTimeout, long deadline) {
+        long start = System.nanoTime();
+        List<Slot<R>> slots = new ArrayList<>(items.size());
+        try {
+            for (T item : items) {
+                slots.add(submit(item, lookup, deadline));
+            }
+            List<R> results = new ArrayList<>(items.size());
+            for (int i = 0; i < items.size(); i++) {
+                R result = await(slots.get(i), items.get(i), onTimeout, deadline);
+                if (result != null) {
+                    results.add(result);
+                }
+            }
+            return results;
+        } finally {
+            slots.forEach(this::cancel);
+            durations.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /** A {@link System#nanoTime} deadline one configured fan-out budget from now. */
+    public long deadline() {
+        return System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(properties.getDeadlineMs());
+    }
+
+    /** A submitted lookup; {@code claimed} decides whether the task or the canceller frees it. */
+    private record Slot<R>(Future<R> future, AtomicBoolean claimed) {}
+
+    private <T, R> Slot<R> submit(T item, Function<T, R> lookup, long deadline) {
+        try {
+            if (!permits.tryAcquire(remaining(deadline), TimeUnit.NANOSECONDS)) {
+                return null;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+        AtomicBoolean claimed = new AtomicBoolean();
+        Future<R> future =
+                pool.submit(
+                        () -> {
+                            if (!claimed.compareAndSet(false, true)) {
+                                return null; // cancelled before it started; permit already freed
+                            }
+                            inFlight.incrementAndGet();
+                            try {
+                                return lookup.apply(item);
+                            } finally {
+                                inFlight.decrementAndGet();
+                                permits.release();
+                            }
+                        });
+        return new Slot<>(future, claimed);
+    }
+
+    private <T, R> R await(Slot<R> slot, T item, Function<T, R> onTimeout, long deadline) {
+        if (slot == null) {
+            timeouts.increment();
+            return onTimeout.apply(item);
+        }
+        try {
+            return slot.future().get(remaining(deadline), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            timeouts.increment();
+            return onTimeout.apply(item);
+        } catch (ExecutionException e) {
+            log.error("[NODE-FAN-OUT] lookup failed", e.getCause());
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return onTimeout.apply(item);
+        }
+    }
+
+    private static long remaining(long deadline) {
+        return Math.max(0L, deadline - System.nanoTime());
+    }
+
+    private void cancel(Slot<?> slot) {
+        if (slot == null || slot.future().isDone()) {
+            return;
+        }
+        if (slot.claimed().compareAndSet(false, true)) {
+            // never started: its permit would otherwise leak
+            permits.release();
+        }
+        slot.future().cancel(true);
+    }
+}
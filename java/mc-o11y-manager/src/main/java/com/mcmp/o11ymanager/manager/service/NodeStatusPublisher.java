@@ -0,0 +1,320 @@
+package com.mcmp.o11ymanager.manager.service;
+
+import com.mcmp.o11ymanager.manager.config.NodeStatusPushProperties;
+import com.mcmp.o11ymanager.manager.dto.vm.NodeStatusDiffDTO;
+import com.mcmp.o11ymanager.manager.dto.vm.VMDTO;
+import com.mcmp.o11ymanager.manager.enums.AgentStatus;
+import com.mcmp.o11ymanager.manager.facade.VMFacadeService;
+import com.mcmp.o11ymanager.manager.service.cache.AgentStatusCache;
+import com.mcmp.o11ymanager.manager.service.interfaces.VMService;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+import org.springframework.web.socket.messaging.SessionSubscribeEvent;
+import org.springframework.web.socket.messaging.SessionUnsubscribeEvent;
+
+/**
+ * Pushes node status changes to {@code /topic/nodes/{nsId}/{infraId}}.
+ *
+ * <p>Only MCIs with at least one STOMP subscriber are tracked. Each is recomputed once per poll,
+ * or when {@link AgentStatusCache} reports a change; signals that arrive within {@code
+ * coalesce-ms} of each other are merged into one recompute. Subscribers receive only the nodes
+ * whose status changed, plus the ids of nodes that were deregistered. A node whose statuses could
+ * not be read in a round keeps its last pushed state instead of turning UNKNOWN; it is pushed as
+ * UNKNOWN only if it was never read. The full list is served by
+ * {@link #snapshot} when a client subscribes to {@code /app/nodes/{nsId}/{infraId}}.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class NodeStatusPublisher {
+
+    public static final String TOPIC_PREFIX = "/topic/nodes/";
+
+    private record MciRef(String nsId, String infraId) {}
+
+    /** The part of a node that subscribers see change. */
+    private record NodeState(
+            String name,
+            String description,
+            AgentStatus monitoring,
+            AgentStatus log,
+            AgentStatus trace) {
+
+        static NodeState of(VMDTO dto) {
+            return new NodeState(
+                    dto.getName(),
+                    dto.getDescription(),
+                    dto.getMonitoringAgentStatus(),
+                    dto.getLogAgentStatus(),
+                    dto.getTraceAgentStatus());
+        }
+    }
+
+    private record Published(Map<String, VMDTO> nodes) {}
+
+    private final VMFacadeService vmFacadeService;
+    private final VMService vmService;
+    private final AgentStatusCache agentStatusCache;
+    private final SimpMessagingTemplate messagingTemplate;
+    private final NodeStatusPushProperties properties;
+
+    /** "sessionId:subscriptionId" -> MCI the subscription watches. */
+    private final Map<String, MciRef> subscriptions = new ConcurrentHashMap<>();
+
+    private final Map<MciRef, Published> published = new ConcurrentHashMap<>();
+    private final Set<MciRef> dirty = ConcurrentHashMap.newKeySet();
+    private final Set<MciRef> pushing = ConcurrentHashMap.newKeySet();
+    private ThreadPoolExecutor pusher;
+
+    private final Object allNodesLock = new Object();
+    private volatile List<VMDTO> allNodes;
+    private volatile long allNodesAtNanos;
+
+    @PostConstruct
+    void init() {
+        pusher =
+                new ThreadPoolExecutor(
+                        1,
+                        1,
+                        0L,
+                        TimeUnit.MILLISECONDS,
+                        new ArrayBlockingQueue<>(1_000),
+                        r -> {
+                            Thread t = new Thread(r, "node-status-push");
+                            t.setDaemon(true);
+                            return t;
+                        });
+        agentStatusCache.addChangeListener(this::markDirty);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        if (pusher != null) {
+            pusher.shutdownNow();
+        }
+    }
+
+    /** Full node list of one MCI: the last pushed state if there is one, computed otherwise. */
+    public NodeStatusDiffDTO snapshot(String nsId, String infraId) {
+        MciRef ref = new MciRef(nsId, infraId);
+        Published current = published.get(ref);
+        if (current == null) {
+            current = new Published(index(vmFacadeService.getVMsNsMci(nsId, infraId)));
+            Published raced = published.putIfAbsent(ref, current);
+            if (raced != null) {
+                current = raced;
+            }
+        }
+        return NodeStatusDiffDTO.builder()
+                .nsId(nsId)
+                .infraId(infraId)
+                .snapshot(true)
+                .nodes(new ArrayList<>(current.nodes().values()))
+                .removedNodeIds(List.of())
+                .build();
+    }
+
+    /**
+     * Every registered node, recomputed at most once per {@code all-nodes-min-age-ms} however many
+     * clients ask for it.
+     */
+    public List<VMDTO> allNodes() {
+        long maxAge = TimeUnit.MILLISECONDS.toNanos(properties.getAllNodesMinAgeMs());
+        List<VMDTO> cached = allNodes;
+        if (cached != null && System.nanoTime() - allNodesAtNanos < maxAge) {
+            return cached;
+        }
+        synchronized (allNodesLock) {
+            if (allNodes != null && System.nanoTime() - allNodesAtNanos < maxAge) {
+                return allNodes;
+            }
+            List<VMDTO> fresh = vmFacadeService.getVMs();
+            allNodesAtNanos = System.nanoTime();
+            allNodes = fresh;
+            return fresh;
+        }
+    }
+
+    /** Schedules a recompute of one MCI if anyone is watching it. */
+    public void markDirty(String nsId, String infraId) {
+        MciRef ref = new MciRef(nsId, infraId);
+        if (subscriptions.containsValue(ref)) {
+            dirty.add(ref);
+        }
+    }
+
+    @Scheduled(
+            fixedDelayString = "${node-status.push.poll-interval-ms:10000}",
+            initialDelayString = "${node-status.push.poll-interval-ms:10000}")
+    public void poll() {
+        Set<MciRef> watched = new HashSet<>(subscriptions.values());
+        published.keySet().retainAll(watched);
+        dirty.addAll(watched);
+    }
+
+    @Scheduled(fixedDelayString = "${node-status.push.coalesce-ms:500}")
+    public void flush() {
+        if (dirty.isEmpty() || !properties.isEnabled()) {
+            return;
+        }
+        List<MciRef> batch = new ArrayList<>(dirty);
+        dirty.removeAll(batch);
+        batch.forEach(this::submit);
+    }
+
+    @EventListener
+    public void onSubscribe(SessionSubscribeEvent event) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.wrap(event.getMessage());
+        MciRef ref = parseTopic(accessor.getDestination());
+        if (ref == null) {
+            return;
+        }
+        subscriptions.put(accessor.getSessionId() + ":" + accessor.getSubscriptionId(), ref);
+        if (!published.containsKey(ref)) {
+            dirty.add(ref);
+        }
+    }
+
+    @EventListener
+    public void onUnsubscribe(SessionUnsubscribeEvent event) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.wrap(event.getMessage());
+        subscriptions.remove(accessor.getSessionId() + ":" + accessor.getSubscriptionId());
+    }
+
+    @EventListener
+    public void onDisconnect(SessionDisconnectEvent event) {
+        String prefix = event.getSessionId() + ":";
+        subscriptions.keySet().removeIf(k -> k.startsWith(prefix));
+    }
+
+    private void submit(MciRef ref) {
+        if (!pushing.add(ref)) {
+            // a push of this MCI is queued or running; retry on the next flush
+            dirty.add(ref);
+            return;
+        }
+        try {
+            pusher.execute(
+                    () -> {
+                        try {
+                            push(ref);
+                        } catch (Exception e) {
+                            log.warn(
+                                    "[NODE-STATUS] push failed nsId={}, infraId={}: {}",
+                                    ref.nsId(),
+                                    ref.infraId(),
+                                    e.getMessage());
+                        } finally {
+                            pushing.remove(ref);
+                        }
+                    });
+        } catch (RejectedExecutionException e) {
+            pushing.remove(ref);
+        }
+    }
+
+    private void push(MciRef ref) {
+        Map<String, VMDTO> computed = index(vmFacadeService.getVMsNsMci(ref.nsId(), ref.infraId()));
+        Published previous = published.get(ref);
+        Map<String, VMDTO> next = new LinkedHashMap<>();
+        List<VMDTO> changed = new ArrayList<>();
+        for (VMDTO dto : computed.values()) {
+            VMDTO before = previous == null ? null : previous.nodes().get(dto.getNodeId());
+            if (before != null && isUnavailable(dto)) {
+                // lock busy, probe failed or timed out this round: keep the last known state
+                // rather than flap subscribers to UNKNOWN and back
+                next.put(dto.getNodeId(), before);
+                continue;
+            }
+            next.put(dto.getNodeId(), dto);
+            if (before == null || !NodeState.of(before).equals(NodeState.of(dto))) {
+                changed.add(dto);
+            }
+        }
+
+        List<String> removed = new ArrayList<>();
+        if (previous != null) {
+            Set<String> registered = new HashSet<>();
+            vmService.getByNsMci(ref.nsId(), ref.infraId())
+                    .forEach(vm -> registered.add(vm.getNodeId()));
+            previous.nodes()
+                    .forEach(
+                            (nodeId, dto) -> {
+                                if (!registered.contains(nodeId)) {
+                                    removed.add(nodeId);
+                                } else {
+                                    // still registered but missing from this round's node list
+                                    next.putIfAbsent(nodeId, dto);
+                                }
+                            });
+        }
+        published.put(ref, new Published(next));
+        if (previous != null && changed.isEmpty() && removed.isEmpty()) {
+            return;
+        }
+        messagingTemplate.convertAndSend(
+                TOPIC_PREFIX + ref.nsId() + "/" + ref.infraId(),
+                NodeStatusDiffDTO.builder()
+                        .nsId(ref.nsId())
+                        .infraId(ref.infraId())
+                        .snapshot(previous == null)
+                        .nodes(previous == null ? new ArrayList<>(next.values()) : changed)
+                        .removedNodeIds(removed)
+                        .build());
+        log.debug(
+                "[NODE-STATUS] pushed nsId={}, infraId={}, changed={}, removed={}",
+                ref.nsId(),
+                ref.infraId(),
+                changed.size(),
+                removed.size());
+    }
+
+    /**
+     * True for the placeholder {@link VMFacadeService#getVMsNsMci} returns when a node's statuses
+     * could not be read this round: every agent UNKNOWN.
+     */
+    private static boolean isUnavailable(VMDTO dto) {
+        return dto.getMonitoringAgentStatus() == AgentStatus.UNKNOWN
+                && dto.getLogAgentStatus() == AgentStatus.UNKNOWN
+                && dto.getTraceAgentStatus() == AgentStatus.UNKNOWN;
+    }
+
+    private static Map<String, VMDTO> index(List<VMDTO> nodes) {
+        Map<String, VMDTO> byId = new LinkedHashMap<>();
+        for (VMDTO dto : nodes) {
+            byId.put(dto.getNodeId(), dto);
+        }
+        return byId;
+    }
+
+    /** {@code /topic/nodes/{nsId}/{infraId}} -> MCI, anything else -> null. */
+    private static MciRef parseTopic(String destination) {
+        if (destination == null || !destination.startsWith(TOPIC_PREFIX)) {
+            return null;
+        }
+        String[] parts = destination.substring(TOPIC_PREFIX.length()).split("/");
+        if (parts.length != 2 || parts[0].isEmpty() || parts[1].isEmpty()) {
+            return null;
+        }
+        return new MciRef(parts[0], parts[1]);
+    }
+}
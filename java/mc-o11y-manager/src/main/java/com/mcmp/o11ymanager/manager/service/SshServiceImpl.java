@@ -2,6 +2,8 @@ package com.mcmp.o11ymanager.manager.service;
 
 import static com.mcmp.o11ymanager.manager.constants.WinRmConstants.isWinRmPort;
 
+import com.mcmp.o11ymanager.manager.config.SshBatchProperties;
+import com.mcmp.o11ymanager.manager.config.SshPoolProperties;
 import com.mcmp.o11ymanager.manager.enums.Agent;
 import com.mcmp.o11ymanager.manager.exception.agent.AgentStatusException;
 import com.mcmp.o11ymanager.manager.exception.agent.SshConnectionException;
@@ -9,33 +11,35 @@ import com.mcmp.o11ymanager.manager.exception.config.FileReadingException;
 import com.mcmp.o11ymanager.manager.facade.FileFacadeService;
 import com.mcmp.o11ymanager.manager.global.aspect.request.RequestInfo;
 import com.mcmp.o11ymanager.manager.model.agentHealth.AgentCommandResult;
+import com.mcmp.o11ymanager.manager.model.agentHealth.BatchCommandReport;
+import com.mcmp.o11ymanager.manager.model.agentHealth.HostCommandResult;
 import com.mcmp.o11ymanager.manager.model.agentHealth.SshConnection;
+import com.mcmp.o11ymanager.manager.model.agentHealth.SshTarget;
 import com.mcmp.o11ymanager.manager.port.SshPort;
 import com.mcmp.o11ymanager.manager.service.interfaces.SshService;
-import java.io.ByteArrayInputStream;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import java.io.IOException;
-import java.io.InputStream;
-import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.nio.file.StandardCopyOption;
-import java.security.GeneralSecurityException;
-import java.security.KeyPair;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.apache.sshd.client.SshClient;
-import org.apache.sshd.client.session.ClientSession;
-import org.apache.sshd.common.util.security.SecurityUtils;
-import org.apache.sshd.sftp.client.SftpClient;
-import org.apache.sshd.sftp.client.SftpClientFactory;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
 @Service
@@ -51,18 +55,67 @@ public class SshServiceImpl implements SshService {
     private final SshPort sshPort;
     private final RequestInfo requestInfo;
 
-    @Value("${health.ssh-connection-cache-timeout:30000}")
-    private long sshConnectionCacheTimeout;
+    private final SshSessionPool sessionPool;
+    private final SshPoolProperties poolProperties;
+
+    private final SshBatchProperties batchProperties;
 
-    private final int MAX_RETRIES = 5;
     private final long RETRY_DELAY_MS = 500;
     public static final int SSH_COMMAND_EXECUTE_FAILED_CODE = -999;
 
-    private final Map<String, SshConnection> connectionCache = new ConcurrentHashMap<>();
-    private final Map<String, Object> connectionLocks = new ConcurrentHashMap<>();
+    // Runs batched commands; its size is the server-wide cap on hosts worked on at once.
+    private ThreadPoolExecutor batchExecutor;
+
+    // Finishes batched hosts (session cleanup, result callback) off the thread that completed
+    // them, which for a timeout is the JDK's shared CompletableFuture delay scheduler.
+    private ThreadPoolExecutor callbackExecutor;
+
+    @PostConstruct
+    void init() {
+        int threads = Math.max(1, batchProperties.getMaxConcurrency());
+        AtomicInteger counter = new AtomicInteger();
+        batchExecutor =
+                new ThreadPoolExecutor(
+                        threads,
+                        threads,
+                        60L,
+                        TimeUnit.SECONDS,
+                        new LinkedBlockingQueue<>(),
+                        r -> {
+                            Thread t = new Thread(r, "ssh-batch-" + counter.incrementAndGet());
+                            t.setDaemon(true);
+                            return t;
+                        });
+        batchExecutor.allowCoreThreadTimeOut(true);
+
+        AtomicInteger callbackCounter = new AtomicInteger();
+        callbackExecutor =
+                new ThreadPoolExecutor(
+                        4,
+                        4,
+                        60L,
+                        TimeUnit.SECONDS,
+                        new LinkedBlockingQueue<>(),
+                        r -> {
+                            Thread t =
+                                    new Thread(
+                                            r,
+                                            "ssh-batch-callback-"
+                                                    + callbackCounter.incrementAndGet());
+                            t.setDaemon(true);
+                            return t;
+                        });
+        callbackExecutor.allowCoreThreadTimeOut(true);
+    }
 
-    private Object getConnectionLock(String cacheKey) {
-        return connectionLocks.computeIfAbsent(cacheKey, k -> new Object());
+    @PreDestroy
+    void shutdown() {
+        if (batchExecutor != null) {
+            batchExecutor.shutdownNow();
+        }
+        if (callbackExecutor != null) {
+            callbackExecutor.shutdownNow();
+        }
     }
 
     private String getTelegrafServiceName() {
@@ -73,30 +126,6 @@ public class SshServiceImpl implements SshService {
         return "cmp-fluent-bit-" + deploySiteCode + ".service";
     }
 
-    @Scheduled(fixedRate = 60000)
-    public void cleanupConnectionCache() {
-        long currentTime = System.currentTimeMillis();
-        connectionCache
-                .entrySet()
-                .removeIf(
-                        entry -> {
-                            if (currentTime - entry.getValue().getLastUsedTime()
-                                    > sshConnectionCacheTimeout) {
-                                try {
-                                    entry.getValue().close();
-                                    log.debug("Closed expired SSH connection: {}", entry.getKey());
-                                } catch (Exception e) {
-                                    log.warn(
-                                            "Failed to close SSH connection: {}",
-                                            entry.getKey(),
-                                            e);
-                                }
-                                return true;
-                            }
-                            return false;
-                        });
-    }
-
     @Override
     public SshConnection getConnectionWithPrivateKey(
             String ip, int port, String user, Path privateKeyPath) {
@@ -108,46 +137,16 @@ public class SshServiceImpl implements SshService {
             return null;
         }
 
-        String cacheKey = ip + ":" + port + ":" + user;
-
-        // Check cache for active connection first (without lock)
-        SshConnection connection = connectionCache.get(cacheKey);
-        if (connection != null && connection.isActive()) {
-            connection.updateLastUsedTime();
-            return connection;
-        }
-
-        // Synchronize with host-based lock to prevent concurrent connection attempts
-        synchronized (getConnectionLock(cacheKey)) {
-            // Double-check (another thread may have already connected)
-            connection = connectionCache.get(cacheKey);
-            if (connection != null && connection.isActive()) {
-                connection.updateLastUsedTime();
-                return connection;
-            }
-
-            // Clean up inactive connection
-            if (connection != null) {
-                try {
-                    connection.close();
-                } catch (IOException e) {
-                    log.debug("Error closing stale connection: {}", e.getMessage());
-                }
-                connectionCache.remove(cacheKey);
-            }
-
-            try {
-                connection = sshPort.openSessionWithPrivateKey(user, ip, port, privateKeyPath);
-                connectionCache.put(cacheKey, connection);
-                connection.updateLastUsedTime();
-                return connection;
-            } catch (Exception e) {
-                log.error(
-                        "Error establishing SSH connection with private key to {}: {}",
-                        ip,
-                        e.getMessage());
-                throw new SshConnectionException(requestInfo.getRequestId(), ip);
-            }
+        try {
+            return sessionPool.get(
+                    sessionKey(ip, port, user),
+                    () -> sshPort.openSessionWithPrivateKey(user, ip, port, privateKeyPath));
+        } catch (Exception e) {
+            log.error(
+                    "Error establishing SSH connection with private key to {}: {}",
+                    ip,
+                    e.getMessage());
+            throw new SshConnectionException(requestInfo.getRequestId(), ip);
         }
     }
 
@@ -162,48 +161,26 @@ public class SshServiceImpl implements SshService {
             return null;
         }
 
-        String cacheKey = ip + ":" + port + ":" + user;
-
-        // Check cache for active connection first (without lock)
-        SshConnection connection = connectionCache.get(cacheKey);
-        if (connection != null && connection.isActive()) {
-            connection.updateLastUsedTime();
-            return connection;
+        try {
+            return pooledConnection(ip, port, user, privateKeyContent);
+        } catch (Exception e) {
+            log.debug(
+                    "Error establishing SSH connection with private key string to {}: {}",
+                    ip,
+                    e.getMessage());
+            throw new SshConnectionException(requestInfo.getRequestId(), ip);
         }
+    }
 
-        // Synchronize with host-based lock to prevent concurrent connection attempts
-        synchronized (getConnectionLock(cacheKey)) {
-            // Double-check (another thread may have already connected)
-            connection = connectionCache.get(cacheKey);
-            if (connection != null && connection.isActive()) {
-                connection.updateLastUsedTime();
-                return connection;
-            }
-
-            // Clean up inactive connection
-            if (connection != null) {
-                try {
-                    connection.close();
-                } catch (IOException e) {
-                    log.debug("Error closing stale connection: {}", e.getMessage());
-                }
-                connectionCache.remove(cacheKey);
-            }
+    private SshConnection pooledConnection(
+            String ip, int port, String user, String privateKeyContent) throws IOException {
+        return sessionPool.get(
+                sessionKey(ip, port, user),
+                () -> sshPort.openSessionWithPrivateKeyString(user, ip, port, privateKeyContent));
+    }
 
-            try {
-                connection =
-                        sshPort.openSessionWithPrivateKeyString(user, ip, port, privateKeyContent);
-                connectionCache.put(cacheKey, connection);
-                connection.updateLastUsedTime();
-                return connection;
-            } catch (Exception e) {
-                log.debug(
-                        "Error establishing SSH connection with private key string to {}: {}",
-                        ip,
-                        e.getMessage());
-                throw new SshConnectionException(requestInfo.getRequestId(), ip);
-            }
-        }
+    private static String sessionKey(String ip, int port, String user) {
+        return ip + ":" + port + ":" + user;
     }
 
     @Override
@@ -219,7 +196,7 @@ public class SshServiceImpl implements SshService {
 
         int retryCount = 0;
 
-        while (retryCount < MAX_RETRIES) {
+        while (retryCount < poolProperties.getCommandAttempts()) {
             try {
                 SshConnection sshConnection =
                         getConnectionWithPrivateKey(ip, port, user, privateKeyPath);
@@ -244,7 +221,7 @@ public class SshServiceImpl implements SshService {
                 retryCount++;
             }
 
-            if (retryCount < MAX_RETRIES) {
+            if (retryCount < poolProperties.getCommandAttempts()) {
                 try {
                     Thread.sleep(RETRY_DELAY_MS);
                 } catch (InterruptedException ie) {
@@ -255,9 +232,9 @@ public class SshServiceImpl implements SshService {
         }
 
         log.debug(
-                "Failed to execute command with private key on host {} after {} retries",
+                "Failed to execute command with private key on host {} after {} attempts",
                 ip,
-                MAX_RETRIES);
+                poolProperties.getCommandAttempts());
 
         return "";
     }
@@ -275,7 +252,7 @@ public class SshServiceImpl implements SshService {
 
         int retryCount = 0;
 
-        while (retryCount < MAX_RETRIES) {
+        while (retryCount < poolProperties.getCommandAttempts()) {
             try {
                 SshConnection sshConnection =
                         getConnectionWithPrivateKeyString(ip, port, user, privateKeyContent);
@@ -300,7 +277,7 @@ public class SshServiceImpl implements SshService {
                 retryCount++;
             }
 
-            if (retryCount < MAX_RETRIES) {
+            if (retryCount < poolProperties.getCommandAttempts()) {
                 try {
                     Thread.sleep(RETRY_DELAY_MS);
                 } catch (InterruptedException ie) {
@@ -311,13 +288,202 @@ public class SshServiceImpl implements SshService {
         }
 
         log.debug(
-                "Failed to execute command with private key string on host {} after {} retries",
+                "Failed to execute command with private key string on host {} after {} attempts",
                 ip,
-                MAX_RETRIES);
+                poolProperties.getCommandAttempts());
 
         return "";
     }
 
+    @Override
+    public BatchCommandReport runBatch(
+            List<SshTarget> targets, String script, Consumer<HostCommandResult> onResult) {
+        long start = System.nanoTime();
+        long deadline = start + TimeUnit.MILLISECONDS.toNanos(batchProperties.getBatchTimeoutMs());
+        List<HostTask> pending = new ArrayList<>(targets.size());
+        for (SshTarget target : targets) {
+            pending.add(submitHost(target, script, onResult));
+        }
+
+        List<HostCommandResult> results = new ArrayList<>(pending.size());
+        for (HostTask task : pending) {
+            results.add(task.await(deadline));
+        }
+        Map<HostCommandResult.Status, Long> counts =
+                results.stream()
+                        .collect(
+                                Collectors.groupingBy(
+                                        HostCommandResult::getStatus, Collectors.counting()));
+        BatchCommandReport report =
+                BatchCommandReport.builder()
+                        .total(results.size())
+                        .succeeded(count(counts, HostCommandResult.Status.SUCCESS))
+                        .failed(count(counts, HostCommandResult.Status.FAILED))
+                        .timedOut(count(counts, HostCommandResult.Status.TIMEOUT))
+                        .skipped(count(counts, HostCommandResult.Status.SKIPPED))
+                        .durationMs(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start))
+                        .results(results)
+                        .build();
+        log.info(
+                "[SSH-BATCH] {} hosts in {} ms: {} succeeded, {} failed, {} timed out, {} skipped",
+                report.getTotal(),
+                report.getDurationMs(),
+                report.getSucceeded(),
+                report.getFailed(),
+                report.getTimedOut(),
+                report.getSkipped());
+        return report;
+    }
+
+    /**
+     * One host of a batch. {@code outcome} is completed by the worker, or exceptionally by the host
+     * timeout or the batch deadline; {@code reported} turns either into the host's result.
+     */
+    private record HostTask(
+            CompletableFuture<HostCommandResult> outcome,
+            CompletableFuture<HostCommandResult> reported) {
+
+        HostCommandResult await(long deadline) {
+            try {
+                long remaining = Math.max(0L, deadline - System.nanoTime());
+                return reported.get(remaining, TimeUnit.NANOSECONDS);
+            } catch (TimeoutException e) {
+                outcome.completeExceptionally(
+                        new TimeoutException("batch deadline reached before the host finished"));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                outcome.completeExceptionally(new TimeoutException("batch interrupted"));
+            } catch (ExecutionException e) {
+                // reported never completes exceptionally; fall through to join
+            }
+            return reported.join();
+        }
+    }
+
+    private HostTask submitHost(
+            SshTarget target, String script, Consumer<HostCommandResult> onResult) {
+        long hostTimeoutMs = Math.max(1L, batchProperties.getHostTimeoutMs());
+        AtomicLong startedAt = new AtomicLong();
+        CompletableFuture<HostCommandResult> outcome = new CompletableFuture<>();
+        Future<?> worker =
+                batchExecutor.submit(
+                        () -> {
+                            if (outcome.isDone()) {
+                                return; // batch deadline passed while queued
+                            }
+                            startedAt.set(System.nanoTime());
+                            // timed from here, not from submission, so queued hosts keep theirs
+                            outcome.orTimeout(hostTimeoutMs, TimeUnit.MILLISECONDS);
+                            try {
+                                outcome.complete(runOnHost(target, script, hostTimeoutMs));
+                            } catch (RuntimeException | Error e) {
+                                outcome.completeExceptionally(e);
+                            }
+                        });
+        CompletableFuture<HostCommandResult> reported =
+                outcome.handleAsync(
+                        (result, error) -> {
+                            if (result == null) {
+                                result = abandoned(target, error, startedAt.get(), hostTimeoutMs);
+                                worker.cancel(true);
+                                if (startedAt.get() != 0L) {
+                                    // the session may be stuck mid-handshake or on a hung channel
+                                    removeConnection(
+                                            target.getIp(), target.getPort(), target.getUser());
+                                }
+                            }
+                            try {
+                                onResult.accept(result);
+                            } catch (Exception e) {
+                                log.warn(
+                                        "[SSH-BATCH] result callback failed for {}: {}",
+                                        target.getIp(),
+                                        e.getMessage());
+                            }
+                            return result;
+                        },
+                        callbackExecutor);
+        return new HostTask(outcome, reported);
+    }
+
+    /** Result of a host whose worker did not finish: timed out, cut by the deadline or crashed. */
+    private static HostCommandResult abandoned(
+            SshTarget target, Throwable error, long startedAt, long hostTimeoutMs) {
+        boolean timedOut = error instanceof TimeoutException;
+        String message =
+                !timedOut
+                        ? String.valueOf(error)
+                        : error.getMessage() != null
+                                ? error.getMessage()
+                                : "no result within " + hostTimeoutMs + " ms";
+        return HostCommandResult.builder()
+                .ip(target.getIp())
+                .port(target.getPort())
+                .status(
+                        timedOut
+                                ? HostCommandResult.Status.TIMEOUT
+                                : HostCommandResult.Status.FAILED)
+                .exitCode(SSH_COMMAND_EXECUTE_FAILED_CODE)
+                .error(message)
+                .durationMs(
+                        startedAt == 0L
+                                ? 0L
+                                : TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt))
+                .build();
+    }
+
+    private HostCommandResult runOnHost(SshTarget target, String script, long hostTimeoutMs) {
+        long start = System.nanoTime();
+        HostCommandResult.HostCommandResultBuilder result =
+                HostCommandResult.builder().ip(target.getIp()).port(target.getPort());
+
+        if (isWinRmPort(target.getPort())) {
+            return result.status(HostCommandResult.Status.SKIPPED)
+                    .exitCode(SSH_COMMAND_EXECUTE_FAILED_CODE)
+                    .error("Windows host (WinRM port), not reachable over SSH")
+                    .build();
+        }
+
+        try {
+            // not getConnectionWithPrivateKeyString: it reads the request-scoped RequestInfo,
+            // which is not available on batch worker threads
+            SshConnection connection =
+                    pooledConnection(
+                            target.getIp(),
+                            target.getPort(),
+                            target.getUser(),
+                            target.getPrivateKeyContent());
+            // whatever connect, auth and the channel wait left of the host's time
+            long remainingMs =
+                    hostTimeoutMs - TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            AgentCommandResult commandResult =
+                    sshPort.executeCommand(connection, script, Math.max(1L, remainingMs));
+            HostCommandResult.Status status;
+            if (commandResult.isTimedOut()) {
+                status = HostCommandResult.Status.TIMEOUT;
+            } else if (commandResult.getExitCode() == 0) {
+                status = HostCommandResult.Status.SUCCESS;
+            } else {
+                status = HostCommandResult.Status.FAILED;
+            }
+            result.status(status)
+                    .exitCode(commandResult.getExitCode())
+                    .output(commandResult.getOutput())
+                    .error(commandResult.getError());
+        } catch (Exception e) {
+            log.debug("[SSH-BATCH] command failed on {}: {}", target.getIp(), e.getMessage());
+            result.status(HostCommandResult.Status.FAILED)
+                    .exitCode(SSH_COMMAND_EXECUTE_FAILED_CODE)
+                    .error(e.getMessage());
+        }
+        return result.durationMs(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)).build();
+    }
+
+    private static int count(
+            Map<HostCommandResult.Status, Long> counts, HostCommandResult.Status status) {
+        return counts.getOrDefault(status, 0L).intValue();
+    }
+
     @Override
     public boolean isEnable(
             Agent agent, String ip, int port, String user, SshConnection sshConnection) {
@@ -349,15 +515,7 @@ public class SshServiceImpl implements SshService {
 
     @Override
     public void removeConnection(String ip, int port, String user) {
-        String cacheKey = ip + ":" + port + ":" + user;
-        SshConnection conn = connectionCache.remove(cacheKey);
-        if (conn != null) {
-            try {
-                conn.close();
-            } catch (IOException ioException) {
-                log.error("Error closing connection: {}", ioException.getMessage());
-            }
-        }
+        sessionPool.invalidate(sessionKey(ip, port, user));
     }
 
     @Override
@@ -529,96 +687,14 @@ public class SshServiceImpl implements SshService {
             return;
         }
 
-        try (SshClient client = SshClient.setUpDefaultClient()) {
-            client.start();
-
-            try (ClientSession session =
-                    client.connect(username, ip, port).verify(15, TimeUnit.SECONDS).getSession()) {
-
-                Iterable<KeyPair> keyPairs;
-                try {
-                    keyPairs =
-                            SecurityUtils.loadKeyPairIdentities(
-                                    null,
-                                    null,
-                                    new ByteArrayInputStream(
-                                            privateKeyContent.getBytes(StandardCharsets.UTF_8)),
-                                    null);
-                } catch (GeneralSecurityException e) {
-                    throw new IOException("Failed to load private key: " + e.getMessage(), e);
-                }
-
-                for (KeyPair keyPair : keyPairs) {
-                    session.addPublicKeyIdentity(keyPair);
-                }
-
-                if (session.auth().verify(15, TimeUnit.SECONDS).isFailure()) {
-                    throw new IOException("SSH server authentication failed: " + ip);
-                }
-                log.info("SSH session authentication successful. {}", ip);
-
-                SftpClientFactory factory = SftpClientFactory.instance();
-
-                try (SftpClient sftpClient = factory.createSftpClient(session)) {
-                    log.info(
-                            "SFTP client created. Starting download: {} -> {}",
-                            remoteFilePath,
-                            localPath);
-                    recursiveDownload(sftpClient, remoteFilePath, localPath);
-                    log.info("Download completed: {} -> {}", remoteFilePath, localPath);
-                }
-            }
-        }
-    }
-
-    private void recursiveDownload(
-            SftpClient sftpClient, String currentRemotePath, Path currentLocalPath)
-            throws IOException {
-
-        Iterable<SftpClient.DirEntry> entries;
-        try {
-            entries = sftpClient.readDir(currentRemotePath);
-        } catch (IOException e) {
-            log.error(
-                    "Error: Failed to read remote directory {} : {}",
-                    currentRemotePath,
-                    e.getMessage());
-            return;
-        }
-
-        for (SftpClient.DirEntry entry : entries) {
-            String entryName = entry.getFilename();
-            if (entryName.equals(".") || entryName.equals("..")) {
-                continue;
-            }
-
-            String nextRemotePath = sftpClient.canonicalPath(currentRemotePath + "/" + entryName);
-            Path nextLocalPath = currentLocalPath.resolve(entryName);
-            SftpClient.Attributes attrs = entry.getAttributes();
-
-            if (attrs.isDirectory()) {
-                if (!Files.exists(nextLocalPath)) {
-                    Files.createDirectories(nextLocalPath);
-                    log.info("Directory created: {}", nextLocalPath);
-                }
-                log.info("Entering directory: {}", nextRemotePath);
-                recursiveDownload(sftpClient, nextRemotePath, nextLocalPath);
-            } else if (attrs.isRegularFile()) {
-                log.info("Downloading file: {} -> {}", nextRemotePath, nextLocalPath);
-                try (InputStream inputStream = sftpClient.read(nextRemotePath)) {
-                    Files.copy(inputStream, nextLocalPath, StandardCopyOption.REPLACE_EXISTING);
-                } catch (IOException e) {
-                    log.error(
-                            "Error: Failed to download file {} : {}",
-                            nextRemotePath,
-                            e.getMessage());
-                }
-            } else if (attrs.isSymbolicLink()) {
-                log.info("Skipping symbolic link: {}", nextRemotePath);
-            } else {
-                log.info("Skipping unsupported file type: {}", nextRemotePath);
-            }
+        // Reuse the cached, already authenticated session; reconnect only if it has dropped.
+        if (!connection.isActive()) {
+            connection = getConnectionWithPrivateKeyString(ip, port, username, privateKeyContent);
         }
+        log.info("Starting download: {} -> {}", remoteFilePath, localPath);
+        sshPort.download(connection, remoteFilePath, localPath);
+        connection.updateLastUsedTime();
+        log.info("Download completed: {} -> {}", remoteFilePath, localPath);
     }
 
     @Override
@@ -0,0 +1,281 @@
+package com.mcmp.o11ymanager.manager.service;
+
+import com.mcmp.o11ymanager.manager.config.SshPoolProperties;
+import com.mcmp.o11ymanager.manager.model.agentHealth.SshConnection;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Pool of authenticated SSH sessions, one per {@code ip:port:user} key.
+ *
+ * <ul>
+ *   <li>Concurrent requests for a key that has no live session share a single handshake.
+ *   <li>A maintenance sweep closes sessions idle for {@code idle-timeout-ms} and reconnects
+ *       dropped ones (e.g. closed after unanswered keep-alives) in the background, so the next
+ *       caller finds a live session instead of paying the handshake.
+ *   <li>Per-host concurrency is bounded by the channel limit of each session (see {@link
+ *       SshConnection#acquireChannel}).
+ * </ul>
+ */
+@Slf4j
+@Component
+public class SshSessionPool {
+
+    /** Opens and authenticates a new session for a key. */
+    @FunctionalInterface
+    public interface Opener {
+        SshConnection open() throws IOException;
+    }
+
+    private static final class Pooled {
+        private volatile Opener opener;
+        private volatile SshConnection connection;
+        private volatile long lastUsedMillis = System.currentTimeMillis();
+        private CompletableFuture<SshConnection> connecting; // guarded by this
+        private boolean retired; // guarded by this; removed from the pool, never reused
+
+        Pooled(Opener opener) {
+            this.opener = opener;
+        }
+    }
+
+    /** A handshake finished for an entry that was evicted or invalidated meanwhile. */
+    private static final class RetiredException extends IOException {
+        RetiredException() {
+            super("SSH session was removed from the pool while connecting");
+        }
+    }
+
+    /** Attempts of {@link #get} when the entry it connected for is retired under it. */
+    private static final int GET_ATTEMPTS = 3;
+
+    private final SshPoolProperties properties;
+    private final Map<String, Pooled> sessions = new ConcurrentHashMap<>();
+    private final Timer handshakes;
+    private final Counter reconnects;
+    private ThreadPoolExecutor reconnector;
+
+    public SshSessionPool(SshPoolProperties properties, MeterRegistry registry) {
+        this.properties = properties;
+        this.handshakes = Timer.builder("o11y.ssh.handshake").register(registry);
+        this.reconnects = Counter.builder("o11y.ssh.reconnects").register(registry);
+        Gauge.builder("o11y.ssh.sessions.open", sessions, SshSessionPool::countOpen)
+                .register(registry);
+    }
+
+    @PostConstruct
+    void init() {
+        AtomicInteger counter = new AtomicInteger();
+        reconnector =
+                new ThreadPoolExecutor(
+                        2,
+                        2,
+                        0L,
+                        TimeUnit.MILLISECONDS,
+                        new ArrayBlockingQueue<>(1_000),
+                        r -> {
+                            Thread t = new Thread(r, "ssh-reconnect-" + counter.incrementAndGet());
+                            t.setDaemon(true);
+                            return t;
+                        });
+    }
+
+    @PreDestroy
+    void shutdown() {
+        if (reconnector != null) {
+            reconnector.shutdownNow();
+        }
+        sessions.keySet().forEach(this::invalidate);
+    }
+
+    /**
+     * Live session for {@code key}, opened with {@code opener} if there is none. The opener is
+     * remembered for background reconnects.
+     */
+    public SshConnection get(String key, Opener opener) throws IOException {
+        for (int attempt = 1; ; attempt++) {
+            Pooled pooled = sessions.computeIfAbsent(key, k -> new Pooled(opener));
+            pooled.opener = opener;
+            pooled.lastUsedMillis = System.currentTimeMillis();
+            SshConnection connection = pooled.connection;
+            if (connection != null && connection.isActive()) {
+                connection.updateLastUsedTime();
+                return connection;
+            }
+            try {
+                connection = connect(pooled);
+            } catch (RetiredException e) {
+                // evicted or invalidated mid-handshake: start over on the current entry
+                if (attempt >= GET_ATTEMPTS) {
+                    throw e;
+                }
+                continue;
+            }
+            connection.updateLastUsedTime();
+            return connection;
+        }
+    }
+
+    /** Closes and forgets the session of {@code key}; the next {@link #get} opens a new one. */
+    public void invalidate(String key) {
+        Pooled pooled = sessions.remove(key);
+        if (pooled != null) {
+            retire(key, pooled);
+        }
+    }
+
+    /**
+     * Closes the session of an entry already removed from the map. A handshake still running for
+     * it closes its own result (see {@link #connect}), so no session is left on an orphan.
+     */
+    private static void retire(String key, Pooled pooled) {
+        SshConnection connection;
+        synchronized (pooled) {
+            pooled.retired = true;
+            connection = pooled.connection;
+            pooled.connection = null;
+        }
+        closeQuietly(key, connection);
+    }
+
+    @Scheduled(
+            fixedDelayString = "${ssh.pool.maintenance-interval-ms:30000}",
+            initialDelayString = "${ssh.pool.maintenance-interval-ms:30000}")
+    public void maintain() {
+        long now = System.currentTimeMillis();
+        sessions.forEach(
+                (key, pooled) -> {
+                    if (now - pooled.lastUsedMillis > properties.getIdleTimeoutMs()) {
+                        if (sessions.remove(key, pooled)) {
+                            retire(key, pooled);
+                            log.debug("[SSH-POOL] closed idle session {}", key);
+                        }
+                        return;
+                    }
+                    SshConnection connection = pooled.connection;
+                    if (connection != null && !connection.isActive()) {
+                        reconnectAsync(key, pooled);
+                    }
+                });
+    }
+
+    private void reconnectAsync(String key, Pooled pooled) {
+        try {
+            reconnector.execute(
+                    () -> {
+                        try {
+                            connect(pooled);
+                            reconnects.increment();
+                            log.debug("[SSH-POOL] reconnected {}", key);
+                        } catch (Exception e) {
+                            log.debug("[SSH-POOL] reconnect of {} failed: {}", key, e.getMessage());
+                        }
+                    });
+        } catch (RejectedExecutionException e) {
+            log.debug("[SSH-POOL] reconnect queue full, skipping {}", key);
+        }
+    }
+
+    /** Opens a session for {@code pooled}, or waits for the handshake already in progress. */
+    private SshConnection connect(Pooled pooled) throws IOException {
+        CompletableFuture<SshConnection> inProgress;
+        CompletableFuture<SshConnection> mine = null;
+        synchronized (pooled) {
+            if (pooled.retired) {
+                throw new RetiredException();
+            }
+            SshConnection current = pooled.connection;
+            if (current != null && current.isActive()) {
+                return current;
+            }
+            if (pooled.connecting == null) {
+                pooled.connecting = new CompletableFuture<>();
+                mine = pooled.connecting;
+            }
+            inProgress = pooled.connecting;
+        }
+
+        if (mine == null) {
+            return await(inProgress);
+        }
+        try {
+            SshConnection stale = pooled.connection;
+            if (stale != null) {
+                closeQuietly(null, stale);
+            }
+            long start = System.nanoTime();
+            SshConnection opened = pooled.opener.open();
+            handshakes.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            boolean retired;
+            synchronized (pooled) {
+                retired = pooled.retired;
+                if (!retired) {
+                    pooled.connection = opened;
+                }
+            }
+            if (retired) {
+                closeQuietly(null, opened);
+                throw new RetiredException();
+            }
+            mine.complete(opened);
+            return opened;
+        } catch (IOException | RuntimeException e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            synchronized (pooled) {
+                pooled.connecting = null;
+            }
+        }
+    }
+
+    private static SshConnection await(CompletableFuture<SshConnection> handshake)
+            throws IOException {
+        try {
+            return handshake.get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException io) {
+                throw io;
+            }
+            throw new IOException("SSH handshake failed: " + cause.getMessage(), cause);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for SSH handshake", e);
+        }
+    }
+
+    private static void closeQuietly(String key, SshConnection connection) {
+        if (connection == null) {
+            return;
+        }
+        try {
+            connection.close();
+        } catch (Exception e) {
+            log.warn("[SSH-POOL] failed to close session {}: {}", key, e.getMessage());
+        }
+    }
+
+    private static double countOpen(Map<String, Pooled> sessions) {
+        return sessions.values().stream()
+                .filter(p -> p.connection != null && p.connection.isActive())
+                .count();
+    }
+}
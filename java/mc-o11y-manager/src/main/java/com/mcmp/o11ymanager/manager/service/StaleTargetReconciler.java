@@ -7,6 +7,7 @@ import com.mcmp.o11ymanager.manager.dto.tumblebug.TumblebugNS;
 import com.mcmp.o11ymanager.manager.entity.K8sAgentTaskEntity;
 import com.mcmp.o11ymanager.manager.entity.VMEntity;
 import com.mcmp.o11ymanager.manager.infrastructure.tumblebug.TumblebugClient;
+import com.mcmp.o11ymanager.manager.infrastructure.tumblebug.TumblebugRateLimiter;
 import com.mcmp.o11ymanager.manager.repository.K8sAgentTaskJpaRepository;
 import com.mcmp.o11ymanager.manager.repository.VMJpaRepository;
 import feign.FeignException;
@@ -42,10 +43,8 @@ import org.springframework.stereotype.Component;
 @RequiredArgsConstructor
 public class StaleTargetReconciler {
 
-    /** Tumblebug rate-limits ~3 sequential calls (429); space discovery calls out. */
-    private static final long TB_CALL_SPACING_MS = 400L;
-
     private final TumblebugClient tumblebugClient;
+    private final TumblebugRateLimiter tumblebugRateLimiter;
     private final VMJpaRepository vmJpaRepository;
     private final K8sAgentTaskJpaRepository k8sAgentTaskJpaRepository;
 
@@ -62,6 +61,7 @@ public class StaleTargetReconciler {
     void reconcileOnce() {
         TumblebugNS nsList;
         try {
+            tumblebugRateLimiter.acquire();
             nsList = tumblebugClient.getNSList();
         } catch (Exception e) {
             log.warn("[STALE-RECONCILE] getNSList failed, skipping pass: {}", e.toString());
@@ -77,18 +77,14 @@ public class StaleTargetReconciler {
         Set<String> vmScannedNs = new HashSet<>();
         Set<String> k8sScannedNs = new HashSet<>();
 
-        boolean space = false;
         for (TumblebugNS.NS ns : nsList.getNs()) {
             if (ns == null || ns.getId() == null) {
                 continue;
             }
             String nsId = ns.getId();
 
-            if (space) {
-                sleepQuietly(TB_CALL_SPACING_MS);
-            }
-            space = true;
             try {
+                tumblebugRateLimiter.acquire();
                 TumblebugInfraList infraList = tumblebugClient.getInfraList(nsId);
                 Set<String> keys = new HashSet<>();
                 if (infraList != null && infraList.getInfra() != null) {
@@ -112,8 +108,8 @@ public class StaleTargetReconciler {
                         e.toString());
             }
 
-            sleepQuietly(TB_CALL_SPACING_MS);
             try {
+                tumblebugRateLimiter.acquire();
                 TumblebugK8sCluster.ListResponse resp = tumblebugClient.getK8sClusterList(nsId);
                 Set<String> clusterIds = new HashSet<>();
                 if (resp != null && resp.getK8sClusterInfo() != null) {
@@ -197,11 +193,12 @@ public class StaleTargetReconciler {
 
     /**
      * Returns true only when Tumblebug definitively reports the resource as gone (HTTP 404). Any
-     * other outcome (success, 429, 5xx, network error) returns false so we never delete on
-     * uncertainty.
+     * other outcome (success, 429, 5xx, network error, no rate-limit token in time) returns false so
+     * we never delete on uncertainty.
      */
     private boolean isGone(Runnable lookup) {
         try {
+            tumblebugRateLimiter.acquire();
             lookup.run();
             return false;
         } catch (FeignException.NotFound nf) {
@@ -215,12 +212,4 @@ public class StaleTargetReconciler {
     private static String vmKey(String infraId, String nodeId) {
         return infraId + " " + nodeId;
     }
-
-    private static void sleepQuietly(long ms) {
-        try {
-            Thread.sleep(ms);
-        } catch (InterruptedException ie) {
-            Thread.currentThread().interrupt();
-        }
-    }
 }
@@ -8,7 +8,13 @@ import com.mcmp.o11ymanager.manager.enums.Agent;
 import com.mcmp.o11ymanager.manager.exception.agent.AgentStatusException;
 import com.mcmp.o11ymanager.manager.port.TumblebugPort;
 import com.mcmp.o11ymanager.manager.service.interfaces.TumblebugService;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
@@ -69,6 +75,11 @@ public class TumblebugServiceImpl implements TumblebugService {
         return tumblebugPort.getNode(nsId, infraId, nodeId);
     }
 
+    @Override
+    public void invalidateInfra(String nsId, String infraId) {
+        tumblebugPort.invalidate(nsId, infraId);
+    }
+
     @Override
     public boolean isServiceActive(String nsId, String infraId, String nodeId, Agent agent) {
         log.info(
@@ -89,10 +100,7 @@ public class TumblebugServiceImpl implements TumblebugService {
             return "active".equalsIgnoreCase(winResult);
         }
 
-        String command =
-                String.format(
-                        "systemctl is-active cmp-%s-%s.service",
-                        agent.name().toLowerCase().replace("_", "-"), sitecode.toLowerCase());
+        String command = "systemctl is-active " + serviceUnit(agent);
 
         log.info("==================IS ACTIVE ? INACTIVE CMD : {}", command);
 
@@ -114,6 +122,96 @@ public class TumblebugServiceImpl implements TumblebugService {
         return true;
     }
 
+    @Override
+    public Map<Agent, Boolean> areServicesActive(
+            String nsId, String infraId, String nodeId, Collection<Agent> agents) {
+        Map<Agent, Boolean> result = new EnumMap<>(Agent.class);
+        List<Agent> systemdAgents = new ArrayList<>();
+        for (Agent agent : agents) {
+            if (agent == Agent.OTEL_JAVA_AGENT) {
+                // Windows host without systemd: keeps its own PowerShell probe.
+                result.put(agent, isServiceActive(nsId, infraId, nodeId, agent));
+            } else if (!systemdAgents.contains(agent)) {
+                systemdAgents.add(agent);
+            }
+        }
+        if (systemdAgents.isEmpty()) {
+            return result;
+        }
+
+        String output = executeCommand(nsId, infraId, nodeId, isActiveCommand(systemdAgents));
+        result.putAll(parseIsActive(nodeId, systemdAgents, output));
+        log.info("Agent status probe nodeId: {}, result: {}", nodeId, result);
+        return result;
+    }
+
+    @Override
+    public Map<String, Map<Agent, Boolean>> areServicesActiveOnInfra(
+            String nsId, String infraId, Collection<String> nodeIds, Collection<Agent> agents) {
+        List<Agent> systemdAgents =
+                agents.stream().filter(a -> a != Agent.OTEL_JAVA_AGENT).distinct().toList();
+        Map<String, Map<Agent, Boolean>> result = new HashMap<>();
+        if (systemdAgents.isEmpty() || nodeIds.isEmpty()) {
+            return result;
+        }
+
+        TumblebugCmd cmd = new TumblebugCmd();
+        cmd.setCommand(List.of(isActiveCommand(systemdAgents)));
+        // A single node can be targeted directly; otherwise run on the whole infra and keep the
+        // requested nodes. No user name: Tumblebug then uses each node's own default user.
+        String target = nodeIds.size() == 1 ? nodeIds.iterator().next() : null;
+        Object response = tumblebugPort.sendCommand(nsId, infraId, target, cmd);
+
+        JsonNode results = objectMapper.valueToTree(response).path("results");
+        if (!results.isArray()) {
+            throw new RuntimeException("Tumblebug response is invalid.");
+        }
+        for (JsonNode r : results) {
+            String nodeId = r.path("nodeId").asText(r.path("vmId").asText(""));
+            if (!nodeIds.contains(nodeId)) {
+                continue;
+            }
+            String output = r.path("stdout").path("0").asText("");
+            result.put(nodeId, parseIsActive(nodeId, systemdAgents, output));
+        }
+        log.info(
+                "Infra agent status probe infraId: {}, requested {} nodes, got {}",
+                infraId,
+                nodeIds.size(),
+                result.size());
+        return result;
+    }
+
+    /** `systemctl is-active a b c` prints one state per unit, in argument order. */
+    private String isActiveCommand(List<Agent> systemdAgents) {
+        return "systemctl is-active "
+                + systemdAgents.stream().map(this::serviceUnit).collect(Collectors.joining(" "));
+    }
+
+    private static Map<Agent, Boolean> parseIsActive(
+            String nodeId, List<Agent> systemdAgents, String output) {
+        String[] lines = output.strip().split("\\R");
+        if (lines.length != systemdAgents.size()) {
+            log.warn(
+                    "Unexpected systemctl output for nodeId: {} - expected {} lines, got {}",
+                    nodeId,
+                    systemdAgents.size(),
+                    lines.length);
+        }
+        Map<Agent, Boolean> states = new EnumMap<>(Agent.class);
+        for (int i = 0; i < systemdAgents.size(); i++) {
+            boolean active = i < lines.length && "active".equalsIgnoreCase(lines[i].trim());
+            states.put(systemdAgents.get(i), active);
+        }
+        return states;
+    }
+
+    private String serviceUnit(Agent agent) {
+        return String.format(
+                "cmp-%s-%s.service",
+                agent.name().toLowerCase().replace("_", "-"), sitecode.toLowerCase());
+    }
+
     @Override
     public String restart(String nsId, String infraId, String nodeId, Agent agent) {
 
@@ -132,10 +230,7 @@ public class TumblebugServiceImpl implements TumblebugService {
         // Must run with sudo: the SSH user (e.g. cb-user) cannot restart a systemd unit
         // otherwise ("Interactive authentication required"), which left the agent inactive
         // after a VM suspend/resume and surfaced as a 500 when toggling a metric.
-        String command =
-                String.format(
-                        "sudo systemctl restart cmp-%s-%s.service",
-                        agent.name().toLowerCase().replace("_", "-"), sitecode.toLowerCase());
+        String command = "sudo systemctl restart " + serviceUnit(agent);
 
         String result = executeCommand(nsId, infraId, nodeId, command).trim();
 
@@ -9,10 +9,10 @@ import com.mcmp.o11ymanager.manager.global.error.ResourceNotExistsException;
 import com.mcmp.o11ymanager.manager.model.host.VMAgentTaskStatus;
 import com.mcmp.o11ymanager.manager.model.host.VMStatus;
 import com.mcmp.o11ymanager.manager.repository.VMJpaRepository;
+import com.mcmp.o11ymanager.manager.service.cache.InfluxRoutingTable;
 import com.mcmp.o11ymanager.manager.service.interfaces.VMService;
 import java.util.List;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.Lock;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -25,13 +25,23 @@ public class VMServiceImpl implements VMService {
 
     private final VMJpaRepository vmJpaRepository;
     private final RequestInfo requestInfo;
+    private final InfluxRoutingTable influxRoutingTable;
+    private final LockRegistry lockRegistry;
 
-    private final ConcurrentHashMap<String, ReentrantLock> repositoryLocks =
-            new ConcurrentHashMap<>();
+    private static final String HOST_LOCK_SCOPE = "host";
 
-    public ReentrantLock getHostLock(String nsId, String infraId, String nodeId) {
-        String lockKey = nsId + "-" + infraId + "-" + nodeId;
-        return repositoryLocks.computeIfAbsent(lockKey, k -> new ReentrantLock());
+    @Override
+    public Lock getHostLock(String nsId, String infraId, String nodeId) {
+        return lockRegistry.writeLock(HOST_LOCK_SCOPE, hostLockKey(nsId, infraId, nodeId));
+    }
+
+    @Override
+    public Lock getHostReadLock(String nsId, String infraId, String nodeId) {
+        return lockRegistry.readLock(HOST_LOCK_SCOPE, hostLockKey(nsId, infraId, nodeId));
+    }
+
+    private static String hostLockKey(String nsId, String infraId, String nodeId) {
+        return nsId + "-" + infraId + "-" + nodeId;
     }
 
     @Override
@@ -96,6 +106,7 @@ public class VMServiceImpl implements VMService {
                         .build();
 
         VMEntity savedVM = vmJpaRepository.save(vm);
+        influxRoutingTable.assign(nsId, infraId, influxSeq);
 
         return VMDTO.fromEntity(savedVM);
     }
@@ -130,6 +141,10 @@ public class VMServiceImpl implements VMService {
                                                 requestInfo.getRequestId(), "VMEntity", nodeId));
 
         vmJpaRepository.delete(entity);
+        // Last node of the MCI gone → drop its InfluxDB route so a re-created MCI is re-resolved.
+        if (vmJpaRepository.findByNsIdAndInfraId(nsId, infraId).isEmpty()) {
+            influxRoutingTable.invalidate(nsId, infraId);
+        }
     }
 
     @Override
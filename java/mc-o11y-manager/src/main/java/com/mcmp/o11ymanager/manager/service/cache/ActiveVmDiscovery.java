@@ -0,0 +1,117 @@
+package com.mcmp.o11ymanager.manager.service.cache;
+
+import com.mcmp.o11ymanager.manager.config.MonitoringCacheProperties;
+import com.mcmp.o11ymanager.manager.dto.influx.VmRef;
+import com.mcmp.o11ymanager.manager.service.interfaces.InfluxDbService;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+/**
+ * Keeps the set of VMs that currently report metrics, shared by {@link
+ * MonitoringCacheWarmScheduler} and {@link CspCacheWarmScheduler}.
+ *
+ * <p>The full window ({@code monitoring.cache.discovery.window}) is only queried on the first call
+ * and then once per {@code full-refresh-interval-seconds}; in between, a short {@code
+ * incremental-window} query adds newly reporting VMs. Both warmers ticking every minute therefore
+ * cost at most one small index query per minute instead of two full-window scans.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ActiveVmDiscovery {
+
+    private final InfluxDbService influxDbService;
+    private final MonitoringCacheProperties properties;
+
+    private final Object refreshLock = new Object();
+    private volatile Set<VmRef> known = Set.of();
+    private volatile long lastRefreshNanos;
+    private volatile long lastFullRefreshNanos;
+    private volatile boolean loaded;
+
+    private final AtomicLong fullRefreshCount = new AtomicLong();
+    private final AtomicLong incrementalRefreshCount = new AtomicLong();
+
+    /** Returns the active VMs, refreshing first when the known set is older than the interval. */
+    public List<VmRef> activeVms() {
+        MonitoringCacheProperties.Discovery cfg = properties.getDiscovery();
+        if (stale(cfg)) {
+            synchronized (refreshLock) {
+                // another caller may have refreshed while we waited for the lock
+                if (stale(cfg)) {
+                    refresh(cfg);
+                }
+            }
+        }
+        return List.copyOf(known);
+    }
+
+    private boolean stale(MonitoringCacheProperties.Discovery cfg) {
+        return !loaded || elapsedSeconds(lastRefreshNanos) >= cfg.getRefreshIntervalSeconds();
+    }
+
+    /** Forces a full-window refresh on the next {@link #activeVms()} call. */
+    public void invalidate() {
+        loaded = false;
+    }
+
+    public Map<String, Object> stats() {
+        return Map.of(
+                "knownVms", known.size(),
+                "loaded", loaded,
+                "fullRefreshCount", fullRefreshCount.get(),
+                "incrementalRefreshCount", incrementalRefreshCount.get(),
+                "secondsSinceRefresh", loaded ? elapsedSeconds(lastRefreshNanos) : -1L);
+    }
+
+    private void refresh(MonitoringCacheProperties.Discovery cfg) {
+        boolean full =
+                !loaded
+                        || elapsedSeconds(lastFullRefreshNanos)
+                                >= cfg.getFullRefreshIntervalSeconds();
+        try {
+            if (full) {
+                List<VmRef> all = influxDbService.discoverActiveVms(cfg.getWindow());
+                if (all.isEmpty() && !known.isEmpty()) {
+                    // More likely every server timed out than every VM went quiet at once.
+                    log.warn(
+                            "[VM-DISCOVERY] full refresh returned nothing, keeping {} known VMs",
+                            known.size());
+                } else {
+                    known = Set.copyOf(new LinkedHashSet<>(all));
+                }
+                lastFullRefreshNanos = System.nanoTime();
+                fullRefreshCount.incrementAndGet();
+            } else {
+                List<VmRef> recent = influxDbService.discoverActiveVms(cfg.getIncrementalWindow());
+                if (!known.containsAll(recent)) {
+                    Set<VmRef> merged = new LinkedHashSet<>(known);
+                    merged.addAll(recent);
+                    known = Set.copyOf(merged);
+                }
+                incrementalRefreshCount.incrementAndGet();
+            }
+            log.info(
+                    "[VM-DISCOVERY] {} refresh, knownVms={}",
+                    full ? "full" : "incremental",
+                    known.size());
+        } catch (Exception e) {
+            log.warn("[VM-DISCOVERY] refresh failed: {}", e.toString());
+        } finally {
+            // Even on failure wait a full interval before retrying; the warmers run every minute.
+            lastRefreshNanos = System.nanoTime();
+            loaded = true;
+        }
+    }
+
+    private static long elapsedSeconds(long sinceNanos) {
+        return TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - sinceNanos);
+    }
+}
@@ -0,0 +1,402 @@
+package com.mcmp.o11ymanager.manager.service.cache;
+
+import com.mcmp.o11ymanager.manager.config.AgentStatusCacheProperties;
+import com.mcmp.o11ymanager.manager.enums.Agent;
+import com.mcmp.o11ymanager.manager.service.NodeFanOutExecutor;
+import com.mcmp.o11ymanager.manager.service.interfaces.TumblebugService;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiConsumer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Caches whether each agent service of a node is active, keyed by (ns, infra, node, agent), so the
+ * continuously polled node list is answered from memory instead of remote {@code systemctl}
+ * commands.
+ *
+ * <ul>
+ *   <li>A background job refreshes every cached state each {@code refresh-interval-ms}, with one
+ *       infra-scoped command per infra.
+ *   <li>Reads are served stale-while-revalidate: a state older than {@code stale-after-seconds}
+ *       is returned as is and its node is refreshed in the background.
+ *   <li>{@link #invalidate} drops a state immediately (agent install/uninstall finished, restart),
+ *       so the next read probes the node again. It also bumps the infra's generation, so probes
+ *       that started before it can't write their older result back.
+ *   <li>Listeners added with {@link #addChangeListener} hear which infra changed when a refresh
+ *       flips a state or a state is invalidated.
+ * </ul>
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class AgentStatusCache {
+
+    private record Key(String nsId, String infraId, String nodeId, Agent agent) {}
+
+    private record InfraRef(String nsId, String infraId) {}
+
+    private record NodeRef(String nsId, String infraId, String nodeId) {}
+
+    private static final class Entry {
+        private final boolean active;
+        private final long probedAtNanos;
+        private volatile long readAtNanos;
+
+        Entry(boolean active, long now) {
+            this.active = active;
+            this.probedAtNanos = now;
+            this.readAtNanos = now;
+        }
+    }
+
+    private final TumblebugService tumblebugService;
+    private final AgentStatusCacheProperties properties;
+    private final NodeFanOutExecutor nodeFanOutExecutor;
+
+    private final Map<Key, Entry> entries = new ConcurrentHashMap<>();
+    private final Map<InfraRef, AtomicLong> generations = new ConcurrentHashMap<>();
+    private final Set<Object> refreshing = ConcurrentHashMap.newKeySet();
+    private final List<BiConsumer<String, String>> changeListeners = new CopyOnWriteArrayList<>();
+    private ThreadPoolExecutor refresher;
+
+    @PostConstruct
+    void init() {
+        int threads = Math.max(1, properties.getRefreshThreads());
+        AtomicInteger counter = new AtomicInteger();
+        refresher =
+                new ThreadPoolExecutor(
+                        threads,
+                        threads,
+                        0L,
+                        TimeUnit.MILLISECONDS,
+                        new ArrayBlockingQueue<>(1_000),
+                        r -> {
+                            Thread t = new Thread(r, "agent-status-" + counter.incrementAndGet());
+                            t.setDaemon(true);
+                            return t;
+                        });
+    }
+
+    @PreDestroy
+    void shutdown() {
+        if (refresher != null) {
+            refresher.shutdownNow();
+        }
+    }
+
+    /**
+     * Active state of {@code agents} on one node. Uncached agents are probed synchronously and
+     * probe failures are thrown, like {@link TumblebugService#areServicesActive}.
+     */
+    public Map<Agent, Boolean> activeStates(
+            String nsId, String infraId, String nodeId, List<Agent> agents) {
+        if (!properties.isEnabled()) {
+            return tumblebugService.areServicesActive(nsId, infraId, nodeId, agents);
+        }
+        long now = System.nanoTime();
+        Map<Agent, Boolean> out = new EnumMap<>(Agent.class);
+        List<Agent> missing = new ArrayList<>();
+        boolean stale = collect(nsId, infraId, nodeId, agents, now, out, missing);
+        if (!missing.isEmpty()) {
+            long generation = generation(nsId, infraId);
+            Map<Agent, Boolean> probed =
+                    tumblebugService.areServicesActive(nsId, infraId, nodeId, missing);
+            store(nsId, infraId, nodeId, probed, generation);
+            out.putAll(probed);
+        }
+        if (stale) {
+            refreshNodeAsync(new NodeRef(nsId, infraId, nodeId), agents);
+        }
+        return out;
+    }
+
+    /**
+     * Active states for several nodes of one infra. Uncached states are probed with one
+     * infra-scoped command; nodes missing from its result (or all, if it fails) are probed one by
+     * one in parallel, and nodes whose probe fails or misses the fan-out deadline are left out of
+     * the returned map.
+     */
+    public Map<String, Map<Agent, Boolean>> activeStatesOnInfra(
+            String nsId, String infraId, Map<String, List<Agent>> agentsByNode) {
+        long now = System.nanoTime();
+        Map<String, Map<Agent, Boolean>> out = new LinkedHashMap<>();
+        Map<String, List<Agent>> missing = new LinkedHashMap<>();
+        boolean stale = false;
+        for (Map.Entry<String, List<Agent>> e : agentsByNode.entrySet()) {
+            String nodeId = e.getKey();
+            Map<Agent, Boolean> nodeStates = new EnumMap<>(Agent.class);
+            List<Agent> nodeMissing = new ArrayList<>();
+            if (properties.isEnabled()) {
+                stale |= collect(nsId, infraId, nodeId, e.getValue(), now, nodeStates, nodeMissing);
+            } else {
+                nodeMissing.addAll(e.getValue());
+            }
+            out.put(nodeId, nodeStates);
+            if (!nodeMissing.isEmpty()) {
+                missing.put(nodeId, nodeMissing);
+            }
+        }
+
+        if (!missing.isEmpty()) {
+            Map<String, Map<Agent, Boolean>> probed = probe(nsId, infraId, missing);
+            for (String nodeId : missing.keySet()) {
+                Map<Agent, Boolean> nodeProbed = probed.get(nodeId);
+                if (nodeProbed == null) {
+                    out.remove(nodeId);
+                } else {
+                    out.get(nodeId).putAll(nodeProbed);
+                }
+            }
+        }
+        if (stale) {
+            refreshInfraAsync(new InfraRef(nsId, infraId), agentsByNode);
+        }
+        return out;
+    }
+
+    /**
+     * Drops the cached state of one agent; the next read probes the node again. Results of probes
+     * of the same infra that are still running are discarded.
+     */
+    public void invalidate(String nsId, String infraId, String nodeId, Agent agent) {
+        generations
+                .computeIfAbsent(new InfraRef(nsId, infraId), i -> new AtomicLong())
+                .incrementAndGet();
+        if (entries.remove(new Key(nsId, infraId, nodeId, agent)) != null) {
+            fireChanged(nsId, infraId);
+        }
+    }
+
+    /**
+     * Registers {@code listener} to be called with (nsId, infraId) whenever a cached state of that
+     * infra flips or is invalidated. Called on the refreshing thread; keep it cheap.
+     */
+    public void addChangeListener(BiConsumer<String, String> listener) {
+        changeListeners.add(listener);
+    }
+
+    /** Background refresh of every state read within {@code idle-expire-seconds}. */
+    @Scheduled(
+            fixedDelayString = "${agent-status.cache.refresh-interval-ms:30000}",
+            initialDelayString = "${agent-status.cache.refresh-interval-ms:30000}")
+    public void refreshAll() {
+        if (!properties.isEnabled() || entries.isEmpty()) {
+            return;
+        }
+        long now = System.nanoTime();
+        long idleNanos = TimeUnit.SECONDS.toNanos(properties.getIdleExpireSeconds());
+        entries.values().removeIf(e -> now - e.readAtNanos > idleNanos);
+
+        Map<InfraRef, Map<String, List<Agent>>> byInfra = new LinkedHashMap<>();
+        for (Key k : entries.keySet()) {
+            InfraRef infra = new InfraRef(k.nsId(), k.infraId());
+            byInfra.computeIfAbsent(infra, i -> new LinkedHashMap<>())
+                    .computeIfAbsent(k.nodeId(), n -> new ArrayList<>())
+                    .add(k.agent());
+        }
+        byInfra.forEach(this::refreshInfraAsync);
+        log.debug("[AGENT-STATUS] refreshing {} infras, {} states", byInfra.size(), entries.size());
+    }
+
+    /** Copies cached states into {@code out} and the uncached agents into {@code missing}. */
+    private boolean collect(
+            String nsId,
+            String infraId,
+            String nodeId,
+            List<Agent> agents,
+            long now,
+            Map<Agent, Boolean> out,
+            List<Agent> missing) {
+        long staleNanos = TimeUnit.SECONDS.toNanos(properties.getStaleAfterSeconds());
+        boolean stale = false;
+        for (Agent agent : agents) {
+            Entry e = entries.get(new Key(nsId, infraId, nodeId, agent));
+            if (e == null) {
+                missing.add(agent);
+                continue;
+            }
+            e.readAtNanos = now;
+            out.put(agent, e.active);
+            stale |= now - e.probedAtNanos > staleNanos;
+        }
+        return stale;
+    }
+
+    /**
+     * Probes with one infra-scoped command, then node by node for whatever that didn't cover. The
+     * per-node probes run on the {@link NodeFanOutExecutor}, so they are parallel and bounded by
+     * its deadline. Nodes whose probe fails or times out are left out.
+     */
+    private Map<String, Map<Agent, Boolean>> probe(
+            String nsId, String infraId, Map<String, List<Agent>> agentsByNode) {
+        long generation = generation(nsId, infraId);
+        Map<String, Map<Agent, Boolean>> probed =
+                new HashMap<>(probeInfra(nsId, infraId, agentsByNode, generation));
+        List<Map.Entry<String, List<Agent>>> uncovered = new ArrayList<>();
+        for (Map.Entry<String, List<Agent>> e : agentsByNode.entrySet()) {
+            Map<Agent, Boolean> nodeProbed = probed.get(e.getKey());
+            if (nodeProbed == null || !nodeProbed.keySet().containsAll(e.getValue())) {
+                probed.remove(e.getKey());
+                uncovered.add(e);
+            }
+        }
+        if (uncovered.isEmpty()) {
+            return probed;
+        }
+        List<Map.Entry<String, Map<Agent, Boolean>>> perNode =
+                nodeFanOutExecutor.map(
+                        uncovered,
+                        e -> probeNode(nsId, infraId, e.getKey(), e.getValue(), generation),
+                        e -> {
+                            log.warn("[AGENT-STATUS] probe timed out nodeId={}", e.getKey());
+                            return null;
+                        });
+        perNode.forEach(e -> probed.put(e.getKey(), e.getValue()));
+        return probed;
+    }
+
+    private Map.Entry<String, Map<Agent, Boolean>> probeNode(
+            String nsId, String infraId, String nodeId, List<Agent> agents, long generation) {
+        try {
+            Map<Agent, Boolean> states =
+                    tumblebugService.areServicesActive(nsId, infraId, nodeId, agents);
+            store(nsId, infraId, nodeId, states, generation);
+            return Map.entry(nodeId, states);
+        } catch (Exception e) {
+            log.warn("[AGENT-STATUS] probe failed nodeId={}: {}", nodeId, e.getMessage());
+            return null;
+        }
+    }
+
+    private Map<String, Map<Agent, Boolean>> probeInfra(
+            String nsId, String infraId, Map<String, List<Agent>> agentsByNode, long generation) {
+        Set<Agent> union = new LinkedHashSet<>();
+        agentsByNode.values().forEach(union::addAll);
+        try {
+            Map<String, Map<Agent, Boolean>> probed =
+                    tumblebugService.areServicesActiveOnInfra(
+                            nsId, infraId, agentsByNode.keySet(), union);
+            probed.forEach((nodeId, states) -> store(nsId, infraId, nodeId, states, generation));
+            return probed;
+        } catch (Exception e) {
+            log.warn(
+                    "[AGENT-STATUS] infra probe failed nsId={}, infraId={}: {}",
+                    nsId,
+                    infraId,
+                    e.getMessage());
+            return Map.of();
+        }
+    }
+
+    /** Current generation of an infra; {@link #invalidate} increments it. */
+    private long generation(String nsId, String infraId) {
+        AtomicLong generation = generations.get(new InfraRef(nsId, infraId));
+        return generation == null ? 0L : generation.get();
+    }
+
+    /**
+     * Caches {@code states} probed while the infra was at {@code generation}. Results of a probe
+     * overtaken by {@link #invalidate} are dropped, including ones that raced the invalidation.
+     */
+    private void store(
+            String nsId,
+            String infraId,
+            String nodeId,
+            Map<Agent, Boolean> states,
+            long generation) {
+        if (!properties.isEnabled() || generation(nsId, infraId) != generation) {
+            return;
+        }
+        long now = System.nanoTime();
+        boolean changed = false;
+        for (Map.Entry<Agent, Boolean> state : states.entrySet()) {
+            Key key = new Key(nsId, infraId, nodeId, state.getKey());
+            Entry previous = entries.get(key);
+            Entry next = new Entry(Boolean.TRUE.equals(state.getValue()), now);
+            if (previous != null) {
+                // keep the reader's timestamp so background refreshes don't look like reads
+                next.readAtNanos = previous.readAtNanos;
+                changed |= previous.active != next.active;
+            }
+            entries.put(key, next);
+            // invalidated between the check above and the put: take the old result back out
+            if (generation(nsId, infraId) != generation) {
+                entries.remove(key, next);
+                return;
+            }
+        }
+        if (changed) {
+            fireChanged(nsId, infraId);
+        }
+    }
+
+    private void fireChanged(String nsId, String infraId) {
+        for (BiConsumer<String, String> listener : changeListeners) {
+            try {
+                listener.accept(nsId, infraId);
+            } catch (Exception e) {
+                log.warn("[AGENT-STATUS] change listener failed: {}", e.getMessage());
+            }
+        }
+    }
+
+    private void refreshNodeAsync(NodeRef node, List<Agent> agents) {
+        submit(
+                node,
+                () -> {
+                    long generation = generation(node.nsId(), node.infraId());
+                    store(
+                            node.nsId(),
+                            node.infraId(),
+                            node.nodeId(),
+                            tumblebugService.areServicesActive(
+                                    node.nsId(), node.infraId(), node.nodeId(), agents),
+                            generation);
+                });
+    }
+
+    private void refreshInfraAsync(InfraRef infra, Map<String, List<Agent>> agentsByNode) {
+        Map<String, List<Agent>> snapshot = Map.copyOf(agentsByNode);
+        submit(infra, () -> probe(infra.nsId(), infra.infraId(), snapshot));
+    }
+
+    /** Runs {@code refresh} in the background unless the same refresh is already queued. */
+    private void submit(Object ref, Runnable refresh) {
+        if (!refreshing.add(ref)) {
+            return;
+        }
+        try {
+            refresher.execute(
+                    () -> {
+                        try {
+                            refresh.run();
+                        } catch (Exception e) {
+                            log.debug("[AGENT-STATUS] refresh of {} failed: {}", ref, e.toString());
+                        } finally {
+                            refreshing.remove(ref);
+                        }
+                    });
+        } catch (RejectedExecutionException e) {
+            refreshing.remove(ref);
+        }
+    }
+}
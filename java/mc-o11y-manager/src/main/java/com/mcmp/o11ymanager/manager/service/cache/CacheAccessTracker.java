@@ -0,0 +1,210 @@
+package com.mcmp.o11ymanager.manager.service.cache;
+
+import com.mcmp.o11ymanager.manager.config.MonitoringCacheProperties;
+import com.mcmp.o11ymanager.manager.dto.influx.VmRef;
+import jakarta.annotation.PostConstruct;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+/**
+ * Approximate request frequency per VM and per (VM, request signature), used by the cache warmer
+ * to spend its query budget on what users actually look at.
+ *
+ * <p>Counts live in two count-min sketches (one keyed by VM, one by VM + signature) of fixed size,
+ * so memory does not grow with the number of VMs or distinct queries. Every {@code
+ * decay-interval-seconds} all counters are halved, which turns the counts into an exponentially
+ * decaying rate and lets yesterday's dashboards drop out of the ranking.
+ *
+ * <p>Lookups issued by the warmers themselves must not count as demand; they run inside {@link
+ * #untracked(Supplier)}.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CacheAccessTracker {
+
+    private static final int DEPTH = 4;
+    private static final ThreadLocal<Boolean> SUPPRESSED = new ThreadLocal<>();
+
+    private final MonitoringCacheProperties properties;
+
+    private Sketch vmSketch;
+    private Sketch querySketch;
+    private volatile long lastDecayNanos;
+    private final Object decayLock = new Object();
+    private final AtomicLong recordedCount = new AtomicLong();
+    private final AtomicLong decayCount = new AtomicLong();
+
+    @PostConstruct
+    void init() {
+        int width = properties.getAccess().getSketchWidth();
+        vmSketch = new Sketch(width);
+        querySketch = new Sketch(width);
+        lastDecayNanos = System.nanoTime();
+        log.info(
+                "[MON-CACHE-ACCESS] enabled={}, sketchWidth={}, decaySec={}",
+                properties.getAccess().isEnabled(),
+                vmSketch.width,
+                properties.getAccess().getDecayIntervalSeconds());
+    }
+
+    /** Counts one lookup of {@code key}. MCI-wide lookups (no node) are not attributed to a VM. */
+    public void record(MonitoringCacheKey key) {
+        if (!properties.getAccess().isEnabled()
+                || Boolean.TRUE.equals(SUPPRESSED.get())
+                || key.nodeId().isEmpty()) {
+            return;
+        }
+        maybeDecay();
+        String vm = vmKey(key.nsId(), key.infraId(), key.nodeId());
+        vmSketch.increment(vm);
+        querySketch.increment(vm + '\u0000' + key.requestSignature());
+        recordedCount.incrementAndGet();
+    }
+
+    /** Decayed request count for any query of {@code vm}; never under-estimates. */
+    public int vmDemand(VmRef vm) {
+        maybeDecay();
+        return vmSketch.estimate(vmKey(vm.nsId(), vm.infraId(), vm.nodeId()));
+    }
+
+    /** Decayed request count for one query shape of {@code vm}. */
+    public int queryDemand(VmRef vm, String requestSignature) {
+        maybeDecay();
+        return querySketch.estimate(
+                vmKey(vm.nsId(), vm.infraId(), vm.nodeId()) + '\u0000' + requestSignature);
+    }
+
+    /** Runs {@code work} on the calling thread without counting its cache lookups. */
+    public static <T> T untracked(Supplier<T> work) {
+        Boolean previous = SUPPRESSED.get();
+        SUPPRESSED.set(Boolean.TRUE);
+        try {
+            return work.get();
+        } finally {
+            if (previous == null) {
+                SUPPRESSED.remove();
+            } else {
+                SUPPRESSED.set(previous);
+            }
+        }
+    }
+
+    public Map<String, Object> stats() {
+        return Map.of(
+                "enabled", properties.getAccess().isEnabled(),
+                "sketchWidth", vmSketch.width,
+                "recordedCount", recordedCount.get(),
+                "decayCount", decayCount.get());
+    }
+
+    private void maybeDecay() {
+        long intervalNanos =
+                TimeUnit.SECONDS.toNanos(
+                        Math.max(1L, properties.getAccess().getDecayIntervalSeconds()));
+        if (System.nanoTime() - lastDecayNanos < intervalNanos) {
+            return;
+        }
+        synchronized (decayLock) {
+            long now = System.nanoTime();
+            long periods = (now - lastDecayNanos) / intervalNanos;
+            if (periods <= 0) {
+                return;
+            }
+            // A long idle gap ages the counters once per missed interval.
+            int shift = (int) Math.min(periods, 31L);
+            vmSketch.shiftRight(shift);
+            querySketch.shiftRight(shift);
+            lastDecayNanos += periods * intervalNanos;
+            decayCount.incrementAndGet();
+        }
+    }
+
+    private static String vmKey(String nsId, String infraId, String nodeId) {
+        return nsId + '\u0000' + infraId + '\u0000' + nodeId;
+    }
+
+    /**
+     * Count-min sketch with {@link #DEPTH} rows and saturating int counters. Each row indexes by
+     * its own seeded mix of a 64-bit hash of the key's characters, so keys that collide in one row
+     * (or share a {@code String.hashCode}) are separated by the others.
+     */
+    static final class Sketch {
+
+        private static final long[] SEEDS = {
+            0x9E3779B97F4A7C15L, 0xC2B2AE3D27D4EB4FL, 0x165667B19E3779F9L, 0xD6E8FEB86659FD93L
+        };
+
+        final int width;
+        private final int mask;
+        private final AtomicIntegerArray counters;
+
+        Sketch(int requestedWidth) {
+            int w = Integer.highestOneBit(Math.max(64, Math.min(requestedWidth, 1 << 20)));
+            this.width = w < requestedWidth && w < (1 << 20) ? w << 1 : w;
+            this.mask = width - 1;
+            this.counters = new AtomicIntegerArray(DEPTH * width);
+        }
+
+        void increment(String key) {
+            long h = hash(key);
+            for (int row = 0; row < DEPTH; row++) {
+                int idx = index(h, row);
+                int v;
+                do {
+                    v = counters.get(idx);
+                    if (v == Integer.MAX_VALUE) {
+                        break;
+                    }
+                } while (!counters.compareAndSet(idx, v, v + 1));
+            }
+        }
+
+        int estimate(String key) {
+            long h = hash(key);
+            int min = Integer.MAX_VALUE;
+            for (int row = 0; row < DEPTH; row++) {
+                min = Math.min(min, counters.get(index(h, row)));
+            }
+            return min;
+        }
+
+        void shiftRight(int bits) {
+            // Not atomic across the array; an increment racing the halving may be lost or kept
+            // at full weight, which is within the sketch's error anyway.
+            for (int i = 0; i < counters.length(); i++) {
+                counters.set(i, counters.get(i) >>> bits);
+            }
+        }
+
+        private int index(long hash, int row) {
+            return (row * width) + ((int) fmix64(hash ^ SEEDS[row]) & mask);
+        }
+
+        /** 64-bit FNV-1a over the key's characters. */
+        private static long hash(String key) {
+            long h = 0xCBF29CE484222325L;
+            for (int i = 0; i < key.length(); i++) {
+                h ^= key.charAt(i);
+                h *= 0x100000001B3L;
+            }
+            return h;
+        }
+
+        /** MurmurHash3 finalizer: every input bit affects every output bit. */
+        private static long fmix64(long h) {
+            h ^= h >>> 33;
+            h *= 0xFF51AFD7ED558CCDL;
+            h ^= h >>> 33;
+            h *= 0xC4CEB9FE1A85EC53L;
+            h ^= h >>> 33;
+            return h;
+        }
+    }
+}
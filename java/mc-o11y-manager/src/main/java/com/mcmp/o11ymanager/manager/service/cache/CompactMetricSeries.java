@@ -0,0 +1,258 @@
+package com.mcmp.o11ymanager.manager.service.cache;
+
+import com.github.benmanes.caffeine.cache.Interner;
+import com.mcmp.o11ymanager.manager.dto.influx.MetricDTO;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Column-oriented, primitive-backed copy of one {@link MetricDTO} series as held by {@link
+ * MonitoringCacheService}.
+ *
+ * <p>The influxdb-java client hands back every point as an {@code ArrayList} of a timestamp {@code
+ * String} and boxed {@code Double}s. Here RFC3339 time columns become a {@code long[]} of epoch
+ * nanos, all-{@code Double} columns a {@code double[]} (plus a null bitmap), and tag maps / column
+ * lists are interned so the many series sharing them keep one copy. Anything else (strings, mixed
+ * types, timestamps that wouldn't render back identically) stays as {@code Object[]}.
+ *
+ * <p>{@link #toDTO()} returns a view: rows are only rebuilt as the JSON serializer walks them.
+ */
+final class CompactMetricSeries {
+
+    private static final Interner<Map<String, String>> TAGS = Interner.newWeakInterner();
+    private static final Interner<List<String>> COLUMNS = Interner.newWeakInterner();
+
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
+
+    /** Rough per-series overhead: object headers, references, the column array. */
+    private static final long SERIES_OVERHEAD_BYTES = 64L;
+
+    private final String name;
+    private final List<String> columns;
+    private final Map<String, String> tags;
+    private final boolean hasValues; // false when the source series had null values
+    private final int rowCount;
+    private final Column[] data;
+
+    private CompactMetricSeries(
+            String name,
+            List<String> columns,
+            Map<String, String> tags,
+            boolean hasValues,
+            int rowCount,
+            Column[] data) {
+        this.name = name;
+        this.columns = columns;
+        this.tags = tags;
+        this.hasValues = hasValues;
+        this.rowCount = rowCount;
+        this.data = data;
+    }
+
+    static List<CompactMetricSeries> compact(List<MetricDTO> series) {
+        List<CompactMetricSeries> out = new ArrayList<>(series.size());
+        for (MetricDTO m : series) {
+            if (m != null) {
+                out.add(of(m));
+            }
+        }
+        return out;
+    }
+
+    static List<MetricDTO> materialize(List<CompactMetricSeries> series) {
+        List<MetricDTO> out = new ArrayList<>(series.size());
+        for (CompactMetricSeries s : series) {
+            out.add(s.toDTO());
+        }
+        return out;
+    }
+
+    static CompactMetricSeries of(MetricDTO m) {
+        List<String> columns =
+                m.columns() == null ? null : COLUMNS.intern(List.copyOf(m.columns()));
+        Map<String, String> tags =
+                m.tags() == null
+                        ? null
+                        : TAGS.intern(Collections.unmodifiableMap(new LinkedHashMap<>(m.tags())));
+        List<List<Object>> rows = m.values() == null ? List.of() : m.values();
+        int width = columns == null ? 0 : columns.size();
+        for (List<Object> row : rows) {
+            width = Math.max(width, row == null ? 0 : row.size());
+        }
+        Column[] data = new Column[width];
+        for (int c = 0; c < width; c++) {
+            data[c] = encode(rows, c);
+        }
+        return new CompactMetricSeries(
+                m.name(), columns, tags, m.values() != null, rows.size(), data);
+    }
+
+    /** Rebuilds the {@link MetricDTO} shape; rows are produced lazily and are read-only. */
+    MetricDTO toDTO() {
+        return new MetricDTO(name, columns, tags, hasValues ? new Rows() : null);
+    }
+
+    int rowCount() {
+        return rowCount;
+    }
+
+    /**
+     * Approximate retained size. Primitive columns are counted exactly; {@code Object[]} cells are
+     * charged {@code bytesPerPoint / width} each, i.e. a series with no primitive column weighs
+     * what it did before it was compacted.
+     */
+    long estimatedBytes(int bytesPerPoint) {
+        long bytes = SERIES_OVERHEAD_BYTES;
+        long objectCellBytes = Math.max(1L, bytesPerPoint / Math.max(1, data.length));
+        for (Column c : data) {
+            bytes += c.estimatedBytes(rowCount, objectCellBytes);
+        }
+        return bytes;
+    }
+
+    private static Column encode(List<List<Object>> rows, int c) {
+        int n = rows.size();
+        boolean allDouble = true;
+        boolean allString = true;
+        for (List<Object> row : rows) {
+            Object v = cell(row, c);
+            if (v == null) {
+                continue;
+            }
+            allDouble &= v instanceof Double;
+            allString &= v instanceof String;
+        }
+        if (allDouble) {
+            double[] values = new double[n];
+            BitSet nulls = new BitSet(n);
+            for (int i = 0; i < n; i++) {
+                Object v = cell(rows.get(i), c);
+                if (v == null) {
+                    nulls.set(i);
+                } else {
+                    values[i] = (Double) v;
+                }
+            }
+            return new DoubleColumn(values, nulls);
+        }
+        if (allString) {
+            long[] nanos = encodeTimes(rows, c);
+            if (nanos != null) {
+                return new TimeColumn(nanos);
+            }
+        }
+        Object[] values = new Object[n];
+        for (int i = 0; i < n; i++) {
+            values[i] = cell(rows.get(i), c);
+        }
+        return new ObjectColumn(values);
+    }
+
+    /** Epoch nanos per row, or {@code null} if any value isn't a round-trippable RFC3339 time. */
+    private static long[] encodeTimes(List<List<Object>> rows, int c) {
+        long[] nanos = new long[rows.size()];
+        for (int i = 0; i < nanos.length; i++) {
+            Object v = cell(rows.get(i), c);
+            if (v == null) {
+                return null;
+            }
+            String s = (String) v;
+            Instant t;
+            try {
+                t = Instant.parse(s);
+            } catch (DateTimeParseException e) {
+                return null;
+            }
+            // InfluxDB trims trailing zeros of the fraction, Instant prints it in groups of three;
+            // keep the original strings whenever the two would differ.
+            if (!t.toString().equals(s)) {
+                return null;
+            }
+            try {
+                nanos[i] =
+                        Math.addExact(
+                                Math.multiplyExact(t.getEpochSecond(), NANOS_PER_SECOND),
+                                t.getNano());
+            } catch (ArithmeticException e) {
+                return null;
+            }
+        }
+        return nanos;
+    }
+
+    private static Object cell(List<Object> row, int c) {
+        return row == null || c >= row.size() ? null : row.get(c);
+    }
+
+    private final class Rows extends AbstractList<List<Object>> {
+        @Override
+        public List<Object> get(int index) {
+            if (index < 0 || index >= rowCount) {
+                throw new IndexOutOfBoundsException(index);
+            }
+            Object[] row = new Object[data.length];
+            for (int c = 0; c < data.length; c++) {
+                row[c] = data[c].get(index);
+            }
+            return Collections.unmodifiableList(Arrays.asList(row));
+        }
+
+        @Override
+        public int size() {
+            return rowCount;
+        }
+    }
+
+    private sealed interface Column permits TimeColumn, DoubleColumn, ObjectColumn {
+        Object get(int row);
+
+        long estimatedBytes(int rows, long objectCellBytes);
+    }
+
+    private record TimeColumn(long[] nanos) implements Column {
+        @Override
+        public Object get(int row) {
+            long n = nanos[row];
+            return Instant.ofEpochSecond(
+                            Math.floorDiv(n, NANOS_PER_SECOND), Math.floorMod(n, NANOS_PER_SECOND))
+                    .toString();
+        }
+
+        @Override
+        public long estimatedBytes(int rows, long objectCellBytes) {
+            return 16L + 8L * rows;
+        }
+    }
+
+    private record DoubleColumn(double[] values, BitSet nulls) implements Column {
+        @Override
+        public Object get(int row) {
+            return nulls.get(row) ? null : values[row];
+        }
+
+        @Override
+        public long estimatedBytes(int rows, long objectCellBytes) {
+            return 48L + 8L * rows + rows / 8L;
+        }
+    }
+
+    private record ObjectColumn(Object[] values) implements Column {
+        @Override
+        public Object get(int row) {
+            return values[row];
+        }
+
+        @Override
+        public long estimatedBytes(int rows, long objectCellBytes) {
+            return 16L + objectCellBytes * rows;
+        }
+    }
+}
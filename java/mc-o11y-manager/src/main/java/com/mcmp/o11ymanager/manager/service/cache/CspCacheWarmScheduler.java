@@ -11,12 +11,12 @@ import com.mcmp.o11ymanager.manager.dto.tumblebug.TumblebugInfra;
 import com.mcmp.o11ymanager.manager.dto.tumblebug.TumblebugInfraList;
 import com.mcmp.o11ymanager.manager.dto.tumblebug.TumblebugK8sCluster;
 import com.mcmp.o11ymanager.manager.dto.tumblebug.TumblebugNS;
+import com.mcmp.o11ymanager.manager.exception.tumblebug.TumblebugRateLimitException;
 import com.mcmp.o11ymanager.manager.infrastructure.spider.SpiderClient;
 import com.mcmp.o11ymanager.manager.infrastructure.tumblebug.TumblebugClient;
-import com.mcmp.o11ymanager.manager.service.interfaces.InfluxDbService;
+import com.mcmp.o11ymanager.manager.infrastructure.tumblebug.TumblebugRateLimiter;
 import com.mcmp.o11ymanager.manager.service.interfaces.TumblebugService;
 import jakarta.annotation.PostConstruct;
-import jakarta.annotation.PreDestroy;
 import java.time.Duration;
 import java.time.Instant;
 import java.util.ArrayList;
@@ -24,10 +24,6 @@ import java.util.Comparator;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
-import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.atomic.AtomicInteger;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -76,10 +72,10 @@ public class CspCacheWarmScheduler {
     private final SpiderClient spiderClient;
     private final TumblebugService tumblebugService;
     private final TumblebugClient tumblebugClient;
+    private final TumblebugRateLimiter tumblebugRateLimiter;
     private final VmCreatedTimeResolver vmCreatedTimeResolver;
-    private final InfluxDbService influxDbService;
-
-    private ExecutorService executor;
+    private final ActiveVmDiscovery activeVmDiscovery;
+    private final WarmJobRunner warmJobRunner;
 
     /**
      * Short-lived caches for Tumblebug/cb-spider discovery calls so the warm pass doesn't hammer
@@ -97,16 +93,8 @@ public class CspCacheWarmScheduler {
     @PostConstruct
     void init() {
         int size = Math.max(1, properties.getWarm().getThreadPoolSize());
-        AtomicInteger counter = new AtomicInteger();
-        ThreadFactory factory =
-                r -> {
-                    Thread t = new Thread(r, "csp-cache-warm-" + counter.incrementAndGet());
-                    t.setDaemon(true);
-                    return t;
-                };
-        this.executor = Executors.newFixedThreadPool(size, factory);
         log.info(
-                "[CSP-CACHE-WARM] initialized threads={}, topN={}, realtimeRanges={}, longrangeRanges={}",
+                "[CSP-CACHE-WARM] initialized maxConcurrency={}, topN={}, realtimeRanges={}, longrangeRanges={}",
                 size,
                 properties.getWarm().getTopN(),
                 properties.getWarm().getRealtime() == null
@@ -119,13 +107,6 @@ public class CspCacheWarmScheduler {
                         : properties.getWarm().getLongrange().getRanges().size());
     }
 
-    @PreDestroy
-    void shutdown() {
-        if (executor != null) {
-            executor.shutdownNow();
-        }
-    }
-
     @Scheduled(cron = "${csp.cache.warm.realtime.cron:0 * * * * *}")
     public void scheduledRealtime() {
         CspCacheProperties.Job job = properties.getWarm().getRealtime();
@@ -151,8 +132,7 @@ public class CspCacheWarmScheduler {
     }
 
     private int runJob(String jobName, CspCacheProperties.Job job) {
-        if (executor == null
-                || !properties.isEnabled()
+        if (!properties.isEnabled()
                 || job == null
                 || job.getRanges() == null
                 || job.getRanges().isEmpty()) {
@@ -170,14 +150,12 @@ public class CspCacheWarmScheduler {
         AtomicInteger nodeOk = new AtomicInteger();
         AtomicInteger nodeFail = new AtomicInteger();
 
-        List<CompletableFuture<Void>> futures = new ArrayList<>();
+        List<Runnable> tasks = new ArrayList<>();
 
         // Pre-fill the per-connection K8s cluster-list cache so the UI never pays the
         // multi-second cb-spider discovery on a cold page load.
         for (String conn : connectionNames) {
-            final String c = conn;
-            futures.add(
-                    CompletableFuture.runAsync(() -> clusterListCacheService.warm(c), executor));
+            tasks.add(() -> clusterListCacheService.warm(conn));
         }
 
         for (CspCacheProperties.Range r : job.getRanges()) {
@@ -186,21 +164,19 @@ public class CspCacheWarmScheduler {
             }
             for (VmWithCsp v : cspVms) {
                 for (String metric : VM_METRICS) {
-                    futures.add(
-                            CompletableFuture.runAsync(
-                                    () ->
-                                            warmVmMetric(
-                                                    v,
-                                                    metric,
-                                                    r.getTimeBeforeHour(),
-                                                    r.getIntervalMinute(),
-                                                    vmOk,
-                                                    vmFail),
-                                    executor));
+                    tasks.add(
+                            () ->
+                                    warmVmMetric(
+                                            v,
+                                            metric,
+                                            r.getTimeBeforeHour(),
+                                            r.getIntervalMinute(),
+                                            vmOk,
+                                            vmFail));
                 }
             }
             for (String conn : connectionNames) {
-                futures.addAll(
+                tasks.addAll(
                         warmClustersForConnection(
                                 conn,
                                 r.getTimeBeforeHour(),
@@ -210,14 +186,25 @@ public class CspCacheWarmScheduler {
             }
         }
 
-        if (futures.isEmpty()) {
+        if (tasks.isEmpty()) {
             log.info("[CSP-CACHE-WARM:{}] no CSP VMs or clusters to warm", jobName);
             return 0;
         }
-        CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).join();
+        // Shorter ranges were queued first, so a budget or deadline cut drops the long ones.
+        WarmJobRunner.RunResult result =
+                warmJobRunner.run(
+                        "csp-" + jobName,
+                        job.getCron(),
+                        WarmJobRunner.Downstream.SPIDER,
+                        properties.getWarm().getThreadPoolSize(),
+                        properties.getWarm().getQueryBudget(),
+                        tasks);
+        if (result.skipped()) {
+            return 0;
+        }
 
         log.info(
-                "[CSP-CACHE-WARM:{}] ranges={}, vms={}, vmOk={}, vmFail={}, connections={}, nodeOk={}, nodeFail={}, took={}ms",
+                "[CSP-CACHE-WARM:{}] ranges={}, vms={}, vmOk={}, vmFail={}, connections={}, nodeOk={}, nodeFail={}, dropped={}, took={}ms",
                 jobName,
                 job.getRanges().size(),
                 cspVms.size(),
@@ -226,6 +213,7 @@ public class CspCacheWarmScheduler {
                 connectionNames.size(),
                 nodeOk.get(),
                 nodeFail.get(),
+                result.dropped(),
                 System.currentTimeMillis() - started);
         return cspVms.size();
     }
@@ -233,7 +221,7 @@ public class CspCacheWarmScheduler {
     private List<VmWithCsp> collectCspVms() {
         List<VmRef> active;
         try {
-            active = influxDbService.discoverActiveVms();
+            active = activeVmDiscovery.activeVms();
         } catch (Exception e) {
             log.warn("[CSP-CACHE-WARM] discoverActiveVms failed: {}", e.toString());
             return List.of();
@@ -292,7 +280,7 @@ public class CspCacheWarmScheduler {
     /**
      * Walks every namespace and Infra in Tumblebug and collects unique connectionNames. Result is
      * memoised for 5 minutes to avoid Tumblebug rate-limit bursts (429 Too Many Requests) when warm
-     * runs every minute.
+     * runs every minute; a pass cut short by the local rate limiter is used but not memoised.
      */
     private Set<String> collectAllTumblebugConnections() {
         Set<String> cached = connectionDiscoveryCache.getIfPresent("all");
@@ -300,9 +288,15 @@ public class CspCacheWarmScheduler {
             return cached;
         }
         Set<String> out = new HashSet<>();
+        boolean complete = true;
         TumblebugNS nsList;
         try {
+            tumblebugRateLimiter.acquire();
             nsList = tumblebugClient.getNSList();
+        } catch (TumblebugRateLimitException e) {
+            // Tumblebug is busy; retry on the next run instead of memoising an empty discovery
+            log.debug("[CSP-CACHE-WARM] getNSList skipped: {}", e.getMessage());
+            return out;
         } catch (Exception e) {
             log.warn("[CSP-CACHE-WARM] getNSList failed: {}", e.toString());
             connectionDiscoveryCache.put("all", out);
@@ -312,22 +306,17 @@ public class CspCacheWarmScheduler {
             connectionDiscoveryCache.put("all", out);
             return out;
         }
-        boolean throttled = false;
         for (TumblebugNS.NS ns : nsList.getNs()) {
             if (ns == null || ns.getId() == null) {
                 continue;
             }
-            // Tumblebug rate-limits ~3 sequential calls; space them out.
-            if (throttled) {
-                try {
-                    Thread.sleep(400L);
-                } catch (InterruptedException ie) {
-                    Thread.currentThread().interrupt();
-                    break;
-                }
+            TumblebugInfraList infraList;
+            try {
+                infraList = getInfraListWithRetry(ns.getId());
+            } catch (TumblebugRateLimitException e) {
+                complete = false;
+                continue;
             }
-            throttled = true;
-            TumblebugInfraList infraList = getInfraListWithRetry(ns.getId());
             if (infraList == null || infraList.getInfra() == null) {
                 continue;
             }
@@ -347,21 +336,13 @@ public class CspCacheWarmScheduler {
         }
         // Also collect connections backing K8s clusters (which may have no VMs at all),
         // so their cluster-list cache gets warmed too.
-        boolean k8sThrottled = false;
         for (TumblebugNS.NS ns : nsList.getNs()) {
             if (ns == null || ns.getId() == null) {
                 continue;
             }
-            if (k8sThrottled) {
-                try {
-                    Thread.sleep(400L);
-                } catch (InterruptedException ie) {
-                    Thread.currentThread().interrupt();
-                    break;
-                }
-            }
-            k8sThrottled = true;
             try {
+                // Paced by the shared Tumblebug rate limiter, like every other Tumblebug call.
+                tumblebugRateLimiter.acquire();
                 TumblebugK8sCluster.ListResponse resp =
                         tumblebugClient.getK8sClusterList(ns.getId());
                 if (resp != null && resp.getK8sClusterInfo() != null) {
@@ -373,6 +354,8 @@ public class CspCacheWarmScheduler {
                         }
                     }
                 }
+            } catch (TumblebugRateLimitException e) {
+                complete = false;
             } catch (Exception e) {
                 log.warn(
                         "[CSP-CACHE-WARM] getK8sClusterList failed ns={}: {}",
@@ -380,7 +363,13 @@ public class CspCacheWarmScheduler {
                         e.toString());
             }
         }
-        connectionDiscoveryCache.put("all", out);
+        if (complete) {
+            connectionDiscoveryCache.put("all", out);
+        } else {
+            log.debug(
+                    "[CSP-CACHE-WARM] discovery rate-limited, not memoising {} connections",
+                    out.size());
+        }
         return out;
     }
 
@@ -388,8 +377,10 @@ public class CspCacheWarmScheduler {
      * Fetches the infra list, returning {@code null} instead of throwing so one namespace's failure
      * doesn't abort the whole discovery pass. 429 rate-limit responses are retried with backoff at
      * the Feign layer (see {@code TumblebugFeignConfig}), so no manual retry loop is needed here.
+     * A rejection by the local rate limiter is rethrown so the caller knows the pass is partial.
      */
     private TumblebugInfraList getInfraListWithRetry(String nsId) {
+        tumblebugRateLimiter.acquire();
         try {
             return tumblebugClient.getInfraList(nsId);
         } catch (Exception e) {
@@ -414,7 +405,7 @@ public class CspCacheWarmScheduler {
                             v.cspResourceName(), metric, v.connectionName(), tbh, interval),
                     data);
             ok.incrementAndGet();
-        } catch (Exception e) {
+        } catch (RuntimeException e) {
             fail.incrementAndGet();
             log.debug(
                     "[CSP-CACHE-WARM] VM fetch failed vm={}, metric={}, conn={}, err={}",
@@ -422,36 +413,35 @@ public class CspCacheWarmScheduler {
                     metric,
                     v.connectionName(),
                     e.toString());
+            throw e;
         }
     }
 
-    private List<CompletableFuture<Void>> warmClustersForConnection(
+    private List<Runnable> warmClustersForConnection(
             String connectionName,
             String tbh,
             String interval,
             AtomicInteger ok,
             AtomicInteger fail) {
-        List<CompletableFuture<Void>> futures = new ArrayList<>();
+        List<Runnable> tasks = new ArrayList<>();
         List<ClusterRef> refs = discoverClusters(connectionName);
         for (ClusterRef ref : refs) {
             for (String metric : NODE_METRICS) {
-                futures.add(
-                        CompletableFuture.runAsync(
-                                () ->
-                                        warmClusterNodeMetric(
-                                                ref.connectionName(),
-                                                ref.clusterName(),
-                                                ref.nodeGroupName(),
-                                                ref.nodeNumber(),
-                                                metric,
-                                                tbh,
-                                                interval,
-                                                ok,
-                                                fail),
-                                executor));
+                tasks.add(
+                        () ->
+                                warmClusterNodeMetric(
+                                        ref.connectionName(),
+                                        ref.clusterName(),
+                                        ref.nodeGroupName(),
+                                        ref.nodeNumber(),
+                                        metric,
+                                        tbh,
+                                        interval,
+                                        ok,
+                                        fail));
             }
         }
-        return futures;
+        return tasks;
     }
 
     /**
@@ -551,7 +541,7 @@ public class CspCacheWarmScheduler {
                             interval),
                     data);
             ok.incrementAndGet();
-        } catch (Exception e) {
+        } catch (RuntimeException e) {
             fail.incrementAndGet();
             log.debug(
                     "[CSP-CACHE-WARM] node fetch failed cluster={}, ng={}, n={}, metric={}, err={}",
@@ -560,6 +550,7 @@ public class CspCacheWarmScheduler {
                     nodeNumber,
                     metric,
                     e.toString());
+            throw e;
         }
     }
 
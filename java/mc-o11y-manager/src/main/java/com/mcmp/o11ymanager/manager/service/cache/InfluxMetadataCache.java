@@ -0,0 +1,203 @@
+package com.mcmp.o11ymanager.manager.service.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.mcmp.o11ymanager.manager.config.MonitoringCacheProperties;
+import jakarta.annotation.PostConstruct;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+import java.util.function.Supplier;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+/**
+ * Caches InfluxDB metadata that every cold metric load used to re-query: the default retention
+ * policy of a (url, database) and whether a database holds series for a given (ns, infra, node)
+ * tag tuple (used both for the downsampling-DB probe and the existence check), plus each server's
+ * tag/field key listing for the measurement pickers.
+ *
+ * <p>Negative series facts get a much shorter TTL than positive ones so newly reporting agents
+ * become visible quickly.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class InfluxMetadataCache {
+
+    private final MonitoringCacheProperties properties;
+
+    private Cache<String, String> retentionPolicies;
+    private Cache<String, Boolean> seriesPresence;
+    private Cache<String, Object> schemas;
+    private final AtomicLong rpHitCount = new AtomicLong();
+    private final AtomicLong rpMissCount = new AtomicLong();
+    private final AtomicLong seriesHitCount = new AtomicLong();
+    private final AtomicLong seriesMissCount = new AtomicLong();
+    private final AtomicLong schemaHitCount = new AtomicLong();
+    private final AtomicLong schemaMissCount = new AtomicLong();
+
+    @PostConstruct
+    void init() {
+        MonitoringCacheProperties.Metadata cfg = properties.getMetadata();
+        if (cfg == null || !cfg.isEnabled()) {
+            log.info("[META-CACHE] disabled by configuration");
+            return;
+        }
+        this.retentionPolicies =
+                Caffeine.newBuilder()
+                        .maximumSize(cfg.getMaxSize())
+                        .expireAfterWrite(Duration.ofSeconds(cfg.getRetentionPolicyTtlSeconds()))
+                        .build();
+        this.seriesPresence =
+                Caffeine.newBuilder()
+                        .maximumSize(cfg.getMaxSize())
+                        .expireAfter(seriesExpiry(cfg))
+                        .build();
+        this.schemas =
+                Caffeine.newBuilder()
+                        .maximumSize(cfg.getMaxSize())
+                        .expireAfterWrite(Duration.ofSeconds(cfg.getSchemaTtlSeconds()))
+                        .build();
+        log.info(
+                "[META-CACHE] enabled rpTtlSec={}, presentTtlSec={}, absentTtlSec={}",
+                cfg.getRetentionPolicyTtlSeconds(),
+                cfg.getSeriesPresentTtlSeconds(),
+                cfg.getSeriesAbsentTtlSeconds());
+    }
+
+    /**
+     * Returns the default retention policy for (url, database), loading it on miss. A {@code null}
+     * load (query failed) is returned but not cached.
+     */
+    public String defaultRetentionPolicy(String url, String database, Supplier<String> loader) {
+        if (retentionPolicies == null) {
+            return loader.get();
+        }
+        String key = url + "|" + database;
+        String hit = retentionPolicies.getIfPresent(key);
+        if (hit != null) {
+            rpHitCount.incrementAndGet();
+            return hit;
+        }
+        rpMissCount.incrementAndGet();
+        String loaded = loader.get();
+        if (loaded != null) {
+            retentionPolicies.put(key, loaded);
+        }
+        return loaded;
+    }
+
+    /** Returns whether {@code database} holds series for the tag tuple, loading it on miss. */
+    public boolean seriesExists(
+            String url,
+            String database,
+            String nsId,
+            String infraId,
+            String nodeId,
+            BooleanSupplier loader) {
+        if (seriesPresence == null) {
+            return loader.getAsBoolean();
+        }
+        String key =
+                url
+                        + "|"
+                        + database
+                        + "|"
+                        + nsId
+                        + "|"
+                        + infraId
+                        + "|"
+                        + Objects.toString(nodeId, "");
+        Boolean hit = seriesPresence.getIfPresent(key);
+        if (hit != null) {
+            seriesHitCount.incrementAndGet();
+            return hit;
+        }
+        seriesMissCount.incrementAndGet();
+        boolean loaded = loader.getAsBoolean();
+        seriesPresence.put(key, loaded);
+        return loaded;
+    }
+
+    /**
+     * Returns a server's schema listing ({@code kind} is e.g. {@code "tagKeys"}), loading it on
+     * miss. Like the retention policy, a {@code null} load (query failed) is not cached.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T schema(String kind, String url, String database, Supplier<T> loader) {
+        if (schemas == null) {
+            return loader.get();
+        }
+        String key = kind + "|" + url + "|" + database;
+        Object hit = schemas.getIfPresent(key);
+        if (hit != null) {
+            schemaHitCount.incrementAndGet();
+            return (T) hit;
+        }
+        schemaMissCount.incrementAndGet();
+        T loaded = loader.get();
+        if (loaded != null) {
+            schemas.put(key, loaded);
+        }
+        return loaded;
+    }
+
+    /** Drops every cached metadata fact (admin endpoint). */
+    public void invalidateAll() {
+        if (retentionPolicies != null) {
+            retentionPolicies.invalidateAll();
+        }
+        if (seriesPresence != null) {
+            seriesPresence.invalidateAll();
+        }
+        if (schemas != null) {
+            schemas.invalidateAll();
+        }
+    }
+
+    public Map<String, Object> stats() {
+        if (retentionPolicies == null) {
+            return Map.of("enabled", false);
+        }
+        return Map.ofEntries(
+                Map.entry("enabled", true),
+                Map.entry("retentionPolicySize", retentionPolicies.estimatedSize()),
+                Map.entry("retentionPolicyHitCount", rpHitCount.get()),
+                Map.entry("retentionPolicyMissCount", rpMissCount.get()),
+                Map.entry("seriesPresenceSize", seriesPresence.estimatedSize()),
+                Map.entry("seriesPresenceHitCount", seriesHitCount.get()),
+                Map.entry("seriesPresenceMissCount", seriesMissCount.get()),
+                Map.entry("schemaSize", schemas.estimatedSize()),
+                Map.entry("schemaHitCount", schemaHitCount.get()),
+                Map.entry("schemaMissCount", schemaMissCount.get()));
+    }
+
+    private static Expiry<String, Boolean> seriesExpiry(MonitoringCacheProperties.Metadata cfg) {
+        long presentNanos = TimeUnit.SECONDS.toNanos(cfg.getSeriesPresentTtlSeconds());
+        long absentNanos = TimeUnit.SECONDS.toNanos(cfg.getSeriesAbsentTtlSeconds());
+        return new Expiry<>() {
+            @Override
+            public long expireAfterCreate(String key, Boolean value, long currentTime) {
+                return Boolean.TRUE.equals(value) ? presentNanos : absentNanos;
+            }
+
+            @Override
+            public long expireAfterUpdate(
+                    String key, Boolean value, long currentTime, long currentDuration) {
+                return Boolean.TRUE.equals(value) ? presentNanos : absentNanos;
+            }
+
+            @Override
+            public long expireAfterRead(
+                    String key, Boolean value, long currentTime, long currentDuration) {
+                return currentDuration;
+            }
+        };
+    }
+}
@@ -0,0 +1,185 @@
+package com.mcmp.o11ymanager.manager.service.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.mcmp.o11ymanager.manager.entity.InfluxRouteEntity;
+import com.mcmp.o11ymanager.manager.entity.InfluxRouteId;
+import com.mcmp.o11ymanager.manager.repository.InfluxRouteJpaRepository;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Memoizes which InfluxDB server holds the metrics for a given (ns_id, infra_id).
+ *
+ * <p>Lookups go memory → {@code influx_route} table → {@code scanner}; only the last step touches
+ * InfluxDB, and concurrent misses for the same tuple share a single scan. Every resolved route is
+ * persisted so a restart does not re-scan all servers for every MCI.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class InfluxRoutingTable {
+
+    private final InfluxRouteJpaRepository influxRouteJpaRepository;
+    private final PlatformTransactionManager transactionManager;
+
+    private final Cache<InfluxRouteId, Route> routes =
+            Caffeine.newBuilder().maximumSize(100_000).build();
+
+    private final AtomicLong hitCount = new AtomicLong();
+    private final AtomicLong persistedHitCount = new AtomicLong();
+    private final AtomicLong scanCount = new AtomicLong();
+
+    /** A resolved route. See {@link InfluxRouteEntity} for the meaning of {@code confirmed}. */
+    public record Route(Long influxId, boolean confirmed) {}
+
+    /**
+     * Returns the InfluxDB id for (nsId, infraId), running {@code scanner} only when neither the
+     * in-memory table nor the persisted table knows the tuple.
+     */
+    public Long resolve(String nsId, String infraId, Supplier<Route> scanner) {
+        InfluxRouteId key = new InfluxRouteId(nsId, infraId);
+        Route cached = routes.getIfPresent(key);
+        if (cached != null) {
+            hitCount.incrementAndGet();
+            return cached.influxId();
+        }
+        return routes.get(key, k -> loadOrScan(k, scanner)).influxId();
+    }
+
+    /** Replaces the route for (nsId, infraId), e.g. after the background refresh found data. */
+    public void update(String nsId, String infraId, Route route) {
+        InfluxRouteId key = new InfluxRouteId(nsId, infraId);
+        persist(key, route);
+        routes.put(key, route);
+    }
+
+    /**
+     * Pins (nsId, infraId) to {@code influxId} when a VM is registered against it. A route that
+     * already points at the same server keeps its confirmed flag; a different one is replaced and
+     * left for the background refresh to confirm.
+     */
+    public void assign(String nsId, String infraId, Long influxId) {
+        if (nsId == null || infraId == null || influxId == null) {
+            return;
+        }
+        InfluxRouteId key = new InfluxRouteId(nsId, infraId);
+        Route current = routes.getIfPresent(key);
+        if (current == null) {
+            // evicted or cold start: the persisted route may already be confirmed
+            current = persistedRoute(key);
+        }
+        if (current != null && influxId.equals(current.influxId())) {
+            routes.put(key, current);
+            return;
+        }
+        update(nsId, infraId, new Route(influxId, false));
+    }
+
+    /**
+     * Forgets the route for (nsId, infraId) in memory and in the persisted table. Called inside a
+     * transaction (e.g. a VM delete), it does so only once that transaction commits, and deletes in
+     * a transaction of its own so a failure here cannot roll the caller back.
+     */
+    public void invalidate(String nsId, String infraId) {
+        if (nsId == null || infraId == null) {
+            return;
+        }
+        InfluxRouteId key = new InfluxRouteId(nsId, infraId);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            forget(key);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(
+                new TransactionSynchronization() {
+                    @Override
+                    public void afterCommit() {
+                        forget(key);
+                    }
+                });
+    }
+
+    private void forget(InfluxRouteId key) {
+        routes.invalidate(key);
+        try {
+            TransactionTemplate tx = new TransactionTemplate(transactionManager);
+            tx.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+            tx.executeWithoutResult(status -> influxRouteJpaRepository.deleteById(key));
+        } catch (Exception e) {
+            log.warn(
+                    "[INF-ROUTE] delete failed ns={}, mci={}, err={}",
+                    key.getNsId(),
+                    key.getInfraId(),
+                    e.toString());
+        }
+    }
+
+    /** All persisted routes — used by the background refresh. */
+    public List<InfluxRouteEntity> persistedRoutes() {
+        return influxRouteJpaRepository.findAll();
+    }
+
+    /** Routes assigned by the cardinality fallback, oldest first. */
+    public List<InfluxRouteEntity> unconfirmedRoutes() {
+        return influxRouteJpaRepository.findByConfirmedFalseOrderByResolvedAtAsc();
+    }
+
+    public Map<String, Object> stats() {
+        return Map.of(
+                "cachedRoutes", routes.estimatedSize(),
+                "hitCount", hitCount.get(),
+                "persistedHitCount", persistedHitCount.get(),
+                "scanCount", scanCount.get());
+    }
+
+    private Route loadOrScan(InfluxRouteId key, Supplier<Route> scanner) {
+        Route persisted = persistedRoute(key);
+        if (persisted != null) {
+            persistedHitCount.incrementAndGet();
+            return persisted;
+        }
+        scanCount.incrementAndGet();
+        Route scanned = scanner.get();
+        persist(key, scanned);
+        return scanned;
+    }
+
+    private Route persistedRoute(InfluxRouteId key) {
+        InfluxRouteEntity persisted = influxRouteJpaRepository.findById(key).orElse(null);
+        if (persisted == null || persisted.getInfluxId() == null) {
+            return null;
+        }
+        return new Route(persisted.getInfluxId(), persisted.isConfirmed());
+    }
+
+    private void persist(InfluxRouteId key, Route route) {
+        try {
+            influxRouteJpaRepository.save(
+                    InfluxRouteEntity.builder()
+                            .nsId(key.getNsId())
+                            .infraId(key.getInfraId())
+                            .influxId(route.influxId())
+                            .confirmed(route.confirmed())
+                            .resolvedAt(Instant.now())
+                            .build());
+        } catch (Exception e) {
+            // The in-memory route still works; it just won't survive a restart.
+            log.warn(
+                    "[INF-ROUTE] persist failed ns={}, mci={}, err={}",
+                    key.getNsId(),
+                    key.getInfraId(),
+                    e.toString());
+        }
+    }
+}
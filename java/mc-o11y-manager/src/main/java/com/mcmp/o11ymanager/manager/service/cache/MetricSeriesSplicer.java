@@ -0,0 +1,190 @@
+package com.mcmp.o11ymanager.manager.service.cache;
+
+import com.mcmp.o11ymanager.manager.dto.influx.MetricDTO;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.TreeMap;
+
+/**
+ * Splices a freshly queried tail ("delta") onto a cached metric result so a bucket rollover only
+ * costs a query for the newest slice instead of the whole range.
+ *
+ * <p>Rows are expected in the shape {@code InfluxQl.buildQuery} produces: a time column and
+ * {@code order by time desc}. Anything that doesn't fit (missing/unparseable time, changed
+ * columns) throws {@link IllegalStateException} and the caller falls back to a full reload.
+ */
+final class MetricSeriesSplicer {
+
+    /** {@code InfluxQl} selects {@code time as timestamp}; plain queries keep {@code time}. */
+    private static final List<String> TIME_COLUMNS = List.of("timestamp", "time");
+
+    private MetricSeriesSplicer() {}
+
+    /** Newest timestamp across all series, or empty when the result can't be spliced. */
+    static Optional<Instant> newestTimestamp(List<MetricDTO> series) {
+        Instant newest = null;
+        for (MetricDTO m : series) {
+            if (m == null || m.values() == null || m.values().isEmpty()) {
+                continue;
+            }
+            int iTime = timeIndex(m);
+            if (iTime < 0) {
+                return Optional.empty();
+            }
+            // rows are newest-first, but don't rely on it for the cut-off
+            for (List<Object> row : m.values()) {
+                Instant t = parseTime(row, iTime);
+                if (t == null) {
+                    return Optional.empty();
+                }
+                if (newest == null || t.isAfter(newest)) {
+                    newest = t;
+                }
+            }
+        }
+        return Optional.ofNullable(newest);
+    }
+
+    /**
+     * Oldest timestamp a full {@code range} query issued at {@code now} would return. Grouped
+     * queries start at the group boundary containing {@code now - range}.
+     */
+    static Instant headCutoff(Instant now, long rangeSeconds, long groupSeconds) {
+        long from = now.getEpochSecond() - rangeSeconds;
+        if (groupSeconds > 0) {
+            from = Math.floorDiv(from, groupSeconds) * groupSeconds;
+            return Instant.ofEpochSecond(from);
+        }
+        // raw points: the full query is "time > now() - range"
+        return Instant.ofEpochSecond(from).plusNanos(1);
+    }
+
+    /**
+     * Returns {@code cached} with every row at or after {@code since} replaced by {@code delta},
+     * rows older than {@code headCutoff} dropped, and each series truncated to {@code limit}.
+     */
+    static List<MetricDTO> splice(
+            List<MetricDTO> cached,
+            List<MetricDTO> delta,
+            Instant since,
+            Instant headCutoff,
+            Long limit) {
+        Map<String, MetricDTO> deltaById = new LinkedHashMap<>();
+        for (MetricDTO d : delta) {
+            if (d != null) {
+                deltaById.put(seriesId(d), d);
+            }
+        }
+
+        List<MetricDTO> out = new ArrayList<>(Math.max(cached.size(), deltaById.size()));
+        for (MetricDTO old : cached) {
+            if (old == null) {
+                continue;
+            }
+            MetricDTO fresh = deltaById.remove(seriesId(old));
+            if (fresh != null && !Objects.equals(fresh.columns(), old.columns())) {
+                throw new IllegalStateException("columns changed for series " + old.name());
+            }
+            int iTime = timeIndex(old);
+            List<List<Object>> rows = new ArrayList<>();
+            if (fresh != null && fresh.values() != null) {
+                appendWithin(rows, fresh.values(), iTime, headCutoff, null);
+            }
+            if (old.values() != null) {
+                appendWithin(rows, old.values(), iTime, headCutoff, since);
+                boolean wasTruncated = limit != null && limit > 0 && old.values().size() >= limit;
+                if (wasTruncated && rows.size() < limit) {
+                    // the cached copy was cut by LIMIT, so older rows it never held would be
+                    // needed to fill the window again
+                    throw new IllegalStateException("truncated series " + old.name());
+                }
+            }
+            out.add(new MetricDTO(old.name(), old.columns(), old.tags(), truncate(rows, limit)));
+        }
+        // series that only appeared in the newest slice (e.g. a new cpu core or disk)
+        for (MetricDTO fresh : deltaById.values()) {
+            int iTime = timeIndex(fresh);
+            if (iTime < 0) {
+                throw new IllegalStateException("no time column for series " + fresh.name());
+            }
+            List<List<Object>> rows = new ArrayList<>();
+            if (fresh.values() != null) {
+                appendWithin(rows, fresh.values(), iTime, headCutoff, null);
+            }
+            out.add(
+                    new MetricDTO(
+                            fresh.name(), fresh.columns(), fresh.tags(), truncate(rows, limit)));
+        }
+        return out;
+    }
+
+    /** Copies rows with {@code headCutoff <= time < before} ({@code before} optional). */
+    private static void appendWithin(
+            List<List<Object>> target,
+            List<List<Object>> rows,
+            int iTime,
+            Instant headCutoff,
+            Instant before) {
+        for (List<Object> row : rows) {
+            Instant t = parseTime(row, iTime);
+            if (t == null) {
+                throw new IllegalStateException("unparseable time in cached series");
+            }
+            if (t.isBefore(headCutoff)) {
+                continue;
+            }
+            if (before != null && !t.isBefore(before)) {
+                continue;
+            }
+            target.add(row);
+        }
+    }
+
+    private static List<List<Object>> truncate(List<List<Object>> rows, Long limit) {
+        if (limit == null || limit <= 0 || rows.size() <= limit) {
+            return rows;
+        }
+        return new ArrayList<>(rows.subList(0, limit.intValue()));
+    }
+
+    private static int timeIndex(MetricDTO m) {
+        if (m.columns() == null) {
+            return -1;
+        }
+        for (String c : TIME_COLUMNS) {
+            int i = m.columns().indexOf(c);
+            if (i >= 0) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static String seriesId(MetricDTO m) {
+        return m.name() + "|" + (m.tags() == null ? "" : new TreeMap<>(m.tags()));
+    }
+
+    private static Instant parseTime(List<Object> row, int iTime) {
+        if (row == null || iTime < 0 || iTime >= row.size()) {
+            return null;
+        }
+        Object v = row.get(iTime);
+        if (v instanceof String s) {
+            try {
+                return Instant.parse(s);
+            } catch (Exception e) {
+                return null;
+            }
+        }
+        if (v instanceof Number n) {
+            // epoch milliseconds (influxdb-java with TimeUnit.MILLISECONDS)
+            return Instant.ofEpochMilli(n.longValue());
+        }
+        return null;
+    }
+}
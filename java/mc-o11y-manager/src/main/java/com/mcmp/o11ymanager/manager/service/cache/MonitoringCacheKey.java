@@ -36,7 +36,7 @@ public record MonitoringCacheKey(
      * conditions (those live in their own key fields) and is order-insensitive for
      * fields/conditions.
      */
-    private static String signatureOf(MetricRequestDTO req) {
+    static String signatureOf(MetricRequestDTO req) {
         if (req == null) {
             return "";
         }
@@ -7,15 +7,23 @@ import com.github.benmanes.caffeine.cache.stats.CacheStats;
 import com.mcmp.o11ymanager.manager.config.MonitoringCacheProperties;
 import com.mcmp.o11ymanager.manager.dto.influx.MetricDTO;
 import com.mcmp.o11ymanager.manager.dto.influx.MetricRequestDTO;
+import com.mcmp.o11ymanager.manager.model.influx.InfluxQl;
 import jakarta.annotation.PostConstruct;
 import java.time.Duration;
 import java.time.Instant;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiFunction;
+import java.util.function.Function;
 import java.util.function.Supplier;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -27,6 +35,9 @@ import org.springframework.stereotype.Service;
  * <p>Results are bucketed by 1-hour wall-clock blocks (configurable). Within the same hour,
  * identical requests return cached data without touching InfluxDB. Eviction is driven by total
  * weight (default 512MB) and a 7-day TTL — naturally retaining the most recently queried VMs.
+ *
+ * <p>Entries are stored as {@link CompactMetricSeries} (primitive columns, interned tags) and only
+ * expanded back into {@link MetricDTO} rows while the response is being serialized.
  */
 @Slf4j
 @Service
@@ -35,11 +46,17 @@ public class MonitoringCacheService {
 
     private final MonitoringCacheProperties properties;
     private final VmCreatedTimeResolver vmCreatedTimeResolver;
+    private final CacheAccessTracker accessTracker;
 
-    private Cache<MonitoringCacheKey, List<MetricDTO>> cache;
+    private Cache<MonitoringCacheKey, List<CompactMetricSeries>> cache;
     private final AtomicLong manualHitCount = new AtomicLong();
     private final AtomicLong manualMissCount = new AtomicLong();
     private final AtomicLong skippedTooOldCount = new AtomicLong();
+    private final AtomicLong coalescedCount = new AtomicLong();
+    private final AtomicLong incrementalCount = new AtomicLong();
+    private final AtomicLong incrementalFallbackCount = new AtomicLong();
+    private final Map<MonitoringCacheKey, CompletableFuture<List<MetricDTO>>> inFlight =
+            new ConcurrentHashMap<>();
 
     @PostConstruct
     void init() {
@@ -54,7 +71,7 @@ public class MonitoringCacheService {
                 Caffeine.newBuilder()
                         .maximumWeight(maxWeightBytes)
                         .weigher(
-                                (MonitoringCacheKey key, List<MetricDTO> value) ->
+                                (MonitoringCacheKey key, List<CompactMetricSeries> value) ->
                                         estimateWeight(key, value, bytesPerPoint))
                         .expireAfter(buildExpiry())
                         .recordStats()
@@ -72,6 +89,9 @@ public class MonitoringCacheService {
      *
      * <p>An empty hit (cached but no data points) is treated as a miss so that once metrics
      * actually start flowing the next call fills the cache with real data.
+     *
+     * <p>Concurrent misses for the same key are coalesced: only one caller queries InfluxDB and
+     * the others receive its result (or its exception).
      */
     public List<MetricDTO> getOrLoad(
             String nsId,
@@ -79,23 +99,225 @@ public class MonitoringCacheService {
             String nodeId,
             MetricRequestDTO req,
             Supplier<List<MetricDTO>> loader) {
+        return getOrLoad(nsId, infraId, nodeId, req, loader, null);
+    }
+
+    /**
+     * Same as {@link #getOrLoad(String, String, String, MetricRequestDTO, Supplier)}, but on a
+     * bucket rollover the previous bucket's entry is extended instead of reloaded: {@code
+     * deltaLoader} is asked only for points at or after the newest cached timestamp, the result is
+     * spliced onto the cached series and the head that fell out of the range is trimmed. Any
+     * mismatch falls back to {@code loader}.
+     */
+    public List<MetricDTO> getOrLoad(
+            String nsId,
+            String infraId,
+            String nodeId,
+            MetricRequestDTO req,
+            Supplier<List<MetricDTO>> loader,
+            Function<Instant, List<MetricDTO>> deltaLoader) {
         if (cache == null) {
             return loader.get();
         }
-        MonitoringCacheKey key =
-                MonitoringCacheKey.of(
-                        nsId, infraId, nodeId, req, properties.getBlockPeriodSeconds());
+        MonitoringCacheKey key = keyOf(nsId, infraId, nodeId, req);
+        accessTracker.record(key);
 
-        List<MetricDTO> hit = cache.getIfPresent(key);
-        if (hit != null && hasAnyDataPoint(hit)) {
-            manualHitCount.incrementAndGet();
+        List<MetricDTO> hit = cachedData(key);
+        if (hit != null) {
+            return hit;
+        }
+        Claim claim = claim(key);
+        if (!claim.owner()) {
+            return awaitInFlight(claim.load());
+        }
+        try {
+            List<MetricDTO> loaded =
+                    deltaLoader == null
+                            ? null
+                            : loadIncrementally(key, previousBucket(key), req, deltaLoader);
+            if (loaded == null) {
+                loaded = loader.get();
+            }
+            return complete(key, claim.load(), loaded);
+        } catch (RuntimeException | Error e) {
+            fail(key, claim.load(), e);
+            throw e;
+        }
+    }
+
+    /**
+     * Brings a query's entry up to date for a warmer that runs more often than the bucket period.
+     * An entry of the current bucket is extended in place through {@code deltaLoader}, with the
+     * points at or after its newest timestamp, instead of being served as a hit; without one this
+     * is {@link #getOrLoad(String, String, String, MetricRequestDTO, Supplier, Function)}. A key
+     * that is already being loaded is left to that load.
+     */
+    public List<MetricDTO> refresh(
+            String nsId,
+            String infraId,
+            String nodeId,
+            MetricRequestDTO req,
+            Supplier<List<MetricDTO>> loader,
+            Function<Instant, List<MetricDTO>> deltaLoader) {
+        if (cache == null) {
+            return loader.get();
+        }
+        MonitoringCacheKey key = keyOf(nsId, infraId, nodeId, req);
+        List<CompactMetricSeries> current = cache.getIfPresent(key);
+        if (current == null || !hasAnyDataPoint(current)) {
+            return getOrLoad(nsId, infraId, nodeId, req, loader, deltaLoader);
+        }
+        CompletableFuture<List<MetricDTO>> mine = new CompletableFuture<>();
+        CompletableFuture<List<MetricDTO>> running = inFlight.putIfAbsent(key, mine);
+        if (running != null) {
+            return awaitInFlight(running);
+        }
+        try {
+            List<MetricDTO> loaded = loadIncrementally(key, key, req, deltaLoader);
+            if (loaded == null) {
+                loaded = loader.get();
+            }
+            return complete(key, mine, loaded);
+        } catch (RuntimeException | Error e) {
+            fail(key, mine, e);
+            throw e;
+        }
+    }
+
+    /**
+     * Batch form of {@link #getOrLoad(String, String, String, MetricRequestDTO, Supplier,
+     * Function)} for several queries of one scope; results come back in request order.
+     *
+     * <p>Cached queries are answered from the cache, and queries another caller is already loading
+     * wait for that load. The remaining ones are claimed before anything is queried, so single
+     * loads arriving meanwhile coalesce with the batch. Each claimed query is first extended from
+     * the previous bucket through {@code deltaLoader}; whatever is left goes to one {@code
+     * batchLoader} call, which must return one result per request it is given.
+     */
+    public List<List<MetricDTO>> getOrLoadAll(
+            String nsId,
+            String infraId,
+            String nodeId,
+            List<MetricRequestDTO> reqs,
+            Function<List<MetricRequestDTO>, List<List<MetricDTO>>> batchLoader,
+            BiFunction<MetricRequestDTO, Instant, List<MetricDTO>> deltaLoader) {
+        if (cache == null) {
+            return batchLoader.apply(reqs);
+        }
+        List<List<MetricDTO>> out = new ArrayList<>(Collections.nCopies(reqs.size(), null));
+        Map<Integer, CompletableFuture<List<MetricDTO>>> waiting = new LinkedHashMap<>();
+        List<OwnedLoad> owned = new ArrayList<>();
+        for (int i = 0; i < reqs.size(); i++) {
+            MonitoringCacheKey key = keyOf(nsId, infraId, nodeId, reqs.get(i));
+            accessTracker.record(key);
+            List<MetricDTO> hit = cachedData(key);
+            if (hit != null) {
+                out.set(i, hit);
+                continue;
+            }
+            Claim claim = claim(key);
+            if (claim.owner()) {
+                owned.add(new OwnedLoad(i, key, claim.load()));
+            } else {
+                waiting.put(i, claim.load());
+            }
+        }
+
+        try {
+            List<OwnedLoad> full = new ArrayList<>();
+            for (OwnedLoad load : owned) {
+                MetricRequestDTO req = reqs.get(load.index());
+                List<MetricDTO> spliced =
+                        deltaLoader == null
+                                ? null
+                                : loadIncrementally(
+                                        load.key(),
+                                        previousBucket(load.key()),
+                                        req,
+                                        since -> deltaLoader.apply(req, since));
+                if (spliced == null) {
+                    full.add(load);
+                } else {
+                    out.set(load.index(), complete(load.key(), load.load(), spliced));
+                }
+            }
+            if (!full.isEmpty()) {
+                List<List<MetricDTO>> loaded =
+                        batchLoader.apply(full.stream().map(l -> reqs.get(l.index())).toList());
+                for (int k = 0; k < full.size(); k++) {
+                    OwnedLoad load = full.get(k);
+                    out.set(load.index(), complete(load.key(), load.load(), loaded.get(k)));
+                }
+            }
+        } catch (RuntimeException | Error e) {
+            for (OwnedLoad load : owned) {
+                if (!load.load().isDone()) {
+                    fail(load.key(), load.load(), e);
+                }
+            }
+            throw e;
+        }
+
+        // only after our own loads are done: a duplicate query in this batch waits on one of them
+        waiting.forEach((i, load) -> out.set(i, awaitInFlight(load)));
+        return out;
+    }
+
+    /** Either the caller's own claim on a key (it must load it) or a load it has to wait for. */
+    private record Claim(CompletableFuture<List<MetricDTO>> load, boolean owner) {}
+
+    /** A key a batch claimed, with its position in the batch. */
+    private record OwnedLoad(
+            int index, MonitoringCacheKey key, CompletableFuture<List<MetricDTO>> load) {}
+
+    private MonitoringCacheKey keyOf(
+            String nsId, String infraId, String nodeId, MetricRequestDTO req) {
+        return MonitoringCacheKey.of(
+                nsId, infraId, nodeId, req, properties.getBlockPeriodSeconds());
+    }
+
+    /** The cached result when the key holds data points, counted as a hit; otherwise null. */
+    private List<MetricDTO> cachedData(MonitoringCacheKey key) {
+        List<CompactMetricSeries> hit = cache.getIfPresent(key);
+        if (hit == null || !hasAnyDataPoint(hit)) {
+            return null;
+        }
+        manualHitCount.incrementAndGet();
+        log.debug(
+                "[MON-CACHE] HIT ns={}, mci={}, vm={}, bucket={}",
+                key.nsId(),
+                key.infraId(),
+                key.nodeId(),
+                key.hourBucket());
+        return CompactMetricSeries.materialize(hit);
+    }
+
+    /**
+     * Single-flight: the first caller for a key owns its load, everyone arriving while it is still
+     * running waits on the same future instead of issuing a duplicate query.
+     */
+    private Claim claim(MonitoringCacheKey key) {
+        CompletableFuture<List<MetricDTO>> mine = new CompletableFuture<>();
+        CompletableFuture<List<MetricDTO>> running = inFlight.putIfAbsent(key, mine);
+        if (running != null) {
+            coalescedCount.incrementAndGet();
             log.debug(
-                    "[MON-CACHE] HIT ns={}, mci={}, vm={}, bucket={}",
+                    "[MON-CACHE] COALESCED ns={}, mci={}, vm={}, bucket={}",
                     key.nsId(),
                     key.infraId(),
                     key.nodeId(),
                     key.hourBucket());
-            return hit;
+            return new Claim(running, false);
+        }
+
+        // A load for this key may have finished between the lookup and claiming the slot.
+        List<CompactMetricSeries> raced = cache.getIfPresent(key);
+        if (raced != null && hasAnyDataPoint(raced)) {
+            List<MetricDTO> materialized = CompactMetricSeries.materialize(raced);
+            inFlight.remove(key, mine);
+            mine.complete(materialized);
+            manualHitCount.incrementAndGet();
+            return new Claim(mine, false);
         }
 
         manualMissCount.incrementAndGet();
@@ -105,19 +327,119 @@ public class MonitoringCacheService {
                 key.infraId(),
                 key.nodeId(),
                 key.hourBucket());
+        return new Claim(mine, true);
+    }
 
-        List<MetricDTO> loaded = loader.get();
-        if (loaded == null) {
-            return Collections.emptyList();
+    /** Caches what the owner of {@code key} loaded and hands it to everyone waiting on the key. */
+    private List<MetricDTO> complete(
+            MonitoringCacheKey key,
+            CompletableFuture<List<MetricDTO>> mine,
+            List<MetricDTO> loaded) {
+        try {
+            if (loaded == null) {
+                loaded = Collections.emptyList();
+            } else if (computeTtlNanos(key) > 0) {
+                // Only cache when the VM was created within the last 7 days. Anything older has
+                // nothing useful left to cache (would expire immediately) and would just waste a
+                // slot.
+                List<CompactMetricSeries> compact = CompactMetricSeries.compact(loaded);
+                cache.put(key, compact);
+                // Hand out the compact view so the client's boxed rows can be collected before
+                // the (streamed) response is written.
+                loaded = CompactMetricSeries.materialize(compact);
+            } else {
+                skippedTooOldCount.incrementAndGet();
+            }
+            mine.complete(loaded);
+            return loaded;
+        } finally {
+            inFlight.remove(key, mine);
         }
-        // Only cache when the VM was created within the last 7 days. Anything older has nothing
-        // useful left to cache (would expire immediately) and would just waste a slot.
-        if (computeTtlNanos(key) > 0) {
-            cache.put(key, loaded);
-        } else {
-            skippedTooOldCount.incrementAndGet();
+    }
+
+    private void fail(
+            MonitoringCacheKey key, CompletableFuture<List<MetricDTO>> mine, Throwable error) {
+        mine.completeExceptionally(error);
+        inFlight.remove(key, mine);
+    }
+
+    /**
+     * Extends the {@code source} entry for the same query (the previous bucket's, or {@code key}'s
+     * own on a refresh) with the newest slice. Returns {@code null} when there is nothing to extend
+     * or the splice is not safe, so the caller runs the full load.
+     */
+    private List<MetricDTO> loadIncrementally(
+            MonitoringCacheKey key,
+            MonitoringCacheKey source,
+            MetricRequestDTO req,
+            Function<Instant, List<MetricDTO>> deltaLoader) {
+        if (!properties.isIncrementalEnabled() || req == null) {
+            return null;
+        }
+        long rangeSec = InfluxQl.parseDurationSeconds(req.getRange());
+        if (rangeSec <= 0) {
+            return null;
+        }
+        List<CompactMetricSeries> cachedSource = cache.getIfPresent(source);
+        if (cachedSource == null || !hasAnyDataPoint(cachedSource)) {
+            return null;
+        }
+        List<MetricDTO> previous = CompactMetricSeries.materialize(cachedSource);
+        Optional<Instant> since = MetricSeriesSplicer.newestTimestamp(previous);
+        if (since.isEmpty()) {
+            incrementalFallbackCount.incrementAndGet();
+            return null;
+        }
+        long groupSec = InfluxQl.parseDurationSeconds(InfluxQl.effectiveGroupTime(req));
+        try {
+            List<MetricDTO> delta = deltaLoader.apply(since.get());
+            List<MetricDTO> spliced =
+                    MetricSeriesSplicer.splice(
+                            previous,
+                            delta == null ? List.of() : delta,
+                            since.get(),
+                            MetricSeriesSplicer.headCutoff(Instant.now(), rangeSec, groupSec),
+                            req.getLimit());
+            incrementalCount.incrementAndGet();
+            log.debug(
+                    "[MON-CACHE] INCREMENTAL ns={}, mci={}, vm={}, bucket={}, since={}",
+                    key.nsId(),
+                    key.infraId(),
+                    key.nodeId(),
+                    key.hourBucket(),
+                    since.get());
+            return spliced;
+        } catch (RuntimeException e) {
+            incrementalFallbackCount.incrementAndGet();
+            log.debug(
+                    "[MON-CACHE] incremental load failed, reloading ns={}, mci={}, vm={}: {}",
+                    key.nsId(),
+                    key.infraId(),
+                    key.nodeId(),
+                    e.toString());
+            return null;
+        }
+    }
+
+    private static MonitoringCacheKey previousBucket(MonitoringCacheKey key) {
+        return new MonitoringCacheKey(
+                key.nsId(),
+                key.infraId(),
+                key.nodeId(),
+                key.requestSignature(),
+                key.hourBucket() - 1);
+    }
+
+    /** Waits for another caller's load and rethrows its failure as-is. */
+    private static List<MetricDTO> awaitInFlight(CompletableFuture<List<MetricDTO>> running) {
+        try {
+            return running.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException re) {
+                throw re;
+            }
+            throw e;
         }
-        return loaded;
     }
 
     /** Invalidate everything — exposed mainly for ops/admin use. */
@@ -147,7 +469,12 @@ public class MonitoringCacheService {
                 Map.entry("evictionCount", s.evictionCount()),
                 Map.entry("evictionWeight", s.evictionWeight()),
                 Map.entry("loadFailureCount", s.loadFailureCount()),
-                Map.entry("skippedTooOldCount", skippedTooOldCount.get()));
+                Map.entry("skippedTooOldCount", skippedTooOldCount.get()),
+                Map.entry("coalescedCount", coalescedCount.get()),
+                Map.entry("incrementalCount", incrementalCount.get()),
+                Map.entry("incrementalFallbackCount", incrementalFallbackCount.get()),
+                Map.entry("inFlightLoads", inFlight.size()),
+                Map.entry("access", accessTracker.stats()));
     }
 
     /**
@@ -175,18 +502,18 @@ public class MonitoringCacheService {
         return TimeUnit.SECONDS.toNanos(Math.min(remainSec, maxTtlSec));
     }
 
-    private Expiry<MonitoringCacheKey, List<MetricDTO>> buildExpiry() {
+    private Expiry<MonitoringCacheKey, List<CompactMetricSeries>> buildExpiry() {
         return new Expiry<>() {
             @Override
             public long expireAfterCreate(
-                    MonitoringCacheKey key, List<MetricDTO> value, long currentTime) {
+                    MonitoringCacheKey key, List<CompactMetricSeries> value, long currentTime) {
                 return Math.max(1L, computeTtlNanos(key));
             }
 
             @Override
             public long expireAfterUpdate(
                     MonitoringCacheKey key,
-                    List<MetricDTO> value,
+                    List<CompactMetricSeries> value,
                     long currentTime,
                     long currentDuration) {
                 return Math.max(1L, computeTtlNanos(key));
@@ -195,7 +522,7 @@ public class MonitoringCacheService {
             @Override
             public long expireAfterRead(
                     MonitoringCacheKey key,
-                    List<MetricDTO> value,
+                    List<CompactMetricSeries> value,
                     long currentTime,
                     long currentDuration) {
                 // reads do not extend the lifetime — keep the createdTime-bound deadline
@@ -204,13 +531,10 @@ public class MonitoringCacheService {
         };
     }
 
-    /** True if at least one series in the list has at least one data point. */
-    private static boolean hasAnyDataPoint(List<MetricDTO> dtos) {
-        if (dtos == null || dtos.isEmpty()) {
-            return false;
-        }
-        for (MetricDTO m : dtos) {
-            if (m != null && m.values() != null && !m.values().isEmpty()) {
+    /** True if at least one cached series has at least one data point. */
+    private static boolean hasAnyDataPoint(List<CompactMetricSeries> series) {
+        for (CompactMetricSeries s : series) {
+            if (s.rowCount() > 0) {
                 return true;
             }
         }
@@ -218,7 +542,7 @@ public class MonitoringCacheService {
     }
 
     private static int estimateWeight(
-            MonitoringCacheKey key, List<MetricDTO> value, int bytesPerPoint) {
+            MonitoringCacheKey key, List<CompactMetricSeries> value, int bytesPerPoint) {
         int keyBytes =
                 (key.nsId().length()
                                         + key.infraId().length()
@@ -229,17 +553,10 @@ public class MonitoringCacheService {
         if (value == null || value.isEmpty()) {
             return keyBytes + 32;
         }
-        long points = 0;
-        for (MetricDTO m : value) {
-            if (m == null) {
-                continue;
-            }
-            List<List<Object>> values = m.values();
-            if (values != null) {
-                points += values.size();
-            }
+        long weight = keyBytes;
+        for (CompactMetricSeries s : value) {
+            weight += s.estimatedBytes(bytesPerPoint);
         }
-        long weight = (long) keyBytes + points * bytesPerPoint + (long) value.size() * 64L;
         return (int) Math.min(weight, Integer.MAX_VALUE);
     }
 }
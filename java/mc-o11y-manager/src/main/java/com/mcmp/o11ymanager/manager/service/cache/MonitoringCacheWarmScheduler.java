@@ -7,19 +7,16 @@ import com.mcmp.o11ymanager.manager.config.MonitoringCacheProperties.OverviewQue
 import com.mcmp.o11ymanager.manager.config.MonitoringCacheProperties.RangeSpec;
 import com.mcmp.o11ymanager.manager.dto.influx.MetricRequestDTO;
 import com.mcmp.o11ymanager.manager.dto.influx.VmRef;
+import com.mcmp.o11ymanager.manager.model.influx.InfluxQl;
 import com.mcmp.o11ymanager.manager.service.interfaces.InfluxDbService;
-import jakarta.annotation.PostConstruct;
-import jakarta.annotation.PreDestroy;
 import java.time.Instant;
 import java.util.ArrayList;
 import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
-import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-import java.util.concurrent.ThreadFactory;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
@@ -29,19 +26,28 @@ import org.springframework.stereotype.Component;
 /**
  * Periodically pre-warms the monitoring metric cache.
  *
- * <p>Two independent jobs run on separate fixed thread pools:
+ * <p>Three independent jobs:
  *
  * <ul>
  *   <li><b>realtime</b> — short-range queries (e.g. {@code 1h/1m, 6h/5m, 12h/5m}) refreshed every
- *       minute. These hit the raw mc-observability InfluxDB.
+ *       minute. These hit the raw mc-observability InfluxDB; an entry already cached is extended
+ *       with the newest points rather than reloaded.
  *   <li><b>longrange</b> — long-range queries (e.g. {@code 1d/5m, 3d/15m, 5d/30m, 7d/1h}) refreshed
  *       on the hourly Airflow downsampling DAG cycle. These automatically route to the downsampling
  *       InfluxDB via {@code InfluxDbServiceImpl#pickDatabase}.
+ *   <li><b>overview</b> — the fixed NS/MCI overview queries from {@code warm.overview.queries}.
  * </ul>
  *
- * For each tick the scheduler discovers active VMs in InfluxDB, sorts by Tumblebug createdTime,
- * keeps the top-N most recently created, and submits per-VM warming tasks (one per measurement ×
- * range combo) to the job's executor.
+ * For each tick the scheduler takes the active VMs and plans, per VM, the request shapes the UI was
+ * seen sending ({@link RequestSignatureLearner}) — or, before anything has been learned, one
+ * {@code SELECT *} per measurement × range. The queries are ranked by how often users requested
+ * them ({@link CacheAccessTracker}) and at most the job's {@code query-budget} of them run. VMs
+ * nobody requested yet are covered by the top-N most recently created (Tumblebug createdTime), as
+ * long as budget remains.
+ *
+ * <p>Queries run on the shared {@link WarmJobRunner}, which skips a tick while the previous one is
+ * still running and adapts concurrency to InfluxDB latency; a job's {@code thread-pool-size} caps
+ * its concurrency on top of that.
  */
 @Slf4j
 @Component
@@ -56,50 +62,19 @@ public class MonitoringCacheWarmScheduler {
     private final MonitoringCacheProperties properties;
     private final InfluxDbService influxDbService;
     private final VmCreatedTimeResolver vmCreatedTimeResolver;
-
-    private ExecutorService realtimeExecutor;
-    private ExecutorService longrangeExecutor;
-    private ExecutorService overviewExecutor;
-
-    @PostConstruct
-    void init() {
-        realtimeExecutor =
-                newFixedPool("mon-cache-warm-realtime", properties.getWarm().getRealtime());
-        longrangeExecutor =
-                newFixedPool("mon-cache-warm-longrange", properties.getWarm().getLongrange());
-        OverviewJob overview = properties.getWarm().getOverview();
-        overviewExecutor =
-                newFixedPoolFromSize(
-                        "mon-cache-warm-overview",
-                        overview == null ? 10 : overview.getThreadPoolSize());
-        log.info(
-                "[CACHE-WARM] initialized realtimeThreads={}, longrangeThreads={}, overviewThreads={}",
-                properties.getWarm().getRealtime().getThreadPoolSize(),
-                properties.getWarm().getLongrange().getThreadPoolSize(),
-                overview == null ? 0 : overview.getThreadPoolSize());
-    }
-
-    @PreDestroy
-    void shutdown() {
-        if (realtimeExecutor != null) {
-            realtimeExecutor.shutdownNow();
-        }
-        if (longrangeExecutor != null) {
-            longrangeExecutor.shutdownNow();
-        }
-        if (overviewExecutor != null) {
-            overviewExecutor.shutdownNow();
-        }
-    }
+    private final ActiveVmDiscovery activeVmDiscovery;
+    private final CacheAccessTracker accessTracker;
+    private final RequestSignatureLearner requestSignatureLearner;
+    private final WarmJobRunner warmJobRunner;
 
     @Scheduled(cron = "${monitoring.cache.warm.realtime.cron:0 * * * * *}")
     public void scheduledRealtime() {
-        runJob("realtime", properties.getWarm().getRealtime(), realtimeExecutor);
+        runRealtime();
     }
 
     @Scheduled(cron = "${monitoring.cache.warm.longrange.cron:0 5 * * * *}")
     public void scheduledLongrange() {
-        runJob("longrange", properties.getWarm().getLongrange(), longrangeExecutor);
+        runLongrange();
     }
 
     @Scheduled(cron = "${monitoring.cache.warm.overview.cron:0 * * * * *}")
@@ -109,60 +84,105 @@ public class MonitoringCacheWarmScheduler {
 
     /** Triggers all warming jobs immediately (admin endpoint). */
     public int warmNow() {
-        int realtime = runJob("realtime", properties.getWarm().getRealtime(), realtimeExecutor);
-        int longrange = runJob("longrange", properties.getWarm().getLongrange(), longrangeExecutor);
+        int realtime = runRealtime();
+        int longrange = runLongrange();
         int overview = runOverviewJob();
         return realtime + longrange + overview;
     }
 
-    private int runJob(String jobName, Job job, ExecutorService executor) {
+    private int runRealtime() {
+        long realtimeMax = realtimeMaxRangeSeconds();
+        return runJob(
+                "realtime",
+                properties.getWarm().getRealtime(),
+                r -> InfluxQl.parseDurationSeconds(r.getRange()) <= realtimeMax,
+                true);
+    }
+
+    private int runLongrange() {
+        long realtimeMax = realtimeMaxRangeSeconds();
+        return runJob(
+                "longrange",
+                properties.getWarm().getLongrange(),
+                r -> InfluxQl.parseDurationSeconds(r.getRange()) > realtimeMax,
+                false);
+    }
+
+    /**
+     * Learned request shapes are split between the jobs by range: up to the longest realtime range
+     * they are refreshed every minute, anything longer on the longrange cycle.
+     */
+    private long realtimeMaxRangeSeconds() {
+        Job realtime = properties.getWarm().getRealtime();
+        if (realtime == null || realtime.getRanges() == null) {
+            return 0L;
+        }
+        return realtime.getRanges().stream()
+                .mapToLong(spec -> InfluxQl.parseDurationSeconds(spec.getRange()))
+                .max()
+                .orElse(0L);
+    }
+
+    /**
+     * Replays the learned request shapes accepted by {@code learnedFilter}; until anything has
+     * been learned for this job, falls back to {@code SELECT *} per measurement × range. With
+     * {@code refresh}, entries already cached in the current bucket are extended (see {@link
+     * InfluxDbService#refreshMetricsByVM}) instead of counting as done.
+     */
+    private int runJob(
+            String jobName, Job job, Predicate<MetricRequestDTO> learnedFilter, boolean refresh) {
         if (job == null
-                || executor == null
                 || job.getRanges() == null
                 || job.getRanges().isEmpty()) {
             return 0;
         }
         long started = System.currentTimeMillis();
-        List<VmWithCreatedAt> top = pickTopVms();
-        if (top.isEmpty()) {
+        List<VmRef> vms = pickVms();
+        if (vms.isEmpty()) {
             log.info("[CACHE-WARM:{}] no eligible VMs", jobName);
             return 0;
         }
 
+        List<WarmTask> tasks = new ArrayList<>();
+        int perVm = properties.getLearning().getSignaturesPerVm();
+        for (VmRef vm : vms) {
+            List<MetricRequestDTO> learned =
+                    requestSignatureLearner.requestsFor(vm, learnedFilter, perVm);
+            for (MetricRequestDTO req : learned) {
+                tasks.add(task(vm, req));
+            }
+        }
+        if (!tasks.isEmpty()) {
+            return execute(
+                    jobName,
+                    job.getCron(),
+                    tasks,
+                    job.getQueryBudget(),
+                    job.getThreadPoolSize(),
+                    refresh,
+                    started);
+        }
+
         List<String> measurements = discoverMeasurements();
         if (measurements.isEmpty()) {
             log.info("[CACHE-WARM:{}] no measurements discovered", jobName);
             return 0;
         }
-
-        AtomicInteger ok = new AtomicInteger();
-        AtomicInteger fail = new AtomicInteger();
-        List<CompletableFuture<Void>> futures = new ArrayList<>(top.size());
-        for (VmWithCreatedAt entry : top) {
-            futures.add(
-                    CompletableFuture.runAsync(
-                            () ->
-                                    warmOneVm(
-                                            jobName,
-                                            job.getRanges(),
-                                            entry.vm(),
-                                            measurements,
-                                            ok,
-                                            fail),
-                            executor));
+        for (VmRef vm : vms) {
+            for (String measurement : measurements) {
+                for (RangeSpec spec : job.getRanges()) {
+                    tasks.add(task(vm, buildRequest(spec, measurement)));
+                }
+            }
         }
-        CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).join();
-
-        log.info(
-                "[CACHE-WARM:{}] vms={}, measurements={}, ranges={}, ok={}, fail={}, took={}ms",
+        return execute(
                 jobName,
-                top.size(),
-                measurements.size(),
-                job.getRanges().size(),
-                ok.get(),
-                fail.get(),
-                System.currentTimeMillis() - started);
-        return top.size();
+                job.getCron(),
+                tasks,
+                job.getQueryBudget(),
+                job.getThreadPoolSize(),
+                refresh,
+                started);
     }
 
     /** Discover all measurement names known to any configured InfluxDB instance. */
@@ -183,91 +203,123 @@ public class MonitoringCacheWarmScheduler {
         }
     }
 
-    private void warmOneVm(
-            String jobName,
-            List<RangeSpec> ranges,
-            VmRef vm,
-            List<String> measurements,
-            AtomicInteger ok,
-            AtomicInteger fail) {
-        for (String measurement : measurements) {
-            for (RangeSpec spec : ranges) {
-                try {
-                    influxDbService.getMetricsByVM(
-                            vm.nsId(), vm.infraId(), vm.nodeId(), buildRequest(spec, measurement));
-                    ok.incrementAndGet();
-                } catch (Exception e) {
-                    fail.incrementAndGet();
-                    log.debug(
-                            "[CACHE-WARM:{}] failed ns={}, mci={}, vm={}, m={}, range={}, err={}",
-                            jobName,
-                            vm.nsId(),
-                            vm.infraId(),
-                            vm.nodeId(),
-                            measurement,
-                            spec.getRange(),
-                            e.toString());
-                }
-            }
-        }
-    }
-
     private int runOverviewJob() {
         OverviewJob job = properties.getWarm().getOverview();
         if (job == null
                 || !job.isEnabled()
-                || overviewExecutor == null
                 || job.getQueries() == null
                 || job.getQueries().isEmpty()) {
             return 0;
         }
         long started = System.currentTimeMillis();
-        List<VmWithCreatedAt> top = pickTopVms();
-        if (top.isEmpty()) {
+        List<VmRef> vms = pickVms();
+        if (vms.isEmpty()) {
             log.info("[CACHE-WARM:overview] no eligible VMs");
             return 0;
         }
 
-        AtomicInteger ok = new AtomicInteger();
-        AtomicInteger fail = new AtomicInteger();
-        List<CompletableFuture<Void>> futures = new ArrayList<>(top.size());
-        for (VmWithCreatedAt entry : top) {
-            futures.add(
-                    CompletableFuture.runAsync(
-                            () -> warmOneVmOverview(entry.vm(), job.getQueries(), ok, fail),
-                            overviewExecutor));
+        List<WarmTask> tasks = new ArrayList<>();
+        for (VmRef vm : vms) {
+            for (OverviewQuery q : job.getQueries()) {
+                tasks.add(task(vm, buildOverviewRequest(q)));
+            }
+        }
+        return execute(
+                "overview",
+                job.getCron(),
+                tasks,
+                job.getQueryBudget(),
+                job.getThreadPoolSize(),
+                true,
+                started);
+    }
+
+    private WarmTask task(VmRef vm, MetricRequestDTO req) {
+        String signature =
+                MonitoringCacheKey.of(
+                                vm.nsId(),
+                                vm.infraId(),
+                                vm.nodeId(),
+                                req,
+                                properties.getBlockPeriodSeconds())
+                        .requestSignature();
+        return new WarmTask(vm, req, accessTracker.queryDemand(vm, signature));
+    }
+
+    /**
+     * Hands the tasks to the {@link WarmJobRunner}, most requested first, so the budget is spent on
+     * demand. Tasks nobody asked for keep the VM order of {@link #pickVms()} and only use whatever
+     * budget is left.
+     */
+    private int execute(
+            String jobName,
+            String cron,
+            List<WarmTask> tasks,
+            int budget,
+            int maxConcurrency,
+            boolean refresh,
+            long started) {
+        List<WarmTask> ranked = new ArrayList<>(tasks);
+        // List.sort is stable, so equal demand keeps the VM-priority order
+        ranked.sort(Comparator.comparingInt(WarmTask::demand).reversed());
+        int selected = budget > 0 ? Math.min(budget, ranked.size()) : ranked.size();
+        long demanded = ranked.stream().limit(selected).filter(t -> t.demand() > 0).count();
+        long vms = ranked.stream().limit(selected).map(WarmTask::vm).distinct().count();
+
+        List<Runnable> runnables = new ArrayList<>(ranked.size());
+        for (WarmTask t : ranked) {
+            runnables.add(() -> warmOne(jobName, t, refresh));
+        }
+        WarmJobRunner.RunResult result =
+                warmJobRunner.run(
+                        "monitoring-" + jobName,
+                        cron,
+                        WarmJobRunner.Downstream.INFLUX,
+                        maxConcurrency,
+                        budget,
+                        runnables);
+        if (result.skipped()) {
+            return 0;
         }
-        CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).join();
 
         log.info(
-                "[CACHE-WARM:overview] vms={}, queries={}, ok={}, fail={}, took={}ms",
-                top.size(),
-                job.getQueries().size(),
-                ok.get(),
-                fail.get(),
+                "[CACHE-WARM:{}] vms={}, queries={}/{}, demanded={}, ok={}, fail={}, dropped={},"
+                        + " took={}ms",
+                jobName,
+                vms,
+                result.ok() + result.failed(),
+                tasks.size(),
+                demanded,
+                result.ok(),
+                result.failed(),
+                result.dropped(),
                 System.currentTimeMillis() - started);
-        return top.size();
+        return (int) vms;
     }
 
-    private void warmOneVmOverview(
-            VmRef vm, List<OverviewQuery> queries, AtomicInteger ok, AtomicInteger fail) {
-        for (OverviewQuery q : queries) {
-            try {
-                influxDbService.getMetricsByVM(
-                        vm.nsId(), vm.infraId(), vm.nodeId(), buildOverviewRequest(q));
-                ok.incrementAndGet();
-            } catch (Exception e) {
-                fail.incrementAndGet();
-                log.debug(
-                        "[CACHE-WARM:overview] failed ns={}, mci={}, vm={}, m={}, fn={}, fd={}, err={}",
-                        vm.nsId(),
-                        vm.infraId(),
-                        vm.nodeId(),
-                        q.getMeasurement(),
-                        q.getFunction(),
-                        q.getField(),
-                        e.toString());
-            }
+    /** Runs one warm query; throws on failure so the runner backs off. */
+    private void warmOne(String jobName, WarmTask t, boolean refresh) {
+        VmRef vm = t.vm();
+        try {
+            // the warmer's own lookups must not look like user demand
+            CacheAccessTracker.untracked(
+                    () ->
+                            refresh
+                                    ? influxDbService.refreshMetricsByVM(
+                                            vm.nsId(), vm.infraId(), vm.nodeId(), t.request())
+                                    : influxDbService.getMetricsByVM(
+                                            vm.nsId(), vm.infraId(), vm.nodeId(), t.request()));
+        } catch (RuntimeException e) {
+            log.debug(
+                    "[CACHE-WARM:{}] failed ns={}, mci={}, vm={}, m={}, range={}, err={}",
+                    jobName,
+                    vm.nsId(),
+                    vm.infraId(),
+                    vm.nodeId(),
+                    t.request().getMeasurement(),
+                    t.request().getRange(),
+                    e.toString());
+            throw e;
         }
     }
 
@@ -288,11 +340,15 @@ public class MonitoringCacheWarmScheduler {
         return req;
     }
 
-    /** Discover active VMs and return the {@code topN} sorted by createdTime descending. */
-    private List<VmWithCreatedAt> pickTopVms() {
+    /**
+     * Active VMs in warm priority order: VMs users requested (most requested first), followed by
+     * up to {@code topN} of the remaining VMs by createdTime descending so new VMs are warm before
+     * anyone opens them.
+     */
+    private List<VmRef> pickVms() {
         List<VmRef> active;
         try {
-            active = influxDbService.discoverActiveVms();
+            active = activeVmDiscovery.activeVms();
         } catch (Exception e) {
             log.warn("[CACHE-WARM] discover failed: {}", e.toString());
             return List.of();
@@ -300,18 +356,27 @@ public class MonitoringCacheWarmScheduler {
         if (active.isEmpty()) {
             return List.of();
         }
-        List<VmWithCreatedAt> withTime = new ArrayList<>(active.size());
+        Map<VmRef, Integer> demand = new HashMap<>();
+        List<VmWithCreatedAt> idle = new ArrayList<>();
         for (VmRef vm : active) {
+            int d = accessTracker.vmDemand(vm);
+            if (d > 0) {
+                demand.put(vm, d);
+                continue;
+            }
             Optional<Instant> createdAt =
                     vmCreatedTimeResolver.resolve(vm.nsId(), vm.infraId(), vm.nodeId());
-            createdAt.ifPresent(instant -> withTime.add(new VmWithCreatedAt(vm, instant)));
-        }
-        if (withTime.isEmpty()) {
-            return List.of();
+            createdAt.ifPresent(instant -> idle.add(new VmWithCreatedAt(vm, instant)));
         }
-        withTime.sort(Comparator.comparing(VmWithCreatedAt::createdAt).reversed());
+
+        List<VmRef> out = new ArrayList<>(demand.keySet());
+        out.sort(Comparator.comparing((VmRef vm) -> demand.get(vm)).reversed());
+        idle.sort(Comparator.comparing(VmWithCreatedAt::createdAt).reversed());
         int topN = Math.max(1, properties.getWarm().getTopN());
-        return new ArrayList<>(withTime.subList(0, Math.min(topN, withTime.size())));
+        for (VmWithCreatedAt entry : idle.subList(0, Math.min(topN, idle.size()))) {
+            out.add(entry.vm());
+        }
+        return out;
     }
 
     private MetricRequestDTO buildRequest(RangeSpec spec, String measurement) {
@@ -324,21 +389,7 @@ public class MonitoringCacheWarmScheduler {
         return req;
     }
 
-    private static ExecutorService newFixedPool(String namePrefix, Job job) {
-        return newFixedPoolFromSize(namePrefix, job.getThreadPoolSize());
-    }
-
-    private static ExecutorService newFixedPoolFromSize(String namePrefix, int size) {
-        int bounded = Math.max(1, size);
-        AtomicInteger counter = new AtomicInteger();
-        ThreadFactory factory =
-                r -> {
-                    Thread t = new Thread(r, namePrefix + "-" + counter.incrementAndGet());
-                    t.setDaemon(true);
-                    return t;
-                };
-        return Executors.newFixedThreadPool(bounded, factory);
-    }
-
     private record VmWithCreatedAt(VmRef vm, Instant createdAt) {}
+
+    private record WarmTask(VmRef vm, MetricRequestDTO request, int demand) {}
 }
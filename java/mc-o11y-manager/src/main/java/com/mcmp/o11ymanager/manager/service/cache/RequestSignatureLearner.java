@@ -0,0 +1,292 @@
+package com.mcmp.o11ymanager.manager.service.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mcmp.o11ymanager.manager.config.MonitoringCacheProperties;
+import com.mcmp.o11ymanager.manager.dto.influx.MetricRequestDTO;
+import com.mcmp.o11ymanager.manager.dto.influx.VmRef;
+import com.mcmp.o11ymanager.manager.entity.LearnedSignatureEntity;
+import com.mcmp.o11ymanager.manager.repository.LearnedSignatureJpaRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Learns which metric request shapes the UI actually sends, so the cache warmer replays those
+ * instead of guessing with {@code SELECT *} per measurement (whose cache keys the UI never hits).
+ *
+ * <p>Shapes are recorded at the controller with the ns/infra/node conditions stripped, deduplicated
+ * by {@link MonitoringCacheKey} signature and capped at {@code max-signatures}; when full, the
+ * least requested shape is dropped. The set is written to {@code monitoring_learned_signature}
+ * periodically and on shutdown and reloaded on startup, and shapes not seen for {@code
+ * retention-days} are forgotten.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class RequestSignatureLearner {
+
+    private static final Set<String> KEY_CONDITIONS = Set.of("ns_id", "infra_id", "node_id");
+
+    private final MonitoringCacheProperties properties;
+    private final CacheAccessTracker accessTracker;
+    private final LearnedSignatureJpaRepository learnedSignatureJpaRepository;
+    private final ObjectMapper objectMapper;
+
+    private final Map<String, Learned> learned = new ConcurrentHashMap<>();
+    private final Queue<String> pendingDeletes = new ConcurrentLinkedQueue<>();
+    private final AtomicLong observedCount = new AtomicLong();
+    private final AtomicLong evictedCount = new AtomicLong();
+    private final AtomicLong persistFailureCount = new AtomicLong();
+
+    @PostConstruct
+    void load() {
+        if (!properties.getLearning().isEnabled()) {
+            return;
+        }
+        try {
+            for (LearnedSignatureEntity e : learnedSignatureJpaRepository.findAll()) {
+                MetricRequestDTO template =
+                        objectMapper.readValue(e.getRequestJson(), MetricRequestDTO.class);
+                Learned entry = new Learned(e.getSignatureHash(), template);
+                entry.hits.set(e.getHitCount());
+                entry.lastSeenMillis =
+                        e.getLastSeenAt() == null ? 0L : e.getLastSeenAt().toEpochMilli();
+                learned.put(e.getSignature(), entry);
+            }
+            log.info("[MON-CACHE-LEARN] loaded {} request signatures", learned.size());
+        } catch (Exception e) {
+            log.warn("[MON-CACHE-LEARN] load failed, starting empty: {}", e.toString());
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        persist();
+    }
+
+    /** Records the shape of a metric request sent by a client, whether per VM or per MCI. */
+    public void observe(MetricRequestDTO req) {
+        if (!properties.getLearning().isEnabled() || req == null || req.getMeasurement() == null) {
+            return;
+        }
+        MetricRequestDTO template = templateOf(req);
+        String signature = MonitoringCacheKey.signatureOf(template);
+        Learned entry = learned.computeIfAbsent(signature, s -> new Learned(sha256(s), template));
+        entry.hits.incrementAndGet();
+        entry.lastSeenMillis = System.currentTimeMillis();
+        entry.dirty = true;
+        observedCount.incrementAndGet();
+        if (learned.size() > Math.max(1, properties.getLearning().getMaxSignatures())) {
+            evictColdest(signature);
+        }
+    }
+
+    /**
+     * Up to {@code limit} learned requests accepted by {@code filter}: the shapes this VM was
+     * requested with most first, then the most requested overall. Every call returns fresh copies
+     * the caller may modify.
+     */
+    public List<MetricRequestDTO> requestsFor(
+            VmRef vm, Predicate<MetricRequestDTO> filter, int limit) {
+        if (learned.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        record Ranked(MetricRequestDTO template, int vmDemand, long hits) {}
+        List<Ranked> ranked = new ArrayList<>();
+        for (Map.Entry<String, Learned> e : learned.entrySet()) {
+            MetricRequestDTO template = e.getValue().template;
+            if (filter.test(template)) {
+                ranked.add(
+                        new Ranked(
+                                template,
+                                accessTracker.queryDemand(vm, e.getKey()),
+                                e.getValue().hits.get()));
+            }
+        }
+        ranked.sort(
+                Comparator.comparingInt(Ranked::vmDemand)
+                        .thenComparingLong(Ranked::hits)
+                        .reversed());
+        List<MetricRequestDTO> out = new ArrayList<>(Math.min(limit, ranked.size()));
+        for (Ranked r : ranked.subList(0, Math.min(limit, ranked.size()))) {
+            out.add(copy(r.template()));
+        }
+        return out;
+    }
+
+    /** Writes changed shapes and forgets the ones not requested within the retention window. */
+    @Scheduled(
+            fixedDelayString = "${monitoring.cache.learning.persist-interval-ms:300000}",
+            initialDelayString = "${monitoring.cache.learning.persist-interval-ms:300000}")
+    public void persist() {
+        if (!properties.getLearning().isEnabled()) {
+            return;
+        }
+        long cutoff =
+                System.currentTimeMillis()
+                        - Duration.ofDays(properties.getLearning().getRetentionDays()).toMillis();
+        List<LearnedSignatureEntity> dirty = new ArrayList<>();
+        for (Map.Entry<String, Learned> e : learned.entrySet()) {
+            Learned entry = e.getValue();
+            if (entry.lastSeenMillis < cutoff) {
+                if (learned.remove(e.getKey(), entry)) {
+                    pendingDeletes.add(entry.hash);
+                }
+            } else if (entry.dirty) {
+                entry.dirty = false;
+                dirty.add(toEntity(e.getKey(), entry));
+            }
+        }
+        List<String> deletes = new ArrayList<>();
+        for (String hash; (hash = pendingDeletes.poll()) != null; ) {
+            deletes.add(hash);
+        }
+        try {
+            if (!deletes.isEmpty()) {
+                learnedSignatureJpaRepository.deleteAllByIdInBatch(deletes);
+            }
+            if (!dirty.isEmpty()) {
+                learnedSignatureJpaRepository.saveAll(dirty);
+            }
+        } catch (Exception e) {
+            // Keep the learned set in memory; it is retried once the entries change again.
+            persistFailureCount.incrementAndGet();
+            log.warn("[MON-CACHE-LEARN] persist failed: {}", e.toString());
+        }
+    }
+
+    public Map<String, Object> stats() {
+        return Map.of(
+                "enabled", properties.getLearning().isEnabled(),
+                "signatures", learned.size(),
+                "observedCount", observedCount.get(),
+                "evictedCount", evictedCount.get(),
+                "persistFailureCount", persistFailureCount.get());
+    }
+
+    private void evictColdest(String keep) {
+        Comparator<Map.Entry<String, Learned>> coldestFirst =
+                Comparator.comparingLong(
+                                (Map.Entry<String, Learned> e) -> e.getValue().hits.get())
+                        .thenComparingLong(e -> e.getValue().lastSeenMillis);
+        learned.entrySet().stream()
+                .filter(e -> !e.getKey().equals(keep))
+                .min(coldestFirst)
+                .ifPresent(
+                        coldest -> {
+                            if (learned.remove(coldest.getKey(), coldest.getValue())) {
+                                pendingDeletes.add(coldest.getValue().hash);
+                                evictedCount.incrementAndGet();
+                            }
+                        });
+    }
+
+    private LearnedSignatureEntity toEntity(String signature, Learned entry) {
+        String json;
+        try {
+            json = objectMapper.writeValueAsString(entry.template);
+        } catch (Exception e) {
+            throw new IllegalStateException("cannot serialize learned request", e);
+        }
+        return LearnedSignatureEntity.builder()
+                .signatureHash(entry.hash)
+                .signature(signature)
+                .requestJson(json)
+                .hitCount(entry.hits.get())
+                .lastSeenAt(Instant.ofEpochMilli(entry.lastSeenMillis))
+                .build();
+    }
+
+    /** Copy of {@code req} without the ns/infra/node conditions the warmer adds per VM. */
+    static MetricRequestDTO templateOf(MetricRequestDTO req) {
+        MetricRequestDTO template = copy(req);
+        if (template.getConditions() != null) {
+            template.getConditions()
+                    .removeIf(
+                            c ->
+                                    c == null
+                                            || c.getKey() == null
+                                            || KEY_CONDITIONS.contains(
+                                                    c.getKey().trim().toLowerCase()));
+        }
+        return template;
+    }
+
+    static MetricRequestDTO copy(MetricRequestDTO req) {
+        MetricRequestDTO out = new MetricRequestDTO();
+        out.setMeasurement(req.getMeasurement());
+        out.setRange(req.getRange());
+        out.setGroupTime(req.getGroupTime());
+        out.setLimit(req.getLimit());
+        out.setGroupBy(req.getGroupBy() == null ? null : new ArrayList<>(req.getGroupBy()));
+        if (req.getFields() != null) {
+            List<MetricRequestDTO.FieldInfo> fields = new ArrayList<>(req.getFields().size());
+            for (MetricRequestDTO.FieldInfo f : req.getFields()) {
+                if (f == null) {
+                    continue;
+                }
+                MetricRequestDTO.FieldInfo c = new MetricRequestDTO.FieldInfo();
+                c.setFunction(f.getFunction());
+                c.setField(f.getField());
+                fields.add(c);
+            }
+            out.setFields(fields);
+        }
+        // the warmer and InfluxDbServiceImpl append key conditions, so always hand out a list
+        List<MetricRequestDTO.ConditionInfo> conditions = new ArrayList<>();
+        if (req.getConditions() != null) {
+            for (MetricRequestDTO.ConditionInfo c : req.getConditions()) {
+                if (c == null) {
+                    continue;
+                }
+                MetricRequestDTO.ConditionInfo copy = new MetricRequestDTO.ConditionInfo();
+                copy.setKey(c.getKey());
+                copy.setValue(c.getValue());
+                conditions.add(copy);
+            }
+        }
+        out.setConditions(conditions);
+        return out;
+    }
+
+    private static String sha256(String s) {
+        try {
+            MessageDigest md = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(md.digest(s.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static final class Learned {
+        final String hash;
+        final MetricRequestDTO template;
+        final AtomicLong hits = new AtomicLong();
+        volatile long lastSeenMillis;
+        volatile boolean dirty;
+
+        Learned(String hash, MetricRequestDTO template) {
+            this.hash = hash;
+            this.template = template;
+        }
+    }
+}
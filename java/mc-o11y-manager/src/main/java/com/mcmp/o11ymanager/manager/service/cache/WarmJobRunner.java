@@ -0,0 +1,445 @@
+package com.mcmp.o11ymanager.manager.service.cache;
+
+import com.mcmp.o11ymanager.manager.config.WarmRunnerProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.support.CronExpression;
+import org.springframework.stereotype.Component;
+
+/**
+ * Runs the tasks of one warm-job tick with a budget, a deadline and adaptive concurrency, so cache
+ * warming backs off instead of piling onto a slow InfluxDB or cb-spider.
+ *
+ * <ul>
+ *   <li>A run of a job is skipped while the previous run of the same job is still going.
+ *   <li>Only the first {@code budget} tasks run (callers pass them in priority order) and
+ *       dispatching stops at the job's deadline; the rest is counted as skipped. The deadline is
+ *       the job's cron period minus {@code deadline-margin-seconds}, unless {@code
+ *       job-max-run-seconds} sets one for the job.
+ *   <li>Concurrency per {@link Downstream} follows AIMD: +1 per window of fast successes, halved
+ *       (at most once per observed latency) on a failure or a response slower than the target.
+ * </ul>
+ *
+ * <p>Run duration, task outcomes, skipped runs, backlog and the current limits are published as
+ * {@code o11y.cache.warm.*} meters on the actuator metrics endpoint.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class WarmJobRunner {
+
+    /** Downstream systems with their own concurrency limit. */
+    public enum Downstream {
+        INFLUX,
+        SPIDER
+    }
+
+    /** Outcome of one {@link #run} call. */
+    public record RunResult(boolean skipped, int ok, int failed, int dropped, long tookMs) {
+        static RunResult skippedRun() {
+            return new RunResult(true, 0, 0, 0, 0L);
+        }
+    }
+
+    private final WarmRunnerProperties properties;
+    private final MeterRegistry meterRegistry;
+
+    private ThreadPoolExecutor executor;
+    private final Map<Downstream, AimdLimit> limits = new EnumMap<>(Downstream.class);
+    private final Map<String, JobState> jobs = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    void init() {
+        int threads = Math.max(1, properties.getThreads());
+        AtomicInteger counter = new AtomicInteger();
+        ThreadFactory factory =
+                r -> {
+                    Thread t = new Thread(r, "cache-warm-" + counter.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                };
+        executor =
+                new ThreadPoolExecutor(
+                        threads,
+                        threads,
+                        60L,
+                        TimeUnit.SECONDS,
+                        new LinkedBlockingQueue<>(),
+                        factory);
+        executor.allowCoreThreadTimeOut(true);
+
+        limits.put(Downstream.INFLUX, new AimdLimit(properties.getInflux()));
+        limits.put(Downstream.SPIDER, new AimdLimit(properties.getSpider()));
+        for (Map.Entry<Downstream, AimdLimit> e : limits.entrySet()) {
+            AimdLimit limit = e.getValue();
+            String downstream = e.getKey().name().toLowerCase();
+            Gauge.builder("o11y.cache.warm.concurrency.limit", limit, AimdLimit::current)
+                    .tag("downstream", downstream)
+                    .register(meterRegistry);
+            Gauge.builder("o11y.cache.warm.in.flight", limit, AimdLimit::inFlight)
+                    .tag("downstream", downstream)
+                    .register(meterRegistry);
+        }
+        log.info(
+                "[CACHE-WARM-RUNNER] threads={}, deadlineMarginSec={}, jobMaxRunSec={},"
+                        + " influx={}, spider={}",
+                threads,
+                properties.getDeadlineMarginSeconds(),
+                properties.getJobMaxRunSeconds(),
+                limits.get(Downstream.INFLUX),
+                limits.get(Downstream.SPIDER));
+    }
+
+    @PreDestroy
+    void shutdown() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Runs {@code tasks} for {@code job} and waits for the dispatched ones to finish. If the
+     * calling thread is interrupted, dispatched tasks that haven't started are dropped and running
+     * ones are interrupted.
+     *
+     * <p>A task reports failure by throwing; the failure counts against the downstream and halves
+     * its concurrency limit. A task that catches an error to log or count it must rethrow it, or
+     * the runner keeps warming at full speed against a failing downstream.
+     *
+     * @param cron the job's schedule, from which its run deadline is derived
+     * @param maxConcurrency cap for this job on top of the downstream's adaptive limit
+     * @param budget maximum number of tasks to run this tick; {@code <= 0} means no cap
+     */
+    public RunResult run(
+            String job,
+            String cron,
+            Downstream downstream,
+            int maxConcurrency,
+            int budget,
+            List<? extends Runnable> tasks) {
+        JobState state = jobs.computeIfAbsent(job, this::newJobState);
+        if (!state.running.compareAndSet(false, true)) {
+            state.skippedRuns.increment();
+            log.warn("[CACHE-WARM-RUNNER:{}] previous run still in progress, skipping tick", job);
+            return RunResult.skippedRun();
+        }
+        long started = System.nanoTime();
+        try {
+            return dispatch(
+                    job,
+                    state,
+                    limits.get(downstream),
+                    maxRunSeconds(job, cron),
+                    maxConcurrency,
+                    budget,
+                    tasks);
+        } finally {
+            state.backlog.set(0);
+            state.running.set(false);
+            state.duration.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> out = new LinkedHashMap<>();
+        out.put("threads", executor.getPoolSize());
+        out.put("queued", executor.getQueue().size());
+        Map<String, Object> byDownstream = new LinkedHashMap<>();
+        limits.forEach((d, l) -> byDownstream.put(d.name().toLowerCase(), l.stats()));
+        out.put("downstreams", byDownstream);
+        Map<String, Object> byJob = new LinkedHashMap<>();
+        jobs.forEach((name, s) -> byJob.put(name, s.stats()));
+        out.put("jobs", byJob);
+        return out;
+    }
+
+    /**
+     * Run deadline of {@code job}: the per-job override if set, otherwise the gap between the next
+     * two ticks of {@code cron} minus the margin (at least half the gap).
+     */
+    long maxRunSeconds(String job, String cron) {
+        Long override = properties.getJobMaxRunSeconds().get(job);
+        if (override != null) {
+            return Math.max(1L, override);
+        }
+        try {
+            CronExpression expression = CronExpression.parse(cron);
+            ZonedDateTime next = expression.next(ZonedDateTime.now());
+            ZonedDateTime after = next == null ? null : expression.next(next);
+            if (after != null) {
+                long period = Duration.between(next, after).toSeconds();
+                return Math.max(
+                        Math.max(1L, period / 2),
+                        period - Math.max(0L, properties.getDeadlineMarginSeconds()));
+            }
+        } catch (IllegalArgumentException | NullPointerException e) {
+            log.warn("[CACHE-WARM-RUNNER:{}] cannot derive deadline from cron '{}'", job, cron);
+        }
+        return Math.max(1L, properties.getMaxRunSeconds());
+    }
+
+    private RunResult dispatch(
+            String job,
+            JobState state,
+            AimdLimit limit,
+            long maxRunSeconds,
+            int maxConcurrency,
+            int budget,
+            List<? extends Runnable> tasks) {
+        long started = System.nanoTime();
+        long deadline = started + TimeUnit.SECONDS.toNanos(maxRunSeconds);
+        int selected = budget > 0 ? Math.min(budget, tasks.size()) : tasks.size();
+        int permits = Math.max(1, maxConcurrency);
+        Semaphore jobSlots = new Semaphore(permits);
+        AtomicInteger ok = new AtomicInteger();
+        AtomicInteger failed = new AtomicInteger();
+        List<Dispatched> handedOut = new ArrayList<>();
+        int dispatched = 0;
+        int cancelled = 0;
+        state.backlog.set(selected);
+
+        try {
+            for (; dispatched < selected; dispatched++) {
+                long remaining = deadline - System.nanoTime();
+                if (!jobSlots.tryAcquire(Math.max(0L, remaining), TimeUnit.NANOSECONDS)) {
+                    break;
+                }
+                if (!limit.acquire(deadline)) {
+                    jobSlots.release();
+                    break;
+                }
+                Runnable task = tasks.get(dispatched);
+                state.backlog.decrementAndGet();
+                AtomicBoolean claimed = new AtomicBoolean();
+                Future<?> future =
+                        executor.submit(
+                                () -> {
+                                    if (!claimed.compareAndSet(false, true)) {
+                                        return; // cancelled before it started; slots already freed
+                                    }
+                                    runTask(task, limit, jobSlots, ok, failed);
+                                });
+                handedOut.add(new Dispatched(future, claimed));
+            }
+            // every dispatched task holds a slot until it finishes
+            jobSlots.acquire(permits);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("[CACHE-WARM-RUNNER:{}] interrupted, cancelling dispatched tasks", job);
+            // claim every queued task before interrupting the running ones, whose threads would
+            // otherwise pick up the next queued task
+            for (Dispatched d : handedOut) {
+                if (d.claimed().compareAndSet(false, true)) {
+                    limit.abandon();
+                    jobSlots.release();
+                    cancelled++;
+                }
+            }
+            handedOut.forEach(d -> d.future().cancel(true));
+        }
+
+        int dropped = tasks.size() - dispatched + cancelled;
+        state.tasksOk.increment(ok.get());
+        state.tasksFailed.increment(failed.get());
+        state.tasksSkipped.increment(dropped);
+        long tookMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+        if (dispatched < selected && !Thread.currentThread().isInterrupted()) {
+            log.warn(
+                    "[CACHE-WARM-RUNNER:{}] deadline reached after {}/{} tasks, limit={}",
+                    job,
+                    dispatched,
+                    selected,
+                    limit);
+        }
+        return new RunResult(false, ok.get(), failed.get(), dropped, tookMs);
+    }
+
+    private static void runTask(
+            Runnable task,
+            AimdLimit limit,
+            Semaphore jobSlots,
+            AtomicInteger ok,
+            AtomicInteger failed) {
+        long t0 = System.nanoTime();
+        boolean success = false;
+        try {
+            task.run();
+            success = true;
+            ok.incrementAndGet();
+        } catch (RuntimeException e) {
+            failed.incrementAndGet();
+        } finally {
+            limit.release(System.nanoTime() - t0, success);
+            jobSlots.release();
+        }
+    }
+
+    /** A handed-out task; {@code claimed} decides whether the task or the canceller frees it. */
+    private record Dispatched(Future<?> future, AtomicBoolean claimed) {}
+
+    private JobState newJobState(String job) {
+        JobState s =
+                new JobState(
+                        Timer.builder("o11y.cache.warm.duration")
+                                .tag("job", job)
+                                .register(meterRegistry),
+                        taskCounter(job, "ok"),
+                        taskCounter(job, "failed"),
+                        taskCounter(job, "skipped"),
+                        Counter.builder("o11y.cache.warm.runs.skipped")
+                                .tag("job", job)
+                                .register(meterRegistry));
+        Gauge.builder("o11y.cache.warm.backlog", s.backlog, AtomicInteger::get)
+                .tag("job", job)
+                .register(meterRegistry);
+        return s;
+    }
+
+    private Counter taskCounter(String job, String outcome) {
+        return Counter.builder("o11y.cache.warm.tasks")
+                .tag("job", job)
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    private record JobState(
+            Timer duration,
+            Counter tasksOk,
+            Counter tasksFailed,
+            Counter tasksSkipped,
+            Counter skippedRuns,
+            AtomicBoolean running,
+            AtomicInteger backlog) {
+
+        JobState(
+                Timer duration,
+                Counter tasksOk,
+                Counter tasksFailed,
+                Counter tasksSkipped,
+                Counter skippedRuns) {
+            this(
+                    duration,
+                    tasksOk,
+                    tasksFailed,
+                    tasksSkipped,
+                    skippedRuns,
+                    new AtomicBoolean(),
+                    new AtomicInteger());
+        }
+
+        Map<String, Object> stats() {
+            return Map.of(
+                    "running", running.get(),
+                    "backlog", backlog.get(),
+                    "runs", duration.count(),
+                    "meanMs", duration.mean(TimeUnit.MILLISECONDS),
+                    "maxMs", duration.max(TimeUnit.MILLISECONDS),
+                    "tasksOk", (long) tasksOk.count(),
+                    "tasksFailed", (long) tasksFailed.count(),
+                    "tasksSkipped", (long) tasksSkipped.count(),
+                    "skippedRuns", (long) skippedRuns.count());
+        }
+    }
+
+    /** Additive-increase / multiplicative-decrease concurrency limit. */
+    static final class AimdLimit {
+
+        private final int min;
+        private final int max;
+        private final long targetNanos;
+        private double limit;
+        private int inFlight;
+        private long lastDecreaseNanos;
+        private final AtomicLong decreaseCount = new AtomicLong();
+
+        AimdLimit(WarmRunnerProperties.Limit cfg) {
+            this.min = Math.max(1, cfg.getMin());
+            this.max = Math.max(min, cfg.getMax());
+            this.targetNanos =
+                    TimeUnit.MILLISECONDS.toNanos(Math.max(1L, cfg.getTargetLatencyMs()));
+            this.limit = Math.max(min, Math.min(max, cfg.getInitial()));
+            this.lastDecreaseNanos = System.nanoTime() - targetNanos;
+        }
+
+        /** Waits for a slot under the current limit; {@code false} once the deadline passes. */
+        synchronized boolean acquire(long deadlineNanos) throws InterruptedException {
+            while (inFlight >= (int) limit) {
+                long remaining = deadlineNanos - System.nanoTime();
+                if (remaining <= 0) {
+                    return false;
+                }
+                TimeUnit.NANOSECONDS.timedWait(this, remaining);
+            }
+            inFlight++;
+            return true;
+        }
+
+        synchronized void release(long latencyNanos, boolean success) {
+            inFlight--;
+            long now = System.nanoTime();
+            if (!success || latencyNanos > targetNanos) {
+                // Requests already in flight when the downstream slowed down report late too;
+                // one decrease per latency window keeps a single slowdown from collapsing to min.
+                if (now - lastDecreaseNanos > latencyNanos) {
+                    limit = Math.max(min, limit / 2);
+                    lastDecreaseNanos = now;
+                    decreaseCount.incrementAndGet();
+                }
+            } else {
+                limit = Math.min(max, limit + 1.0 / limit);
+            }
+            notifyAll();
+        }
+
+        /** Frees a slot taken for a task that never ran, without adapting the limit. */
+        synchronized void abandon() {
+            inFlight--;
+            notifyAll();
+        }
+
+        synchronized double current() {
+            return limit;
+        }
+
+        synchronized int inFlight() {
+            return inFlight;
+        }
+
+        synchronized Map<String, Object> stats() {
+            return Map.of(
+                    "limit", (int) limit,
+                    "inFlight", inFlight,
+                    "min", min,
+                    "max", max,
+                    "decreaseCount", decreaseCount.get());
+        }
+
+        @Override
+        public synchronized String toString() {
+            return (int) limit + "/" + max;
+        }
+    }
+}
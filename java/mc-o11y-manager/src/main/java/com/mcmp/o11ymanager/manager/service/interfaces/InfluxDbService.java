@@ -28,6 +28,20 @@ public interface InfluxDbService {
     List<MetricDTO> getMetricsByVM(
             String nsId, String infraId, String nodeId, MetricRequestDTO req);
 
+    /**
+     * {@link #getMetricsByVM} for cache warmers: a cached result is extended with the points
+     * written since it was loaded instead of being returned as is.
+     */
+    List<MetricDTO> refreshMetricsByVM(
+            String nsId, String infraId, String nodeId, MetricRequestDTO req);
+
+    /**
+     * Runs several metric requests for one MCI ({@code nodeId == null}) or one VM at once. The
+     * result holds one series list per request, in request order.
+     */
+    List<List<MetricDTO>> getMetricsBatch(
+            String nsId, String infraId, String nodeId, List<MetricRequestDTO> reqs);
+
     List<InfluxDTO> rawServers();
 
     InfluxDTO resolveInfluxDto(String nsId, String infraId);
@@ -37,4 +51,7 @@ public interface InfluxDbService {
      * configured InfluxDB instance. Used by the cache warmer to discover VMs to pre-load.
      */
     List<VmRef> discoverActiveVms();
+
+    /** Same as {@link #discoverActiveVms()} for VMs that reported within {@code window}. */
+    List<VmRef> discoverActiveVms(String window);
 }
@@ -1,10 +1,14 @@
 package com.mcmp.o11ymanager.manager.service.interfaces;
 
 import com.mcmp.o11ymanager.manager.enums.Agent;
+import com.mcmp.o11ymanager.manager.model.agentHealth.BatchCommandReport;
+import com.mcmp.o11ymanager.manager.model.agentHealth.HostCommandResult;
 import com.mcmp.o11ymanager.manager.model.agentHealth.SshConnection;
+import com.mcmp.o11ymanager.manager.model.agentHealth.SshTarget;
 import java.io.IOException;
 import java.nio.file.Path;
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface SshService {
 
@@ -20,6 +24,19 @@ public interface SshService {
     String runCommandWithPrivateKeyString(
             String ip, int port, String user, String privateKeyContent, String command);
 
+    /**
+     * Runs {@code script} on every target concurrently and returns once each host has answered,
+     * succeeded, failed or timed out. Hosts worked on at once are capped server-wide by {@code
+     * ssh.batch.max-concurrency}; each host gets {@code ssh.batch.host-timeout-ms} from the moment
+     * it starts, and the whole call returns within {@code ssh.batch.batch-timeout-ms}.
+     *
+     * <p>{@code onResult} is called once per host as soon as it finishes or times out, on a
+     * dedicated callback thread, so callers can stream progress. The returned report lists the
+     * results in target order.
+     */
+    BatchCommandReport runBatch(
+            List<SshTarget> targets, String script, Consumer<HostCommandResult> onResult);
+
     boolean isEnable(Agent agent, String ip, int port, String user, SshConnection sshConnection);
 
     void removeConnection(String ip, int port, String user);
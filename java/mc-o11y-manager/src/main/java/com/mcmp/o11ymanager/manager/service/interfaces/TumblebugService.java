@@ -2,6 +2,8 @@ package com.mcmp.o11ymanager.manager.service.interfaces;
 
 import com.mcmp.o11ymanager.manager.dto.tumblebug.TumblebugInfra;
 import com.mcmp.o11ymanager.manager.enums.Agent;
+import java.util.Collection;
+import java.util.Map;
 
 public interface TumblebugService {
 
@@ -13,5 +15,22 @@ public interface TumblebugService {
 
     boolean isServiceActive(String nsId, String infraId, String nodeId, Agent agent);
 
+    /**
+     * Checks several agents of one node with a single remote command. Agents whose probe could not
+     * be read are reported inactive, as {@link #isServiceActive} does.
+     */
+    Map<Agent, Boolean> areServicesActive(
+            String nsId, String infraId, String nodeId, Collection<Agent> agents);
+
+    /**
+     * Checks the systemd agents of several nodes of one infra with a single infra-scoped remote
+     * command. Returns states per node id; nodes that sent back no result are absent.
+     */
+    Map<String, Map<Agent, Boolean>> areServicesActiveOnInfra(
+            String nsId, String infraId, Collection<String> nodeIds, Collection<Agent> agents);
+
     String restart(String nsId, String infraId, String nodeId, Agent agent);
+
+    /** Forgets cached Tumblebug reads of one infra, so the next lookup sees node changes. */
+    void invalidateInfra(String nsId, String infraId);
 }
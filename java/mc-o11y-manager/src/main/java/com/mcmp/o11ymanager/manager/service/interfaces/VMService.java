@@ -6,11 +6,15 @@ import com.mcmp.o11ymanager.manager.exception.host.HostAgentTaskProcessingExcept
 import com.mcmp.o11ymanager.manager.model.host.VMAgentTaskStatus;
 import com.mcmp.o11ymanager.manager.model.host.VMStatus;
 import java.util.List;
-import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.Lock;
 
 public interface VMService {
 
-    ReentrantLock getHostLock(String nsId, String infraId, String nodeId);
+    /** Exclusive lock of one host, for changes (register, install, config edits, delete). */
+    Lock getHostLock(String nsId, String infraId, String nodeId);
+
+    /** Shared lock of one host: reads run concurrently with each other, but not with changes. */
+    Lock getHostReadLock(String nsId, String infraId, String nodeId);
 
     VMDTO get(String nsId, String infraId, String nodeId);
 
@@ -21,6 +21,7 @@ import com.mcmp.o11ymanager.manager.exception.vm.VMAgentTaskProcessingException;
 import com.mcmp.o11ymanager.manager.global.aspect.request.RequestInfo;
 import com.mcmp.o11ymanager.manager.model.host.VMAgentTaskStatus;
 import com.mcmp.o11ymanager.manager.model.semaphore.Task;
+import com.mcmp.o11ymanager.manager.service.cache.AgentStatusCache;
 import com.mcmp.o11ymanager.manager.service.domain.BeylaSystemRequirementValidator;
 import com.mcmp.o11ymanager.manager.service.domain.SemaphoreDomainService;
 import com.mcmp.o11ymanager.manager.service.interfaces.TumblebugService;
@@ -43,6 +44,7 @@ class BeylaFacadeServiceTest {
     @Mock private SemaphoreDomainService semaphoreDomainService;
     @Mock private SchedulerFacadeService schedulerFacadeService;
     @Mock private TumblebugService tumblebugService;
+    @Mock private AgentStatusCache agentStatusCache;
     @Mock private BeylaSystemRequirementValidator beylaSystemRequirementValidator;
     @Mock private BeylaConfigFacadeService beylaConfigFacadeService;
 
@@ -20,6 +20,7 @@ import com.mcmp.o11ymanager.manager.exception.vm.VMAgentTaskProcessingException;
 import com.mcmp.o11ymanager.manager.global.aspect.request.RequestInfo;
 import com.mcmp.o11ymanager.manager.model.host.VMAgentTaskStatus;
 import com.mcmp.o11ymanager.manager.model.semaphore.Task;
+import com.mcmp.o11ymanager.manager.service.cache.AgentStatusCache;
 import com.mcmp.o11ymanager.manager.service.domain.SemaphoreDomainService;
 import com.mcmp.o11ymanager.manager.service.interfaces.TumblebugService;
 import com.mcmp.o11ymanager.manager.service.interfaces.VMService;
@@ -41,6 +42,7 @@ class OtelJavaFacadeServiceTest {
     @Mock private SemaphoreDomainService semaphoreDomainService;
     @Mock private SchedulerFacadeService schedulerFacadeService;
     @Mock private TumblebugService tumblebugService;
+    @Mock private AgentStatusCache agentStatusCache;
     @Mock private OtelJavaConfigFacadeService otelJavaConfigFacadeService;
 
     @InjectMocks private OtelJavaFacadeService otelJavaFacadeService;
@@ -13,6 +13,7 @@ import com.mcmp.o11ymanager.manager.model.host.VMAgentTaskStatus;
 import com.mcmp.o11ymanager.manager.model.semaphore.Project;
 import com.mcmp.o11ymanager.manager.model.semaphore.Task;
 import com.mcmp.o11ymanager.manager.port.SemaphorePort;
+import com.mcmp.o11ymanager.manager.service.cache.AgentStatusCache;
 import com.mcmp.o11ymanager.manager.service.interfaces.VMService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -28,6 +29,7 @@ class SchedulerFacadeServiceTest {
 
     @Mock private SemaphorePort semaphorePort;
     @Mock private VMService vmService;
+    @Mock private AgentStatusCache agentStatusCache;
 
     @InjectMocks private SchedulerFacadeService schedulerFacadeService;
 
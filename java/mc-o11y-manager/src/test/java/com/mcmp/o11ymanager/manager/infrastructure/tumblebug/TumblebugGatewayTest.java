@@ -0,0 +1,164 @@
+package com.mcmp.o11ymanager.manager.infrastructure.tumblebug;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.mcmp.o11ymanager.manager.config.TumblebugGatewayProperties;
+import com.mcmp.o11ymanager.manager.dto.tumblebug.TumblebugInfra;
+import com.mcmp.o11ymanager.manager.dto.tumblebug.TumblebugSshKey;
+import com.mcmp.o11ymanager.manager.exception.tumblebug.TumblebugRateLimitException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class TumblebugGatewayTest {
+
+    @Mock private TumblebugClientAdapter delegate;
+
+    private TumblebugGatewayProperties properties;
+    private TumblebugGateway gateway;
+
+    @BeforeEach
+    void setUp() {
+        properties = new TumblebugGatewayProperties();
+        properties.getRateLimit().setEnabled(false);
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        gateway =
+                new TumblebugGateway(
+                        delegate,
+                        new TumblebugRateLimiter(properties, registry),
+                        properties,
+                        registry);
+    }
+
+    private static TumblebugInfra.Node node(String id) {
+        TumblebugInfra.Node n = new TumblebugInfra.Node();
+        n.setId(id);
+        return n;
+    }
+
+    private static TumblebugInfra infra(TumblebugInfra.Node... nodes) {
+        TumblebugInfra infra = new TumblebugInfra();
+        infra.setId("mci-1");
+        infra.setNode(nodes);
+        return infra;
+    }
+
+    @Test
+    @DisplayName("노드 캐시 미스 시 인프라를 한 번 불러와 모든 노드를 캐시한다")
+    void prefetchesInfraOnNodeMiss() {
+        when(delegate.getInfra("ns-1", "mci-1")).thenReturn(infra(node("vm-1"), node("vm-2")));
+
+        assertThat(gateway.getNode("ns-1", "mci-1", "vm-1").getId()).isEqualTo("vm-1");
+        assertThat(gateway.getNode("ns-1", "mci-1", "vm-2").getId()).isEqualTo("vm-2");
+
+        verify(delegate, times(1)).getInfra("ns-1", "mci-1");
+        verify(delegate, never()).getNode("ns-1", "mci-1", "vm-1");
+    }
+
+    @Test
+    @DisplayName("인프라에 없는 노드는 개별 조회로 대체한다")
+    void fallsBackToNodeLookup() {
+        when(delegate.getInfra("ns-1", "mci-1")).thenReturn(infra(node("vm-1")));
+        when(delegate.getNode("ns-1", "mci-1", "vm-9")).thenReturn(node("vm-9"));
+
+        assertThat(gateway.getNode("ns-1", "mci-1", "vm-9").getId()).isEqualTo("vm-9");
+        assertThat(gateway.getNode("ns-1", "mci-1", "vm-9").getId()).isEqualTo("vm-9");
+
+        verify(delegate, times(1)).getNode("ns-1", "mci-1", "vm-9");
+    }
+
+    @Test
+    @DisplayName("진행 중인 같은 조회는 다시 보내지 않고 결과를 공유한다")
+    void coalescesConcurrentCalls() throws Exception {
+        properties.getCache().setEnabled(false);
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        TumblebugSshKey key = new TumblebugSshKey();
+        when(delegate.getSshKey("ns-1", "key-1"))
+                .thenAnswer(
+                        inv -> {
+                            entered.countDown();
+                            release.await(5, TimeUnit.SECONDS);
+                            return key;
+                        });
+
+        CompletableFuture<TumblebugSshKey> first =
+                CompletableFuture.supplyAsync(() -> gateway.getSshKey("ns-1", "key-1"));
+        assertThat(entered.await(5, TimeUnit.SECONDS)).isTrue();
+        CompletableFuture<TumblebugSshKey> second =
+                CompletableFuture.supplyAsync(() -> gateway.getSshKey("ns-1", "key-1"));
+        Thread.sleep(100L);
+        release.countDown();
+
+        assertThat(first.get(5, TimeUnit.SECONDS)).isSameAs(key);
+        assertThat(second.get(5, TimeUnit.SECONDS)).isSameAs(key);
+        verify(delegate, times(1)).getSshKey("ns-1", "key-1");
+    }
+
+    @Test
+    @DisplayName("인프라를 무효화하면 그 인프라의 노드를 다시 불러온다")
+    void invalidateReloadsInfra() {
+        when(delegate.getInfra("ns-1", "mci-1"))
+                .thenReturn(infra(node("vm-1")), infra(node("vm-1"), node("vm-2")));
+
+        gateway.getNode("ns-1", "mci-1", "vm-1");
+        gateway.invalidate("ns-1", "mci-1");
+
+        assertThat(gateway.getNode("ns-1", "mci-1", "vm-2").getId()).isEqualTo("vm-2");
+        verify(delegate, times(2)).getInfra("ns-1", "mci-1");
+        verify(delegate, never()).getNode("ns-1", "mci-1", "vm-2");
+    }
+
+    @Test
+    @DisplayName("조회 중에 무효화되면 그 조회 결과는 캐시에 남기지 않는다")
+    void loadOvertakenByInvalidateIsNotCached() throws Exception {
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(delegate.getInfra("ns-1", "mci-1"))
+                .thenAnswer(
+                        inv -> {
+                            entered.countDown();
+                            release.await(5, TimeUnit.SECONDS);
+                            return infra(node("vm-1"));
+                        })
+                .thenReturn(infra(node("vm-1"), node("vm-2")));
+
+        CompletableFuture<TumblebugInfra> stale =
+                CompletableFuture.supplyAsync(() -> gateway.getInfra("ns-1", "mci-1"));
+        assertThat(entered.await(5, TimeUnit.SECONDS)).isTrue();
+        gateway.invalidate("ns-1", "mci-1");
+        release.countDown();
+        stale.get(5, TimeUnit.SECONDS);
+
+        assertThat(gateway.getInfra("ns-1", "mci-1").getNode()).hasSize(2);
+        verify(delegate, times(2)).getInfra("ns-1", "mci-1");
+    }
+
+    @Test
+    @DisplayName("토큰 대기가 max-wait-ms를 넘으면 호출을 보내지 않고 예외를 던진다")
+    void rejectsCallBeyondMaxWait() {
+        properties.getRateLimit().setEnabled(true);
+        properties.getRateLimit().setPermitsPerSecond(0.1);
+        properties.getRateLimit().setBurst(1);
+        properties.getRateLimit().setMaxWaitMs(100L);
+        TumblebugRateLimiter limiter =
+                new TumblebugRateLimiter(properties, new SimpleMeterRegistry());
+
+        limiter.acquire();
+
+        assertThatThrownBy(limiter::acquire).isInstanceOf(TumblebugRateLimitException.class);
+    }
+}
@@ -0,0 +1,43 @@
+package com.mcmp.o11ymanager.manager.mapper.influx;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mcmp.o11ymanager.manager.dto.influx.MetricDTO;
+import com.mcmp.o11ymanager.manager.global.vm.ResBody;
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class MetricJsonWriterTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final MetricJsonWriter writer = new MetricJsonWriter(objectMapper);
+
+    @Test
+    @DisplayName("스트리밍 응답은 ResBody 직렬화 결과와 동일한 JSON 이다")
+    void matchesResBodySerialization() throws Exception {
+        Map<String, String> tags = new LinkedHashMap<>();
+        tags.put("cpu", "cpu-total");
+        tags.put("ns_id", "ns-1");
+        List<List<Object>> values = new ArrayList<>();
+        values.add(new ArrayList<>(Arrays.asList("2026-01-01T00:00:00Z", 1.5d)));
+        values.add(new ArrayList<>(Arrays.asList("2026-01-01T00:01:00Z", null)));
+        List<MetricDTO> series =
+                List.of(
+                        new MetricDTO("cpu", List.of("timestamp", "usage_idle"), tags, values),
+                        new MetricDTO("mem", List.of("timestamp"), null, List.of()),
+                        new MetricDTO("disk", List.of("timestamp"), null, null));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        writer.write(out, series);
+
+        assertThat(objectMapper.readTree(out.toByteArray()))
+                .isEqualTo(objectMapper.valueToTree(new ResBody<>(series)));
+    }
+}
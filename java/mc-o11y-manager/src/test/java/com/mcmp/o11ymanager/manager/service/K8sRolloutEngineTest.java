@@ -0,0 +1,225 @@
+package com.mcmp.o11ymanager.manager.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.mcmp.o11ymanager.manager.config.K8sRolloutProperties;
+import com.mcmp.o11ymanager.manager.service.K8sAgentService.NodeResult;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class K8sRolloutEngineTest {
+
+    private K8sRolloutProperties properties;
+    private K8sRolloutEngine engine;
+
+    @BeforeEach
+    void setUp() {
+        properties = new K8sRolloutProperties();
+        engine = new K8sRolloutEngine(properties);
+    }
+
+    @AfterEach
+    void tearDown() {
+        engine.shutdown();
+    }
+
+    private static List<String> nodes(int count) {
+        return IntStream.range(0, count).mapToObj(i -> "node-" + i).toList();
+    }
+
+    private static void pause(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Test
+    @DisplayName("동시에 실행되는 노드 수는 maxInFlight를 넘지 않고, 결과는 노드 순서대로 반환된다")
+    void boundsInFlightAndKeepsOrder() {
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger peak = new AtomicInteger();
+        ConcurrentLinkedQueue<NodeResult> streamed = new ConcurrentLinkedQueue<>();
+
+        List<NodeResult> results =
+                engine.run(
+                        "test",
+                        nodes(12),
+                        3,
+                        null,
+                        node -> {
+                            peak.accumulateAndGet(running.incrementAndGet(), Math::max);
+                            pause(20);
+                            running.decrementAndGet();
+                            return new NodeResult(node, true, "installed");
+                        },
+                        streamed::add);
+
+        assertThat(peak.get()).isBetween(2, 3);
+        assertThat(results).extracting(NodeResult::getNode).isEqualTo(nodes(12));
+        assertThat(results).allMatch(NodeResult::isOk);
+        assertThat(streamed).hasSize(12);
+    }
+
+    @Test
+    @DisplayName("waveSize가 있으면 이전 wave가 끝난 뒤에 다음 wave를 시작한다")
+    void runsWavesOneAfterAnother() {
+        ConcurrentLinkedQueue<String> events = new ConcurrentLinkedQueue<>();
+
+        engine.run(
+                "test",
+                nodes(4),
+                10,
+                2,
+                node -> {
+                    events.add("start " + node);
+                    pause(20);
+                    events.add("end " + node);
+                    return new NodeResult(node, true, "installed");
+                },
+                result -> {});
+
+        List<String> ordered = List.copyOf(events);
+        int lastEndOfFirstWave =
+                Math.max(ordered.indexOf("end node-0"), ordered.indexOf("end node-1"));
+        int firstStartOfSecondWave =
+                Math.min(ordered.indexOf("start node-2"), ordered.indexOf("start node-3"));
+        assertThat(lastEndOfFirstWave).isLessThan(firstStartOfSecondWave);
+    }
+
+    @Test
+    @DisplayName("실패 비율이 임계치를 넘으면 남은 노드는 시작하지 않고 skipped로 보고한다")
+    void abortsOnErrorRatio() {
+        properties.setAbortErrorRatio(0.5);
+        properties.setAbortMinCompleted(2);
+        AtomicInteger started = new AtomicInteger();
+        ConcurrentLinkedQueue<NodeResult> streamed = new ConcurrentLinkedQueue<>();
+
+        List<NodeResult> results =
+                engine.run(
+                        "test",
+                        nodes(10),
+                        1,
+                        null,
+                        node -> {
+                            started.incrementAndGet();
+                            return new NodeResult(node, false, "job did not succeed");
+                        },
+                        streamed::add);
+
+        assertThat(started.get()).isEqualTo(2);
+        assertThat(results).hasSize(10).noneMatch(NodeResult::isOk);
+        assertThat(results.get(9).getMessage()).startsWith("skipped");
+        assertThat(streamed).hasSize(10);
+    }
+
+    @Test
+    @DisplayName("노드 작업이 예외를 던져도 실패 결과로 기록된다")
+    void exceptionBecomesFailedResult() {
+        properties.setAbortErrorRatio(0);
+
+        List<NodeResult> results =
+                engine.run(
+                        "test",
+                        nodes(2),
+                        null,
+                        null,
+                        node -> {
+                            throw new IllegalStateException("kubeconfig not available");
+                        },
+                        result -> {});
+
+        assertThat(results)
+                .extracting(NodeResult::getMessage)
+                .containsOnly("kubeconfig not available");
+    }
+
+    @Test
+    @DisplayName("start는 롤아웃이 끝나기를 기다리지 않고 바로 반환한다")
+    void startReturnsBeforeRolloutEnds() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+
+        CompletableFuture<List<NodeResult>> rollout =
+                engine.start(
+                        "test",
+                        nodes(3),
+                        null,
+                        null,
+                        node -> {
+                            awaitQuietly(release);
+                            return new NodeResult(node, true, "installed");
+                        },
+                        result -> {});
+
+        assertThat(rollout).isNotDone();
+        release.countDown();
+        assertThat(rollout.get(5, TimeUnit.SECONDS)).hasSize(3).allMatch(NodeResult::isOk);
+    }
+
+    @Test
+    @DisplayName("대기 중 인터럽트되면 노드마다 결과를 한 번만 보고하고, 늦게 끝난 노드 결과는 버린다")
+    void interruptReportsEachNodeOnce() throws Exception {
+        CountDownLatch started = new CountDownLatch(2);
+        CountDownLatch release = new CountDownLatch(1);
+        ConcurrentLinkedQueue<NodeResult> streamed = new ConcurrentLinkedQueue<>();
+        AtomicReference<List<NodeResult>> results = new AtomicReference<>();
+        Thread caller =
+                new Thread(
+                        () ->
+                                results.set(
+                                        engine.run(
+                                                "test",
+                                                nodes(2),
+                                                2,
+                                                null,
+                                                node -> {
+                                                    started.countDown();
+                                                    awaitIgnoringInterrupts(release);
+                                                    return new NodeResult(node, true, "late");
+                                                },
+                                                streamed::add)));
+        caller.start();
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+
+        caller.interrupt();
+        caller.join(5_000);
+        release.countDown();
+        pause(100); // let the late workers return
+
+        assertThat(results.get())
+                .hasSize(2)
+                .allMatch(r -> !r.isOk() && r.getMessage().startsWith("skipped"));
+        assertThat(streamed).hasSize(2).noneMatch(NodeResult::isOk);
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /** A node Job that does not react to interrupts, like a blocking k8s API wait. */
+    private static void awaitIgnoringInterrupts(CountDownLatch latch) {
+        while (true) {
+            try {
+                latch.await(5, TimeUnit.SECONDS);
+                return;
+            } catch (InterruptedException e) {
+                // keep waiting
+            }
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.mcmp.o11ymanager.manager.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.fabric8.kubernetes.api.model.Container;
+import io.fabric8.kubernetes.api.model.EnvVar;
+import io.fabric8.kubernetes.api.model.Secret;
+import io.fabric8.kubernetes.api.model.SecretBuilder;
+import io.fabric8.kubernetes.api.model.apps.DaemonSet;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class K8sTelegrafDaemonSetTest {
+
+    private static final String CONF = "[global_tags]\n  node_id = \"${NODE_NAME}\"";
+    private static final Secret SECRET = applied("default", "admin", "s3cret", "100");
+
+    /** The Secret as the API server returns it from the apply. */
+    private static Secret applied(
+            String namespace, String username, String password, String resourceVersion) {
+        return new SecretBuilder(K8sTelegrafDaemonSet.secret(namespace, username, password))
+                .editMetadata()
+                .withUid("6f1c2a9e-uid")
+                .withResourceVersion(resourceVersion)
+                .endMetadata()
+                .build();
+    }
+
+    @Test
+    @DisplayName("DaemonSet은 ConfigMap 설정을 마운트하고 노드 이름을 NODE_NAME으로 전달한다")
+    void daemonSetWiresConfigAndNodeName() {
+        DaemonSet ds = K8sTelegrafDaemonSet.daemonSet("default", "telegraf:1.29.5", CONF, SECRET);
+
+        var podSpec = ds.getSpec().getTemplate().getSpec();
+        Container container = podSpec.getContainers().get(0);
+        assertThat(container.getEnv())
+                .filteredOn(e -> "NODE_NAME".equals(e.getName()))
+                .extracting(EnvVar::getValueFrom)
+                .allMatch(v -> "spec.nodeName".equals(v.getFieldRef().getFieldPath()));
+        assertThat(container.getEnvFrom())
+                .anyMatch(
+                        e ->
+                                K8sTelegrafDaemonSet.SECRET_NAME.equals(
+                                        e.getSecretRef().getName()));
+        assertThat(podSpec.getVolumes())
+                .anyMatch(
+                        v ->
+                                v.getConfigMap() != null
+                                        && K8sTelegrafDaemonSet.CONFIG_NAME.equals(
+                                                v.getConfigMap().getName()));
+        assertThat(ds.getSpec().getSelector().getMatchLabels())
+                .isEqualTo(ds.getSpec().getTemplate().getMetadata().getLabels());
+    }
+
+    @Test
+    @DisplayName("설정이 바뀌면 pod template이 달라져 롤링 업데이트가 일어난다")
+    void configChangeChangesPodTemplate() {
+        DaemonSet before =
+                K8sTelegrafDaemonSet.daemonSet("default", "telegraf:1.29.5", CONF, SECRET);
+        DaemonSet same = K8sTelegrafDaemonSet.daemonSet("default", "telegraf:1.29.5", CONF, SECRET);
+        DaemonSet after =
+                K8sTelegrafDaemonSet.daemonSet(
+                        "default", "telegraf:1.29.5", CONF + "\n[[inputs.mem]]", SECRET);
+
+        assertThat(same.getSpec().getTemplate()).isEqualTo(before.getSpec().getTemplate());
+        assertThat(after.getSpec().getTemplate().getMetadata().getAnnotations())
+                .isNotEqualTo(before.getSpec().getTemplate().getMetadata().getAnnotations());
+    }
+
+    @Test
+    @DisplayName("자격 증명이 바뀌면 pod template이 달라지지만 annotation에 자격 증명이 드러나지 않는다")
+    void credentialChangeChangesPodTemplate() {
+        DaemonSet before =
+                K8sTelegrafDaemonSet.daemonSet("default", "telegraf:1.29.5", CONF, SECRET);
+        DaemonSet after =
+                K8sTelegrafDaemonSet.daemonSet(
+                        "default",
+                        "telegraf:1.29.5",
+                        CONF,
+                        applied("default", "admin", "rotated", "101"));
+
+        var annotations = after.getSpec().getTemplate().getMetadata().getAnnotations();
+        assertThat(annotations)
+                .isNotEqualTo(before.getSpec().getTemplate().getMetadata().getAnnotations());
+        assertThat(annotations.values()).noneMatch(v -> v.contains("rotated"));
+    }
+
+    @Test
+    @DisplayName("InfluxDB 자격 증명은 ConfigMap이 아닌 Secret에 담긴다")
+    void credentialsLiveInSecret() {
+        var secret = K8sTelegrafDaemonSet.secret("default", "admin", "s3cret");
+        var configMap = K8sTelegrafDaemonSet.configMap("default", CONF);
+
+        assertThat(secret.getStringData())
+                .containsEntry("INFLUX_USERNAME", "admin")
+                .containsEntry("INFLUX_PASSWORD", "s3cret");
+        assertThat(configMap.getData().get("telegraf.conf")).doesNotContain("s3cret");
+    }
+}
@@ -0,0 +1,75 @@
+package com.mcmp.o11ymanager.manager.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class LockRegistryTest {
+
+    private SimpleMeterRegistry registry;
+    private LockRegistry locks;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        locks = new LockRegistry(registry);
+    }
+
+    private static boolean tryLockFromOtherThread(Lock lock) throws Exception {
+        return CompletableFuture.supplyAsync(
+                        () -> {
+                            boolean acquired = lock.tryLock();
+                            if (acquired) {
+                                lock.unlock();
+                            }
+                            return acquired;
+                        })
+                .get(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    @DisplayName("잡혀 있는 락은 GC 이후에도 같은 인스턴스로 유지된다")
+    void heldLockSurvivesCollection() throws Exception {
+        Lock held = locks.writeLock("host", "ns-1/mci-1/vm-1");
+        held.lock();
+        try {
+            System.gc();
+            assertThat(tryLockFromOtherThread(locks.writeLock("host", "ns-1/mci-1/vm-1")))
+                    .isFalse();
+        } finally {
+            held.unlock();
+        }
+    }
+
+    @Test
+    @DisplayName("같은 키라도 scope가 다르면 서로 막지 않는다")
+    void scopesAreIndependent() throws Exception {
+        Lock held = locks.writeLock("host", "ns-1/mci-1/vm-1");
+        held.lock();
+        try {
+            assertThat(tryLockFromOtherThread(locks.writeLock("k8s-node", "ns-1/mci-1/vm-1")))
+                    .isTrue();
+        } finally {
+            held.unlock();
+        }
+    }
+
+    @Test
+    @DisplayName("락 획득 대기 시간을 scope와 mode별로 기록한다")
+    void recordsWaitTime() {
+        Lock lock = locks.readLock("host", "ns-1/mci-1/vm-1");
+        lock.lock();
+        lock.unlock();
+
+        assertThat(
+                        registry.timer("o11y.lock.wait", "scope", "host", "mode", "read")
+                                .count())
+                .isEqualTo(1L);
+    }
+}
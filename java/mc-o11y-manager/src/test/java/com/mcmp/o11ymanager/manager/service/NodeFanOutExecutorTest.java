@@ -0,0 +1,87 @@
+package com.mcmp.o11ymanager.manager.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.mcmp.o11ymanager.manager.config.NodeFanOutProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class NodeFanOutExecutorTest {
+
+    private SimpleMeterRegistry registry;
+    private NodeFanOutExecutor executor;
+    private final CountDownLatch hang = new CountDownLatch(1);
+
+    @BeforeEach
+    void setUp() {
+        NodeFanOutProperties properties = new NodeFanOutProperties();
+        properties.setMaxConcurrency(2);
+        properties.setDeadlineMs(300L);
+        registry = new SimpleMeterRegistry();
+        executor = new NodeFanOutExecutor(properties, registry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        hang.countDown();
+        executor.shutdown();
+    }
+
+    private String lookup(String node) {
+        if (node.startsWith("hung")) {
+            try {
+                hang.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        if (node.startsWith("broken")) {
+            throw new IllegalStateException(node);
+        }
+        return node + ":ok";
+    }
+
+    @Test
+    @DisplayName("마감 시간 안에 끝나지 않은 노드는 대체 값으로 채우고 순서를 유지한다")
+    void returnsPartialResultsInOrder() {
+        long start = System.nanoTime();
+
+        List<String> result =
+                executor.map(
+                        List.of("vm-1", "hung-1", "vm-2", "broken-1"),
+                        this::lookup,
+                        node -> node + ":unknown");
+
+        assertThat(result).containsExactly("vm-1:ok", "hung-1:unknown", "vm-2:ok");
+        assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)).isLessThan(2_000L);
+        assertThat(registry.counter("o11y.node.fanout.timeouts").count()).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("호출자가 넘긴 마감 시간이 지났으면 설정된 마감 시간을 새로 주지 않는다")
+    void honoursCallerDeadline() {
+        long start = System.nanoTime();
+
+        List<String> result =
+                executor.map(List.of("hung-1"), this::lookup, node -> node + ":unknown", start);
+
+        assertThat(result).containsExactly("hung-1:unknown");
+        assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)).isLessThan(200L);
+    }
+
+    @Test
+    @DisplayName("중단된 조회의 슬롯은 다음 호출에서 다시 쓸 수 있다")
+    void cancelledLookupsFreeTheirSlots() {
+        executor.map(List.of("hung-1", "hung-2", "hung-3"), this::lookup, node -> null);
+
+        List<String> result = executor.map(List.of("vm-1", "vm-2"), this::lookup, node -> null);
+
+        assertThat(result).containsExactly("vm-1:ok", "vm-2:ok");
+    }
+}
@@ -0,0 +1,171 @@
+package com.mcmp.o11ymanager.manager.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.mcmp.o11ymanager.manager.config.NodeStatusPushProperties;
+import com.mcmp.o11ymanager.manager.dto.vm.NodeStatusDiffDTO;
+import com.mcmp.o11ymanager.manager.dto.vm.VMDTO;
+import com.mcmp.o11ymanager.manager.enums.AgentStatus;
+import com.mcmp.o11ymanager.manager.facade.VMFacadeService;
+import com.mcmp.o11ymanager.manager.service.cache.AgentStatusCache;
+import com.mcmp.o11ymanager.manager.service.interfaces.VMService;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.web.socket.messaging.SessionSubscribeEvent;
+
+@ExtendWith(MockitoExtension.class)
+class NodeStatusPublisherTest {
+
+    private static final String TOPIC = "/topic/nodes/ns-1/mci-1";
+
+    @Mock private VMFacadeService vmFacadeService;
+    @Mock private VMService vmService;
+    @Mock private AgentStatusCache agentStatusCache;
+    @Mock private SimpMessagingTemplate messagingTemplate;
+
+    private NodeStatusPublisher publisher;
+
+    @BeforeEach
+    void setUp() {
+        publisher =
+                new NodeStatusPublisher(
+                        vmFacadeService,
+                        vmService,
+                        agentStatusCache,
+                        messagingTemplate,
+                        new NodeStatusPushProperties());
+        publisher.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        publisher.shutdown();
+    }
+
+    private static VMDTO vm(String nodeId, AgentStatus monitoring) {
+        return VMDTO.builder()
+                .nodeId(nodeId)
+                .nsId("ns-1")
+                .infraId("mci-1")
+                .monitoringAgentStatus(monitoring)
+                .build();
+    }
+
+    private void subscribe(String destination) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.create(StompCommand.SUBSCRIBE);
+        accessor.setSessionId("session-1");
+        accessor.setSubscriptionId("sub-1");
+        accessor.setDestination(destination);
+        publisher.onSubscribe(
+                new SessionSubscribeEvent(
+                        this,
+                        MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders())));
+    }
+
+    @Test
+    @DisplayName("구독 직후에는 전체 목록을, 이후에는 상태가 바뀐 노드만 보낸다")
+    void pushesSnapshotThenOnlyChanges() throws Exception {
+        when(vmFacadeService.getVMsNsMci("ns-1", "mci-1"))
+                .thenReturn(
+                        List.of(vm("vm-1", AgentStatus.SUCCESS), vm("vm-2", AgentStatus.SUCCESS)),
+                        List.of(
+                                vm("vm-1", AgentStatus.SUCCESS),
+                                vm("vm-2", AgentStatus.SERVICE_INACTIVE)));
+        when(vmService.getByNsMci("ns-1", "mci-1"))
+                .thenReturn(List.of(vm("vm-1", null), vm("vm-2", null)));
+
+        subscribe(TOPIC);
+        publisher.flush();
+        verify(messagingTemplate, timeout(2_000)).convertAndSend(eq(TOPIC), (Object) any());
+
+        publisher.poll();
+        for (int i = 0; i < 10; i++) {
+            // a flush that lands while the first push is finishing is retried by the next one
+            publisher.flush();
+            Thread.sleep(50L);
+        }
+        ArgumentCaptor<Object> sent = ArgumentCaptor.forClass(Object.class);
+        verify(messagingTemplate, timeout(2_000).times(2))
+                .convertAndSend(eq(TOPIC), sent.capture());
+
+        NodeStatusDiffDTO first = (NodeStatusDiffDTO) sent.getAllValues().get(0);
+        assertThat(first.isSnapshot()).isTrue();
+        assertThat(first.getNodes()).extracting(VMDTO::getNodeId).containsExactly("vm-1", "vm-2");
+
+        NodeStatusDiffDTO diff = (NodeStatusDiffDTO) sent.getAllValues().get(1);
+        assertThat(diff.isSnapshot()).isFalse();
+        assertThat(diff.getNodes()).extracting(VMDTO::getNodeId).containsExactly("vm-2");
+        assertThat(diff.getRemovedNodeIds()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("상태를 읽지 못해 UNKNOWN이 된 노드는 마지막으로 보낸 상태를 유지한다")
+    void keepsLastStateWhenStatusUnavailable() throws Exception {
+        VMDTO unavailable =
+                VMDTO.builder()
+                        .nodeId("vm-2")
+                        .nsId("ns-1")
+                        .infraId("mci-1")
+                        .monitoringAgentStatus(AgentStatus.UNKNOWN)
+                        .logAgentStatus(AgentStatus.UNKNOWN)
+                        .traceAgentStatus(AgentStatus.UNKNOWN)
+                        .build();
+        when(vmFacadeService.getVMsNsMci("ns-1", "mci-1"))
+                .thenReturn(
+                        List.of(vm("vm-1", AgentStatus.SUCCESS), vm("vm-2", AgentStatus.SUCCESS)),
+                        List.of(vm("vm-1", AgentStatus.SUCCESS), unavailable),
+                        List.of(
+                                vm("vm-1", AgentStatus.SUCCESS),
+                                vm("vm-2", AgentStatus.SERVICE_INACTIVE)));
+        when(vmService.getByNsMci("ns-1", "mci-1"))
+                .thenReturn(List.of(vm("vm-1", null), vm("vm-2", null)));
+
+        subscribe(TOPIC);
+        publisher.flush();
+        verify(messagingTemplate, timeout(2_000)).convertAndSend(eq(TOPIC), (Object) any());
+        for (int round = 0; round < 2; round++) {
+            publisher.poll();
+            for (int i = 0; i < 10; i++) {
+                publisher.flush();
+                Thread.sleep(50L);
+            }
+        }
+
+        ArgumentCaptor<Object> sent = ArgumentCaptor.forClass(Object.class);
+        verify(messagingTemplate, timeout(2_000).times(2))
+                .convertAndSend(eq(TOPIC), sent.capture());
+        NodeStatusDiffDTO diff = (NodeStatusDiffDTO) sent.getAllValues().get(1);
+        // the UNKNOWN round pushed nothing; the next real change diffs against the kept state
+        assertThat(diff.getNodes()).extracting(VMDTO::getNodeId).containsExactly("vm-2");
+        assertThat(diff.getNodes().get(0).getMonitoringAgentStatus())
+                .isEqualTo(AgentStatus.SERVICE_INACTIVE);
+    }
+
+    @Test
+    @DisplayName("구독자가 없는 MCI의 변경 신호는 무시한다")
+    void ignoresUnwatchedMci() {
+        subscribe("/topic/node/ns-1/mci-1/vm-1");
+
+        publisher.markDirty("ns-1", "mci-1");
+        publisher.flush();
+
+        verify(vmFacadeService, times(0)).getVMsNsMci("ns-1", "mci-1");
+    }
+}
@@ -0,0 +1,207 @@
+package com.mcmp.o11ymanager.manager.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.mcmp.o11ymanager.manager.config.SshBatchProperties;
+import com.mcmp.o11ymanager.manager.config.SshPoolProperties;
+import com.mcmp.o11ymanager.manager.facade.FileFacadeService;
+import com.mcmp.o11ymanager.manager.global.aspect.request.RequestInfo;
+import com.mcmp.o11ymanager.manager.model.agentHealth.AgentCommandResult;
+import com.mcmp.o11ymanager.manager.model.agentHealth.BatchCommandReport;
+import com.mcmp.o11ymanager.manager.model.agentHealth.HostCommandResult;
+import com.mcmp.o11ymanager.manager.model.agentHealth.SshConnection;
+import com.mcmp.o11ymanager.manager.model.agentHealth.SshTarget;
+import com.mcmp.o11ymanager.manager.port.SshPort;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class SshServiceImplTest {
+
+    private static final String SCRIPT = "sudo -n systemctl restart cmp-telegraf.service";
+
+    @Mock private FileFacadeService fileFacadeService;
+    @Mock private SshPort sshPort;
+    @Mock private RequestInfo requestInfo;
+    @Mock private SshSessionPool sessionPool;
+
+    private SshBatchProperties batchProperties;
+    private SshServiceImpl sshService;
+
+    @BeforeEach
+    void setUp() {
+        batchProperties = new SshBatchProperties();
+        sshService =
+                new SshServiceImpl(
+                        fileFacadeService,
+                        sshPort,
+                        requestInfo,
+                        sessionPool,
+                        new SshPoolProperties(),
+                        batchProperties);
+        sshService.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        sshService.shutdown();
+    }
+
+    private static SshTarget target(String ip, int port) {
+        return SshTarget.builder()
+                .ip(ip)
+                .port(port)
+                .user("ubuntu")
+                .privateKeyContent("key")
+                .build();
+    }
+
+    private SshConnection connectionTo(String ip) throws IOException {
+        SshConnection connection = mock(SshConnection.class);
+        when(sessionPool.get(eq(ip + ":22:ubuntu"), any())).thenReturn(connection);
+        return connection;
+    }
+
+    @Nested
+    @DisplayName("runBatch")
+    class RunBatch {
+
+        @Test
+        @DisplayName("호스트별 결과를 대상 순서대로 모으고 상태별로 집계한다")
+        void aggregatesResultsPerHost() throws Exception {
+            SshConnection ok = connectionTo("10.0.0.1");
+            SshConnection failing = connectionTo("10.0.0.2");
+            SshConnection hanging = connectionTo("10.0.0.3");
+            when(sessionPool.get(eq("10.0.0.4:22:ubuntu"), any()))
+                    .thenThrow(new IOException("connection refused"));
+            when(sshPort.executeCommand(eq(ok), eq(SCRIPT), anyLong()))
+                    .thenReturn(AgentCommandResult.builder().output("done").exitCode(0).build());
+            when(sshPort.executeCommand(eq(failing), eq(SCRIPT), anyLong()))
+                    .thenReturn(AgentCommandResult.builder().error("denied").exitCode(1).build());
+            when(sshPort.executeCommand(eq(hanging), eq(SCRIPT), anyLong()))
+                    .thenReturn(AgentCommandResult.builder().exitCode(-1).timedOut(true).build());
+
+            List<SshTarget> targets =
+                    List.of(
+                            target("10.0.0.1", 22),
+                            target("10.0.0.2", 22),
+                            target("10.0.0.3", 22),
+                            target("10.0.0.4", 22),
+                            target("10.0.0.5", 5985));
+            ConcurrentLinkedQueue<HostCommandResult> streamed = new ConcurrentLinkedQueue<>();
+
+            BatchCommandReport report = sshService.runBatch(targets, SCRIPT, streamed::add);
+
+            assertThat(report.getResults())
+                    .extracting(HostCommandResult::getIp, HostCommandResult::getStatus)
+                    .containsExactly(
+                            tuple("10.0.0.1", HostCommandResult.Status.SUCCESS),
+                            tuple("10.0.0.2", HostCommandResult.Status.FAILED),
+                            tuple("10.0.0.3", HostCommandResult.Status.TIMEOUT),
+                            tuple("10.0.0.4", HostCommandResult.Status.FAILED),
+                            tuple("10.0.0.5", HostCommandResult.Status.SKIPPED));
+            assertThat(report.getTotal()).isEqualTo(5);
+            assertThat(report.getSucceeded()).isEqualTo(1);
+            assertThat(report.getFailed()).isEqualTo(2);
+            assertThat(report.getTimedOut()).isEqualTo(1);
+            assertThat(report.getSkipped()).isEqualTo(1);
+            assertThat(streamed).hasSize(5);
+        }
+
+        @Test
+        @DisplayName("결과 콜백이 실패해도 배치는 끝까지 진행된다")
+        void callbackFailureDoesNotAbortBatch() throws Exception {
+            SshConnection ok = connectionTo("10.0.0.1");
+            when(sshPort.executeCommand(eq(ok), eq(SCRIPT), anyLong()))
+                    .thenReturn(AgentCommandResult.builder().output("done").exitCode(0).build());
+
+            BatchCommandReport report =
+                    sshService.runBatch(
+                            List.of(target("10.0.0.1", 22)),
+                            SCRIPT,
+                            result -> {
+                                throw new IllegalStateException("listener gone");
+                            });
+
+            assertThat(report.getSucceeded()).isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("연결 단계에서 멈춘 호스트도 호스트 타임아웃이 지나면 TIMEOUT으로 보고하고 세션을 버린다")
+        void hungConnectTimesOut() throws Exception {
+            batchProperties.setHostTimeoutMs(100L);
+            CountDownLatch release = new CountDownLatch(1);
+            when(sessionPool.get(eq("10.0.0.1:22:ubuntu"), any()))
+                    .thenAnswer(
+                            invocation -> {
+                                release.await(5, TimeUnit.SECONDS);
+                                return mock(SshConnection.class);
+                            });
+
+            try {
+                BatchCommandReport report =
+                        sshService.runBatch(List.of(target("10.0.0.1", 22)), SCRIPT, result -> {});
+
+                assertThat(report.getResults())
+                        .extracting(HostCommandResult::getStatus)
+                        .containsExactly(HostCommandResult.Status.TIMEOUT);
+                assertThat(report.getDurationMs()).isLessThan(5_000L);
+                verify(sessionPool).invalidate("10.0.0.1:22:ubuntu");
+            } finally {
+                release.countDown();
+            }
+        }
+
+        @Test
+        @DisplayName("배치 전체 마감이 지나면 아직 끝나지 않은 호스트를 TIMEOUT으로 보고하고 반환한다")
+        void batchDeadlineBoundsTheWholeCall() throws Exception {
+            batchProperties.setBatchTimeoutMs(100L);
+            CountDownLatch release = new CountDownLatch(1);
+            SshConnection ok = connectionTo("10.0.0.1");
+            SshConnection hanging = connectionTo("10.0.0.2");
+            when(sshPort.executeCommand(eq(ok), eq(SCRIPT), anyLong()))
+                    .thenReturn(AgentCommandResult.builder().output("done").exitCode(0).build());
+            when(sshPort.executeCommand(eq(hanging), eq(SCRIPT), anyLong()))
+                    .thenAnswer(
+                            invocation -> {
+                                release.await(5, TimeUnit.SECONDS);
+                                return AgentCommandResult.builder().exitCode(0).build();
+                            });
+
+            try {
+                BatchCommandReport report =
+                        sshService.runBatch(
+                                List.of(target("10.0.0.1", 22), target("10.0.0.2", 22)),
+                                SCRIPT,
+                                result -> {});
+
+                assertThat(report.getResults())
+                        .extracting(HostCommandResult::getStatus)
+                        .containsExactly(
+                                HostCommandResult.Status.SUCCESS,
+                                HostCommandResult.Status.TIMEOUT);
+                assertThat(report.getDurationMs()).isLessThan(5_000L);
+            } finally {
+                release.countDown();
+            }
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package com.mcmp.o11ymanager.manager.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.mcmp.o11ymanager.manager.config.SshPoolProperties;
+import com.mcmp.o11ymanager.manager.model.agentHealth.SshConnection;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class SshSessionPoolTest {
+
+    private SimpleMeterRegistry registry;
+    private SshSessionPool pool;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        pool = new SshSessionPool(new SshPoolProperties(), registry);
+        pool.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        pool.shutdown();
+    }
+
+    private static SshConnection activeConnection() {
+        SshConnection connection = mock(SshConnection.class);
+        when(connection.isActive()).thenReturn(true);
+        return connection;
+    }
+
+    @Test
+    @DisplayName("세션이 없을 때 동시에 요청하면 핸드셰이크는 한 번만 수행된다")
+    void concurrentCallersShareOneHandshake() throws Exception {
+        SshConnection connection = activeConnection();
+        AtomicInteger opens = new AtomicInteger();
+        CountDownLatch opening = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        SshSessionPool.Opener opener =
+                () -> {
+                    opens.incrementAndGet();
+                    opening.countDown();
+                    try {
+                        release.await(5, TimeUnit.SECONDS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    return connection;
+                };
+
+        CompletableFuture<SshConnection> first =
+                CompletableFuture.supplyAsync(() -> getQuietly("10.0.0.1:22:ubuntu", opener));
+        assertThat(opening.await(5, TimeUnit.SECONDS)).isTrue();
+        CompletableFuture<SshConnection> second =
+                CompletableFuture.supplyAsync(() -> getQuietly("10.0.0.1:22:ubuntu", opener));
+        release.countDown();
+
+        assertThat(first.get(5, TimeUnit.SECONDS)).isSameAs(connection);
+        assertThat(second.get(5, TimeUnit.SECONDS)).isSameAs(connection);
+        assertThat(opens).hasValue(1);
+        assertThat(registry.timer("o11y.ssh.handshake").count()).isEqualTo(1L);
+    }
+
+    @Test
+    @DisplayName("살아 있는 세션은 재사용하고, invalidate 이후에는 새로 연결한다")
+    void reusesLiveSessionUntilInvalidated() throws Exception {
+        SshConnection firstConnection = activeConnection();
+        SshConnection secondConnection = activeConnection();
+        AtomicInteger opens = new AtomicInteger();
+        SshSessionPool.Opener opener =
+                () -> opens.incrementAndGet() == 1 ? firstConnection : secondConnection;
+
+        assertThat(pool.get("10.0.0.1:22:ubuntu", opener)).isSameAs(firstConnection);
+        assertThat(pool.get("10.0.0.1:22:ubuntu", opener)).isSameAs(firstConnection);
+
+        pool.invalidate("10.0.0.1:22:ubuntu");
+
+        verify(firstConnection).close();
+        assertThat(pool.get("10.0.0.1:22:ubuntu", opener)).isSameAs(secondConnection);
+        assertThat(opens).hasValue(2);
+    }
+
+    @Test
+    @DisplayName("끊어진 세션은 다음 요청에서 닫고 다시 연결한다")
+    void reconnectsDroppedSession() throws Exception {
+        SshConnection dropped = mock(SshConnection.class);
+        when(dropped.isActive()).thenReturn(false);
+        SshConnection fresh = activeConnection();
+        AtomicInteger opens = new AtomicInteger();
+        SshSessionPool.Opener opener = () -> opens.incrementAndGet() == 1 ? dropped : fresh;
+
+        assertThat(pool.get("10.0.0.1:22:ubuntu", opener)).isSameAs(dropped);
+        assertThat(pool.get("10.0.0.1:22:ubuntu", opener)).isSameAs(fresh);
+
+        verify(dropped).close();
+        assertThat(registry.get("o11y.ssh.sessions.open").gauge().value()).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("핸드셰이크 중에 invalidate되면 새 세션을 닫고 현재 항목으로 다시 연결한다")
+    void handshakeOvertakenByInvalidateDoesNotLeak() throws Exception {
+        SshConnection orphan = activeConnection();
+        SshConnection fresh = activeConnection();
+        AtomicInteger opens = new AtomicInteger();
+        CountDownLatch opening = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        SshSessionPool.Opener opener =
+                () -> {
+                    if (opens.incrementAndGet() > 1) {
+                        return fresh;
+                    }
+                    opening.countDown();
+                    try {
+                        release.await(5, TimeUnit.SECONDS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    return orphan;
+                };
+
+        CompletableFuture<SshConnection> first =
+                CompletableFuture.supplyAsync(() -> getQuietly("10.0.0.1:22:ubuntu", opener));
+        assertThat(opening.await(5, TimeUnit.SECONDS)).isTrue();
+        pool.invalidate("10.0.0.1:22:ubuntu");
+        release.countDown();
+
+        assertThat(first.get(5, TimeUnit.SECONDS)).isSameAs(fresh);
+        verify(orphan).close();
+        assertThat(pool.get("10.0.0.1:22:ubuntu", opener)).isSameAs(fresh);
+        assertThat(opens).hasValue(2);
+    }
+
+    private SshConnection getQuietly(String key, SshSessionPool.Opener opener) {
+        try {
+            return pool.get(key, opener);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
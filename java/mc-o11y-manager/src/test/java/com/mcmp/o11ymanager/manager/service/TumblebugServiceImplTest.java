@@ -0,0 +1,122 @@
+package com.mcmp.o11ymanager.manager.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mcmp.o11ymanager.manager.dto.tumblebug.TumblebugCmd;
+import com.mcmp.o11ymanager.manager.dto.tumblebug.TumblebugInfra;
+import com.mcmp.o11ymanager.manager.enums.Agent;
+import com.mcmp.o11ymanager.manager.port.TumblebugPort;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+@ExtendWith(MockitoExtension.class)
+class TumblebugServiceImplTest {
+
+    private static final String NS_ID = "ns-1";
+    private static final String INFRA_ID = "mci-1";
+    private static final String NODE_ID = "vm-1";
+
+    @Mock private TumblebugPort tumblebugPort;
+
+    private TumblebugServiceImpl tumblebugService;
+
+    @BeforeEach
+    void setUp() {
+        tumblebugService = new TumblebugServiceImpl(tumblebugPort, new ObjectMapper());
+        ReflectionTestUtils.setField(tumblebugService, "sitecode", "SITE");
+    }
+
+    private void stdout(String output) {
+        TumblebugInfra.Node node = new TumblebugInfra.Node();
+        node.setNodeUserName("cb-user");
+        when(tumblebugPort.getNode(NS_ID, INFRA_ID, NODE_ID)).thenReturn(node);
+        when(tumblebugPort.sendCommand(eq(NS_ID), eq(INFRA_ID), eq(NODE_ID), any()))
+                .thenReturn(Map.of("results", List.of(Map.of("stdout", Map.of("0", output)))));
+    }
+
+    private static Map<String, Object> nodeResult(String nodeId, String output) {
+        return Map.of("nodeId", nodeId, "stdout", Map.of("0", output));
+    }
+
+    @Test
+    @DisplayName("여러 에이전트 상태를 한 번의 systemctl 명령으로 확인한다")
+    void probesAllAgentsWithOneCommand() {
+        stdout("active\ninactive\nactive\n");
+
+        Map<Agent, Boolean> result =
+                tumblebugService.areServicesActive(
+                        NS_ID,
+                        INFRA_ID,
+                        NODE_ID,
+                        List.of(Agent.TELEGRAF, Agent.FLUENT_BIT, Agent.BEYLA));
+
+        assertThat(result)
+                .containsEntry(Agent.TELEGRAF, true)
+                .containsEntry(Agent.FLUENT_BIT, false)
+                .containsEntry(Agent.BEYLA, true);
+        ArgumentCaptor<TumblebugCmd> cmd = ArgumentCaptor.forClass(TumblebugCmd.class);
+        verify(tumblebugPort, times(1))
+                .sendCommand(eq(NS_ID), eq(INFRA_ID), eq(NODE_ID), cmd.capture());
+        assertThat(cmd.getValue().getCommand())
+                .containsExactly(
+                        "systemctl is-active cmp-telegraf-site.service"
+                                + " cmp-fluent-bit-site.service cmp-beyla-site.service");
+    }
+
+    @Test
+    @DisplayName("출력 줄이 모자라면 나머지 에이전트는 비활성으로 본다")
+    void missingLinesAreInactive() {
+        stdout("active");
+
+        Map<Agent, Boolean> result =
+                tumblebugService.areServicesActive(
+                        NS_ID, INFRA_ID, NODE_ID, List.of(Agent.TELEGRAF, Agent.FLUENT_BIT));
+
+        assertThat(result)
+                .containsEntry(Agent.TELEGRAF, true)
+                .containsEntry(Agent.FLUENT_BIT, false);
+    }
+
+    @Test
+    @DisplayName("인프라 명령 한 번의 결과를 노드별로 나누고 요청하지 않은 노드는 버린다")
+    void demultiplexesInfraResults() {
+        when(tumblebugPort.sendCommand(eq(NS_ID), eq(INFRA_ID), isNull(), any()))
+                .thenReturn(
+                        Map.of(
+                                "results",
+                                List.of(
+                                        nodeResult("vm-1", "active\nactive"),
+                                        nodeResult("vm-2", "inactive\nactive"),
+                                        nodeResult("vm-3", "active\nactive"))));
+
+        Map<String, Map<Agent, Boolean>> result =
+                tumblebugService.areServicesActiveOnInfra(
+                        NS_ID,
+                        INFRA_ID,
+                        List.of("vm-1", "vm-2"),
+                        List.of(Agent.TELEGRAF, Agent.FLUENT_BIT));
+
+        assertThat(result).containsOnlyKeys("vm-1", "vm-2");
+        assertThat(result.get("vm-1")).containsEntry(Agent.TELEGRAF, true);
+        assertThat(result.get("vm-2"))
+                .containsEntry(Agent.TELEGRAF, false)
+                .containsEntry(Agent.FLUENT_BIT, true);
+        verify(tumblebugPort, never()).getNode(any(), any(), any());
+    }
+}
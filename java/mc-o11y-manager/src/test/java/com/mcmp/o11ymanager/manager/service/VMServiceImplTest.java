@@ -13,14 +13,18 @@ import com.mcmp.o11ymanager.manager.global.aspect.request.RequestInfo;
 import com.mcmp.o11ymanager.manager.global.error.ResourceNotExistsException;
 import com.mcmp.o11ymanager.manager.model.host.VMAgentTaskStatus;
 import com.mcmp.o11ymanager.manager.repository.VMJpaRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import java.util.Optional;
-import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 @ExtendWith(MockitoExtension.class)
@@ -28,6 +32,7 @@ class VMServiceImplTest {
 
     @Mock private VMJpaRepository vmJpaRepository;
     @Mock private RequestInfo requestInfo;
+    @Spy private LockRegistry lockRegistry = new LockRegistry(new SimpleMeterRegistry());
 
     @InjectMocks private VMServiceImpl vmService;
 
@@ -185,21 +190,58 @@ class VMServiceImplTest {
     class GetHostLockTests {
 
         @Test
-        @DisplayName("동일 키 -> 같은 Lock 인스턴스")
-        void sameKey_sameLock() {
-            ReentrantLock lock1 = vmService.getHostLock(NS_ID, INFRA_ID, NODE_ID);
-            ReentrantLock lock2 = vmService.getHostLock(NS_ID, INFRA_ID, NODE_ID);
+        @DisplayName("동일 키 -> 쓰기 락이 서로 배타적")
+        void sameKey_exclusive() throws Exception {
+            Lock lock1 = vmService.getHostLock(NS_ID, INFRA_ID, NODE_ID);
+            lock1.lock();
+            try {
+                assertThat(tryLockFromOtherThread(vmService.getHostLock(NS_ID, INFRA_ID, NODE_ID)))
+                        .isFalse();
+            } finally {
+                lock1.unlock();
+            }
+        }
 
-            assertThat(lock1).isSameAs(lock2);
+        @Test
+        @DisplayName("다른 키 -> 서로 막지 않음")
+        void differentKey_independent() throws Exception {
+            Lock lock1 = vmService.getHostLock(NS_ID, INFRA_ID, NODE_ID);
+            lock1.lock();
+            try {
+                assertThat(tryLockFromOtherThread(vmService.getHostLock(NS_ID, INFRA_ID, "vm-2")))
+                        .isTrue();
+            } finally {
+                lock1.unlock();
+            }
         }
 
         @Test
-        @DisplayName("다른 키 -> 다른 Lock 인스턴스")
-        void differentKey_differentLock() {
-            ReentrantLock lock1 = vmService.getHostLock(NS_ID, INFRA_ID, NODE_ID);
-            ReentrantLock lock2 = vmService.getHostLock(NS_ID, INFRA_ID, "vm-2");
+        @DisplayName("읽기 락끼리는 서로 막지 않음")
+        void readLocks_shared() throws Exception {
+            Lock read1 = vmService.getHostReadLock(NS_ID, INFRA_ID, NODE_ID);
+            read1.lock();
+            try {
+                assertThat(
+                                tryLockFromOtherThread(
+                                        vmService.getHostReadLock(NS_ID, INFRA_ID, NODE_ID)))
+                        .isTrue();
+                assertThat(tryLockFromOtherThread(vmService.getHostLock(NS_ID, INFRA_ID, NODE_ID)))
+                        .isFalse();
+            } finally {
+                read1.unlock();
+            }
+        }
 
-            assertThat(lock1).isNotSameAs(lock2);
+        private boolean tryLockFromOtherThread(Lock lock) throws Exception {
+            return CompletableFuture.supplyAsync(
+                            () -> {
+                                boolean acquired = lock.tryLock();
+                                if (acquired) {
+                                    lock.unlock();
+                                }
+                                return acquired;
+                            })
+                    .get(5, TimeUnit.SECONDS);
         }
     }
 
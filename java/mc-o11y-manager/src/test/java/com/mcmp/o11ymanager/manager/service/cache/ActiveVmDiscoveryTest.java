@@ -0,0 +1,73 @@
+package com.mcmp.o11ymanager.manager.service.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.mcmp.o11ymanager.manager.config.MonitoringCacheProperties;
+import com.mcmp.o11ymanager.manager.dto.influx.VmRef;
+import com.mcmp.o11ymanager.manager.service.interfaces.InfluxDbService;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class ActiveVmDiscoveryTest {
+
+    private static final VmRef VM_1 = new VmRef("ns-1", "mci-1", "vm-1");
+    private static final VmRef VM_2 = new VmRef("ns-1", "mci-1", "vm-2");
+
+    @Mock private InfluxDbService influxDbService;
+
+    private MonitoringCacheProperties properties;
+    private ActiveVmDiscovery discovery;
+
+    @BeforeEach
+    void setUp() {
+        properties = new MonitoringCacheProperties();
+        discovery = new ActiveVmDiscovery(influxDbService, properties);
+    }
+
+    @Test
+    @DisplayName("갱신 주기 안에서는 InfluxDB 를 다시 조회하지 않는다")
+    void reusesSnapshotWithinInterval() {
+        when(influxDbService.discoverActiveVms("7d")).thenReturn(List.of(VM_1));
+
+        assertThat(discovery.activeVms()).containsExactly(VM_1);
+        assertThat(discovery.activeVms()).containsExactly(VM_1);
+
+        verify(influxDbService, times(1)).discoverActiveVms("7d");
+    }
+
+    @Test
+    @DisplayName("증분 갱신은 짧은 구간의 신규 VM 을 기존 목록에 합친다")
+    void mergesIncrementalResults() {
+        properties.getDiscovery().setRefreshIntervalSeconds(0);
+        when(influxDbService.discoverActiveVms("7d")).thenReturn(List.of(VM_1));
+        when(influxDbService.discoverActiveVms("10m")).thenReturn(List.of(VM_2));
+
+        discovery.activeVms();
+
+        assertThat(discovery.activeVms()).containsExactlyInAnyOrder(VM_1, VM_2);
+        verify(influxDbService, times(1)).discoverActiveVms("7d");
+    }
+
+    @Test
+    @DisplayName("전체 갱신 결과가 비어 있으면 기존 목록을 유지한다")
+    void keepsSnapshotWhenFullRefreshIsEmpty() {
+        properties.getDiscovery().setRefreshIntervalSeconds(0);
+        properties.getDiscovery().setFullRefreshIntervalSeconds(0);
+        when(influxDbService.discoverActiveVms("7d")).thenReturn(List.of(VM_1), List.of());
+
+        discovery.activeVms();
+
+        assertThat(discovery.activeVms()).containsExactly(VM_1);
+        verify(influxDbService, never()).discoverActiveVms("10m");
+    }
+}
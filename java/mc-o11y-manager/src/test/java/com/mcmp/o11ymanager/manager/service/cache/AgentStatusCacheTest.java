@@ -0,0 +1,141 @@
+package com.mcmp.o11ymanager.manager.service.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.mcmp.o11ymanager.manager.config.AgentStatusCacheProperties;
+import com.mcmp.o11ymanager.manager.config.NodeFanOutProperties;
+import com.mcmp.o11ymanager.manager.enums.Agent;
+import com.mcmp.o11ymanager.manager.service.NodeFanOutExecutor;
+import com.mcmp.o11ymanager.manager.service.interfaces.TumblebugService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class AgentStatusCacheTest {
+
+    private static final String NS_ID = "ns-1";
+    private static final String INFRA_ID = "mci-1";
+    private static final List<Agent> AGENTS = List.of(Agent.TELEGRAF, Agent.FLUENT_BIT);
+
+    @Mock private TumblebugService tumblebugService;
+
+    private AgentStatusCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache =
+                new AgentStatusCache(
+                        tumblebugService,
+                        new AgentStatusCacheProperties(),
+                        new NodeFanOutExecutor(
+                                new NodeFanOutProperties(), new SimpleMeterRegistry()));
+        cache.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        cache.shutdown();
+    }
+
+    @Test
+    @DisplayName("한 번 확인한 상태는 다시 원격 명령을 보내지 않고 캐시에서 돌려준다")
+    void servesFromCache() {
+        when(tumblebugService.areServicesActive(NS_ID, INFRA_ID, "vm-1", AGENTS))
+                .thenReturn(Map.of(Agent.TELEGRAF, true, Agent.FLUENT_BIT, false));
+
+        cache.activeStates(NS_ID, INFRA_ID, "vm-1", AGENTS);
+        Map<Agent, Boolean> second = cache.activeStates(NS_ID, INFRA_ID, "vm-1", AGENTS);
+
+        assertThat(second)
+                .containsEntry(Agent.TELEGRAF, true)
+                .containsEntry(Agent.FLUENT_BIT, false);
+        verify(tumblebugService, times(1)).areServicesActive(NS_ID, INFRA_ID, "vm-1", AGENTS);
+    }
+
+    @Test
+    @DisplayName("무효화된 에이전트만 다시 확인한다")
+    void invalidateReprobesOnlyThatAgent() {
+        when(tumblebugService.areServicesActive(NS_ID, INFRA_ID, "vm-1", AGENTS))
+                .thenReturn(Map.of(Agent.TELEGRAF, true, Agent.FLUENT_BIT, true));
+        when(tumblebugService.areServicesActive(
+                        NS_ID, INFRA_ID, "vm-1", List.of(Agent.FLUENT_BIT)))
+                .thenReturn(Map.of(Agent.FLUENT_BIT, false));
+
+        cache.activeStates(NS_ID, INFRA_ID, "vm-1", AGENTS);
+        cache.invalidate(NS_ID, INFRA_ID, "vm-1", Agent.FLUENT_BIT);
+
+        assertThat(cache.activeStates(NS_ID, INFRA_ID, "vm-1", AGENTS))
+                .containsEntry(Agent.TELEGRAF, true)
+                .containsEntry(Agent.FLUENT_BIT, false);
+    }
+
+    @Test
+    @DisplayName("인프라 결과에 없는 노드는 개별 확인하고 실패한 노드는 결과에서 뺀다")
+    void infraProbeFallsBackPerNode() {
+        when(tumblebugService.areServicesActiveOnInfra(
+                        eq(NS_ID), eq(INFRA_ID), anyCollection(), anyCollection()))
+                .thenReturn(Map.of("vm-1", Map.of(Agent.TELEGRAF, true, Agent.FLUENT_BIT, true)));
+        when(tumblebugService.areServicesActive(NS_ID, INFRA_ID, "vm-2", AGENTS))
+                .thenReturn(Map.of(Agent.TELEGRAF, false, Agent.FLUENT_BIT, false));
+        when(tumblebugService.areServicesActive(NS_ID, INFRA_ID, "vm-3", AGENTS))
+                .thenThrow(new RuntimeException("unreachable"));
+
+        Map<String, Map<Agent, Boolean>> result =
+                cache.activeStatesOnInfra(
+                        NS_ID, INFRA_ID, Map.of("vm-1", AGENTS, "vm-2", AGENTS, "vm-3", AGENTS));
+
+        assertThat(result).containsOnlyKeys("vm-1", "vm-2");
+        assertThat(result.get("vm-2")).containsEntry(Agent.TELEGRAF, false);
+
+        // cached now: a second read sends nothing
+        cache.activeStatesOnInfra(NS_ID, INFRA_ID, Map.of("vm-1", AGENTS, "vm-2", AGENTS));
+        verify(tumblebugService, times(1))
+                .areServicesActiveOnInfra(any(), any(), anyCollection(), anyCollection());
+        verify(tumblebugService, never()).areServicesActive(NS_ID, INFRA_ID, "vm-1", AGENTS);
+    }
+
+    @Test
+    @DisplayName("무효화 전에 시작된 확인 결과는 무효화 이후에 캐시에 다시 쓰지 않는다")
+    void probeOvertakenByInvalidateIsDropped() throws Exception {
+        CountDownLatch probing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(tumblebugService.areServicesActive(NS_ID, INFRA_ID, "vm-1", AGENTS))
+                .thenAnswer(
+                        inv -> {
+                            probing.countDown();
+                            release.await(5, TimeUnit.SECONDS);
+                            return Map.of(Agent.TELEGRAF, false, Agent.FLUENT_BIT, false);
+                        })
+                .thenReturn(Map.of(Agent.TELEGRAF, true, Agent.FLUENT_BIT, true));
+
+        CompletableFuture<Map<Agent, Boolean>> before =
+                CompletableFuture.supplyAsync(
+                        () -> cache.activeStates(NS_ID, INFRA_ID, "vm-1", AGENTS));
+        assertThat(probing.await(5, TimeUnit.SECONDS)).isTrue();
+        cache.invalidate(NS_ID, INFRA_ID, "vm-1", Agent.TELEGRAF);
+        release.countDown();
+        before.get(5, TimeUnit.SECONDS);
+
+        assertThat(cache.activeStates(NS_ID, INFRA_ID, "vm-1", AGENTS))
+                .containsEntry(Agent.TELEGRAF, true);
+        verify(tumblebugService, times(2)).areServicesActive(NS_ID, INFRA_ID, "vm-1", AGENTS);
+    }
+}
@@ -0,0 +1,86 @@
+package com.mcmp.o11ymanager.manager.service.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.mcmp.o11ymanager.manager.config.MonitoringCacheProperties;
+import com.mcmp.o11ymanager.manager.dto.influx.VmRef;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class CacheAccessTrackerTest {
+
+    private static final VmRef HOT = new VmRef("ns-1", "mci-1", "vm-hot");
+    private static final VmRef COLD = new VmRef("ns-1", "mci-1", "vm-cold");
+
+    private CacheAccessTracker tracker;
+
+    @BeforeEach
+    void setUp() {
+        tracker = new CacheAccessTracker(new MonitoringCacheProperties());
+        tracker.init();
+    }
+
+    private static MonitoringCacheKey key(VmRef vm, String signature) {
+        return new MonitoringCacheKey(vm.nsId(), vm.infraId(), vm.nodeId(), signature, 0L);
+    }
+
+    @Test
+    @DisplayName("VM 과 요청 모양별 조회 횟수를 센다")
+    void countsPerVmAndSignature() {
+        for (int i = 0; i < 5; i++) {
+            tracker.record(key(HOT, "m=cpu|r=1h"));
+        }
+        tracker.record(key(HOT, "m=mem|r=1h"));
+
+        assertThat(tracker.vmDemand(HOT)).isEqualTo(6);
+        assertThat(tracker.queryDemand(HOT, "m=cpu|r=1h")).isEqualTo(5);
+        assertThat(tracker.queryDemand(HOT, "m=mem|r=1h")).isEqualTo(1);
+        assertThat(tracker.vmDemand(COLD)).isZero();
+    }
+
+    @Test
+    @DisplayName("워머가 untracked 로 실행한 조회는 수요로 세지 않는다")
+    void ignoresUntrackedLookups() {
+        CacheAccessTracker.untracked(
+                () -> {
+                    tracker.record(key(HOT, "m=cpu|r=1h"));
+                    return null;
+                });
+
+        assertThat(tracker.vmDemand(HOT)).isZero();
+
+        tracker.record(key(HOT, "m=cpu|r=1h"));
+        assertThat(tracker.vmDemand(HOT)).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("노드가 없는 MCI 단위 조회는 VM 수요에 포함하지 않는다")
+    void ignoresMciWideLookups() {
+        tracker.record(new MonitoringCacheKey("ns-1", "mci-1", "", "m=cpu|r=1h", 0L));
+
+        assertThat(tracker.vmDemand(new VmRef("ns-1", "mci-1", ""))).isZero();
+    }
+
+    @Test
+    @DisplayName("String.hashCode 가 같은 키도 서로의 횟수에 섞이지 않는다")
+    void separatesKeysWithEqualStringHashCode() {
+        CacheAccessTracker.Sketch sketch = new CacheAccessTracker.Sketch(8192);
+        assertThat("Aa".hashCode()).isEqualTo("BB".hashCode());
+
+        for (int i = 0; i < 5; i++) {
+            sketch.increment("Aa");
+        }
+
+        assertThat(sketch.estimate("Aa")).isEqualTo(5);
+        assertThat(sketch.estimate("BB")).isZero();
+    }
+
+    @Test
+    @DisplayName("스케치 너비는 2의 거듭제곱으로 올림된다")
+    void roundsSketchWidthUpToPowerOfTwo() {
+        assertThat(new CacheAccessTracker.Sketch(8192).width).isEqualTo(8192);
+        assertThat(new CacheAccessTracker.Sketch(5000).width).isEqualTo(8192);
+        assertThat(new CacheAccessTracker.Sketch(1).width).isEqualTo(64);
+    }
+}
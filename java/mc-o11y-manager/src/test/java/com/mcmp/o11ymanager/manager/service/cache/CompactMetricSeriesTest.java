@@ -0,0 +1,73 @@
+package com.mcmp.o11ymanager.manager.service.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.mcmp.o11ymanager.manager.dto.influx.MetricDTO;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class CompactMetricSeriesTest {
+
+    private static List<Object> row(Object... cells) {
+        return new ArrayList<>(Arrays.asList(cells));
+    }
+
+    @Test
+    @DisplayName("숫자/시간/null 값이 원래 모양 그대로 복원된다")
+    void roundTripsValues() {
+        List<List<Object>> values = new ArrayList<>();
+        values.add(row("2026-01-01T00:01:00Z", 1.5d, "a"));
+        values.add(row("2026-01-01T00:00:00.123Z", null, "b"));
+        MetricDTO original =
+                new MetricDTO(
+                        "cpu",
+                        List.of("timestamp", "usage_idle", "host"),
+                        Map.of("cpu", "cpu-total"),
+                        values);
+
+        MetricDTO restored = CompactMetricSeries.of(original).toDTO();
+
+        assertThat(restored.name()).isEqualTo("cpu");
+        assertThat(restored.columns()).isEqualTo(original.columns());
+        assertThat(restored.tags()).isEqualTo(original.tags());
+        assertThat(restored.values()).isEqualTo(values);
+    }
+
+    @Test
+    @DisplayName("Instant 로 다시 쓰면 모양이 바뀌는 시각 문자열은 원문을 유지한다")
+    void keepsNonCanonicalTimestamps() {
+        List<List<Object>> values = new ArrayList<>();
+        // InfluxDB trims trailing zeros; Instant.toString() would print ".100Z"
+        values.add(row("2026-01-01T00:00:00.1Z", 1.0d));
+        MetricDTO original = new MetricDTO("cpu", List.of("timestamp", "v"), Map.of(), values);
+
+        assertThat(CompactMetricSeries.of(original).toDTO().values()).isEqualTo(values);
+    }
+
+    @Test
+    @DisplayName("values 가 null 인 시리즈는 빈 배열이 아닌 null 로 복원된다")
+    void keepsNullValues() {
+        MetricDTO original = new MetricDTO("cpu", List.of("timestamp"), Map.of(), null);
+        MetricDTO empty = new MetricDTO("cpu", List.of("timestamp"), Map.of(), List.of());
+
+        assertThat(CompactMetricSeries.of(original).toDTO().values()).isNull();
+        assertThat(CompactMetricSeries.of(empty).toDTO().values()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("같은 태그 맵은 하나의 인스턴스로 공유된다")
+    void internsTags() {
+        MetricDTO a =
+                new MetricDTO("cpu", List.of("timestamp"), new HashMap<>(Map.of("k", "v")), null);
+        MetricDTO b =
+                new MetricDTO("mem", List.of("timestamp"), new HashMap<>(Map.of("k", "v")), null);
+
+        assertThat(CompactMetricSeries.of(a).toDTO().tags())
+                .isSameAs(CompactMetricSeries.of(b).toDTO().tags());
+    }
+}
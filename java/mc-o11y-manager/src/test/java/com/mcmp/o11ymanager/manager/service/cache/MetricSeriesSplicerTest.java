@@ -0,0 +1,120 @@
+package com.mcmp.o11ymanager.manager.service.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.mcmp.o11ymanager.manager.dto.influx.MetricDTO;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+class MetricSeriesSplicerTest {
+
+    private static final List<String> COLUMNS = List.of("timestamp", "usage_idle");
+    private static final Map<String, String> TAGS = Map.of("cpu", "cpu-total");
+
+    private static MetricDTO series(String... times) {
+        List<List<Object>> rows = new ArrayList<>();
+        for (String t : times) {
+            rows.add(List.of(t, 1.0));
+        }
+        return new MetricDTO("cpu", COLUMNS, TAGS, rows);
+    }
+
+    private static List<Object> timesOf(MetricDTO m) {
+        return m.values().stream().map(r -> r.get(0)).toList();
+    }
+
+    @Nested
+    @DisplayName("newestTimestamp")
+    class NewestTimestamp {
+
+        @Test
+        @DisplayName("모든 시리즈 중 가장 최신 시각을 반환한다")
+        void returnsNewest() {
+            List<MetricDTO> cached =
+                    List.of(
+                            series("2026-01-01T00:58:00Z", "2026-01-01T00:57:00Z"),
+                            series("2026-01-01T00:59:00Z"));
+
+            assertThat(MetricSeriesSplicer.newestTimestamp(cached))
+                    .contains(Instant.parse("2026-01-01T00:59:00Z"));
+        }
+
+        @Test
+        @DisplayName("시간 컬럼이 없으면 증분 갱신 대상이 아니다")
+        void noTimeColumn() {
+            MetricDTO m = new MetricDTO("cpu", List.of("value"), TAGS, List.of(List.of(1.0)));
+
+            assertThat(MetricSeriesSplicer.newestTimestamp(List.of(m))).isEmpty();
+        }
+    }
+
+    @Nested
+    @DisplayName("splice")
+    class Splice {
+
+        @Test
+        @DisplayName("since 이후는 새 조회 결과로 교체하고 범위를 벗어난 앞부분은 잘라낸다")
+        void replacesTailAndTrimsHead() {
+            MetricDTO cached =
+                    series("2026-01-01T01:00:00Z", "2026-01-01T00:59:00Z", "2026-01-01T00:00:00Z");
+            MetricDTO delta = series("2026-01-01T01:01:00Z", "2026-01-01T01:00:00Z");
+
+            List<MetricDTO> out =
+                    MetricSeriesSplicer.splice(
+                            List.of(cached),
+                            List.of(delta),
+                            Instant.parse("2026-01-01T01:00:00Z"),
+                            Instant.parse("2026-01-01T00:01:00Z"),
+                            null);
+
+            assertThat(out).hasSize(1);
+            assertThat(timesOf(out.get(0)))
+                    .containsExactly(
+                            "2026-01-01T01:01:00Z", "2026-01-01T01:00:00Z", "2026-01-01T00:59:00Z");
+        }
+
+        @Test
+        @DisplayName("새로 나타난 시리즈는 결과에 추가된다")
+        void addsNewSeries() {
+            MetricDTO other =
+                    new MetricDTO(
+                            "cpu",
+                            COLUMNS,
+                            Map.of("cpu", "cpu0"),
+                            List.of(List.of("2026-01-01T01:01:00Z", 2.0)));
+
+            List<MetricDTO> out =
+                    MetricSeriesSplicer.splice(
+                            List.of(series("2026-01-01T01:00:00Z")),
+                            List.of(other),
+                            Instant.parse("2026-01-01T01:00:00Z"),
+                            Instant.parse("2026-01-01T00:00:00Z"),
+                            null);
+
+            assertThat(out).hasSize(2);
+            assertThat(out.get(1).tags()).containsEntry("cpu", "cpu0");
+        }
+
+        @Test
+        @DisplayName("LIMIT 으로 잘린 캐시는 범위를 다시 채울 수 없으므로 거부한다")
+        void rejectsTruncatedCache() {
+            MetricDTO cached = series("2026-01-01T01:00:00Z", "2026-01-01T00:59:00Z");
+
+            assertThatThrownBy(
+                            () ->
+                                    MetricSeriesSplicer.splice(
+                                            List.of(cached),
+                                            List.of(),
+                                            Instant.parse("2026-01-01T01:00:00Z"),
+                                            Instant.parse("2026-01-01T00:00:00Z"),
+                                            2L))
+                    .isInstanceOf(IllegalStateException.class);
+        }
+    }
+}
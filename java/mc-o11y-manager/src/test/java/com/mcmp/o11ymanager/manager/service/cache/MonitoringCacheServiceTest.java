@@ -0,0 +1,261 @@
+package com.mcmp.o11ymanager.manager.service.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.lenient;
+
+import com.mcmp.o11ymanager.manager.config.MonitoringCacheProperties;
+import com.mcmp.o11ymanager.manager.dto.influx.MetricDTO;
+import com.mcmp.o11ymanager.manager.dto.influx.MetricRequestDTO;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class MonitoringCacheServiceTest {
+
+    @Mock private VmCreatedTimeResolver vmCreatedTimeResolver;
+
+    private MonitoringCacheService service;
+    private ExecutorService pool;
+
+    private static final String NS_ID = "ns-1";
+    private static final String INFRA_ID = "mci-1";
+    private static final String NODE_ID = "vm-1";
+
+    @BeforeEach
+    void setUp() {
+        lenient()
+                .when(vmCreatedTimeResolver.resolve(any(), any(), any()))
+                .thenReturn(Optional.empty());
+        MonitoringCacheProperties properties = new MonitoringCacheProperties();
+        CacheAccessTracker accessTracker = new CacheAccessTracker(properties);
+        accessTracker.init();
+        service = new MonitoringCacheService(properties, vmCreatedTimeResolver, accessTracker);
+        service.init();
+        pool = Executors.newFixedThreadPool(8);
+    }
+
+    @AfterEach
+    void tearDown() {
+        pool.shutdownNow();
+    }
+
+    private static MetricRequestDTO request() {
+        MetricRequestDTO req = new MetricRequestDTO();
+        req.setMeasurement("cpu");
+        req.setRange("1h");
+        req.setGroupTime("1m");
+        return req;
+    }
+
+    private static List<MetricDTO> onePoint() {
+        List<List<Object>> values = new ArrayList<>();
+        values.add(List.of("2026-01-01T00:00:00Z", 1.0d));
+        return List.of(new MetricDTO("cpu", List.of("time", "usage_idle"), Map.of(), values));
+    }
+
+    @Nested
+    @DisplayName("getOrLoad() single-flight")
+    class SingleFlightTests {
+
+        @Test
+        @DisplayName("동일 키 동시 요청 -> loader 1회만 실행")
+        void concurrentMisses_shareOneLoad() throws Exception {
+            AtomicInteger loads = new AtomicInteger();
+            CountDownLatch entered = new CountDownLatch(1);
+            CountDownLatch release = new CountDownLatch(1);
+            int callers = 8;
+
+            List<CompletableFuture<List<MetricDTO>>> futures = new ArrayList<>();
+            for (int i = 0; i < callers; i++) {
+                futures.add(
+                        CompletableFuture.supplyAsync(
+                                () ->
+                                        service.getOrLoad(
+                                                NS_ID,
+                                                INFRA_ID,
+                                                NODE_ID,
+                                                request(),
+                                                () -> {
+                                                    loads.incrementAndGet();
+                                                    entered.countDown();
+                                                    await(release);
+                                                    return onePoint();
+                                                }),
+                                pool));
+            }
+            // hold the single load until every other caller has joined it
+            assertThat(entered.await(5, TimeUnit.SECONDS)).isTrue();
+            awaitCoalesced(callers - 1);
+            release.countDown();
+
+            for (CompletableFuture<List<MetricDTO>> f : futures) {
+                assertThat(f.get(5, TimeUnit.SECONDS)).hasSize(1);
+            }
+            assertThat(loads.get()).isEqualTo(1);
+            assertThat((Long) service.stats().get("coalescedCount"))
+                    .isEqualTo((long) callers - 1);
+        }
+
+        @Test
+        @DisplayName("loader 예외 -> 호출자에게 원래 예외 전파, 이후 재시도 가능")
+        void loaderFailure_propagatesAndDoesNotStick() {
+            assertThatThrownBy(
+                            () ->
+                                    service.getOrLoad(
+                                            NS_ID,
+                                            INFRA_ID,
+                                            NODE_ID,
+                                            request(),
+                                            () -> {
+                                                throw new IllegalArgumentException("bad ns");
+                                            }))
+                    .isInstanceOf(IllegalArgumentException.class);
+
+            List<MetricDTO> loaded =
+                    service.getOrLoad(NS_ID, INFRA_ID, NODE_ID, request(), () -> onePoint());
+            assertThat(loaded).hasSize(1);
+            assertThat((Integer) service.stats().get("inFlightLoads")).isZero();
+        }
+    }
+
+    @Nested
+    @DisplayName("getOrLoadAll() batch")
+    class BatchTests {
+
+        @Test
+        @DisplayName("다른 호출자가 로딩 중인 키는 배치 조회에서 빼고 그 결과를 기다린다")
+        void batchCoalescesWithInFlightSingleLoad() throws Exception {
+            CountDownLatch entered = new CountDownLatch(1);
+            CountDownLatch release = new CountDownLatch(1);
+            CompletableFuture<List<MetricDTO>> single =
+                    CompletableFuture.supplyAsync(
+                            () ->
+                                    service.getOrLoad(
+                                            NS_ID,
+                                            INFRA_ID,
+                                            NODE_ID,
+                                            request(),
+                                            () -> {
+                                                entered.countDown();
+                                                await(release);
+                                                return onePoint();
+                                            }),
+                            pool);
+            assertThat(entered.await(5, TimeUnit.SECONDS)).isTrue();
+
+            MetricRequestDTO mem = request();
+            mem.setMeasurement("mem");
+            List<List<MetricRequestDTO>> batches = new ArrayList<>();
+            CompletableFuture<List<List<MetricDTO>>> batch =
+                    CompletableFuture.supplyAsync(
+                            () ->
+                                    service.getOrLoadAll(
+                                            NS_ID,
+                                            INFRA_ID,
+                                            NODE_ID,
+                                            List.of(request(), mem),
+                                            reqs -> {
+                                                batches.add(reqs);
+                                                return List.of(onePoint());
+                                            },
+                                            null),
+                            pool);
+            release.countDown();
+
+            assertThat(batch.get(5, TimeUnit.SECONDS)).hasSize(2).allMatch(r -> r.size() == 1);
+            assertThat(single.get(5, TimeUnit.SECONDS)).hasSize(1);
+            assertThat(batches).singleElement().satisfies(reqs -> assertThat(reqs).hasSize(1));
+            assertThat(batches.get(0).get(0).getMeasurement()).isEqualTo("mem");
+            assertThat((Integer) service.stats().get("inFlightLoads")).isZero();
+        }
+    }
+
+    @Nested
+    @DisplayName("refresh() incremental")
+    class RefreshTests {
+
+        /** One cpu series with a point per time, newest first as InfluxQl orders them. */
+        private List<MetricDTO> points(Instant... newestFirst) {
+            List<List<Object>> values = new ArrayList<>();
+            for (Instant t : newestFirst) {
+                values.add(List.of(t.toString(), 1.0d));
+            }
+            return List.of(new MetricDTO("cpu", List.of("time", "usage_idle"), Map.of(), values));
+        }
+
+        @Test
+        @DisplayName("현재 버킷에 캐시된 결과는 마지막 시각 이후만 조회해 이어 붙인다")
+        void refreshExtendsCurrentEntry() {
+            Instant first =
+                    Instant.now().truncatedTo(ChronoUnit.MINUTES).minus(2, ChronoUnit.MINUTES);
+            Instant next = first.plus(1, ChronoUnit.MINUTES);
+            service.getOrLoad(NS_ID, INFRA_ID, NODE_ID, request(), () -> points(first));
+
+            List<Instant> since = new ArrayList<>();
+            List<MetricDTO> refreshed =
+                    service.refresh(
+                            NS_ID,
+                            INFRA_ID,
+                            NODE_ID,
+                            request(),
+                            () -> {
+                                throw new AssertionError("full reload");
+                            },
+                            t -> {
+                                since.add(t);
+                                // time >= since: the newest cached point comes back too
+                                return points(next, first);
+                            });
+
+            assertThat(since).containsExactly(first);
+            assertThat(refreshed).singleElement().satisfies(m -> assertThat(m.values()).hasSize(2));
+            List<MetricDTO> cached =
+                    service.getOrLoad(
+                            NS_ID,
+                            INFRA_ID,
+                            NODE_ID,
+                            request(),
+                            () -> {
+                                throw new AssertionError("full reload");
+                            });
+            assertThat(cached.get(0).values()).hasSize(2);
+        }
+    }
+
+    private void awaitCoalesced(long expected) {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while ((Long) service.stats().get("coalescedCount") < expected
+                && System.nanoTime() < deadline) {
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(1));
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
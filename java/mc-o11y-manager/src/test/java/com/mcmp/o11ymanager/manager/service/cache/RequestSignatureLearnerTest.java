@@ -0,0 +1,133 @@
+package com.mcmp.o11ymanager.manager.service.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mcmp.o11ymanager.manager.config.MonitoringCacheProperties;
+import com.mcmp.o11ymanager.manager.dto.influx.MetricRequestDTO;
+import com.mcmp.o11ymanager.manager.dto.influx.VmRef;
+import com.mcmp.o11ymanager.manager.entity.LearnedSignatureEntity;
+import com.mcmp.o11ymanager.manager.repository.LearnedSignatureJpaRepository;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class RequestSignatureLearnerTest {
+
+    private static final VmRef VM = new VmRef("ns-1", "mci-1", "vm-1");
+
+    @Mock private CacheAccessTracker accessTracker;
+    @Mock private LearnedSignatureJpaRepository repository;
+
+    private MonitoringCacheProperties properties;
+    private RequestSignatureLearner learner;
+
+    @BeforeEach
+    void setUp() {
+        properties = new MonitoringCacheProperties();
+        lenient().when(accessTracker.queryDemand(any(), anyString())).thenReturn(0);
+        learner = newLearner();
+    }
+
+    private RequestSignatureLearner newLearner() {
+        return new RequestSignatureLearner(
+                properties, accessTracker, repository, new ObjectMapper());
+    }
+
+    private static MetricRequestDTO request(String measurement, String field, String nodeId) {
+        MetricRequestDTO req = new MetricRequestDTO();
+        req.setMeasurement(measurement);
+        req.setRange("1h");
+        req.setGroupTime("1m");
+        MetricRequestDTO.FieldInfo f = new MetricRequestDTO.FieldInfo();
+        f.setFunction("mean");
+        f.setField(field);
+        req.setFields(new ArrayList<>(List.of(f)));
+        MetricRequestDTO.ConditionInfo c = new MetricRequestDTO.ConditionInfo();
+        c.setKey("node_id");
+        c.setValue(nodeId);
+        req.setConditions(new ArrayList<>(List.of(c)));
+        return req;
+    }
+
+    @Test
+    @DisplayName("노드 조건만 다른 요청은 하나의 모양으로 학습되고 노드 조건은 제거된다")
+    void stripsKeyConditionsAndDeduplicates() {
+        learner.observe(request("cpu", "usage_idle", "vm-1"));
+        learner.observe(request("cpu", "usage_idle", "vm-2"));
+
+        List<MetricRequestDTO> learned = learner.requestsFor(VM, r -> true, 10);
+
+        assertThat(learned).hasSize(1);
+        assertThat(learned.get(0).getMeasurement()).isEqualTo("cpu");
+        assertThat(learned.get(0).getConditions()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("VM 별 수요가 높은 모양을 먼저 돌려주고 매번 새 복사본을 준다")
+    void ranksByVmDemandAndReturnsCopies() {
+        learner.observe(request("cpu", "usage_idle", "vm-1"));
+        learner.observe(request("cpu", "usage_idle", "vm-1"));
+        learner.observe(request("mem", "used_percent", "vm-1"));
+        String memSignature =
+                MonitoringCacheKey.signatureOf(
+                        RequestSignatureLearner.templateOf(request("mem", "used_percent", "x")));
+        when(accessTracker.queryDemand(eq(VM), eq(memSignature))).thenReturn(5);
+
+        List<MetricRequestDTO> first = learner.requestsFor(VM, r -> true, 1);
+        first.get(0).getConditions().add(new MetricRequestDTO.ConditionInfo());
+
+        assertThat(first.get(0).getMeasurement()).isEqualTo("mem");
+        assertThat(learner.requestsFor(VM, r -> true, 1).get(0).getConditions()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("최대 개수를 넘으면 가장 적게 요청된 모양을 버린다")
+    void evictsLeastRequested() {
+        properties.getLearning().setMaxSignatures(2);
+        learner.observe(request("cpu", "usage_idle", "vm-1"));
+        learner.observe(request("cpu", "usage_idle", "vm-1"));
+        learner.observe(request("mem", "used_percent", "vm-1"));
+        learner.observe(request("disk", "used_percent", "vm-1"));
+
+        assertThat(learner.requestsFor(VM, r -> true, 10))
+                .extracting(MetricRequestDTO::getMeasurement)
+                .containsExactlyInAnyOrder("cpu", "disk");
+    }
+
+    @Test
+    @DisplayName("저장한 모양은 재시작 후 다시 불러온다")
+    @SuppressWarnings("unchecked")
+    void persistsAndReloads() {
+        learner.observe(request("cpu", "usage_idle", "vm-1"));
+        learner.persist();
+
+        ArgumentCaptor<List<LearnedSignatureEntity>> saved = ArgumentCaptor.forClass(List.class);
+        verify(repository).saveAll(saved.capture());
+        when(repository.findAll()).thenReturn(saved.getValue());
+
+        RequestSignatureLearner restarted = newLearner();
+        restarted.load();
+
+        assertThat(restarted.requestsFor(VM, r -> true, 10))
+                .singleElement()
+                .satisfies(
+                        r -> {
+                            assertThat(r.getMeasurement()).isEqualTo("cpu");
+                            assertThat(r.getFields().get(0).getField()).isEqualTo("usage_idle");
+                        });
+    }
+}
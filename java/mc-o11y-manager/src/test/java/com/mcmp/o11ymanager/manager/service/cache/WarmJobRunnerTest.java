@@ -0,0 +1,197 @@
+package com.mcmp.o11ymanager.manager.service.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.mcmp.o11ymanager.manager.config.WarmRunnerProperties;
+import com.mcmp.o11ymanager.manager.service.cache.WarmJobRunner.Downstream;
+import com.mcmp.o11ymanager.manager.service.cache.WarmJobRunner.RunResult;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class WarmJobRunnerTest {
+
+    private static final String CRON = "0 * * * * *";
+
+    private SimpleMeterRegistry registry;
+    private WarmRunnerProperties properties;
+    private WarmJobRunner runner;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        properties = new WarmRunnerProperties();
+        runner = new WarmJobRunner(properties, registry);
+        runner.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        runner.shutdown();
+    }
+
+    private static List<Runnable> tasks(int n, Runnable body) {
+        List<Runnable> out = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            out.add(body);
+        }
+        return out;
+    }
+
+    @Test
+    @DisplayName("예산을 넘는 작업은 실행하지 않고 건너뛴 것으로 센다")
+    void enforcesBudget() {
+        AtomicInteger ran = new AtomicInteger();
+
+        RunResult result =
+                runner.run("job", CRON, Downstream.INFLUX, 4, 3, tasks(10, ran::incrementAndGet));
+
+        assertThat(ran.get()).isEqualTo(3);
+        assertThat(result.ok()).isEqualTo(3);
+        assertThat(result.dropped()).isEqualTo(7);
+        assertThat(
+                        registry.get("o11y.cache.warm.tasks")
+                                .tag("outcome", "skipped")
+                                .counter()
+                                .count())
+                .isEqualTo(7d);
+    }
+
+    @Test
+    @DisplayName("예외를 던진 작업은 실패로 센다")
+    void countsFailures() {
+        RunResult result =
+                runner.run(
+                        "job",
+                        CRON,
+                        Downstream.INFLUX,
+                        4,
+                        0,
+                        tasks(
+                                2,
+                                () -> {
+                                    throw new IllegalStateException("boom");
+                                }));
+
+        assertThat(result.failed()).isEqualTo(2);
+        assertThat(result.ok()).isZero();
+    }
+
+    @Test
+    @DisplayName("이전 실행이 끝나지 않았으면 같은 작업의 다음 실행은 건너뛴다")
+    void skipsOverlappingRun() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<RunResult> first =
+                CompletableFuture.supplyAsync(
+                        () ->
+                                runner.run(
+                                        "job",
+                                        CRON,
+                                        Downstream.INFLUX,
+                                        1,
+                                        0,
+                                        tasks(
+                                                1,
+                                                () -> {
+                                                    started.countDown();
+                                                    awaitQuietly(release);
+                                                })));
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+
+        RunResult second = runner.run("job", CRON, Downstream.INFLUX, 1, 0, tasks(1, () -> {}));
+        release.countDown();
+
+        assertThat(second.skipped()).isTrue();
+        assertThat(first.get(5, TimeUnit.SECONDS).ok()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("실행 중인 스레드가 중단되면 대기 중인 작업은 버리고 실행 중인 작업은 중단한다")
+    void interruptCancelsDispatchedTasks() throws Exception {
+        runner.shutdown();
+        properties.setThreads(1);
+        runner = new WarmJobRunner(properties, registry);
+        runner.init();
+
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch interrupted = new CountDownLatch(1);
+        AtomicInteger ran = new AtomicInteger();
+        AtomicReference<RunResult> result = new AtomicReference<>();
+        Thread caller =
+                new Thread(
+                        () ->
+                                result.set(
+                                        runner.run(
+                                                "job",
+                                                CRON,
+                                                Downstream.INFLUX,
+                                                4,
+                                                0,
+                                                tasks(
+                                                        3,
+                                                        () -> {
+                                                            ran.incrementAndGet();
+                                                            started.countDown();
+                                                            try {
+                                                                new CountDownLatch(1).await();
+                                                            } catch (InterruptedException e) {
+                                                                interrupted.countDown();
+                                                            }
+                                                        }))));
+        caller.start();
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+
+        caller.interrupt();
+        caller.join(5_000L);
+
+        assertThat(interrupted.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(result.get().dropped()).isEqualTo(2);
+        assertThat(ran.get()).isEqualTo(1);
+        assertThat(runner.run("job", CRON, Downstream.INFLUX, 4, 0, tasks(1, () -> {})).ok())
+                .isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("실행 마감은 작업의 cron 주기에서 여유분을 뺀 값이고, 작업별 설정이 우선한다")
+    void deadlineFollowsJobSchedule() {
+        properties.getJobMaxRunSeconds().put("csp-longrange", 120L);
+
+        assertThat(runner.maxRunSeconds("monitoring-realtime", "0 * * * * *")).isEqualTo(50L);
+        assertThat(runner.maxRunSeconds("monitoring-longrange", "0 5 * * * *")).isEqualTo(3590L);
+        assertThat(runner.maxRunSeconds("csp-longrange", "0 */5 * * * *")).isEqualTo(120L);
+        assertThat(runner.maxRunSeconds("broken", "not a cron")).isEqualTo(50L);
+    }
+
+    @Test
+    @DisplayName("실패하면 동시 실행 한도를 절반으로 줄이고 성공하면 천천히 늘린다")
+    void aimdLimit() {
+        WarmJobRunner.AimdLimit limit =
+                new WarmJobRunner.AimdLimit(new WarmRunnerProperties.Limit(8, 1, 16, 1_000L));
+
+        limit.release(TimeUnit.MILLISECONDS.toNanos(10), false);
+        assertThat(limit.current()).isEqualTo(4d);
+
+        for (int i = 0; i < 4; i++) {
+            limit.release(TimeUnit.MILLISECONDS.toNanos(10), true);
+        }
+        assertThat(limit.current()).isBetween(4.9d, 5.1d);
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}